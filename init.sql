@@ -116,7 +116,7 @@ CREATE TABLE `ai_analysis`
 CREATE TABLE `word`
 (
     `id`                BIGINT PRIMARY KEY AUTO_INCREMENT,
-    `user_id`           BIGINT       NOT NULL,
+    `user_ids`          TEXT         NULL COMMENT '使用该单词的用户ID（逗号分隔，已由user_word取代，仅迁移期间双写）',
     `word`              VARCHAR(100) NOT NULL COMMENT '单词',
     `meaning`           VARCHAR(500) COMMENT '释义',
     `example`           TEXT COMMENT '例句',
@@ -129,9 +129,9 @@ CREATE TABLE `word`
     `added_at`          DATETIME    DEFAULT CURRENT_TIMESTAMP,
     `phonetic`          VARCHAR(50) COMMENT '音标',
     `difficulty`        VARCHAR(10) COMMENT '难度等级：A1/A2/B1/B2/C1/C2',
-    UNIQUE KEY `uk_user_word_context` (`user_id`, `word`, `context`) -- 同一单词不同上下文可存多条
+    UNIQUE KEY `uk_word` (`word`)
 ) ENGINE = InnoDB
-  DEFAULT CHARSET = utf8mb4;
+  DEFAULT CHARSET = utf8mb4 COMMENT ='共享词库（每个单词一行，用户归属见 user_word）';
 
 
 CREATE TABLE `reading_log`
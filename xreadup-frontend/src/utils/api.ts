@@ -335,8 +335,8 @@ export const learningApi = {
   },
 
   // 设置单词为不再巩固 - 统一到 report-service
-  setWordAsNoLongerReview: (wordId: number) => {
-    return api.post(`/api/report/no-longer-review/${wordId}`);
+  setWordAsNoLongerReview: (userId: string, wordId: number) => {
+    return api.post(`/api/report/no-longer-review/${wordId}?userId=${userId}`);
   },
 
   // 获取学习周报
@@ -361,13 +361,13 @@ export const reportApi = {
   getReadingTime: (userId: string, days: number = 7) => api.get(`/api/report/reading-time?userId=${userId}&days=${days}`),
 
   // 设置单词为不再巩固
-  setWordAsNoLongerReview: (wordId: string | number) => {
+  setWordAsNoLongerReview: (userId: string, wordId: string | number) => {
     const numericWordId = typeof wordId === 'string' ? parseInt(wordId, 10) : wordId;
     if (isNaN(numericWordId)) {
       console.error(`API调用 - setWordAsNoLongerReview: 无效的wordId格式: ${wordId}`);
       return Promise.reject(new Error('无效的单词ID'));
     }
-    return api.post(`/api/report/no-longer-review/${numericWordId}`);
+    return api.post(`/api/report/no-longer-review/${numericWordId}?userId=${userId}`);
   },
 
   // 获取历史数据
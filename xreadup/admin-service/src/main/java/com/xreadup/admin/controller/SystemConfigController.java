@@ -28,6 +28,12 @@ public class SystemConfigController {
     
     private static final Logger logger = LoggerFactory.getLogger(SystemConfigController.class);
     
+    // 内部接口允许读取的配置键前缀
+    private static final List<String> INTERNAL_CONFIG_PREFIXES = List.of("content_filter.", "features.");
+    
+    // 内部配置快照包含的配置键前缀（功能开关、业务限制、维护模式）
+    private static final List<String> INTERNAL_SNAPSHOT_PREFIXES = List.of("features.", "limits.", "maintenance.");
+    
     @Autowired
     private SystemConfigService systemConfigService;
     
@@ -109,6 +115,49 @@ public class SystemConfigController {
         }
     }
     
+    /**
+     * 内部接口：根据配置键获取配置值（无需认证）
+     * 供文章服务、AI服务等拉取运行时配置，仅开放白名单前缀下的配置键
+     * 
+     * @param configKey 配置键
+     * @return 配置值
+     */
+    @GetMapping("/internal/value/{configKey}")
+    @Operation(summary = "内部接口：获取配置值", description = "供内部服务拉取运行时配置，仅开放白名单前缀的配置键")
+    public ApiResponse<String> getConfigValueInternal(
+            @Parameter(description = "配置键", required = true)
+            @PathVariable String configKey) {
+        if (INTERNAL_CONFIG_PREFIXES.stream().noneMatch(configKey::startsWith)) {
+            logger.warn("内部调用：拒绝读取非开放配置: configKey={}", configKey);
+            return ApiResponse.fail(403, "该配置不允许内部读取");
+        }
+        try {
+            logger.debug("内部调用：获取配置值: configKey={}", configKey);
+            return ApiResponse.success(systemConfigService.getConfigValue(configKey));
+        } catch (Exception e) {
+            logger.error("内部调用：获取配置值失败: configKey={}", configKey, e);
+            return ApiResponse.fail(500, "获取配置值失败");
+        }
+    }
+    
+    /**
+     * 内部接口：批量获取功能开关、业务限制与维护模式配置（无需认证）
+     * 供各服务一次加载全部运行时开关并缓存在本地，配置变更时通过 Redis 频道通知刷新
+     * 
+     * @return 配置键 -> 配置值
+     */
+    @GetMapping("/internal/snapshot")
+    @Operation(summary = "内部接口：获取配置快照", description = "一次返回全部功能开关、业务限制与维护模式配置")
+    public ApiResponse<Map<String, String>> getConfigSnapshotInternal() {
+        try {
+            logger.debug("内部调用：获取配置快照");
+            return ApiResponse.success(systemConfigService.getConfigValuesByPrefixes(INTERNAL_SNAPSHOT_PREFIXES));
+        } catch (Exception e) {
+            logger.error("内部调用：获取配置快照失败", e);
+            return ApiResponse.fail(500, "获取配置快照失败");
+        }
+    }
+    
     /**
      * 更新单个配置
      * 
@@ -2,6 +2,7 @@ package com.xreadup.admin.interceptor;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.xreadup.admin.dto.ApiResponse;
+import com.xreadup.admin.util.AdminSession;
 import com.xreadup.admin.util.AdminTokenManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -71,17 +72,17 @@ public class AdminAuthInterceptor implements HandlerInterceptor {
         String userAgent = request.getHeader("User-Agent");
         
         // 验证token是否有效，同时检查环境一致性
-        boolean isValid = adminTokenManager.validateTokenWithEnvironment(token, clientIp, userAgent);
-        if (!isValid) {
+        AdminSession session = adminTokenManager.getSessionWithEnvironment(token, clientIp, userAgent);
+        if (session == null) {
             logger.warn("管理员token无效或已过期: {}, IP={}, User-Agent={}", requestUri, clientIp, userAgent);
             sendUnauthorizedResponse(response, "管理员token无效或已过期");
             return false;
         }
         
         // token有效，将用户信息存入请求属性中，方便后续接口使用
-        Long userId = adminTokenManager.getUserIdByToken(token);
-        String role = adminTokenManager.getRoleByToken(token);
-        boolean isSuperAdmin = adminTokenManager.isSuperAdminByToken(token);
+        Long userId = session.getUserId();
+        String role = session.getRole();
+        boolean isSuperAdmin = session.isSuperAdmin();
         
         request.setAttribute("adminUserId", userId);
         request.setAttribute("adminRole", role);
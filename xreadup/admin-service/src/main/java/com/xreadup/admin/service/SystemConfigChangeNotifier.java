@@ -0,0 +1,68 @@
+package com.xreadup.admin.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+
+/**
+ * 系统配置变更通知
+ * <p>
+ * 配置更新提交后向 Redis 频道发布变更的配置键（逗号分隔），
+ * 各服务收到后立即刷新本地配置快照；发布失败时各服务按轮询周期刷新。
+ * </p>
+ * 
+ * @author XReadUp
+ * @since 2025-10-12
+ */
+@Component
+public class SystemConfigChangeNotifier {
+    
+    private static final Logger logger = LoggerFactory.getLogger(SystemConfigChangeNotifier.class);
+    
+    /**
+     * 配置变更频道，与各服务的订阅方保持一致
+     */
+    public static final String CHANNEL = "system-config:changed";
+    
+    private final StringRedisTemplate redisTemplate;
+    
+    public SystemConfigChangeNotifier(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+    
+    /**
+     * 发布配置变更；处于事务中时在事务提交后发布，避免订阅方读到未提交的旧值
+     * 
+     * @param configKeys 变更的配置键
+     */
+    public void publish(Collection<String> configKeys) {
+        if (configKeys == null || configKeys.isEmpty()) {
+            return;
+        }
+        String message = String.join(",", configKeys);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(message);
+                }
+            });
+        } else {
+            send(message);
+        }
+    }
+    
+    private void send(String message) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, message);
+            logger.info("已发布配置变更通知: {}", message);
+        } catch (Exception e) {
+            logger.warn("发布配置变更通知失败，各服务将按轮询周期刷新: {}", e.getMessage());
+        }
+    }
+}
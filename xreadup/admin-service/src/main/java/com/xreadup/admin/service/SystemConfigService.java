@@ -64,6 +64,14 @@ public interface SystemConfigService {
      */
     Integer getIntegerConfigValue(String configKey, Integer defaultValue);
     
+    /**
+     * 批量获取指定前缀下的配置值
+     * 
+     * @param prefixes 配置键前缀
+     * @return 配置键 -> 配置值
+     */
+    Map<String, String> getConfigValuesByPrefixes(List<String> prefixes);
+    
     /**
      * 更新单个配置
      * 
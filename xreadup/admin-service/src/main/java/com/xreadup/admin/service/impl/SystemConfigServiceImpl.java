@@ -4,6 +4,7 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.xreadup.admin.dto.SystemConfigDTO;
 import com.xreadup.admin.mapper.SystemConfigMapper;
 import com.xreadup.admin.model.entity.SystemConfig;
+import com.xreadup.admin.service.SystemConfigChangeNotifier;
 import com.xreadup.admin.service.SystemConfigService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,6 +30,9 @@ public class SystemConfigServiceImpl implements SystemConfigService {
     @Autowired
     private SystemConfigMapper systemConfigMapper;
     
+    @Autowired
+    private SystemConfigChangeNotifier changeNotifier;
+    
     @Override
     public List<SystemConfigDTO> getAllConfigs() {
         try {
@@ -103,26 +107,43 @@ public class SystemConfigServiceImpl implements SystemConfigService {
         }
     }
     
+    @Override
+    public Map<String, String> getConfigValuesByPrefixes(List<String> prefixes) {
+        Map<String, String> values = new LinkedHashMap<>();
+        if (prefixes == null || prefixes.isEmpty()) {
+            return values;
+        }
+        LambdaQueryWrapper<SystemConfig> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.select(SystemConfig::getConfigKey, SystemConfig::getConfigValue);
+        queryWrapper.and(wrapper -> prefixes.forEach(prefix -> wrapper.or().likeRight(SystemConfig::getConfigKey, prefix)));
+        for (SystemConfig config : systemConfigMapper.selectList(queryWrapper)) {
+            values.put(config.getConfigKey(), config.getConfigValue());
+        }
+        return values;
+    }
+    
     @Override
     @Transactional
     public boolean updateConfig(String configKey, String configValue) {
-        try {
-            int result = systemConfigMapper.updateValueByKey(configKey, configValue);
-            logger.info("更新配置成功: configKey={}, configValue={}", configKey, configValue);
-            return result > 0;
-        } catch (Exception e) {
-            logger.error("更新配置失败: configKey={}, configValue={}", configKey, configValue, e);
-            return false;
+        boolean updated = doUpdateConfig(configKey, configValue);
+        if (updated) {
+            changeNotifier.publish(List.of(configKey));
         }
+        return updated;
     }
     
     @Override
     @Transactional
     public boolean batchUpdateConfigs(Map<String, String> configs) {
         try {
+            List<String> updatedKeys = new ArrayList<>();
             for (Map.Entry<String, String> entry : configs.entrySet()) {
-                updateConfig(entry.getKey(), entry.getValue());
+                if (doUpdateConfig(entry.getKey(), entry.getValue())) {
+                    updatedKeys.add(entry.getKey());
+                }
             }
+            // 整批只发布一次变更通知
+            changeNotifier.publish(updatedKeys);
             logger.info("批量更新配置成功: 共更新{}个配置", configs.size());
             return true;
         } catch (Exception e) {
@@ -165,6 +186,20 @@ public class SystemConfigServiceImpl implements SystemConfigService {
         }
     }
     
+    /**
+     * 更新配置值，不发布变更通知
+     */
+    private boolean doUpdateConfig(String configKey, String configValue) {
+        try {
+            int result = systemConfigMapper.updateValueByKey(configKey, configValue);
+            logger.info("更新配置成功: configKey={}, configValue={}", configKey, configValue);
+            return result > 0;
+        } catch (Exception e) {
+            logger.error("更新配置失败: configKey={}, configValue={}", configKey, configValue, e);
+            return false;
+        }
+    }
+    
     /**
      * 转换为DTO
      */
@@ -9,7 +9,7 @@ import org.springframework.stereotype.Component;
 
 /**
  * 管理员会话定时任务
- * 负责定期清理过期的管理员token，确保系统资源的合理使用
+ * 会话存储中的token由Redis按过期时间自动清理，这里定期清理本地近端缓存
  */
 @Component
 public class AdminSessionCleanupTask {
@@ -21,17 +21,15 @@ public class AdminSessionCleanupTask {
     
     /**
      * 定期清理过期的管理员token
-     * 每小时执行一次
-     * 
-     * 注意：在实际生产环境中，可以根据系统负载和token数量调整执行频率
+     * 每5分钟执行一次
      */
-    @Scheduled(cron = "0 0 * * * ?")  // 每小时的0分0秒执行
+    @Scheduled(cron = "0 */5 * * * ?")  // 每5分钟执行
     public void cleanExpiredAdminTokens() {
-        logger.info("开始清理过期的管理员token...");
+        logger.debug("开始清理过期的管理员token...");
         
         try {
             adminTokenManager.cleanExpiredTokens();
-            logger.info("管理员token清理任务完成");
+            logger.debug("管理员token清理任务完成");
         } catch (Exception e) {
             logger.error("清理过期管理员token失败: {}", e.getMessage(), e);
         }
@@ -0,0 +1,55 @@
+package com.xreadup.admin.util;
+
+/**
+ * 管理员会话信息
+ * 由会话存储序列化保存，过期时间使用毫秒时间戳，便于各实例统一判断
+ */
+public class AdminSession {
+    
+    private Long userId;
+    private String username;
+    private String role;
+    private boolean superAdmin;
+    private long expireAt;
+    private String ipAddress; // 记录生成token时的IP地址
+    private String userAgent; // 记录生成token时的用户代理
+    
+    public AdminSession() {}
+    
+    public AdminSession(Long userId, String username, String role, boolean superAdmin, long expireAt,
+                        String ipAddress, String userAgent) {
+        this.userId = userId;
+        this.username = username;
+        this.role = role;
+        this.superAdmin = superAdmin;
+        this.expireAt = expireAt;
+        this.ipAddress = ipAddress;
+        this.userAgent = userAgent;
+    }
+    
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+    public String getRole() { return role; }
+    public void setRole(String role) { this.role = role; }
+    public boolean isSuperAdmin() { return superAdmin; }
+    public void setSuperAdmin(boolean superAdmin) { this.superAdmin = superAdmin; }
+    public long getExpireAt() { return expireAt; }
+    public void setExpireAt(long expireAt) { this.expireAt = expireAt; }
+    public String getIpAddress() { return ipAddress; }
+    public void setIpAddress(String ipAddress) { this.ipAddress = ipAddress; }
+    public String getUserAgent() { return userAgent; }
+    public void setUserAgent(String userAgent) { this.userAgent = userAgent; }
+    
+    /**
+     * 剩余有效时间（毫秒），已过期时返回0
+     */
+    public long remainingMillis() {
+        return Math.max(0, expireAt - System.currentTimeMillis());
+    }
+    
+    public boolean isExpired() {
+        return System.currentTimeMillis() >= expireAt;
+    }
+}
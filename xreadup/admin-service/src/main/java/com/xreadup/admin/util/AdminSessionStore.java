@@ -0,0 +1,51 @@
+package com.xreadup.admin.util;
+
+/**
+ * 管理员会话存储
+ * 保存登录token、登录失败计数和账户锁定状态。
+ * 默认使用Redis实现，多个admin-service实例共享会话；
+ * admin.session.store=memory 时使用单实例内存实现（仅用于本地开发）。
+ */
+public interface AdminSessionStore {
+    
+    /**
+     * 保存会话，会话在过期时间后自动失效
+     */
+    void save(String token, AdminSession session);
+    
+    /**
+     * 获取会话，不存在或已过期时返回null
+     */
+    AdminSession get(String token);
+    
+    /**
+     * 移除会话
+     */
+    void remove(String token);
+    
+    /**
+     * 失败次数加一并返回当前次数，计数在 windowSeconds 内无新的失败时自动清零
+     */
+    long incrementFailedAttempts(String username, long windowSeconds);
+    
+    /**
+     * 清除失败次数
+     */
+    void resetFailedAttempts(String username);
+    
+    /**
+     * 锁定账户 lockSeconds 秒
+     */
+    void lock(String username, long lockSeconds);
+    
+    /**
+     * 账户剩余锁定时间（秒），未锁定时返回0
+     */
+    long getLockRemainingSeconds(String username);
+    
+    /**
+     * 清理已过期的数据；依赖存储自身过期机制的实现可以不做处理
+     */
+    default void cleanExpired() {
+    }
+}
@@ -2,101 +2,67 @@ package com.xreadup.admin.util;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.Base64;
 import java.util.Map;
-import java.util.Random;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 管理员Token管理器
  * 负责生成、存储、验证和管理管理员登录token
  * 
- * 注意：这是一个简单的内存存储实现，实际生产环境应考虑使用Redis等持久化存储方案
+ * 会话、失败计数和锁定状态保存在 {@link AdminSessionStore} 中（默认Redis），多个实例共享；
+ * 拦截器每次请求都要验证token，因此本地保留一个短时间的近端缓存，
+ * 其他实例登出的token最多在近端缓存有效期内仍可使用。
  */
 @Component
 public class AdminTokenManager {
     
     private static final Logger logger = LoggerFactory.getLogger(AdminTokenManager.class);
     
-    // 存储管理员token和过期时间的映射
-    private final Map<String, TokenInfo> tokenStore = new ConcurrentHashMap<>();
-    
-    // 用于防止暴力破解的计数器
-    private final Map<String, AtomicInteger> failedAttempts = new ConcurrentHashMap<>();
-    
-    // 用于存储锁定的账户信息
-    private final Map<String, LockedAccount> lockedAccounts = new ConcurrentHashMap<>();
-    
     // 锁定时间（分钟）
     private static final int LOCK_TIME_MINUTES = 15;
     
     // 最大失败尝试次数
     private static final int MAX_FAILED_ATTEMPTS = 5;
     
-    // 用于生成token的随机数生成器
-    private final Random random = new Random();
+    private final AdminSessionStore sessionStore;
+    
+    // 近端缓存：token -> 会话及缓存时间
+    private final Map<String, CachedSession> nearCache = new ConcurrentHashMap<>();
+    
+    // 近端缓存有效期（毫秒）
+    private final long nearCacheTtlMs;
+    
+    // 用于生成token的随机数生成器；token在多个实例间共享，使用不可预测的随机源
+    private final SecureRandom random = new SecureRandom();
     
     // 盐值，用于增强token安全性
     private final String tokenSalt = generateRandomSalt();
     
-    /**
-     * Token信息内部类
-     */
-    private static class TokenInfo {
-        private final Long userId;
-        private final String username;
-        private final String role;
-        private final boolean superAdmin;
-        private final LocalDateTime expireTime;
-        private final String ipAddress; // 记录生成token时的IP地址
-        private final String userAgent; // 记录生成token时的用户代理
-        
-        public TokenInfo(Long userId, String username, String role, boolean superAdmin, LocalDateTime expireTime, 
-                        String ipAddress, String userAgent) {
-            this.userId = userId;
-            this.username = username;
-            this.role = role;
-            this.superAdmin = superAdmin;
-            this.expireTime = expireTime;
-            this.ipAddress = ipAddress;
-            this.userAgent = userAgent;
-        }
-        
-        public Long getUserId() { return userId; }
-        public String getUsername() { return username; }
-        public String getRole() { return role; }
-        public boolean isSuperAdmin() { return superAdmin; }
-        public LocalDateTime getExpireTime() { return expireTime; }
-        public String getIpAddress() { return ipAddress; }
-        public String getUserAgent() { return userAgent; }
-        
-        public boolean isExpired() {
-            return LocalDateTime.now().isAfter(expireTime);
-        }
+    public AdminTokenManager(AdminSessionStore sessionStore,
+                             @Value("${admin.session.near-cache-ttl-ms:5000}") long nearCacheTtlMs) {
+        this.sessionStore = sessionStore;
+        this.nearCacheTtlMs = nearCacheTtlMs;
     }
     
     /**
-     * 锁定账户信息类
+     * 近端缓存条目
      */
-    private static class LockedAccount {
-        private final LocalDateTime lockTime;
-        
-        public LockedAccount() {
-            this.lockTime = LocalDateTime.now();
-        }
-        
-        public boolean isLocked() {
-            return LocalDateTime.now().isBefore(lockTime.plusMinutes(LOCK_TIME_MINUTES));
-        }
+    private static class CachedSession {
+        private final AdminSession session;
+        private final long cachedAt;
         
-        public LocalDateTime getLockTime() {
-            return lockTime;
+        CachedSession(AdminSession session) {
+            this.session = session;
+            this.cachedAt = System.currentTimeMillis();
         }
     }
     
@@ -188,7 +154,10 @@ public class AdminTokenManager {
             return;
         }
         
-        tokenStore.put(token, new TokenInfo(userId, username, role, superAdmin, expireTime, ipAddress, userAgent));
+        AdminSession session = new AdminSession(userId, username, role, superAdmin,
+                expireTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(), ipAddress, userAgent);
+        sessionStore.save(token, session);
+        nearCache.put(token, new CachedSession(session));
         logger.debug("存储管理员token成功: userId={}, username={}, ip={}", userId, username, ipAddress);
     }
     
@@ -200,30 +169,47 @@ public class AdminTokenManager {
     }
     
     /**
-     * 验证管理员token是否有效
+     * 获取token对应的会话
+     * 优先读取近端缓存，未命中或已过近端缓存有效期时读取会话存储
      * @param token 管理员token
-     * @return token是否有效
+     * @return 会话信息，token无效或已过期返回null
      */
-    public boolean validateToken(String token) {
+    public AdminSession getSession(String token) {
         if (token == null || token.isEmpty()) {
-            return false;
+            return null;
         }
         
-        TokenInfo tokenInfo = tokenStore.get(token);
-        if (tokenInfo == null) {
-            logger.warn("token不存在");
-            return false;
+        CachedSession cached = nearCache.get(token);
+        if (cached != null && System.currentTimeMillis() - cached.cachedAt < nearCacheTtlMs) {
+            if (!cached.session.isExpired()) {
+                return cached.session;
+            }
+            nearCache.remove(token);
+            return null;
         }
         
-        // 检查token是否过期
-        if (tokenInfo.isExpired()) {
-            // 清理过期token
-            tokenStore.remove(token);
-            logger.warn("token已过期: userId={}", tokenInfo.getUserId());
+        AdminSession session = sessionStore.get(token);
+        if (session == null) {
+            nearCache.remove(token);
+            return null;
+        }
+        nearCache.put(token, new CachedSession(session));
+        return session;
+    }
+    
+    /**
+     * 验证管理员token是否有效
+     * @param token 管理员token
+     * @return token是否有效
+     */
+    public boolean validateToken(String token) {
+        AdminSession session = getSession(token);
+        if (session == null) {
+            logger.warn("token不存在或已过期");
             return false;
         }
         
-        logger.debug("token验证成功: userId={}", tokenInfo.getUserId());
+        logger.debug("token验证成功: userId={}", session.getUserId());
         return true;
     }
     
@@ -236,27 +222,36 @@ public class AdminTokenManager {
      * @return token是否有效且匹配当前环境
      */
     public boolean validateTokenWithEnvironment(String token, String ipAddress, String userAgent) {
-        boolean isValid = validateToken(token);
-        if (!isValid) {
-            return false;
+        return getSessionWithEnvironment(token, ipAddress, userAgent) != null;
+    }
+    
+    /**
+     * 带IP和User-Agent检查获取会话
+     * @param token 管理员token
+     * @param ipAddress 请求IP地址
+     * @param userAgent 请求User-Agent
+     * @return 会话信息，token无效或已过期返回null
+     */
+    public AdminSession getSessionWithEnvironment(String token, String ipAddress, String userAgent) {
+        AdminSession session = getSession(token);
+        if (session == null) {
+            return null;
         }
         
-        TokenInfo tokenInfo = tokenStore.get(token);
-        
         // 检查IP地址是否匹配（开发环境可能使用动态IP，此处可配置是否严格检查）
-        boolean ipMatch = "unknown".equals(tokenInfo.getIpAddress()) || tokenInfo.getIpAddress().equals(ipAddress);
+        boolean ipMatch = "unknown".equals(session.getIpAddress()) || session.getIpAddress().equals(ipAddress);
         
         // 检查User-Agent是否匹配
-        boolean userAgentMatch = "unknown".equals(tokenInfo.getUserAgent()) || 
-                                userAgent != null && tokenInfo.getUserAgent().contains(getBrowserName(userAgent));
+        boolean userAgentMatch = "unknown".equals(session.getUserAgent()) || 
+                                userAgent != null && session.getUserAgent().contains(getBrowserName(userAgent));
         
         if (!ipMatch || !userAgentMatch) {
             logger.warn("管理员登录环境发生变化，可能存在安全风险: userId={}, ip={}, userAgent={}", 
-                        tokenInfo.getUserId(), ipAddress, userAgent);
+                        session.getUserId(), ipAddress, userAgent);
             // 注意：在生产环境中，这里可能需要记录日志或触发警报，但不一定要拒绝访问
         }
         
-        return true;
+        return session;
     }
     
     /**
@@ -294,15 +289,14 @@ public class AdminTokenManager {
      * @return 是否被锁定
      */
     public boolean recordFailedLoginAttempt(String username, String clientIp) {
-        AtomicInteger attempts = failedAttempts.computeIfAbsent(username, k -> new AtomicInteger(0));
-        int currentAttempts = attempts.incrementAndGet();
+        long currentAttempts = sessionStore.incrementFailedAttempts(username, LOCK_TIME_MINUTES * 60L);
         
         logger.warn("管理员登录失败尝试: username={}, attempts={}", username, currentAttempts);
         
         if (currentAttempts >= MAX_FAILED_ATTEMPTS) {
             logger.error("管理员账户已被锁定: username={}, IP={}", username, clientIp);
-            lockedAccounts.put(username, new LockedAccount());
-            failedAttempts.remove(username); // 锁定后重置计数
+            sessionStore.lock(username, LOCK_TIME_MINUTES * 60L);
+            sessionStore.resetFailedAttempts(username); // 锁定后重置计数
             return true;
         }
         
@@ -314,7 +308,7 @@ public class AdminTokenManager {
      * @param username 用户名
      */
     public void resetFailedLoginAttempts(String username) {
-        failedAttempts.remove(username);
+        sessionStore.resetFailedAttempts(username);
         logger.info("管理员登录失败尝试已重置: username={}", username);
     }
     
@@ -324,18 +318,7 @@ public class AdminTokenManager {
      * @return 是否已锁定
      */
     public boolean isAccountLocked(String username) {
-        LockedAccount lockedAccount = lockedAccounts.get(username);
-        if (lockedAccount == null) {
-            return false;
-        }
-        
-        // 检查锁定是否已过期
-        if (!lockedAccount.isLocked()) {
-            lockedAccounts.remove(username);
-            return false;
-        }
-        
-        return true;
+        return sessionStore.getLockRemainingSeconds(username) > 0;
     }
     
     /**
@@ -344,15 +327,7 @@ public class AdminTokenManager {
      * @return 剩余锁定时间（秒）
      */
     public long getLockedTimeRemaining(String username) {
-        LockedAccount lockedAccount = lockedAccounts.get(username);
-        if (lockedAccount == null) {
-            return 0;
-        }
-        
-        LocalDateTime unlockTime = lockedAccount.getLockTime().plusMinutes(LOCK_TIME_MINUTES);
-        long secondsRemaining = java.time.Duration.between(LocalDateTime.now(), unlockTime).getSeconds();
-        
-        return Math.max(0, secondsRemaining);
+        return sessionStore.getLockRemainingSeconds(username);
     }
     
     /**
@@ -370,12 +345,8 @@ public class AdminTokenManager {
      * @return 用户ID，如果token无效返回null
      */
     public Long getUserIdByToken(String token) {
-        if (!validateToken(token)) {
-            return null;
-        }
-        
-        TokenInfo tokenInfo = tokenStore.get(token);
-        return tokenInfo != null ? tokenInfo.getUserId() : null;
+        AdminSession session = getSession(token);
+        return session != null ? session.getUserId() : null;
     }
     
     /**
@@ -384,12 +355,8 @@ public class AdminTokenManager {
      * @return 角色，如果token无效返回null
      */
     public String getRoleByToken(String token) {
-        if (!validateToken(token)) {
-            return null;
-        }
-        
-        TokenInfo tokenInfo = tokenStore.get(token);
-        return tokenInfo != null ? tokenInfo.getRole() : null;
+        AdminSession session = getSession(token);
+        return session != null ? session.getRole() : null;
     }
     
     /**
@@ -398,12 +365,8 @@ public class AdminTokenManager {
      * @return 是否为超级管理员
      */
     public boolean isSuperAdminByToken(String token) {
-        if (!validateToken(token)) {
-            return false;
-        }
-        
-        TokenInfo tokenInfo = tokenStore.get(token);
-        return tokenInfo != null && tokenInfo.isSuperAdmin();
+        AdminSession session = getSession(token);
+        return session != null && session.isSuperAdmin();
     }
     
     /**
@@ -412,31 +375,25 @@ public class AdminTokenManager {
      */
     public void removeToken(String token) {
         if (token != null) {
-            TokenInfo tokenInfo = tokenStore.remove(token);
-            if (tokenInfo != null) {
-                logger.debug("移除管理员token成功: userId={}", tokenInfo.getUserId());
-            }
+            nearCache.remove(token);
+            sessionStore.remove(token);
+            logger.debug("移除管理员token成功");
         }
     }
     
     /**
-     * 清理过期的token
-     * 可以定期调用此方法清理过期token
+     * 清理过期数据
+     * 会话存储中的token由存储自身过期；这里清理近端缓存中超过有效期的条目
      */
     public void cleanExpiredTokens() {
-        long beforeCount = tokenStore.size();
-        
-        tokenStore.entrySet().removeIf(entry -> {
-            boolean expired = entry.getValue().isExpired();
-            if (expired) {
-                logger.debug("清理过期管理员token: userId={}", entry.getValue().getUserId());
-            }
-            return expired;
-        });
+        long now = System.currentTimeMillis();
+        long beforeCount = nearCache.size();
+        nearCache.values().removeIf(cached -> now - cached.cachedAt >= nearCacheTtlMs || cached.session.isExpired());
+        sessionStore.cleanExpired();
         
-        long afterCount = tokenStore.size();
+        long afterCount = nearCache.size();
         if (beforeCount > afterCount) {
-            logger.info("清理过期管理员token完成，共清理: {}", beforeCount - afterCount);
+            logger.info("清理管理员token近端缓存完成，共清理: {}", beforeCount - afterCount);
         }
     }
 }
\ No newline at end of file
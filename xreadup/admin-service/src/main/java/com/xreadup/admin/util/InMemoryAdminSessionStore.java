@@ -0,0 +1,86 @@
+package com.xreadup.admin.util;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 基于内存的管理员会话存储
+ * 会话仅在当前实例有效，重启后丢失，只适用于单实例的本地开发环境
+ */
+@Component
+@ConditionalOnProperty(name = "admin.session.store", havingValue = "memory")
+public class InMemoryAdminSessionStore implements AdminSessionStore {
+    
+    private final Map<String, AdminSession> sessions = new ConcurrentHashMap<>();
+    
+    // 用户名 -> [失败次数, 计数过期时间戳]
+    private final Map<String, long[]> failedAttempts = new ConcurrentHashMap<>();
+    
+    // 用户名 -> 解锁时间戳
+    private final Map<String, Long> lockedUntil = new ConcurrentHashMap<>();
+    
+    @Override
+    public void save(String token, AdminSession session) {
+        sessions.put(token, session);
+    }
+    
+    @Override
+    public AdminSession get(String token) {
+        AdminSession session = sessions.get(token);
+        if (session != null && session.isExpired()) {
+            sessions.remove(token);
+            return null;
+        }
+        return session;
+    }
+    
+    @Override
+    public void remove(String token) {
+        sessions.remove(token);
+    }
+    
+    @Override
+    public long incrementFailedAttempts(String username, long windowSeconds) {
+        long now = System.currentTimeMillis();
+        long[] counter = failedAttempts.compute(username, (k, v) -> {
+            long count = v == null || v[1] <= now ? 1 : v[0] + 1;
+            return new long[]{count, now + windowSeconds * 1000};
+        });
+        return counter[0];
+    }
+    
+    @Override
+    public void resetFailedAttempts(String username) {
+        failedAttempts.remove(username);
+    }
+    
+    @Override
+    public void lock(String username, long lockSeconds) {
+        lockedUntil.put(username, System.currentTimeMillis() + lockSeconds * 1000);
+    }
+    
+    @Override
+    public long getLockRemainingSeconds(String username) {
+        Long until = lockedUntil.get(username);
+        if (until == null) {
+            return 0;
+        }
+        long remaining = until - System.currentTimeMillis();
+        if (remaining <= 0) {
+            lockedUntil.remove(username);
+            return 0;
+        }
+        return (remaining + 999) / 1000;
+    }
+    
+    @Override
+    public void cleanExpired() {
+        long now = System.currentTimeMillis();
+        sessions.values().removeIf(AdminSession::isExpired);
+        failedAttempts.values().removeIf(v -> v[1] <= now);
+        lockedUntil.values().removeIf(until -> until <= now);
+    }
+}
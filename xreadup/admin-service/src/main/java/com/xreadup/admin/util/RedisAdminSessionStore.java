@@ -0,0 +1,105 @@
+package com.xreadup.admin.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于Redis的管理员会话存储
+ * <p>
+ * 会话以JSON保存，键的过期时间与token过期时间一致，由Redis自动清理；
+ * 失败次数由脚本原子地计数并刷新过期时间，锁定状态使用带过期时间的键，多实例共享。
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "admin.session.store", havingValue = "redis", matchIfMissing = true)
+public class RedisAdminSessionStore implements AdminSessionStore {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RedisAdminSessionStore.class);
+    
+    private static final String SESSION_KEY_PREFIX = "admin:session:";
+    private static final String FAILED_KEY_PREFIX = "admin:login:failed:";
+    private static final String LOCK_KEY_PREFIX = "admin:login:lock:";
+
+    // KEYS: 失败次数  ARGV: 统计窗口秒数
+    // 计数与设置过期时间在同一脚本中执行，避免两步之间宕机留下永不过期的计数
+    private static final RedisScript<Long> INCREMENT_FAILED_SCRIPT = RedisScript.of(
+            "local attempts = redis.call('INCR', KEYS[1]) " +
+            "redis.call('EXPIRE', KEYS[1], ARGV[1]) " +
+            "return attempts", Long.class);
+    
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    
+    public RedisAdminSessionStore(StringRedisTemplate redisTemplate, ObjectMapper objectMapper) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+    }
+    
+    @Override
+    public void save(String token, AdminSession session) {
+        long ttlMillis = session.remainingMillis();
+        if (ttlMillis <= 0) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().set(SESSION_KEY_PREFIX + token,
+                    objectMapper.writeValueAsString(session), Duration.ofMillis(ttlMillis));
+        } catch (Exception e) {
+            throw new IllegalStateException("保存管理员会话失败: " + e.getMessage(), e);
+        }
+    }
+    
+    @Override
+    public AdminSession get(String token) {
+        String json = redisTemplate.opsForValue().get(SESSION_KEY_PREFIX + token);
+        if (json == null) {
+            return null;
+        }
+        try {
+            AdminSession session = objectMapper.readValue(json, AdminSession.class);
+            return session.isExpired() ? null : session;
+        } catch (Exception e) {
+            logger.warn("解析管理员会话失败，视为无效: {}", e.getMessage());
+            return null;
+        }
+    }
+    
+    @Override
+    public void remove(String token) {
+        redisTemplate.delete(SESSION_KEY_PREFIX + token);
+    }
+    
+    @Override
+    public long incrementFailedAttempts(String username, long windowSeconds) {
+        Long attempts = redisTemplate.execute(INCREMENT_FAILED_SCRIPT,
+                List.of(FAILED_KEY_PREFIX + username), String.valueOf(windowSeconds));
+        return attempts != null ? attempts : 0;
+    }
+    
+    @Override
+    public void resetFailedAttempts(String username) {
+        redisTemplate.delete(FAILED_KEY_PREFIX + username);
+    }
+    
+    @Override
+    public void lock(String username, long lockSeconds) {
+        redisTemplate.opsForValue().set(LOCK_KEY_PREFIX + username, String.valueOf(System.currentTimeMillis()),
+                Duration.ofSeconds(lockSeconds));
+    }
+    
+    @Override
+    public long getLockRemainingSeconds(String username) {
+        Long ttl = redisTemplate.getExpire(LOCK_KEY_PREFIX + username, TimeUnit.SECONDS);
+        // -2 表示键不存在；锁定键总是带过期时间
+        return ttl != null && ttl > 0 ? ttl : 0;
+    }
+}
@@ -27,6 +27,15 @@ public interface ArticleServiceClient {
     @GetMapping("/api/article/read/{articleId}")
     ApiResponse<ArticleDetail> getArticleDetail(@PathVariable Long articleId);
     
+    /**
+     * 获取文章正文（不增加阅读次数），供后台分析任务使用
+     * 
+     * @param articleId 文章ID
+     * @return 文章信息
+     */
+    @GetMapping("/api/article/{articleId}/source")
+    ApiResponse<ArticleInfo> getArticleSource(@PathVariable("articleId") Long articleId);
+    
     /**
      * 更新文章的中文翻译内容
      * 
@@ -36,6 +45,17 @@ public interface ArticleServiceClient {
     @PostMapping("/api/article/update-content-cn")
     ApiResponse<Boolean> updateContentCn(@RequestBody UpdateContentCnRequest request);
     
+    /**
+     * 按文章ID更新中文翻译内容
+     * 
+     * @param articleId 文章ID
+     * @param request 中文内容
+     * @return 更新结果，文章不存在时为false
+     */
+    @PostMapping("/api/article/{articleId}/content-cn")
+    ApiResponse<Boolean> updateContentCnById(@PathVariable("articleId") Long articleId,
+                                             @RequestBody UpdateContentCnByIdRequest request);
+    
     /**
      * API响应通用格式 - 与article-service中的实现保持一致
      */
@@ -77,4 +97,12 @@ public interface ArticleServiceClient {
         String getContentEn();
         String getContentCn();
     }
+    
+    /**
+     * 按文章ID更新中文内容请求
+     */
+    @Data
+    class UpdateContentCnByIdRequest {
+        private String contentCn;
+    }
 }
\ No newline at end of file
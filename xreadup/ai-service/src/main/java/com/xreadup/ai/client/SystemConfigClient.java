@@ -1,10 +1,13 @@
 package com.xreadup.ai.client;
 
+import com.xreadup.ai.model.dto.ApiResponse;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import java.util.Map;
+
 /**
  * 系统配置服务客户端
  * 用于AI服务获取系统配置
@@ -35,6 +38,23 @@ public interface SystemConfigClient {
     String getConfigValue(@PathVariable("configKey") String configKey, 
                          @RequestParam("defaultValue") String defaultValue);
     
+    /**
+     * 获取配置值（内部接口，无需管理员认证）
+     * 
+     * @param configKey 配置键
+     * @return 配置值，配置不存在时 data 为 null
+     */
+    @GetMapping("/api/admin/system-config/internal/value/{configKey}")
+    ApiResponse<String> getInternalConfigValue(@PathVariable("configKey") String configKey);
+    
+    /**
+     * 批量获取功能开关、业务限制与维护模式配置（内部接口，无需管理员认证）
+     * 
+     * @return 配置键 -> 配置值
+     */
+    @GetMapping("/api/admin/system-config/internal/snapshot")
+    ApiResponse<Map<String, String>> getInternalConfigSnapshot();
+    
     /**
      * 检查功能是否启用
      * 
@@ -0,0 +1,72 @@
+package com.xreadup.ai.common;
+
+import com.xreadup.ai.service.filter.ContentBlockedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.function.Function;
+
+/**
+ * 流式接口的 SSE 事件
+ * <ul>
+ *   <li>delta：一段新生成的文本</li>
+ *   <li>done：生成结束，携带完整结果</li>
+ *   <li>blocked：输出命中高风险词，已中止</li>
+ *   <li>error：生成失败</li>
+ * </ul>
+ */
+@Slf4j
+public final class StreamEvents {
+
+    public static final String DELTA = "delta";
+    public static final String DONE = "done";
+    public static final String BLOCKED = "blocked";
+    public static final String ERROR = "error";
+
+    private static final String BLOCKED_MESSAGE = "抱歉，回答中包含不当内容，已停止输出。";
+
+    private StreamEvents() {
+    }
+
+    /**
+     * 把文本流转换为事件流：逐段发送 delta，结束时发送 done
+     *
+     * @param text         文本流（应已经过输出内容过滤）
+     * @param onComplete   收到完整文本后生成 done 事件的数据，可执行持久化等阻塞操作
+     * @param errorMessage 生成失败时返回给客户端的提示
+     */
+    public static Flux<ServerSentEvent<Object>> of(Flux<String> text, Function<String, Object> onComplete,
+                                                   String errorMessage) {
+        return Flux.defer(() -> {
+            StringBuilder full = new StringBuilder();
+            return text.doOnNext(full::append)
+                    .map(StreamEvents::delta)
+                    .concatWith(Mono.fromCallable(() -> done(onComplete.apply(full.toString())))
+                            .subscribeOn(Schedulers.boundedElastic()))
+                    .onErrorResume(ContentBlockedException.class, e -> Flux.just(blocked(BLOCKED_MESSAGE)))
+                    .onErrorResume(e -> {
+                        log.error("流式生成失败", e);
+                        return Flux.just(error(errorMessage));
+                    });
+        });
+    }
+
+    public static ServerSentEvent<Object> delta(String text) {
+        return ServerSentEvent.builder((Object) text).event(DELTA).build();
+    }
+
+    public static ServerSentEvent<Object> done(Object data) {
+        return ServerSentEvent.builder(data).event(DONE).build();
+    }
+
+    public static ServerSentEvent<Object> blocked(String message) {
+        return ServerSentEvent.builder((Object) message).event(BLOCKED).build();
+    }
+
+    public static ServerSentEvent<Object> error(String message) {
+        return ServerSentEvent.builder((Object) message).event(ERROR).build();
+    }
+}
@@ -0,0 +1,31 @@
+package com.xreadup.ai.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * AI文章分析任务配置
+ * 工作线程数即同时调用大模型分析的文章数，按 DeepSeek 的并发限制设置；
+ * 任务只在有空闲线程时才从任务表抢占，线程池不排队
+ */
+@Configuration
+public class AnalysisJobConfig {
+
+    @Value("${ai.analysis-job.concurrency:3}")
+    private int concurrency;
+
+    @Bean(name = "analysisJobExecutor")
+    public ThreadPoolTaskExecutor analysisJobExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("analysis-job-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(120);
+        executor.initialize();
+        return executor;
+    }
+}
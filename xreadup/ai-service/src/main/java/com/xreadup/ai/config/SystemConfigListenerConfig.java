@@ -0,0 +1,33 @@
+package com.xreadup.ai.config;
+
+import com.xreadup.ai.service.config.SystemConfigSnapshot;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * 系统配置变更订阅
+ * 管理服务更新配置后在 Redis 频道发布变更的配置键，收到后立即刷新本地配置快照
+ */
+@Slf4j
+@Configuration
+public class SystemConfigListenerConfig {
+
+    // 与管理服务 SystemConfigChangeNotifier 的发布频道一致
+    private static final String CONFIG_CHANGED_CHANNEL = "system-config:changed";
+
+    @Bean
+    public RedisMessageListenerContainer systemConfigListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                       SystemConfigSnapshot systemConfigSnapshot) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((message, pattern) -> {
+            log.info("收到系统配置变更通知: {}", new String(message.getBody()));
+            systemConfigSnapshot.refresh();
+        }, new ChannelTopic(CONFIG_CHANGED_CHANNEL));
+        return container;
+    }
+}
@@ -0,0 +1,33 @@
+package com.xreadup.ai.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 长文本分块翻译配置
+ * 为分块并行翻译提供共享线程池，各翻译引擎的并发上限由 ChunkedTranslationEngine 的许可数控制
+ */
+@Configuration
+public class TranslateChunkConfig {
+
+    @Value("${ai.translate.chunk-pool-size:8}")
+    private int poolSize;
+
+    @Bean(name = "translateChunkExecutor")
+    public ThreadPoolTaskExecutor translateChunkExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(500);
+        executor.setThreadNamePrefix("translate-chunk-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        executor.initialize();
+        return executor;
+    }
+}
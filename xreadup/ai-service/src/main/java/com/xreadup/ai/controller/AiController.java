@@ -27,7 +27,7 @@ public class AiController {
 
     // ===== 以下方法已删除（未使用） =====
     // - analyzeArticle() - 未使用
-    // - batchAnalyzeArticles() - 未使用
+    // - batchAnalyzeArticles() - 已由异步分析任务取代（AnalysisJobController）
     // - translateFullText() - 未使用
     // - translateWord() - 未使用
 
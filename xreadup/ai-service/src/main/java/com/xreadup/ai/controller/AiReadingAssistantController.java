@@ -12,7 +12,10 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 
 import java.util.List;
 import java.util.ArrayList;
@@ -52,6 +55,17 @@ public class AiReadingAssistantController {
         }
     }
 
+    /**
+     * AI对话接口（流式）
+     */
+    @PostMapping(value = "/chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "AI对话（流式）", description = "以SSE逐段返回回答：delta为新生成的文本，done为完整回答与后续问题建议，blocked/error为中止原因")
+    public Flux<ServerSentEvent<Object>> chatStream(@RequestBody AiChatRequest request) {
+        log.info("AI流式对话请求 - 用户: {}, 问题: {}", 
+            request.getUserId(), request.getQuestion());
+        return aiReadingAssistantService.streamChatWithAssistant(request);
+    }
+
     /**
      * 查询单词信息
      */
@@ -0,0 +1,110 @@
+package com.xreadup.ai.controller;
+
+import com.xreadup.ai.model.dto.ApiResponse;
+import com.xreadup.ai.model.dto.BatchAiAnalysisRequest;
+import com.xreadup.ai.model.dto.PrewarmJobRequest;
+import com.xreadup.ai.model.entity.AnalysisJob;
+import com.xreadup.ai.service.job.AnalysisJobService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * AI文章分析任务控制器
+ * 
+ * 批量分析改为异步任务：提交后立即返回任务状态，通过查询接口轮询进度
+ * 提交接口（可指定优先级、强制重新生成）只供内部服务调用，挂在 /internal 路径下，网关不对外转发
+ * 
+ * @author xreadup
+ * @version 1.0
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/ai/analysis/jobs")
+@RequiredArgsConstructor
+public class AnalysisJobController {
+
+    private final AnalysisJobService analysisJobService;
+
+    /**
+     * 提交分析任务（内部接口）
+     * 
+     * @param request 文章ID列表、优先级、是否强制重新生成
+     * @return 各文章的任务状态
+     */
+    @PostMapping("/internal")
+    public ApiResponse<List<AnalysisJob>> submit(@Valid @RequestBody BatchAiAnalysisRequest request) {
+        try {
+            int priority = resolvePriority(request.getPriority());
+            return ApiResponse.success(analysisJobService.submit(request.getArticleIds(), priority, request.isForceRegenerate()));
+        } catch (IllegalArgumentException e) {
+            return ApiResponse.error(e.getMessage());
+        } catch (Exception e) {
+            log.error("提交AI分析任务失败", e);
+            return ApiResponse.error("提交AI分析任务失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 提交入库预热任务（内部接口，由文章服务在新文章入库后调用）
+     * 
+     * @param request 文章ID与预测热度分
+     * @return 新入队的任务数
+     */
+    @PostMapping("/internal/prewarm")
+    public ApiResponse<Integer> submitPrewarm(@Valid @RequestBody PrewarmJobRequest request) {
+        try {
+            return ApiResponse.success(analysisJobService.submitPrewarm(request.getPopularityScores()));
+        } catch (IllegalArgumentException e) {
+            return ApiResponse.error(e.getMessage());
+        } catch (Exception e) {
+            log.error("提交预热任务失败", e);
+            return ApiResponse.error("提交预热任务失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 查询文章的分析任务状态
+     * 
+     * @param articleId 文章ID
+     * @return 任务状态
+     */
+    @GetMapping("/{articleId}")
+    public ApiResponse<AnalysisJob> getJob(@PathVariable Long articleId) {
+        AnalysisJob job = analysisJobService.getJob(articleId);
+        if (job == null) {
+            return ApiResponse.error("该文章没有分析任务");
+        }
+        return ApiResponse.success(job);
+    }
+
+    /**
+     * 任务统计
+     * 
+     * @return 各状态任务数与当前实例执行情况
+     */
+    @GetMapping("/stats")
+    public ApiResponse<Map<String, Object>> stats() {
+        return ApiResponse.success(analysisJobService.getStats());
+    }
+
+    private static int resolvePriority(String priority) {
+        if (priority == null) {
+            return AnalysisJob.PRIORITY_NORMAL;
+        }
+        switch (priority.trim().toUpperCase()) {
+            case "INTERACTIVE":
+                return AnalysisJob.PRIORITY_INTERACTIVE;
+            case "BULK":
+                return AnalysisJob.PRIORITY_BULK;
+            case "NORMAL":
+                return AnalysisJob.PRIORITY_NORMAL;
+            default:
+                throw new IllegalArgumentException("不支持的优先级: " + priority);
+        }
+    }
+}
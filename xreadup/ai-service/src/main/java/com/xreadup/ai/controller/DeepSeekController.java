@@ -1,5 +1,6 @@
 package com.xreadup.ai.controller;
 
+import com.xreadup.ai.common.StreamEvents;
 import com.xreadup.ai.model.dto.*;
 import com.xreadup.ai.service.EnhancedAiAnalysisService;
 import com.xreadup.ai.service.AiConfigService;
@@ -7,7 +8,12 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+import java.util.Map;
 
 /**
  * DeepSeek AI控制器 - 进阶AI功能
@@ -82,6 +88,30 @@ public class DeepSeekController {
         }
     }
 
+    /**
+     * AI摘要（DeepSeek，流式）
+     * 以SSE逐段返回摘要，生成完成后保存到数据库
+     */
+    @PostMapping(value = "/summary/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "AI文章摘要（流式）", description = "以SSE逐段返回摘要：delta为新生成的文本，done为完整摘要（已保存），blocked/error为中止原因")
+    public Flux<ServerSentEvent<Object>> streamSummary(@RequestBody AiSummaryRequest request) {
+        if (!aiConfigService.isAiSummaryGenerationEnabled()) {
+            log.warn("AI摘要生成功能已禁用，拒绝摘要请求: {}", request.getArticleId());
+            return Flux.just(StreamEvents.error("AI摘要生成功能当前不可用"));
+        }
+        if (aiConfigService.isMaintenanceMode()) {
+            log.warn("系统处于维护模式，拒绝摘要请求: {}", request.getArticleId());
+            return Flux.just(StreamEvents.error("系统正在维护中，请稍后重试"));
+        }
+        if (request.getArticleId() == null) {
+            return Flux.just(StreamEvents.error("文章ID不能为空"));
+        }
+        if (request.getText() == null || request.getText().trim().isEmpty()) {
+            return Flux.just(StreamEvents.error("摘要文本内容不能为空"));
+        }
+        return enhancedAiAnalysisService.streamSummary(request.getArticleId(), request.getText());
+    }
+
     /**
      * 长句解析（DeepSeek）
      * 对复杂句子进行语法和语义分析并保存到数据库
@@ -116,6 +146,15 @@ public class DeepSeekController {
         }
     }
 
+    /**
+     * 句子解析缓存统计
+     */
+    @GetMapping("/parse/cache-stats")
+    @Operation(summary = "句子解析缓存统计", description = "查看句子解析两级缓存的命中、淘汰及写回情况")
+    public ApiResponse<Map<String, Object>> getParseCacheStats() {
+        return ApiResponse.success(enhancedAiAnalysisService.getSentenceParseCacheStats());
+    }
+
     // ===== 以下方法已删除（未使用） =====
     // - generateQuiz() - 前端使用 assistantGenerateQuiz() 代替
     // - generateLearningTip() - 未使用
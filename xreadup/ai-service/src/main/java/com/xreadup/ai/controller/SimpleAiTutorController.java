@@ -8,7 +8,10 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 
 /**
  * 简配版AI学导控制器
@@ -42,4 +45,13 @@ public class SimpleAiTutorController {
             return ApiResponse.error("AI学导暂时无法回答，请稍后再试");
         }
     }
+
+    /**
+     * 简配版AI学导对话接口（流式）
+     */
+    @PostMapping(value = "/chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "简配版AI学导对话（流式）", description = "以SSE逐段返回回答：delta为新生成的文本，done为完整回答与后续问题建议，blocked/error为中止原因")
+    public Flux<ServerSentEvent<Object>> chatStream(@RequestBody SimpleAiTutorRequest request) {
+        return simpleAiTutorService.streamChat(request);
+    }
 }
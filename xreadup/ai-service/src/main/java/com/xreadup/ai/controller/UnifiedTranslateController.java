@@ -4,6 +4,7 @@ import com.xreadup.ai.model.dto.TencentTranslateRequestDTO;
 import com.xreadup.ai.model.dto.TencentTranslateResponseDTO;
 import com.xreadup.ai.model.dto.ApiResponse;
 import com.xreadup.ai.service.TencentTranslateService;
+import com.xreadup.ai.service.translate.TranslationItem;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -14,6 +15,7 @@ import org.springframework.web.bind.annotation.*;
 import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 统一智能翻译控制器 - 产品经理优化版
@@ -35,6 +37,8 @@ import java.util.List;
 @RequiredArgsConstructor
 public class UnifiedTranslateController {
 
+    private static final int MAX_BATCH_TEXTS = 500;
+
     private final TencentTranslateService tencentTranslateService;
 
     /**
@@ -88,7 +92,42 @@ public class UnifiedTranslateController {
         }
     }
 
-    // ===== batchTranslate() 方法已删除（未使用） =====
+    /**
+     * 批量翻译
+     * 
+     * 翻译记忆命中的条目不再调用腾讯云，其余条目合并为批量调用，
+     * 结果与请求顺序一一对应，单条失败不影响其他条目
+     */
+    @PostMapping("/batch")
+    @Operation(summary = "批量翻译", description = "多段短文本一次翻译，优先使用翻译记忆")
+    public ApiResponse<List<TranslationItem>> batchTranslate(@RequestBody BatchTranslateRequest request) {
+        if (request.getTexts() == null || request.getTexts().isEmpty()) {
+            return ApiResponse.error("待翻译文本不能为空");
+        }
+        if (request.getTexts().size() > MAX_BATCH_TEXTS) {
+            return ApiResponse.error("单次最多翻译 " + MAX_BATCH_TEXTS + " 条文本");
+        }
+
+        try {
+            String sourceLang = request.getSourceLang() != null && !request.getSourceLang().isEmpty()
+                    ? request.getSourceLang()
+                    : detectLanguage(String.join(" ", request.getTexts()));
+            String targetLang = determineTargetLanguage(sourceLang, request.getTargetLang());
+            return ApiResponse.success(tencentTranslateService.translateBatch(request.getTexts(), sourceLang, targetLang));
+        } catch (Exception e) {
+            log.error("批量翻译失败", e);
+            return ApiResponse.error("批量翻译失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 翻译记忆与合批统计
+     */
+    @GetMapping("/stats")
+    @Operation(summary = "翻译统计", description = "翻译记忆命中率与合批情况")
+    public ApiResponse<Map<String, Object>> getTranslateStats() {
+        return ApiResponse.success(tencentTranslateService.getTranslateStats());
+    }
 
     // 智能语言检测（简化版）
     private String detectLanguage(String text) {
@@ -147,7 +186,19 @@ public class UnifiedTranslateController {
         public void setTargetLang(String targetLang) { this.targetLang = targetLang; }
     }
 
-    // ===== 批量翻译相关的DTO类已删除（未使用） =====
+    public static class BatchTranslateRequest {
+        private List<String> texts;
+        private String sourceLang; // 可选，自动检测
+        private String targetLang; // 可选，自动确定
+
+        // getters and setters
+        public List<String> getTexts() { return texts; }
+        public void setTexts(List<String> texts) { this.texts = texts; }
+        public String getSourceLang() { return sourceLang; }
+        public void setSourceLang(String sourceLang) { this.sourceLang = sourceLang; }
+        public String getTargetLang() { return targetLang; }
+        public void setTargetLang(String targetLang) { this.targetLang = targetLang; }
+    }
 
     public static class SmartFeatures {
         private int wordCount;
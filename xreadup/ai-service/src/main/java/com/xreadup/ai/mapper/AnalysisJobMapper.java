@@ -0,0 +1,101 @@
+package com.xreadup.ai.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.xreadup.ai.model.entity.AnalysisJob;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * AI文章分析任务Mapper
+ * 任务按 uk_article_id 去重；抢占、完成、重试都以当前状态为条件更新，多实例并发安全
+ */
+@Mapper
+public interface AnalysisJobMapper extends BaseMapper<AnalysisJob> {
+
+    // ========== 入队 ==========
+
+    // 新任务直接插入；已排队或执行中的任务只提升优先级（并保留强制重新生成、预热补全）；已结束的任务重新排队
+    @Insert("INSERT INTO ai_analysis_job (article_id, priority, status, force_regenerate, enrich, attempts, next_run_at) " +
+            "VALUES (#{articleId}, #{priority}, 'PENDING', #{forceRegenerate}, #{enrich}, 0, NOW()) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "force_regenerate = IF(status IN ('PENDING', 'RUNNING'), force_regenerate OR VALUES(force_regenerate), VALUES(force_regenerate)), " +
+            "enrich = IF(status IN ('PENDING', 'RUNNING'), enrich OR VALUES(enrich), VALUES(enrich)), " +
+            "priority = IF(status IN ('PENDING', 'RUNNING'), GREATEST(priority, VALUES(priority)), VALUES(priority)), " +
+            "attempts = IF(status IN ('PENDING', 'RUNNING'), attempts, 0), " +
+            "next_run_at = IF(status IN ('PENDING', 'RUNNING'), next_run_at, NOW()), " +
+            "last_error = IF(status IN ('PENDING', 'RUNNING'), last_error, NULL), " +
+            "finished_at = IF(status IN ('PENDING', 'RUNNING'), finished_at, NULL), " +
+            "status = IF(status IN ('PENDING', 'RUNNING'), status, 'PENDING')")
+    int enqueue(@Param("articleId") Long articleId, @Param("priority") int priority,
+                @Param("forceRegenerate") boolean forceRegenerate, @Param("enrich") boolean enrich);
+
+    // 预热任务只在文章从未分析过时入队：已有任务（任何状态）保持不变
+    @Insert("INSERT IGNORE INTO ai_analysis_job (article_id, priority, status, force_regenerate, enrich, attempts, next_run_at) " +
+            "VALUES (#{articleId}, #{priority}, 'PENDING', 0, 1, 0, NOW())")
+    int enqueuePrewarm(@Param("articleId") Long articleId, @Param("priority") int priority);
+
+    // ========== 抢占与执行 ==========
+
+    // includePrewarm 为 false 时跳过预热任务（预算用尽或需为交互请求预留线程）
+    @Select("SELECT id FROM ai_analysis_job WHERE status = 'PENDING' AND next_run_at <= NOW() " +
+            "AND (#{includePrewarm} OR enrich = 0 OR priority >= #{prewarmCeiling}) " +
+            "ORDER BY priority DESC, id ASC LIMIT #{limit}")
+    List<Long> selectRunnableIds(@Param("limit") int limit, @Param("includePrewarm") boolean includePrewarm,
+                                 @Param("prewarmCeiling") int prewarmCeiling);
+
+    @Update("UPDATE ai_analysis_job SET status = 'RUNNING', locked_by = #{workerId}, started_at = NOW(), heartbeat_at = NOW(), " +
+            "attempts = attempts + 1 " +
+            "WHERE id = #{id} AND status = 'PENDING'")
+    int claim(@Param("id") Long id, @Param("workerId") String workerId);
+
+    @Update("UPDATE ai_analysis_job SET status = 'SUCCEEDED', finished_at = NOW(), last_error = NULL, locked_by = NULL " +
+            "WHERE id = #{id} AND status = 'RUNNING' AND locked_by = #{workerId}")
+    int markSucceeded(@Param("id") Long id, @Param("workerId") String workerId);
+
+    @Update("UPDATE ai_analysis_job SET status = 'PENDING', next_run_at = #{nextRunAt}, last_error = #{error}, locked_by = NULL " +
+            "WHERE id = #{id} AND status = 'RUNNING' AND locked_by = #{workerId}")
+    int markRetry(@Param("id") Long id, @Param("workerId") String workerId,
+                  @Param("nextRunAt") LocalDateTime nextRunAt, @Param("error") String error);
+
+    @Update("UPDATE ai_analysis_job SET status = 'FAILED', finished_at = NOW(), last_error = #{error}, locked_by = NULL " +
+            "WHERE id = #{id} AND status = 'RUNNING' AND locked_by = #{workerId}")
+    int markFailed(@Param("id") Long id, @Param("workerId") String workerId, @Param("error") String error);
+
+    // 刷新本实例执行中任务的心跳
+    @Update("<script>UPDATE ai_analysis_job SET heartbeat_at = NOW() " +
+            "WHERE id IN <foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach> " +
+            "AND status = 'RUNNING' AND locked_by = #{workerId}</script>")
+    int heartbeat(@Param("ids") List<Long> ids, @Param("workerId") String workerId);
+
+    // 已抢占但未能交给工作线程，撤销本次抢占
+    @Update("UPDATE ai_analysis_job SET status = 'PENDING', attempts = attempts - 1, started_at = NULL, heartbeat_at = NULL, locked_by = NULL " +
+            "WHERE id = #{id} AND status = 'RUNNING' AND locked_by = #{workerId}")
+    int release(@Param("id") Long id, @Param("workerId") String workerId);
+
+    // 心跳超时（执行实例已退出）的任务：尝试次数未达上限的重新排队（抢占时会再计一次尝试）
+    @Update("UPDATE ai_analysis_job SET status = 'PENDING', locked_by = NULL, next_run_at = NOW(), last_error = #{error} " +
+            "WHERE status = 'RUNNING' AND heartbeat_at < #{staleBefore} AND attempts < #{maxAttempts}")
+    int requeueStale(@Param("staleBefore") LocalDateTime staleBefore, @Param("maxAttempts") int maxAttempts,
+                     @Param("error") String error);
+
+    // 心跳超时且尝试次数已达上限的任务标记为失败，避免反复导致实例退出的任务无限重新排队
+    @Update("UPDATE ai_analysis_job SET status = 'FAILED', locked_by = NULL, finished_at = NOW(), last_error = #{error} " +
+            "WHERE status = 'RUNNING' AND heartbeat_at < #{staleBefore} AND attempts >= #{maxAttempts}")
+    int failStale(@Param("staleBefore") LocalDateTime staleBefore, @Param("maxAttempts") int maxAttempts,
+                  @Param("error") String error);
+
+    // ========== 查询 ==========
+
+    @Select("SELECT * FROM ai_analysis_job WHERE article_id = #{articleId}")
+    AnalysisJob selectByArticleId(@Param("articleId") Long articleId);
+
+    @Select("SELECT status, COUNT(*) AS count FROM ai_analysis_job GROUP BY status")
+    List<Map<String, Object>> countByStatus();
+}
@@ -14,4 +14,9 @@ public class BatchAiAnalysisRequest {
     private List<Long> articleIds;
     
     private boolean forceRegenerate = false;
+    
+    /**
+     * 任务优先级：INTERACTIVE（用户正在等待）/ NORMAL / BULK（批量回填）
+     */
+    private String priority = "NORMAL";
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.xreadup.ai.model.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * 入库预热任务请求DTO
+ */
+@Data
+public class PrewarmJobRequest {
+
+    /**
+     * 文章ID → 预测热度分（0-100），热度越高越先预热
+     */
+    @NotEmpty(message = "文章列表不能为空")
+    private Map<Long, Integer> popularityScores;
+}
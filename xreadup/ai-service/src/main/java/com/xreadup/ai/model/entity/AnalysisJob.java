@@ -0,0 +1,81 @@
+package com.xreadup.ai.model.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * AI文章分析任务实体
+ * 每篇文章最多一个任务，重复提交时合并到同一行
+ */
+@Data
+@TableName("ai_analysis_job")
+public class AnalysisJob {
+
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_RUNNING = "RUNNING";
+    public static final String STATUS_SUCCEEDED = "SUCCEEDED";
+    public static final String STATUS_FAILED = "FAILED";
+
+    /**
+     * 交互请求（用户正在等待）
+     */
+    public static final int PRIORITY_INTERACTIVE = 100;
+
+    /**
+     * 普通提交
+     */
+    public static final int PRIORITY_NORMAL = 50;
+
+    /**
+     * 批量回填
+     */
+    public static final int PRIORITY_BULK = 10;
+
+    /**
+     * 入库预热的优先级区间（按预测热度映射，介于批量回填与普通提交之间）
+     */
+    public static final int PRIORITY_PREWARM_MIN = PRIORITY_BULK + 1;
+    public static final int PRIORITY_PREWARM_MAX = PRIORITY_NORMAL - 1;
+
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    private Long articleId;
+    private Integer priority;
+    private String status;
+    private Boolean forceRegenerate;
+    private Boolean enrich; // 同时生成测验题与中文翻译
+    private Integer attempts; // 已尝试次数
+    private String lockedBy; // 执行实例
+    private String lastError; // 最近一次失败原因
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime nextRunAt; // 最早执行时间（重试退避）
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime startedAt;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime heartbeatAt; // 执行实例最近一次心跳
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime finishedAt;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime createdAt;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime updatedAt;
+
+    /**
+     * 是否为入库预热任务（无人等待，受每日预算限制）
+     */
+    public boolean isPrewarm() {
+        return Boolean.TRUE.equals(enrich) && priority != null && priority < PRIORITY_NORMAL;
+    }
+}
@@ -14,8 +14,11 @@ import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.chat.messages.SystemMessage;
 import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.ai.chat.prompt.Prompt;
+import com.xreadup.ai.service.translate.ChunkedTranslationEngine;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 
 import java.util.*;
 
@@ -38,6 +41,12 @@ public class AiAnalysisService {
     @Autowired
     private ChatClient chatClient;
 
+    @Autowired
+    private ChunkedTranslationEngine chunkedTranslationEngine;
+
+    @Value("${ai.translate.llm-chunk-size:3000}")
+    private int llmChunkSize;
+
     /**
      * 全面分析文章
      * <p>
@@ -227,30 +236,23 @@ public class AiAnalysisService {
     }
 
     /**
-     * 处理大文本翻译（分段处理）
+     * 处理大文本翻译（按段落、句子分块并行处理）
      */
     private String handleLargeTextTranslation(String englishText) {
         try {
-            int chunkSize = 3000;
-            StringBuilder fullTranslation = new StringBuilder();
-            
-            for (int i = 0; i < englishText.length(); i += chunkSize) {
-                int end = Math.min(i + chunkSize, englishText.length());
-                String chunk = englishText.substring(i, end);
-                
-                String chunkTranslation = chatClient.prompt()
-                    .system("你是一个专业的中英翻译专家，请将英文段落翻译成中文。" +
-                           "确保翻译准确流畅，保持上下文的连贯性。")
-                    .user("翻译：\n" + chunk)
-                    .call()
-                    .content();
-                
-                if (chunkTranslation != null) {
-                    fullTranslation.append(chunkTranslation).append("\n\n");
-                }
-            }
-            
-            return fullTranslation.toString();
+            return chunkedTranslationEngine.translate(englishText, llmChunkSize,
+                    ChunkedTranslationEngine.Provider.LLM, chunk -> {
+                        String chunkTranslation = chatClient.prompt()
+                            .system("你是一个专业的中英翻译专家，请将英文段落翻译成中文。" +
+                                   "确保翻译准确流畅，保持上下文的连贯性。")
+                            .user("翻译：\n" + chunk)
+                            .call()
+                            .content();
+                        if (chunkTranslation == null) {
+                            throw new IllegalStateException("AI返回空翻译结果");
+                        }
+                        return chunkTranslation;
+                    });
             
         } catch (Exception e) {
             log.error("大文本翻译失败", e);
@@ -325,6 +327,21 @@ public class AiAnalysisService {
             .content();
     }
 
+    /**
+     * 生成中文摘要（流式）
+     * 提示词与 {@link #generateSummary} 相同，按模型生成顺序逐段返回
+     * 
+     * @param content 文章内容
+     * @return 摘要文本片段
+     */
+    public Flux<String> generateSummaryStream(String content) {
+        return chatClient.prompt()
+            .system("你是一个专业的内容摘要专家，请用简洁的中文总结文章要点。")
+            .user("请用中文总结以下文章内容（100字以内）：\n\n" + content)
+            .stream()
+            .content();
+    }
+
     /**
      * 提取关键词
      * <p>
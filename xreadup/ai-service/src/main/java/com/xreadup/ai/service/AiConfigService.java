@@ -1,6 +1,6 @@
 package com.xreadup.ai.service;
 
-import com.xreadup.ai.client.SystemConfigClient;
+import com.xreadup.ai.service.config.SystemConfigSnapshot;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -8,6 +8,7 @@ import org.springframework.stereotype.Service;
 /**
  * AI服务配置管理
  * 负责检查AI相关的系统配置
+ * 配置从本地快照读取，不在请求路径上远程调用管理服务
  * 
  * @author XReadUp
  * @since 2025-10-12
@@ -16,8 +17,8 @@ import org.springframework.stereotype.Service;
 @Slf4j
 public class AiConfigService {
     
-    @Autowired(required = false)
-    private SystemConfigClient systemConfigClient;
+    @Autowired
+    private SystemConfigSnapshot systemConfigSnapshot;
     
     /**
      * 检查AI文章分析功能是否启用
@@ -70,20 +71,18 @@ public class AiConfigService {
      * @return 是否维护模式
      */
     public boolean isMaintenanceMode() {
-        try {
-            if (systemConfigClient != null) {
-                Object status = systemConfigClient.getMaintenanceStatus();
-                if (status instanceof java.util.Map) {
-                    @SuppressWarnings("unchecked")
-                    java.util.Map<String, Object> statusMap = (java.util.Map<String, Object>) status;
-                    Boolean maintenanceMode = (Boolean) statusMap.get("maintenanceMode");
-                    return maintenanceMode != null ? maintenanceMode : false;
-                }
-            }
-        } catch (Exception e) {
-            log.warn("获取维护模式配置失败，使用默认值: false", e);
-        }
-        return false; // 默认非维护模式
+        return systemConfigSnapshot.getBoolean("maintenance.enabled", false); // 默认非维护模式
+    }
+    
+    /**
+     * 获取业务限制值
+     * 
+     * @param limitKey 限制键
+     * @param defaultValue 默认值
+     * @return 限制值
+     */
+    public int getLimitValue(String limitKey, int defaultValue) {
+        return systemConfigSnapshot.getInt(limitKey, defaultValue);
     }
     
     /**
@@ -114,15 +113,8 @@ public class AiConfigService {
      * @return 是否启用
      */
     private boolean checkFeatureEnabled(String featureKey, boolean defaultValue) {
-        try {
-            if (systemConfigClient != null) {
-                Boolean enabled = systemConfigClient.isFeatureEnabled(featureKey);
-                log.debug("功能 {} 状态: {}", featureKey, enabled);
-                return enabled != null ? enabled : defaultValue;
-            }
-        } catch (Exception e) {
-            log.warn("获取功能 {} 配置失败，使用默认值: {}", featureKey, defaultValue, e);
-        }
-        return defaultValue;
+        boolean enabled = systemConfigSnapshot.getBoolean(featureKey, defaultValue);
+        log.debug("功能 {} 状态: {}", featureKey, enabled);
+        return enabled;
     }
 }
@@ -4,6 +4,7 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xreadup.ai.client.ArticleServiceClient;
 import com.xreadup.ai.mapper.AiAnalysisMapper;
 import com.xreadup.ai.model.dto.ArticleAnalysisRequest;
 import com.xreadup.ai.model.dto.ArticleAnalysisResponse;
@@ -259,31 +260,27 @@ public class AiDataService {
     }
     
     @Autowired
-    private javax.sql.DataSource dataSource;
+    private ArticleServiceClient articleServiceClient;
     
     /**
      * 同步中文翻译到文章表
+     * 通过文章服务按ID更新，由文章服务负责分段整理与缓存失效
      * 
      * @param articleId 文章ID
      * @param chineseTranslation 中文翻译内容
      * @return 是否成功
      */
-    @Transactional
     public boolean syncTranslationToArticle(Long articleId, String chineseTranslation) {
-        try (java.sql.Connection conn = dataSource.getConnection();
-             java.sql.PreparedStatement pstmt = conn.prepareStatement(
-                 "UPDATE article SET content_cn = ?, update_time = NOW() WHERE id = ?")) {
-            
-            pstmt.setString(1, chineseTranslation);
-            pstmt.setLong(2, articleId);
-            
-            int updated = pstmt.executeUpdate();
+        try {
+            ArticleServiceClient.UpdateContentCnByIdRequest request = new ArticleServiceClient.UpdateContentCnByIdRequest();
+            request.setContentCn(chineseTranslation);
+            ArticleServiceClient.ApiResponse<Boolean> response = articleServiceClient.updateContentCnById(articleId, request);
             
-            if (updated > 0) {
+            if (response != null && response.isSuccess() && Boolean.TRUE.equals(response.getData())) {
                 log.info("成功同步文章ID {} 的中文翻译到article表", articleId);
                 return true;
             } else {
-                log.warn("文章ID {} 不存在，无法同步中文翻译", articleId);
+                log.warn("文章ID {} 不存在或更新失败，无法同步中文翻译", articleId);
                 return false;
             }
         } catch (Exception e) {
@@ -1,12 +1,15 @@
 package com.xreadup.ai.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xreadup.ai.common.StreamEvents;
 import com.xreadup.ai.model.dto.*;
 import com.xreadup.ai.service.filter.ContentFilterService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -99,6 +102,36 @@ public class AiReadingAssistantService {
         }
     }
     
+    /**
+     * AI对话助手（流式）
+     * 逐段输出回答，输出经过增量内容过滤；结束事件携带完整回答与后续问题建议
+     */
+    public Flux<ServerSentEvent<Object>> streamChatWithAssistant(AiChatRequest request) {
+        String question = request.getQuestion();
+        Flux<String> answer;
+        if (question == null || question.trim().isEmpty()) {
+            log.warn("AI流式对话请求问题为空");
+            answer = Flux.just("请提出一个具体的问题，我会尽力帮助您！");
+        } else if (!contentFilter.isChatSafe(question)) {
+            log.warn("用户问题包含违禁内容 | 用户: {}", request.getUserId());
+            answer = Flux.just("抱歉，您的问题包含不当内容，请重新提问。");
+        } else {
+            answer = contentFilter.filterChatStream(
+                    aiToolService.intelligentChatStream(question.trim(), request.getArticleContext()));
+        }
+
+        return StreamEvents.of(answer, full -> {
+            AiChatResponse chatResponse = new AiChatResponse();
+            chatResponse.setAnswer(full);
+            chatResponse.setFollowUpQuestion(question == null || question.trim().isEmpty()
+                    ? "您可以问我关于文章内容、单词解释、语法问题等。"
+                    : generateFollowUpQuestion(question));
+            chatResponse.setDifficulty("B1");
+            log.info("AI流式对话完成 - 响应长度: {}", full.length());
+            return chatResponse;
+        }, "抱歉，我遇到了一些技术问题。请稍后再试，或者尝试重新提问。");
+    }
+    
     /**
      * 根据用户问题生成合适的后续问题建议（教育导向版）
      */
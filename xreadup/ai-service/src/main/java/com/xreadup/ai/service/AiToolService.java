@@ -5,6 +5,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 
 import java.util.List;
 import java.util.ArrayList;
@@ -22,6 +23,9 @@ import java.util.HashMap;
 @Service
 public class AiToolService {
 
+    private static final String CHAT_SYSTEM_PROMPT =
+        "你是Rayda老师，一位专业的英语学习导师，擅长帮助中国学生提高英语阅读能力。用中文回答，语言友好专业，注重教学效果。";
+
     @Autowired
     private ChatClient chatClient;
 
@@ -43,6 +47,48 @@ public class AiToolService {
      * </p>
      */
     public String intelligentChat(String question, String articleContext) {
+        String prompt = buildChatPrompt(question, articleContext);
+
+        try {
+            log.info("AI对话请求 - 问题: {}, 文章长度: {}", 
+                question, 
+                articleContext != null ? articleContext.length() : 0);
+            
+            String response = chatClient.prompt()
+                .system(CHAT_SYSTEM_PROMPT)
+                .user(prompt)
+                .call()
+                .content();
+            
+            log.info("AI对话响应成功 - 响应长度: {}", response != null ? response.length() : 0);
+            return response != null ? response : "抱歉，我暂时无法回答这个问题，请稍后再试。";
+            
+        } catch (Exception e) {
+            log.error("AI对话失败", e);
+            return "抱歉，我遇到了一些技术问题，暂时无法回答这个问题。请稍后再试，或者尝试重新提问。";
+        }
+    }
+
+    /**
+     * 智能对话（流式）
+     * 提示词与 {@link #intelligentChat} 相同，按模型生成顺序逐段返回
+     */
+    public Flux<String> intelligentChatStream(String question, String articleContext) {
+        String prompt = buildChatPrompt(question, articleContext);
+        log.info("AI流式对话请求 - 问题: {}, 文章长度: {}", 
+            question, 
+            articleContext != null ? articleContext.length() : 0);
+        return chatClient.prompt()
+            .system(CHAT_SYSTEM_PROMPT)
+            .user(prompt)
+            .stream()
+            .content();
+    }
+
+    /**
+     * 构建个性化对话提示词
+     */
+    private String buildChatPrompt(String question, String articleContext) {
         // 分析文章难度和主题
         String articleDifficulty = analyzeArticleDifficulty(articleContext);
         String articleTheme = extractArticleTheme(articleContext);
@@ -51,7 +97,7 @@ public class AiToolService {
         Map<String, Object> contextMap = parseArticleContext(articleContext);
         String userProfile = extractUserProfile(contextMap);
         
-        String prompt = String.format("""
+        return String.format("""
             你是Rayda老师，一位经验丰富的英语学习导师，专门帮助中国学生提高英语阅读能力。
             
             📚 当前学习情境：
@@ -85,27 +131,6 @@ public class AiToolService {
             articleDifficulty, 
             question,
             userProfile);
-
-        try {
-            log.info("AI对话请求 - 问题: {}, 文章长度: {}, 难度: {}, 主题: {}", 
-                question, 
-                articleContext != null ? articleContext.length() : 0,
-                articleDifficulty,
-                articleTheme);
-            
-            String response = chatClient.prompt()
-                .system("你是Rayda老师，一位专业的英语学习导师，擅长帮助中国学生提高英语阅读能力。用中文回答，语言友好专业，注重教学效果。")
-                .user(prompt)
-                .call()
-                .content();
-            
-            log.info("AI对话响应成功 - 响应长度: {}", response != null ? response.length() : 0);
-            return response != null ? response : "抱歉，我暂时无法回答这个问题，请稍后再试。";
-            
-        } catch (Exception e) {
-            log.error("AI对话失败", e);
-            return "抱歉，我遇到了一些技术问题，暂时无法回答这个问题。请稍后再试，或者尝试重新提问。";
-        }
     }
     
     /**
@@ -2,11 +2,11 @@ package com.xreadup.ai.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.xreadup.ai.client.ArticleServiceClient;
+import com.xreadup.ai.common.StreamEvents;
 import com.xreadup.ai.mapper.AiAnalysisMapper;
 import com.xreadup.ai.model.dto.ArticleAnalysisRequest;
 import com.xreadup.ai.model.dto.ArticleAnalysisResponse;
 import com.xreadup.ai.model.dto.AiAnalysisResponse;
-import com.xreadup.ai.model.dto.BatchAiAnalysisRequest;
 import com.xreadup.ai.model.dto.WordTranslationRequest;
 import com.xreadup.ai.model.dto.WordTranslationResponse;
 import com.xreadup.ai.model.dto.SentenceParseResponse;
@@ -17,10 +17,16 @@ import java.util.ArrayList;
 import java.util.List;
 import com.xreadup.ai.model.entity.AiAnalysis;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.xreadup.ai.service.cache.SentenceParseCache;
+import com.xreadup.ai.service.filter.ContentFilterService;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -58,6 +64,12 @@ public class EnhancedAiAnalysisService {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private SentenceParseCache sentenceParseCache;
+
+    @Autowired
+    private ContentFilterService contentFilterService;
+
     /**
      * 分析文章并保存结果
      * <p>
@@ -279,38 +291,6 @@ public class EnhancedAiAnalysisService {
         }
     }
 
-    /**
-     * 批量分析文章
-     * 
-     * @param request 批量分析请求
-     * @return 分析结果列表
-     */
-    public List<ArticleAnalysisResponse> batchAnalyzeArticles(BatchAiAnalysisRequest request) {
-        List<ArticleAnalysisResponse> responses = new ArrayList<>();
-        
-        for (Long articleId : request.getArticleIds()) {
-            try {
-                // 获取文章内容（需要调用article-service）
-                String content = getArticleContent(articleId);
-                if (content != null) {
-                    ArticleAnalysisRequest analysisRequest = new ArticleAnalysisRequest();
-                    analysisRequest.setArticleId(articleId);
-                    analysisRequest.setTitle("文章标题"); // 需要从article-service获取
-                    analysisRequest.setContent(content);
-                    analysisRequest.setCategory("默认分类");
-                    analysisRequest.setWordCount(content.length());
-                    
-                    ArticleAnalysisResponse response = aiAnalysisService.analyzeArticle(analysisRequest);
-                    responses.add(response);
-                }
-            } catch (Exception e) {
-                log.error("批量分析失败: 文章ID={}", articleId, e);
-            }
-        }
-        
-        return responses;
-    }
-
     /**
      * 获取文章分析结果
      * 
@@ -376,6 +356,27 @@ public class EnhancedAiAnalysisService {
         }
     }
 
+    /**
+     * 生成文章摘要（DeepSeek，流式）
+     * 逐段输出摘要，输出经过增量内容过滤；生成完成后保存摘要，结束事件携带完整摘要
+     * 
+     * @param articleId 文章ID
+     * @param text 文章内容
+     * @return SSE事件流
+     */
+    public Flux<ServerSentEvent<Object>> streamSummary(Long articleId, String text) {
+        log.info("开始流式生成文章摘要: 文章ID={}, 文本长度={}字符", articleId, text.length());
+        Flux<String> summary = contentFilterService.filterChatStream(aiAnalysisService.generateSummaryStream(text));
+        return StreamEvents.of(summary, full -> {
+            if (full.trim().isEmpty()) {
+                throw new IllegalStateException("生成文章摘要失败: 摘要内容为空");
+            }
+            saveDeepSeekSummary(articleId, full);
+            log.info("文章摘要流式生成完成并保存: 摘要长度={}字符", full.length());
+            return full;
+        }, "生成摘要失败，请稍后重试");
+    }
+
     /**
      * 句子解析（带缓存共享机制）
      * 
@@ -387,19 +388,28 @@ public class EnhancedAiAnalysisService {
         try {
             log.info("开始句子解析（缓存模式）: 句子={}, 来源文章ID={}", sentence, sourceArticleId);
             
-            // 先尝试从缓存获取
-            SentenceParseResponse cachedResult = getCachedSentenceParseResult(sentence);
+            // 先查两级缓存（本地 + Redis）
+            String cacheKey = sentenceParseCache.keyOf(sentence);
+            SentenceParseResponse cachedResult = sentenceParseCache.get(cacheKey);
             if (cachedResult != null) {
                 log.info("句子解析缓存命中，直接返回结果");
                 return cachedResult;
             }
             
-            // 缓存未命中，调用AI解析
+            // 缓存未命中时再查数据库中已持久化的结果
+            SentenceParseResponse storedResult = getCachedSentenceParseResult(sentence);
+            if (storedResult != null) {
+                log.info("句子解析数据库命中，回填缓存");
+                sentenceParseCache.putFromStore(cacheKey, storedResult);
+                return storedResult;
+            }
+            
+            // 均未命中，调用AI解析
             log.info("句子解析缓存未命中，调用AI服务解析");
             SentenceParseResponse result = aiAnalysisService.parseSentence(sentence);
             
-            // 异步保存解析结果到缓存，包含来源文章ID
-            saveSentenceParseToCache(sentence, result, sourceArticleId);
+            // 写入缓存，数据库由定时任务异步写回，包含来源文章ID
+            sentenceParseCache.put(cacheKey, sentence, result, sourceArticleId);
             
             return result;
         } catch (Exception e) {
@@ -419,7 +429,36 @@ public class EnhancedAiAnalysisService {
     }
 
     /**
-     * 从缓存获取句子解析结果
+     * 将缓存中新产生的句子解析结果批量写回数据库
+     */
+    @Scheduled(fixedDelayString = "${ai.sentence-parse-cache.write-behind-interval-ms:5000}")
+    @PreDestroy
+    public void flushSentenceParseWrites() {
+        List<SentenceParseCache.PendingWrite> writes = sentenceParseCache.drainPendingWrites();
+        if (writes.isEmpty()) {
+            return;
+        }
+        int saved = 0;
+        for (SentenceParseCache.PendingWrite write : writes) {
+            if (saveSentenceParseToCache(write.getSentence(), write.getResponse(), write.getSourceArticleId())) {
+                saved++;
+            } else {
+                sentenceParseCache.requeue(write);
+            }
+        }
+        sentenceParseCache.recordFlushed(saved);
+        log.info("句子解析结果写回数据库完成: 成功 {} 条, 失败 {} 条", saved, writes.size() - saved);
+    }
+
+    /**
+     * 获取句子解析缓存统计
+     */
+    public Map<String, Object> getSentenceParseCacheStats() {
+        return sentenceParseCache.getStats();
+    }
+
+    /**
+     * 从数据库获取已持久化的句子解析结果
      * 
      * @param sentence 句子内容
      * @return 缓存的解析结果，如果不存在返回null
@@ -446,13 +485,14 @@ public class EnhancedAiAnalysisService {
     }
     
     /**
-     * 保存句子解析结果到缓存
+     * 保存句子解析结果到数据库
      * 
      * @param sentence 句子内容
      * @param parseResult 解析结果
      * @param sourceArticleId 来源文章ID（可选）
+     * @return 是否保存成功
      */
-    private void saveSentenceParseToCache(String sentence, SentenceParseResponse parseResult, Long sourceArticleId) {
+    private boolean saveSentenceParseToCache(String sentence, SentenceParseResponse parseResult, Long sourceArticleId) {
         try {
             Long virtualArticleId = generateVirtualArticleId(sentence);
             String parseJson = objectMapper.writeValueAsString(parseResult);
@@ -493,8 +533,10 @@ public class EnhancedAiAnalysisService {
             }
             
             log.info("句子解析结果已保存到缓存: 虚拟文章ID={}, 来源文章ID={}", virtualArticleId, sourceArticleId);
+            return true;
         } catch (Exception e) {
             log.error("保存句子解析缓存失败", e);
+            return false;
         }
     }
     
@@ -508,8 +550,8 @@ public class EnhancedAiAnalysisService {
      */
     private Long generateVirtualArticleId(String sentence) {
         try {
-            // 清理句子内容（去除首尾空格，统一小写）
-            String cleanSentence = sentence.trim().toLowerCase();
+            // 与缓存键使用相同的规范化规则
+            String cleanSentence = SentenceParseCache.normalize(sentence);
             
             // 计算MD5哈希
             MessageDigest md = MessageDigest.getInstance("MD5");
@@ -614,24 +656,6 @@ public class EnhancedAiAnalysisService {
         }
     }
 
-    /**
-     * 获取文章内容（调用article-service）
-     * 
-     * @param articleId 文章ID
-     * @return 文章内容
-     */
-    private String getArticleContent(Long articleId) {
-        try {
-            // 这里应该调用article-service获取文章内容
-            // 暂时返回null，需要实现article-service调用
-            log.warn("需要实现article-service调用获取文章内容: 文章ID={}", articleId);
-            return "示例文章内容...";
-        } catch (Exception e) {
-            log.error("获取文章内容失败: 文章ID={}", articleId, e);
-            return null;
-        }
-    }
-
     /**
      * 获取文章标题
      * 
@@ -1,12 +1,15 @@
 package com.xreadup.ai.service;
 
+import com.xreadup.ai.common.StreamEvents;
 import com.xreadup.ai.model.dto.SimpleAiTutorRequest;
 import com.xreadup.ai.model.dto.SimpleAiTutorResponse;
 import com.xreadup.ai.service.filter.ContentFilterService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 
 /**
  * 简配版AI学导服务
@@ -16,6 +19,9 @@ import org.springframework.stereotype.Service;
 @Slf4j
 public class SimpleAiTutorService {
 
+    private static final String SYSTEM_PROMPT =
+        "你是Rayda老师，一位专业的英语学习导师。你专门帮助学生在阅读文章时提供学习指导。用中文回答，语言简洁专业，始终以'Rayda老师'的身份回复。";
+
     @Autowired
     private ChatClient chatClient;
 
@@ -46,7 +52,7 @@ public class SimpleAiTutorService {
             
             // 调用AI模型
             String response = chatClient.prompt()
-                .system("你是Rayda老师，一位专业的英语学习导师。你专门帮助学生在阅读文章时提供学习指导。用中文回答，语言简洁专业，始终以'Rayda老师'的身份回复。")
+                .system(SYSTEM_PROMPT)
                 .user(prompt)
                 .call()
                 .content();
@@ -72,6 +78,37 @@ public class SimpleAiTutorService {
         }
     }
     
+    /**
+     * 简配版AI学导对话（流式）
+     * 逐段输出回答，输出经过增量内容过滤；结束事件携带完整回答与后续问题建议
+     */
+    public Flux<ServerSentEvent<Object>> streamChat(SimpleAiTutorRequest request) {
+        log.info("简配版AI学导流式对话 - 问题: {}, 文章: {}", 
+            request.getQuestion(), request.getArticleTitle());
+        
+        Flux<String> answer;
+        if (!contentFilter.isChatSafe(request.getQuestion())) {
+            log.warn("用户问题包含违禁内容，拒绝回答");
+            answer = Flux.just("Rayda老师：抱歉，您的问题包含不当内容，请重新提问。");
+        } else {
+            answer = contentFilter.filterChatStream(chatClient.prompt()
+                .system(SYSTEM_PROMPT)
+                .user(buildMinimalPrompt(request))
+                .stream()
+                .content());
+        }
+        
+        return StreamEvents.of(answer, full -> {
+            SimpleAiTutorResponse tutorResponse = new SimpleAiTutorResponse();
+            tutorResponse.setAnswer(full.isEmpty() ? "Rayda老师暂时无法回答这个问题。" : full);
+            tutorResponse.setFollowUpQuestion(request.getQuestion() == null
+                ? "您可以问我关于英语学习的问题。"
+                : generateSimpleFollowUp(request.getQuestion()));
+            log.info("简配版AI学导流式响应完成 - 响应长度: {}", full.length());
+            return tutorResponse;
+        }, "Rayda老师遇到了一些技术问题。请稍后再试。");
+    }
+    
     /**
      * 构建极简的prompt，只包含核心信息
      */
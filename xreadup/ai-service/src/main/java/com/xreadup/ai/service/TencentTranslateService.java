@@ -3,10 +3,25 @@ package com.xreadup.ai.service;
 import com.tencentcloudapi.common.exception.TencentCloudSDKException;
 import com.tencentcloudapi.tmt.v20180321.TmtClient;
 import com.tencentcloudapi.tmt.v20180321.models.*;
+import com.xreadup.ai.service.translate.ChunkedTranslationEngine;
+import com.xreadup.ai.service.translate.TranslateBatcher;
+import com.xreadup.ai.service.translate.TranslationItem;
+import com.xreadup.ai.service.translate.TranslationMemory;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 /**
  * 腾讯云翻译服务 - 基础翻译引擎
  * 严格按照官方文档集成：https://cloud.tencent.com/document/product/551/15612
@@ -23,6 +38,23 @@ public class TencentTranslateService {
     @Autowired
     private TmtClient tmtClient;
 
+    @Autowired
+    private ChunkedTranslationEngine chunkedTranslationEngine;
+
+    @Autowired
+    private TranslationMemory translationMemory;
+
+    @Autowired
+    private TranslateBatcher translateBatcher;
+
+    // 单条请求等待合批结果的最长时间，超时后改用单条接口
+    @Value("${ai.translate.batch.wait-timeout-ms:10000}")
+    private long batchWaitTimeoutMs;
+
+    // 分块翻译时的单块长度，块越小并行度越高
+    @Value("${ai.translate.tencent-chunk-size:2000}")
+    private int chunkSize;
+
     private static final int MAX_TEXT_LENGTH = 5000; // 腾讯云API限制6000字符，留出一些余量
     
     /**
@@ -38,41 +70,35 @@ public class TencentTranslateService {
         if (text == null || text.isEmpty()) {
             return text;
         }
+
+        String remembered = translationMemory.get(text, sourceLang, targetLang);
+        if (remembered != null) {
+            log.debug("命中翻译记忆: {} -> {}, 文本长度: {}", sourceLang, targetLang, text.length());
+            return remembered;
+        }
         
         // 如果文本长度超过限制，使用分块翻译
         if (text.length() > MAX_TEXT_LENGTH) {
             log.info("文本长度 {} 超过单条翻译限制，使用分块翻译", text.length());
-            return translateLongText(text, sourceLang, targetLang);
+            String translated = translateLongText(text, sourceLang, targetLang);
+            translationMemory.put(text, sourceLang, targetLang, translated);
+            return translated;
         }
         
-        try {
-            TextTranslateRequest request = new TextTranslateRequest();
-            request.setSourceText(text);
-            request.setSource(sourceLang);
-            request.setTarget(targetLang);
-            request.setProjectId(0L); // 使用默认项目
-            
-            log.info("调用腾讯云翻译API: {} -> {}, 文本长度: {}", sourceLang, targetLang, text.length());
-            
-            TextTranslateResponse response = tmtClient.TextTranslate(request);
-            
-            if (response != null && response.getTargetText() != null) {
-                log.info("翻译成功: {} -> {}, 结果长度: {}", sourceLang, targetLang, response.getTargetText().length());
-                return response.getTargetText();
-            }
-            
-            log.warn("翻译返回空结果");
-            return text;
-            
-        } catch (TencentCloudSDKException e) {
-            log.error("腾讯云翻译API调用失败: {}", e.getMessage(), e);
-            throw new RuntimeException("翻译服务异常: " + e.getMessage(), e);
+        log.info("调用腾讯云翻译API: {} -> {}, 文本长度: {}", sourceLang, targetLang, text.length());
+        String translated = requestTranslation(text, sourceLang, targetLang);
+        if (translated != null) {
+            log.info("翻译成功: {} -> {}, 结果长度: {}", sourceLang, targetLang, translated.length());
+            return translated;
         }
+        
+        log.warn("翻译返回空结果");
+        return text;
     }
     
     /**
      * 长文本分块翻译
-     * 当文本长度超过API限制时，将文本分块翻译后合并结果
+     * 按段落、句子边界切分后并行翻译，按原顺序合并结果
      * 
      * @param text 待翻译的长文本
      * @param sourceLang 源语言
@@ -80,48 +106,10 @@ public class TencentTranslateService {
      * @return 完整的翻译结果
      */
     private String translateLongText(String text, String sourceLang, String targetLang) {
-        StringBuilder resultBuilder = new StringBuilder();
-        int totalLength = text.length();
-        int startIndex = 0;
-        int chunkCount = 0;
-        
         try {
-            // 循环分块翻译
-            while (startIndex < totalLength) {
-                // 计算当前块的结束位置
-                int endIndex = Math.min(startIndex + MAX_TEXT_LENGTH, totalLength);
-                
-                // 尽量在句子结束处分割，避免截断句子影响翻译质量
-                if (endIndex < totalLength) {
-                    // 查找最近的句子结束符
-                    int lastPunctuationIndex = findLastPunctuation(text, startIndex, endIndex);
-                    if (lastPunctuationIndex > startIndex + MAX_TEXT_LENGTH / 2) { // 确保至少翻译一半内容
-                        endIndex = lastPunctuationIndex + 1;
-                    }
-                }
-                
-                // 提取当前块
-                String chunk = text.substring(startIndex, endIndex);
-                chunkCount++;
-                
-                log.info("分块翻译第 {} 块: 开始位置={}, 结束位置={}, 块长度={}", 
-                        chunkCount, startIndex, endIndex, chunk.length());
-                
-                // 翻译当前块
-                String translatedChunk = translateTextInternal(chunk, sourceLang, targetLang);
-                
-                // 添加到结果中
-                resultBuilder.append(translatedChunk);
-                
-                // 更新起始位置
-                startIndex = endIndex;
-            }
-            
-            log.info("长文本翻译完成: 总共 {} 块, 原文长度={}, 译文长度={}", 
-                    chunkCount, totalLength, resultBuilder.length());
-            
-            return resultBuilder.toString();
-            
+            return chunkedTranslationEngine.translate(text, Math.min(chunkSize, MAX_TEXT_LENGTH),
+                    ChunkedTranslationEngine.Provider.TENCENT,
+                    chunk -> translateTextInternal(chunk, sourceLang, targetLang));
         } catch (Exception e) {
             log.error("长文本分块翻译失败: {}", e.getMessage(), e);
             throw new RuntimeException("长文本翻译服务异常: " + e.getMessage(), e);
@@ -129,53 +117,92 @@ public class TencentTranslateService {
     }
     
     /**
-     * 内部翻译方法，直接调用API
-     * 供分块翻译内部使用，避免递归调用
+     * 内部翻译方法
+     * 供分块翻译内部使用，避免递归调用；分块已由 ChunkedTranslationEngine 的许可控制并发，直接走单条接口，不进入合批窗口
      */
     private String translateTextInternal(String text, String sourceLang, String targetLang) {
+        String translated = translationMemory.get(text, sourceLang, targetLang);
+        if (translated == null) {
+            translated = translateDirect(text, sourceLang, targetLang);
+            translationMemory.put(text, sourceLang, targetLang, translated);
+        }
+        if (translated != null) {
+            return translated;
+        }
+        log.warn("分块翻译返回空结果");
+        return text;
+    }
+
+    /**
+     * 单条翻译请求（调用方已确认翻译记忆未命中）
+     * 并入合批窗口，与同一时刻的其他短文本共用一次批量调用；
+     * 合批失败或等待超时且条目尚未发出时退回单条接口；条目已随批次发出则继续等待该批次结果，避免重复计费。
+     * 结果写回翻译记忆，返回 null 表示接口未给出译文。
+     */
+    private String requestTranslation(String text, String sourceLang, String targetLang) {
+        String translated = null;
+        if (translateBatcher.accepts(text)) {
+            CompletableFuture<String> pending = translateBatcher.submit(text, sourceLang, targetLang);
+            try {
+                translated = pending.get(batchWaitTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (translateBatcher.withdraw(pending)) {
+                    log.warn("合批等待超时，条目尚未发出，改用单条翻译");
+                } else {
+                    translated = awaitInFlight(pending);
+                }
+            } catch (InterruptedException e) {
+                translateBatcher.withdraw(pending);
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("翻译请求被中断", e);
+            } catch (ExecutionException e) {
+                log.warn("合批翻译未成功，改用单条翻译: {}", e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+            }
+        }
+        if (translated == null) {
+            translated = translateDirect(text, sourceLang, targetLang);
+        }
+
+        translationMemory.put(text, sourceLang, targetLang, translated);
+        return translated;
+    }
+
+    /**
+     * 等待已发出批次的结果（受翻译客户端的超时限制），批次失败时返回 null 改用单条接口
+     */
+    private String awaitInFlight(CompletableFuture<String> pending) {
+        try {
+            log.debug("合批等待超时，所在批次已发出，继续等待结果");
+            return pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("翻译请求被中断", e);
+        } catch (ExecutionException e) {
+            log.warn("合批翻译未成功，改用单条翻译: {}", e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 直接调用单条翻译API
+     */
+    private String translateDirect(String text, String sourceLang, String targetLang) {
         try {
             TextTranslateRequest request = new TextTranslateRequest();
             request.setSourceText(text);
             request.setSource(sourceLang);
             request.setTarget(targetLang);
-            request.setProjectId(0L);
+            request.setProjectId(0L); // 使用默认项目
             
             TextTranslateResponse response = tmtClient.TextTranslate(request);
-            
-            if (response != null && response.getTargetText() != null) {
-                return response.getTargetText();
-            }
-            
-            log.warn("分块翻译返回空结果");
-            return text;
+            return response != null ? response.getTargetText() : null;
             
         } catch (TencentCloudSDKException e) {
-            log.error("分块翻译API调用失败: {}", e.getMessage(), e);
-            throw new RuntimeException("分块翻译服务异常: " + e.getMessage(), e);
+            log.error("腾讯云翻译API调用失败: {}", e.getMessage(), e);
+            throw new RuntimeException("翻译服务异常: " + e.getMessage(), e);
         }
     }
     
-    /**
-     * 查找文本中最后一个标点符号的位置
-     * 用于在分块时尽量保持句子完整性
-     */
-    private int findLastPunctuation(String text, int start, int end) {
-        // 常见的英文标点符号
-        String[] punctuations = {".", "?", "!", ";", "\"", "'", ","};
-        
-        int lastIndex = -1;
-        
-        for (String punctuation : punctuations) {
-            int index = text.lastIndexOf(punctuation, end - 1);
-            if (index > lastIndex && index >= start) {
-                lastIndex = index;
-            }
-        }
-        
-        // 如果没有找到标点符号，返回原始结束位置
-        return lastIndex > 0 ? lastIndex : end;
-    }
-
     /**
      * 文本翻译 - 英文到中文
      * 专门处理英文文章翻译
@@ -200,39 +227,102 @@ public class TencentTranslateService {
 
     /**
      * 批量文本翻译
-     * 用于翻译多个文本片段
+     * 翻译记忆命中的条目直接返回，其余去重后按条数、字符上限打包为批量调用，
+     * 某一批失败只影响该批条目，结果与入参顺序一一对应
      * 
      * @param texts 文本列表
      * @param sourceLang 源语言
      * @param targetLang 目标语言
-     * @return 翻译结果列表
+     * @return 逐条翻译结果
      */
-    public String translateBatch(String[] texts, String sourceLang, String targetLang) {
+    public List<TranslationItem> translateBatch(List<String> texts, String sourceLang, String targetLang) {
+        TranslationItem[] results = new TranslationItem[texts.size()];
+        // 未命中的原文 -> 在入参中的位置（相同原文只翻译一次）
+        Map<String, List<Integer>> pending = new LinkedHashMap<>();
+
+        for (int i = 0; i < texts.size(); i++) {
+            String text = texts.get(i);
+            if (text == null || text.isBlank()) {
+                results[i] = TranslationItem.success(i, text, text, false);
+                continue;
+            }
+            String remembered = translationMemory.get(text, sourceLang, targetLang);
+            if (remembered != null) {
+                results[i] = TranslationItem.success(i, text, remembered, true);
+            } else {
+                pending.computeIfAbsent(text, k -> new ArrayList<>()).add(i);
+            }
+        }
+        log.info("批量翻译: {} -> {}, 文本数量: {}, 记忆命中: {}, 待翻译: {}", sourceLang, targetLang,
+                texts.size(), texts.size() - pending.values().stream().mapToInt(List::size).sum(), pending.size());
+
+        List<String> packed = new ArrayList<>();
+        int packedChars = 0;
+        for (String text : pending.keySet()) {
+            if (!translateBatcher.accepts(text)) {
+                // 单条超过批次上限，走长文本翻译
+                translateSingleInto(text, sourceLang, targetLang, pending.get(text), results);
+                continue;
+            }
+            if (!packed.isEmpty() && (packed.size() >= translateBatcher.getMaxItems()
+                    || packedChars + text.length() > translateBatcher.getMaxChars())) {
+                translatePackInto(packed, sourceLang, targetLang, pending, results);
+                packed = new ArrayList<>();
+                packedChars = 0;
+            }
+            packed.add(text);
+            packedChars += text.length();
+        }
+        if (!packed.isEmpty()) {
+            translatePackInto(packed, sourceLang, targetLang, pending, results);
+        }
+        return Arrays.asList(results);
+    }
+
+    private void translatePackInto(List<String> packed, String sourceLang, String targetLang,
+                                   Map<String, List<Integer>> positions, TranslationItem[] results) {
         try {
-            TextTranslateBatchRequest request = new TextTranslateBatchRequest();
-            request.setSource(sourceLang);
-            request.setTarget(targetLang);
-            request.setSourceTextList(texts);
-            request.setProjectId(0L);
-            
-            log.info("批量翻译: {} -> {}, 文本数量: {}", sourceLang, targetLang, texts.length);
-            
-            TextTranslateBatchResponse response = tmtClient.TextTranslateBatch(request);
-            
-            if (response != null && response.getTargetTextList() != null && response.getTargetTextList().length > 0) {
-                log.info("批量翻译成功: 翻译结果数量: {}", response.getTargetTextList().length);
-                return String.join("\n", response.getTargetTextList());
+            String[] targets = translateBatcher.translateNow(packed, sourceLang, targetLang);
+            for (int i = 0; i < packed.size(); i++) {
+                String text = packed.get(i);
+                translationMemory.put(text, sourceLang, targetLang, targets[i]);
+                for (int index : positions.get(text)) {
+                    results[index] = TranslationItem.success(index, text, targets[i], false);
+                }
+            }
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.error("腾讯云批量翻译API调用失败: 条数 {}, 原因: {}", packed.size(), e.getMessage());
+            for (String text : packed) {
+                for (int index : positions.get(text)) {
+                    results[index] = TranslationItem.failure(index, text, e.getMessage());
+                }
             }
-            
-            log.warn("批量翻译返回空结果");
-            return String.join("\n", texts);
-            
-        } catch (TencentCloudSDKException e) {
-            log.error("腾讯云批量翻译API调用失败: {}", e.getMessage(), e);
-            throw new RuntimeException("批量翻译服务异常: " + e.getMessage(), e);
         }
     }
 
+    private void translateSingleInto(String text, String sourceLang, String targetLang,
+                                     List<Integer> indexes, TranslationItem[] results) {
+        try {
+            String translated = translateText(text, sourceLang, targetLang);
+            indexes.forEach(index -> results[index] = TranslationItem.success(index, text, translated, false));
+        } catch (Exception e) {
+            indexes.forEach(index -> results[index] = TranslationItem.failure(index, text, e.getMessage()));
+        }
+    }
+
+    /**
+     * 翻译记忆与合批统计
+     */
+    public Map<String, Object> getTranslateStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("memory", translationMemory.getStats());
+        stats.put("batch", translateBatcher.getStats());
+        return stats;
+    }
+
     /**
      * 获取支持的语言列表
      * 用于获取腾讯云支持的所有语言
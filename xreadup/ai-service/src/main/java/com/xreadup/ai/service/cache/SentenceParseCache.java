@@ -0,0 +1,238 @@
+package com.xreadup.ai.service.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.xreadup.ai.model.dto.SentenceParseResponse;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 句子解析两级缓存
+ * <p>
+ * L1 为进程内 Caffeine 缓存（按条数淘汰 + 过期时间），L2 为各实例共享的 Redis 缓存，
+ * 两级均以规范化后句子的 SHA-256 作为键，数据库中的虚拟文章ID也基于同一规范化结果。
+ * 新解析结果同时登记到写回队列，由定时任务合并后批量持久化到 ai_analysis 表，写库失败的结果重新入队重试。
+ * </p>
+ */
+@Slf4j
+@Component
+public class SentenceParseCache {
+
+    private static final String REDIS_KEY_PREFIX = "ai:sentence-parse:";
+
+    // 单条结果最多写库次数，超过后放弃持久化
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, SentenceParseResponse> localCache;
+    private final Duration redisTtl;
+    private final int maxPendingWrites;
+
+    // 待持久化的解析结果：键 -> 写回项，同一句子多次写入只保留最后一次
+    private final Map<String, PendingWrite> pendingWrites = new ConcurrentHashMap<>();
+
+    private final AtomicLong redisHits = new AtomicLong();
+    private final AtomicLong redisMisses = new AtomicLong();
+    private final AtomicLong redisErrors = new AtomicLong();
+    private final AtomicLong storeHits = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong writeBehindFlushed = new AtomicLong();
+    private final AtomicLong writeBehindFailed = new AtomicLong();
+    private final AtomicLong writeBehindDropped = new AtomicLong();
+
+    public SentenceParseCache(StringRedisTemplate redisTemplate,
+                              ObjectMapper objectMapper,
+                              @Value("${ai.sentence-parse-cache.local-max-size:10000}") long localMaxSize,
+                              @Value("${ai.sentence-parse-cache.local-ttl-minutes:60}") long localTtlMinutes,
+                              @Value("${ai.sentence-parse-cache.redis-ttl-hours:72}") long redisTtlHours,
+                              @Value("${ai.sentence-parse-cache.max-pending-writes:5000}") int maxPendingWrites) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(localTtlMinutes, TimeUnit.MINUTES)
+                .recordStats()
+                .build();
+        this.redisTtl = Duration.ofHours(redisTtlHours);
+        this.maxPendingWrites = maxPendingWrites;
+    }
+
+    /**
+     * 规范化句子：去除首尾空白、合并连续空白、统一小写
+     */
+    public static String normalize(String sentence) {
+        return sentence.trim().replaceAll("\\s+", " ").toLowerCase();
+    }
+
+    /**
+     * 计算规范化句子的缓存键
+     */
+    public String keyOf(String sentence) {
+        String normalized = normalize(sentence);
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(normalized.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    }
+
+    /**
+     * 依次查询 L1、L2，L2 命中时回填 L1
+     *
+     * @return 缓存的解析结果，未命中返回 null
+     */
+    public SentenceParseResponse get(String key) {
+        SentenceParseResponse local = localCache.getIfPresent(key);
+        if (local != null) {
+            return local;
+        }
+
+        try {
+            String json = redisTemplate.opsForValue().get(REDIS_KEY_PREFIX + key);
+            if (json != null) {
+                SentenceParseResponse cached = objectMapper.readValue(json, SentenceParseResponse.class);
+                redisHits.incrementAndGet();
+                localCache.put(key, cached);
+                return cached;
+            }
+            redisMisses.incrementAndGet();
+        } catch (Exception e) {
+            // Redis 不可用时降级为仅使用 L1
+            redisErrors.incrementAndGet();
+            log.warn("读取句子解析Redis缓存失败: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * 持久化存储命中后回填两级缓存（不再写回数据库）
+     */
+    public void putFromStore(String key, SentenceParseResponse response) {
+        storeHits.incrementAndGet();
+        putCacheOnly(key, response);
+    }
+
+    /**
+     * 写入新的解析结果：同步写 L1、L2，并登记写回队列
+     */
+    public void put(String key, String sentence, SentenceParseResponse response, Long sourceArticleId) {
+        loads.incrementAndGet();
+        putCacheOnly(key, response);
+
+        if (pendingWrites.size() >= maxPendingWrites && !pendingWrites.containsKey(key)) {
+            // 队列已满时放弃持久化，结果仍可从缓存读取
+            writeBehindDropped.incrementAndGet();
+            log.warn("句子解析写回队列已满({}), 本条结果仅保留在缓存中", maxPendingWrites);
+            return;
+        }
+        pendingWrites.put(key, new PendingWrite(key, sentence, response, sourceArticleId, 0));
+    }
+
+    /**
+     * 写库失败的结果重新入队，超过最大写库次数或队列已满时放弃
+     */
+    public void requeue(PendingWrite write) {
+        writeBehindFailed.incrementAndGet();
+        int attempts = write.getAttempts() + 1;
+        if (attempts >= MAX_WRITE_ATTEMPTS || pendingWrites.size() >= maxPendingWrites) {
+            writeBehindDropped.incrementAndGet();
+            log.warn("句子解析结果写库失败 {} 次，放弃持久化: key={}", attempts, write.getKey());
+            return;
+        }
+        // 期间同一句子已有新结果入队时保留新结果
+        pendingWrites.putIfAbsent(write.getKey(), new PendingWrite(write.getKey(), write.getSentence(),
+                write.getResponse(), write.getSourceArticleId(), attempts));
+    }
+
+    /**
+     * 记录成功写库的条数
+     */
+    public void recordFlushed(int count) {
+        writeBehindFlushed.addAndGet(count);
+    }
+
+    private void putCacheOnly(String key, SentenceParseResponse response) {
+        localCache.put(key, response);
+        try {
+            String json = objectMapper.writeValueAsString(response);
+            redisTemplate.opsForValue().set(REDIS_KEY_PREFIX + key, json, redisTtl);
+        } catch (Exception e) {
+            redisErrors.incrementAndGet();
+            log.warn("写入句子解析Redis缓存失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 取出当前所有待持久化的解析结果
+     */
+    public List<PendingWrite> drainPendingWrites() {
+        List<PendingWrite> drained = new ArrayList<>(pendingWrites.size());
+        for (String key : new ArrayList<>(pendingWrites.keySet())) {
+            PendingWrite write = pendingWrites.remove(key);
+            if (write != null) {
+                drained.add(write);
+            }
+        }
+        return drained;
+    }
+
+    /**
+     * 缓存命中统计
+     */
+    public Map<String, Object> getStats() {
+        CacheStats local = localCache.stats();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("localSize", localCache.estimatedSize());
+        stats.put("localHits", local.hitCount());
+        stats.put("localMisses", local.missCount());
+        stats.put("localEvictions", local.evictionCount());
+        stats.put("redisHits", redisHits.get());
+        stats.put("redisMisses", redisMisses.get());
+        stats.put("redisErrors", redisErrors.get());
+        stats.put("storeHits", storeHits.get());
+        stats.put("aiLoads", loads.get());
+        long requests = local.requestCount();
+        long served = local.hitCount() + redisHits.get() + storeHits.get();
+        stats.put("hitRate", requests == 0 ? 0.0 : Math.round(served * 10000.0 / requests) / 100.0);
+        stats.put("pendingWrites", pendingWrites.size());
+        stats.put("writeBehindFlushed", writeBehindFlushed.get());
+        stats.put("writeBehindFailed", writeBehindFailed.get());
+        stats.put("writeBehindDropped", writeBehindDropped.get());
+        return stats;
+    }
+
+    /**
+     * 待持久化的解析结果
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class PendingWrite {
+        private final String key;
+        private final String sentence;
+        private final SentenceParseResponse response;
+        private final Long sourceArticleId;
+        // 已失败的写库次数
+        private final int attempts;
+    }
+}
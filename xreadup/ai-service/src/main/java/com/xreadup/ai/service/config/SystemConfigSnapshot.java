@@ -0,0 +1,94 @@
+package com.xreadup.ai.service.config;
+
+import com.xreadup.ai.client.SystemConfigClient;
+import com.xreadup.ai.model.dto.ApiResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 系统配置本地快照
+ * <p>
+ * 一次从管理服务批量加载功能开关、业务限制与维护模式配置，读取时只访问内存。
+ * 管理后台修改配置后通过 Redis 频道通知立即刷新，同时定时轮询兜底；
+ * 管理服务不可用时保留上一次成功加载的快照，从未加载成功时各项取默认值。
+ * </p>
+ */
+@Slf4j
+@Component
+public class SystemConfigSnapshot {
+
+    @Autowired(required = false)
+    private SystemConfigClient systemConfigClient;
+
+    private volatile Map<String, String> values = Collections.emptyMap();
+
+    /**
+     * 定时轮询刷新（兜底，变更通知丢失或 Redis 不可用时生效）
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${ai.config-snapshot.refresh-interval-ms:60000}")
+    public void scheduledRefresh() {
+        refresh();
+    }
+
+    /**
+     * 从管理服务重新加载快照，失败时保留当前快照
+     *
+     * @return 是否加载成功
+     */
+    public synchronized boolean refresh() {
+        if (systemConfigClient == null) {
+            return false;
+        }
+        try {
+            ApiResponse<Map<String, String>> response = systemConfigClient.getInternalConfigSnapshot();
+            if (response == null || !response.isSuccess() || response.getData() == null) {
+                throw new IllegalStateException(response != null ? response.getMessage() : "响应为空");
+            }
+            Map<String, String> loaded = Collections.unmodifiableMap(new LinkedHashMap<>(response.getData()));
+            if (!loaded.equals(values)) {
+                log.info("系统配置快照已更新: {} 项", loaded.size());
+            }
+            values = loaded;
+            return true;
+        } catch (Exception e) {
+            log.warn("刷新系统配置快照失败，继续使用当前快照: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 读取布尔配置，配置不存在时返回默认值
+     */
+    public boolean getBoolean(String configKey, boolean defaultValue) {
+        String value = values.get(configKey);
+        return value == null || value.isBlank() ? defaultValue : Boolean.parseBoolean(value.trim());
+    }
+
+    /**
+     * 读取整数配置，配置不存在或格式错误时返回默认值
+     */
+    public int getInt(String configKey, int defaultValue) {
+        String value = values.get(configKey);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * 读取字符串配置，配置不存在时返回默认值
+     */
+    public String getString(String configKey, String defaultValue) {
+        return values.getOrDefault(configKey, defaultValue);
+    }
+}
@@ -0,0 +1,20 @@
+package com.xreadup.ai.service.filter;
+
+import java.util.List;
+
+/**
+ * 流式输出命中高风险词，终止输出
+ */
+public class ContentBlockedException extends RuntimeException {
+
+    private final List<String> words;
+
+    public ContentBlockedException(List<String> words) {
+        super("AI输出包含高风险违禁词: " + words);
+        this.words = words;
+    }
+
+    public List<String> getWords() {
+        return words;
+    }
+}
@@ -1,26 +1,39 @@
 package com.xreadup.ai.service.filter;
 
+import com.xreadup.ai.client.SystemConfigClient;
+import com.xreadup.ai.model.dto.ApiResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import java.util.*;
 
 /**
  * AI服务内容过滤服务
  * 独立于其他服务，符合微服务架构原则
+ * <p>
+ * 词库编译为 {@link SensitiveWordMatcher} 自动机，一次扫描得到全部命中；
+ * 词库可在管理后台系统配置中维护，定时拉取，变化时重建自动机并原子替换。
+ * </p>
  */
 @Service
 @Slf4j
 public class ContentFilterService {
 
+    // 管理后台中的词库配置键，值为逗号或换行分隔的词条
+    static final String HIGH_RISK_WORDS_KEY = "content_filter.chat_high_risk_words";
+    static final String SENSITIVE_WORDS_KEY = "content_filter.chat_sensitive_words";
+
     // 英文违禁词库 - 针对英文文章
     private static final Set<String> ENGLISH_BAD_WORDS = Set.of(
-        "terrorism", "bomb", "explosion", "massacre", "genocide",
-        "violence", "murder", "kill", "death", "suicide", "gun", "weapon",
-        "porn", "pornography", "sex", "sexual", "nude", "naked",
-        "drug", "cocaine", "heroin", "marijuana", "addiction",
-        "gambling", "casino", "bet", "poker", "lottery",
-        "hate", "racism", "discrimination", "abuse", "torture",
-        "nazi", "hitler", "fascism", "extremism"
+        "terrorism", "terrorist*", "bomb*", "explosion*", "massacre*", "genocide*",
+        "violence", "violent*", "murder*", "kill*", "death*", "suicide*", "gun", "guns", "weapon*",
+        "porn*", "sex", "sexual*", "nude*", "naked",
+        "drug*", "cocaine", "heroin", "marijuana", "addict*",
+        "gambling", "gambler*", "casino*", "bet", "poker", "lotter*",
+        "hate*", "racism", "racist*", "discriminat*", "abuse*", "abusive", "tortur*",
+        "nazi*", "hitler*", "fascism", "fascist*", "extremism", "extremist*"
     );
 
     // 中文违禁词库 - 针对AI对话
@@ -32,11 +45,23 @@ public class ContentFilterService {
 
     // 高风险词汇 - 直接拦截
     private static final Set<String> HIGH_RISK_WORDS = Set.of(
-        "terrorism", "bomb", "explosion", "massacre", "genocide",
-        "nazi", "hitler", "fascism", "extremism",
+        "terrorism", "terrorist*", "bomb*", "explosion*", "massacre*", "genocide*",
+        "nazi*", "hitler*", "fascism", "fascist*", "extremism", "extremist*",
         "法轮功", "六四", "天安门", "达赖", "台独", "港独", "疆独"
     );
 
+    // 一般敏感词 - 记录但不拦截
+    private static final Set<String> SENSITIVE_WORDS = merge(ENGLISH_BAD_WORDS, CHINESE_BAD_WORDS);
+
+    @Autowired(required = false)
+    private SystemConfigClient systemConfigClient;
+
+    private volatile SensitiveWordMatcher matcher = SensitiveWordMatcher.build(HIGH_RISK_WORDS, SENSITIVE_WORDS);
+
+    // 上次加载的原始配置，未变化时跳过重建
+    private volatile String loadedHighRiskConfig;
+    private volatile String loadedSensitiveConfig;
+
     /**
      * 过滤AI对话内容
      */
@@ -45,24 +70,107 @@ public class ContentFilterService {
             return true;
         }
 
-        String lowerContent = content.toLowerCase();
+        Set<String> highRisk = new LinkedHashSet<>();
+        Set<String> sensitive = new LinkedHashSet<>();
+        for (SensitiveWordMatcher.Hit hit : matcher.match(content)) {
+            (hit.getLevel() == SensitiveWordMatcher.Level.HIGH_RISK ? highRisk : sensitive).add(hit.getWord());
+        }
+
+        // 高风险词汇 - 直接拦截
+        if (!highRisk.isEmpty()) {
+            log.warn("AI对话包含高风险违禁词: {}", highRisk);
+            return false;
+        }
+
+        // 一般违禁词 - 记录但不拦截
+        if (!sensitive.isEmpty()) {
+            log.info("AI对话包含敏感词汇: {} (已记录)", sensitive);
+        }
+
+        return true;
+    }
 
-        // 检查高风险词汇 - 直接拦截
-        for (String word : HIGH_RISK_WORDS) {
-            if (lowerContent.contains(word.toLowerCase())) {
-                log.warn("AI对话包含高风险违禁词: {}", word);
-                return false;
+    /**
+     * 对流式AI输出做增量过滤
+     * 返回的流只包含已确认安全的文本；命中高风险词时以 {@link ContentBlockedException} 结束
+     */
+    public Flux<String> filterChatStream(Flux<String> chunks) {
+        return Flux.defer(() -> {
+            StreamingChatFilter filter = new StreamingChatFilter(matcher);
+            return chunks.map(filter::accept)
+                    .concatWith(Flux.defer(() -> {
+                        String rest = filter.finish();
+                        if (!filter.getSensitiveWords().isEmpty()) {
+                            log.info("AI输出包含敏感词汇: {} (已记录)", filter.getSensitiveWords());
+                        }
+                        return Flux.just(rest);
+                    }))
+                    .filter(text -> !text.isEmpty())
+                    .doOnError(ContentBlockedException.class,
+                            e -> log.warn("AI输出包含高风险违禁词，已中止输出: {}", e.getWords()));
+        });
+    }
+
+    /**
+     * 从管理后台拉取词库，配置变化时重建自动机
+     * 配置不存在或为空时使用内置词库，拉取失败时保留当前词库
+     */
+    @Scheduled(initialDelayString = "${ai.content-filter.initial-delay-ms:10000}",
+            fixedDelayString = "${ai.content-filter.refresh-interval-ms:60000}")
+    public void refreshDictionary() {
+        if (systemConfigClient == null) {
+            return;
+        }
+        try {
+            String highRiskConfig = fetchConfig(HIGH_RISK_WORDS_KEY);
+            String sensitiveConfig = fetchConfig(SENSITIVE_WORDS_KEY);
+            if (Objects.equals(highRiskConfig, loadedHighRiskConfig)
+                    && Objects.equals(sensitiveConfig, loadedSensitiveConfig)) {
+                return;
             }
+            reloadDictionary(highRiskConfig, sensitiveConfig);
+            loadedHighRiskConfig = highRiskConfig;
+            loadedSensitiveConfig = sensitiveConfig;
+        } catch (Exception e) {
+            log.warn("刷新敏感词库失败，继续使用当前词库: {}", e.getMessage());
         }
+    }
 
-        // 检查一般违禁词 - 记录但不拦截
-        for (String word : CHINESE_BAD_WORDS) {
-            if (lowerContent.contains(word.toLowerCase())) {
-                log.info("AI对话包含敏感词汇: {} (已记录)", word);
-                // 可以选择是否拦截，这里选择记录但不拦截
+    /**
+     * 用给定的词库配置重建自动机，参数为 null 或空白时使用对应的内置词库
+     */
+    public void reloadDictionary(String highRiskConfig, String sensitiveConfig) {
+        Collection<String> highRisk = parseWords(highRiskConfig, HIGH_RISK_WORDS);
+        Collection<String> sensitive = parseWords(sensitiveConfig, SENSITIVE_WORDS);
+        matcher = SensitiveWordMatcher.build(highRisk, sensitive);
+        log.info("对话敏感词库已更新: 高风险 {} 个, 一般敏感 {} 个, 共 {} 个词条",
+                highRisk.size(), sensitive.size(), matcher.size());
+    }
+
+    private String fetchConfig(String configKey) {
+        ApiResponse<String> response = systemConfigClient.getInternalConfigValue(configKey);
+        if (response == null || !response.isSuccess()) {
+            throw new IllegalStateException("读取配置 " + configKey + " 失败");
+        }
+        return response.getData();
+    }
+
+    private Collection<String> parseWords(String config, Set<String> defaults) {
+        if (config == null || config.isBlank()) {
+            return defaults;
+        }
+        List<String> words = new ArrayList<>();
+        for (String word : config.split("[,，\\r\\n]+")) {
+            if (!word.isBlank()) {
+                words.add(word.trim());
             }
         }
+        return words.isEmpty() ? defaults : words;
+    }
 
-        return true;
+    private static Set<String> merge(Set<String> first, Set<String> second) {
+        Set<String> merged = new LinkedHashSet<>(first);
+        merged.addAll(second);
+        return Collections.unmodifiableSet(merged);
     }
 }
@@ -0,0 +1,222 @@
+package com.xreadup.ai.service.filter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * 敏感词多模式匹配器（Aho–Corasick 自动机）
+ * <p>
+ * 构建后不可变，可在多线程间共享。对文本只扫描一遍即可得到全部命中词及其位置，
+ * 耗时与文本长度和命中数相关，与词库大小无关。
+ * </p>
+ * <ul>
+ *   <li>匹配忽略大小写</li>
+ *   <li>以字母或数字开头/结尾的英文词要求整词匹配，"bet" 不会命中 "better"</li>
+ *   <li>词条以 "*" 结尾表示前缀匹配，如 "kill*" 可命中 "killed"、"killing"</li>
+ *   <li>中文等表意文字不做词边界判断</li>
+ * </ul>
+ */
+public final class SensitiveWordMatcher {
+
+    /**
+     * 风险等级
+     */
+    public enum Level {
+        /** 高风险：直接拦截 */
+        HIGH_RISK,
+        /** 一般敏感：记录但放行 */
+        SENSITIVE
+    }
+
+    /**
+     * 一次命中
+     */
+    public static final class Hit {
+        private final String word;
+        private final Level level;
+        private final int start;
+        private final int end;
+
+        Hit(String word, Level level, int start, int end) {
+            this.word = word;
+            this.level = level;
+            this.start = start;
+            this.end = end;
+        }
+
+        /** 词库中的词条（不含前缀通配符） */
+        public String getWord() { return word; }
+        public Level getLevel() { return level; }
+        /** 命中起始位置（含） */
+        public int getStart() { return start; }
+        /** 命中结束位置（不含） */
+        public int getEnd() { return end; }
+    }
+
+    private static final class Pattern {
+        private final String word;
+        private final Level level;
+        private final boolean prefix;
+
+        Pattern(String word, Level level, boolean prefix) {
+            this.word = word;
+            this.level = level;
+            this.prefix = prefix;
+        }
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = new HashMap<>(4);
+        private Node fail;
+        // 以当前节点结尾的词条（含沿失败链可达的词条）
+        private List<Pattern> outputs = Collections.emptyList();
+    }
+
+    private final Node root = new Node();
+    private final int size;
+    private final int maxWordLength;
+
+    private SensitiveWordMatcher(Map<String, Pattern> patterns) {
+        int longest = 0;
+        for (Pattern pattern : patterns.values()) {
+            insert(pattern);
+            longest = Math.max(longest, pattern.word.length());
+        }
+        linkFailures();
+        this.size = patterns.size();
+        this.maxWordLength = longest;
+    }
+
+    /**
+     * 构建匹配器，同一词同时出现在两个等级时按高风险处理
+     *
+     * @param highRiskWords  高风险词
+     * @param sensitiveWords 一般敏感词
+     */
+    public static SensitiveWordMatcher build(Iterable<String> highRiskWords, Iterable<String> sensitiveWords) {
+        Map<String, Pattern> patterns = new LinkedHashMap<>();
+        addAll(patterns, sensitiveWords, Level.SENSITIVE);
+        addAll(patterns, highRiskWords, Level.HIGH_RISK);
+        return new SensitiveWordMatcher(patterns);
+    }
+
+    /**
+     * 词条数
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 最长词条的长度（不含前缀通配符），流式过滤据此确定需要暂缓输出的尾部长度
+     */
+    public int maxWordLength() {
+        return maxWordLength;
+    }
+
+    /**
+     * 单遍扫描文本，按出现顺序返回全部命中（重叠命中均会返回）
+     */
+    public List<Hit> match(String text) {
+        List<Hit> hits = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return hits;
+        }
+        Node node = root;
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            while (node != root && !node.children.containsKey(c)) {
+                node = node.fail;
+            }
+            node = node.children.getOrDefault(c, root);
+            for (Pattern pattern : node.outputs) {
+                int start = i + 1 - pattern.word.length();
+                int end = i + 1;
+                if (isWordBoundary(text, start, end, pattern)) {
+                    hits.add(new Hit(pattern.word, pattern.level, start, end));
+                }
+            }
+        }
+        return hits;
+    }
+
+    private static void addAll(Map<String, Pattern> patterns, Iterable<String> words, Level level) {
+        if (words == null) {
+            return;
+        }
+        for (String raw : words) {
+            if (raw == null) {
+                continue;
+            }
+            String word = raw.trim().toLowerCase();
+            boolean prefix = word.endsWith("*");
+            if (prefix) {
+                word = word.substring(0, word.length() - 1).trim();
+            }
+            if (!word.isEmpty()) {
+                patterns.put(word, new Pattern(word, level, prefix));
+            }
+        }
+    }
+
+    private void insert(Pattern pattern) {
+        Node node = root;
+        for (int i = 0; i < pattern.word.length(); i++) {
+            node = node.children.computeIfAbsent(pattern.word.charAt(i), k -> new Node());
+        }
+        node.outputs = List.of(pattern);
+    }
+
+    /**
+     * 广度优先建立失败指针，并把失败链上的输出合并到当前节点，匹配时无需再沿链回溯
+     */
+    private void linkFailures() {
+        Queue<Node> queue = new ArrayDeque<>();
+        for (Node child : root.children.values()) {
+            child.fail = root;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            Node current = queue.poll();
+            for (Map.Entry<Character, Node> entry : current.children.entrySet()) {
+                char c = entry.getKey();
+                Node child = entry.getValue();
+                Node fail = current.fail;
+                while (fail != root && !fail.children.containsKey(c)) {
+                    fail = fail.fail;
+                }
+                child.fail = fail.children.getOrDefault(c, root);
+                if (!child.fail.outputs.isEmpty()) {
+                    List<Pattern> merged = new ArrayList<>(child.outputs);
+                    merged.addAll(child.fail.outputs);
+                    child.outputs = merged;
+                }
+                queue.add(child);
+            }
+        }
+    }
+
+    private static boolean isWordBoundary(String text, int start, int end, Pattern pattern) {
+        String word = pattern.word;
+        if (isWordChar(word.charAt(0)) && start > 0 && isWordChar(text.charAt(start - 1))) {
+            return false;
+        }
+        if (pattern.prefix) {
+            return true;
+        }
+        return !(isWordChar(word.charAt(word.length() - 1)) && end < text.length() && isWordChar(text.charAt(end)));
+    }
+
+    /**
+     * 参与词边界判断的字符：拉丁字母、数字等，不含中文等表意文字
+     */
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) && !Character.isIdeographic(c);
+    }
+}
@@ -0,0 +1,96 @@
+package com.xreadup.ai.service.filter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 流式输出的增量敏感词过滤
+ * <p>
+ * 每收到一个片段，只扫描"已输出文本的末尾 + 未输出文本"这一小段窗口，开销与片段长度相关，
+ * 与已生成的全文长度无关。未输出文本的最后若干字符（最长词条长度）暂缓输出，
+ * 跨片段的词在完整出现并确认词边界之前不会被发出。
+ * </p>
+ * 每个流使用一个实例，非线程安全。
+ */
+public class StreamingChatFilter {
+
+    private final SensitiveWordMatcher matcher;
+    // 暂缓输出的尾部长度；同时也是保留的已输出上下文长度（多保留一个字符用于判断词首边界）
+    private final int holdLength;
+
+    // 已输出文本的末尾
+    private final StringBuilder context = new StringBuilder();
+    // 尚未输出的文本
+    private final StringBuilder pending = new StringBuilder();
+    private final Set<String> sensitiveWords = new LinkedHashSet<>();
+
+    public StreamingChatFilter(SensitiveWordMatcher matcher) {
+        this.matcher = matcher;
+        this.holdLength = Math.max(matcher.maxWordLength(), 1);
+    }
+
+    /**
+     * 追加一个片段，返回可以安全输出的文本（可能为空串）
+     *
+     * @throws ContentBlockedException 命中高风险词
+     */
+    public String accept(String chunk) {
+        if (chunk == null || chunk.isEmpty()) {
+            return "";
+        }
+        pending.append(chunk);
+        scan(false);
+        return release(Math.max(pending.length() - holdLength, 0));
+    }
+
+    /**
+     * 流结束，返回剩余的全部文本
+     *
+     * @throws ContentBlockedException 命中高风险词
+     */
+    public String finish() {
+        scan(true);
+        return release(pending.length());
+    }
+
+    /**
+     * 流中命中的一般敏感词（记录但不拦截）
+     */
+    public Set<String> getSensitiveWords() {
+        return sensitiveWords;
+    }
+
+    private void scan(boolean complete) {
+        String window = context.toString() + pending;
+        List<String> blocked = new ArrayList<>();
+        for (SensitiveWordMatcher.Hit hit : matcher.match(window)) {
+            // 只处理涉及未输出文本的命中；流未结束时，位于窗口末尾的命中可能只是更长单词的一部分，留待下次判断
+            if (hit.getEnd() <= context.length() || (!complete && hit.getEnd() == window.length())) {
+                continue;
+            }
+            if (hit.getLevel() == SensitiveWordMatcher.Level.HIGH_RISK) {
+                blocked.add(hit.getWord());
+            } else {
+                sensitiveWords.add(hit.getWord());
+            }
+        }
+        if (!blocked.isEmpty()) {
+            throw new ContentBlockedException(blocked);
+        }
+    }
+
+    private String release(int count) {
+        if (count <= 0) {
+            return "";
+        }
+        String released = pending.substring(0, count);
+        pending.delete(0, count);
+        context.append(released);
+        if (context.length() > holdLength + 1) {
+            context.delete(0, context.length() - holdLength - 1);
+        }
+        return released;
+    }
+}
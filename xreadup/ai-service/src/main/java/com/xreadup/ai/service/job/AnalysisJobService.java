@@ -0,0 +1,374 @@
+package com.xreadup.ai.service.job;
+
+import com.xreadup.ai.client.ArticleServiceClient;
+import com.xreadup.ai.mapper.AnalysisJobMapper;
+import com.xreadup.ai.model.dto.ArticleAnalysisRequest;
+import com.xreadup.ai.model.dto.QuizQuestion;
+import com.xreadup.ai.model.entity.AnalysisJob;
+import com.xreadup.ai.service.EnhancedAiAnalysisService;
+import com.xreadup.ai.service.TencentTranslateService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AI文章分析任务服务
+ * <p>
+ * 分析请求写入 ai_analysis_job 任务表后立即返回，由工作线程按优先级异步执行：
+ * 交互请求（用户正在等待）优先于批量回填。同一篇文章只保留一个任务，重复提交只会提升优先级。
+ * 同时执行的任务数由线程池大小限制（ai.analysis-job.concurrency），有空闲线程时才抢占任务；
+ * 失败按指数退避重试，超过最大次数后标记为失败。任务持久化在数据库，服务重启不会丢失。
+ * 执行中的任务由所在实例定时刷新心跳，心跳超时才视为实例已退出并重新排队（计入尝试次数），
+ * 执行时间长的任务不会被其他实例重复执行。心跳只刷新本实例正在执行的任务，
+ * 并在独立线程上发送，不会被其他定时任务阻塞而误判超时。
+ * </p>
+ * <p>
+ * 文章入库后由文章服务提交预热任务（enrich）：在分析之外生成测验题并补全中文翻译，
+ * 让新文章首次打开时与已缓存的文章一样快。预热任务按预测热度排在普通提交之后，
+ * 只在留有空闲线程时执行，并受每日预算（ai.prewarm.daily-budget）限制。
+ * </p>
+ */
+@Slf4j
+@Service
+public class AnalysisJobService {
+
+    // 单次提交的文章数上限
+    private static final int MAX_BATCH_SIZE = 1000;
+
+    private final AnalysisJobMapper analysisJobMapper;
+    private final EnhancedAiAnalysisService enhancedAiAnalysisService;
+    private final ArticleServiceClient articleServiceClient;
+    private final TencentTranslateService tencentTranslateService;
+    private final PrewarmBudget prewarmBudget;
+    private final ThreadPoolTaskExecutor executor;
+
+    private final int concurrency;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+    private final long staleMinutes;
+    private final long heartbeatIntervalMs;
+    private final int prewarmReservedWorkers;
+    private final int prewarmQuizCount;
+
+    // 当前实例标识，抢占任务时写入 locked_by
+    private final String workerId = ManagementFactory.getRuntimeMXBean().getName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+
+    private final AtomicInteger running = new AtomicInteger();
+    // 本实例正在执行的任务ID，心跳只刷新这些任务
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService heartbeatScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "analysis-job-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicLong succeeded = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong prewarmed = new AtomicLong();
+
+    public AnalysisJobService(AnalysisJobMapper analysisJobMapper,
+                              EnhancedAiAnalysisService enhancedAiAnalysisService,
+                              ArticleServiceClient articleServiceClient,
+                              TencentTranslateService tencentTranslateService,
+                              PrewarmBudget prewarmBudget,
+                              @Qualifier("analysisJobExecutor") ThreadPoolTaskExecutor executor,
+                              @Value("${ai.analysis-job.concurrency:3}") int concurrency,
+                              @Value("${ai.analysis-job.max-attempts:3}") int maxAttempts,
+                              @Value("${ai.analysis-job.retry-backoff-ms:30000}") long retryBackoffMs,
+                              @Value("${ai.analysis-job.stale-minutes:3}") long staleMinutes,
+                              @Value("${ai.analysis-job.heartbeat-interval-ms:30000}") long heartbeatIntervalMs,
+                              @Value("${ai.prewarm.reserved-workers:1}") int prewarmReservedWorkers,
+                              @Value("${ai.prewarm.quiz-count:5}") int prewarmQuizCount) {
+        this.analysisJobMapper = analysisJobMapper;
+        this.enhancedAiAnalysisService = enhancedAiAnalysisService;
+        this.articleServiceClient = articleServiceClient;
+        this.tencentTranslateService = tencentTranslateService;
+        this.prewarmBudget = prewarmBudget;
+        this.executor = executor;
+        this.concurrency = concurrency;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMs = retryBackoffMs;
+        this.staleMinutes = staleMinutes;
+        this.heartbeatIntervalMs = heartbeatIntervalMs;
+        this.prewarmReservedWorkers = prewarmReservedWorkers;
+        this.prewarmQuizCount = prewarmQuizCount;
+    }
+
+    @PostConstruct
+    public void startHeartbeat() {
+        heartbeatScheduler.scheduleWithFixedDelay(this::heartbeat, heartbeatIntervalMs, heartbeatIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stopHeartbeat() {
+        heartbeatScheduler.shutdownNow();
+    }
+
+    /**
+     * 提交分析任务
+     *
+     * @param articleIds 文章ID列表（重复的ID只提交一次）
+     * @param priority 优先级，越大越先执行
+     * @param forceRegenerate 是否强制重新生成
+     * @return 各文章的当前任务
+     */
+    public List<AnalysisJob> submit(List<Long> articleIds, int priority, boolean forceRegenerate) {
+        LinkedHashSet<Long> ids = new LinkedHashSet<>(articleIds);
+        ids.remove(null);
+        if (ids.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("单次最多提交 " + MAX_BATCH_SIZE + " 篇文章");
+        }
+        List<AnalysisJob> jobs = new ArrayList<>(ids.size());
+        for (Long articleId : ids) {
+            analysisJobMapper.enqueue(articleId, priority, forceRegenerate, false);
+            jobs.add(analysisJobMapper.selectByArticleId(articleId));
+        }
+        log.info("提交AI分析任务: {} 篇, 优先级: {}, 强制重新生成: {}", ids.size(), priority, forceRegenerate);
+        return jobs;
+    }
+
+    /**
+     * 提交入库预热任务
+     * 热度分（0-100）映射到预热优先级区间；已有任务的文章保持原任务不变
+     *
+     * @param popularityScores 文章ID → 预测热度分
+     * @return 新入队的任务数
+     */
+    public int submitPrewarm(Map<Long, Integer> popularityScores) {
+        if (popularityScores.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("单次最多提交 " + MAX_BATCH_SIZE + " 篇文章");
+        }
+        int queued = 0;
+        for (Map.Entry<Long, Integer> entry : popularityScores.entrySet()) {
+            if (entry.getKey() == null) {
+                continue;
+            }
+            queued += analysisJobMapper.enqueuePrewarm(entry.getKey(), prewarmPriority(entry.getValue()));
+        }
+        log.info("提交预热任务: {} 篇，新入队 {} 篇", popularityScores.size(), queued);
+        return queued;
+    }
+
+    /**
+     * 查询文章的分析任务，不存在时返回null
+     */
+    public AnalysisJob getJob(Long articleId) {
+        return analysisJobMapper.selectByArticleId(articleId);
+    }
+
+    /**
+     * 任务统计
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        for (Map<String, Object> row : analysisJobMapper.countByStatus()) {
+            byStatus.put(String.valueOf(row.get("status")), ((Number) row.get("count")).longValue());
+        }
+        stats.put("byStatus", byStatus);
+        stats.put("workerId", workerId);
+        stats.put("concurrency", concurrency);
+        stats.put("running", running.get());
+        stats.put("succeeded", succeeded.get());
+        stats.put("retried", retried.get());
+        stats.put("failed", failed.get());
+        stats.put("prewarmed", prewarmed.get());
+        stats.put("prewarmBudget", prewarmBudget.getStats());
+        return stats;
+    }
+
+    /**
+     * 按空闲线程数抢占可执行的任务
+     */
+    @Scheduled(initialDelayString = "${ai.analysis-job.initial-delay-ms:10000}",
+               fixedDelayString = "${ai.analysis-job.poll-interval-ms:1000}")
+    public void dispatch() {
+        int free = concurrency - running.get();
+        if (free <= 0) {
+            return;
+        }
+        // 预热任务只用预留线程之外的空闲线程，预算用尽时留在队列中
+        boolean prewarmAllowed = free > prewarmReservedWorkers && prewarmBudget.hasRemaining();
+        List<Long> candidates;
+        try {
+            candidates = analysisJobMapper.selectRunnableIds(free * 2, prewarmAllowed, AnalysisJob.PRIORITY_NORMAL);
+        } catch (Exception e) {
+            log.warn("查询待执行的AI分析任务失败: {}", e.getMessage());
+            return;
+        }
+        for (Long jobId : candidates) {
+            if (free <= 0) {
+                break;
+            }
+            // 其他实例已抢占时跳过
+            if (analysisJobMapper.claim(jobId, workerId) == 0) {
+                continue;
+            }
+            AnalysisJob job = analysisJobMapper.selectById(jobId);
+            boolean prewarm = job.isPrewarm();
+            if (prewarm && (free <= prewarmReservedWorkers || !prewarmBudget.tryAcquire())) {
+                analysisJobMapper.release(jobId, workerId);
+                continue;
+            }
+            running.incrementAndGet();
+            inFlight.add(jobId);
+            free--;
+            try {
+                executor.execute(() -> {
+                    try {
+                        execute(job);
+                    } finally {
+                        inFlight.remove(jobId);
+                        running.decrementAndGet();
+                    }
+                });
+            } catch (TaskRejectedException e) {
+                inFlight.remove(jobId);
+                running.decrementAndGet();
+                analysisJobMapper.release(jobId, workerId);
+                if (prewarm) {
+                    prewarmBudget.refund();
+                }
+                break;
+            }
+        }
+    }
+
+    /**
+     * 刷新本实例执行中任务的心跳（在独立线程上执行）
+     */
+    void heartbeat() {
+        List<Long> jobIds = new ArrayList<>(inFlight);
+        if (jobIds.isEmpty()) {
+            return;
+        }
+        try {
+            analysisJobMapper.heartbeat(jobIds, workerId);
+        } catch (Exception e) {
+            log.warn("刷新AI分析任务心跳失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 执行实例异常退出（心跳超时）后遗留的执行中任务重新排队，尝试次数已达上限的标记为失败
+     */
+    @Scheduled(fixedDelayString = "${ai.analysis-job.recover-interval-ms:60000}")
+    public void recoverStaleJobs() {
+        try {
+            LocalDateTime staleBefore = LocalDateTime.now().minusMinutes(staleMinutes);
+            int abandoned = analysisJobMapper.failStale(staleBefore, maxAttempts, "执行实例心跳超时，已达最大尝试次数");
+            if (abandoned > 0) {
+                failed.addAndGet(abandoned);
+                log.error("心跳超时且已达最大尝试次数，标记为失败的AI分析任务: {} 个", abandoned);
+            }
+            int recovered = analysisJobMapper.requeueStale(staleBefore, maxAttempts, "执行实例心跳超时");
+            if (recovered > 0) {
+                log.warn("重新排队心跳超时的AI分析任务: {} 个", recovered);
+            }
+        } catch (Exception e) {
+            log.warn("恢复超时AI分析任务失败: {}", e.getMessage());
+        }
+    }
+
+    private void execute(AnalysisJob job) {
+        Long articleId = job.getArticleId();
+        try {
+            ArticleServiceClient.ApiResponse<ArticleServiceClient.ArticleInfo> response =
+                    articleServiceClient.getArticleSource(articleId);
+            ArticleServiceClient.ArticleInfo article = response != null && response.isSuccess() ? response.getData() : null;
+            if (article == null || article.getContentEn() == null || article.getContentEn().isBlank()) {
+                // 文章不存在或没有正文，重试也不会成功
+                analysisJobMapper.markFailed(job.getId(), workerId, "文章不存在或正文为空");
+                failed.incrementAndGet();
+                return;
+            }
+
+            ArticleAnalysisRequest request = new ArticleAnalysisRequest();
+            request.setArticleId(articleId);
+            request.setTitle(article.getTitle());
+            request.setContent(article.getContentEn());
+            request.setCategory(article.getCategory());
+            request.setWordCount(article.getContentEn().length());
+            enhancedAiAnalysisService.analyzeAndSaveArticle(request, Boolean.TRUE.equals(job.getForceRegenerate()));
+            if (Boolean.TRUE.equals(job.getEnrich())) {
+                enrich(articleId, article);
+            }
+
+            analysisJobMapper.markSucceeded(job.getId(), workerId);
+            succeeded.incrementAndGet();
+            log.info("AI分析任务完成: 文章ID={}, 优先级={}", articleId, job.getPriority());
+        } catch (Exception e) {
+            String error = truncate(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            int attempts = job.getAttempts() != null ? job.getAttempts() : 1;
+            if (attempts >= maxAttempts) {
+                analysisJobMapper.markFailed(job.getId(), workerId, error);
+                failed.incrementAndGet();
+                log.error("AI分析任务失败，已达最大尝试次数: 文章ID={}, 尝试次数={}", articleId, attempts, e);
+            } else {
+                long backoff = retryBackoffMs * (1L << Math.min(attempts - 1, 10));
+                analysisJobMapper.markRetry(job.getId(), workerId, LocalDateTime.now().plusNanos(backoff * 1_000_000), error);
+                retried.incrementAndGet();
+                log.warn("AI分析任务失败，{}ms后重试: 文章ID={}, 尝试次数={}, 原因={}", backoff, articleId, attempts, error);
+            }
+        }
+    }
+
+    /**
+     * 预热补全：测验题与中文翻译，已存在的部分跳过（重试时不重复调用付费接口）
+     */
+    private void enrich(Long articleId, ArticleServiceClient.ArticleInfo article) {
+        if (prewarmQuizCount > 0 && enhancedAiAnalysisService.getQuizQuestions(articleId).isEmpty()) {
+            List<QuizQuestion> questions = enhancedAiAnalysisService.generateQuiz(article.getContentEn(), prewarmQuizCount);
+            if (questions != null && !questions.isEmpty()) {
+                enhancedAiAnalysisService.saveQuizQuestions(articleId, questions);
+            }
+        }
+
+        if (article.getContentCn() == null || article.getContentCn().isBlank()) {
+            String translation = tencentTranslateService.translateEnglishToChinese(article.getContentEn());
+            if (translation == null || translation.isBlank() || translation.equals(article.getContentEn())) {
+                throw new IllegalStateException("全文翻译返回空结果");
+            }
+            ArticleServiceClient.UpdateContentCnByIdRequest update = new ArticleServiceClient.UpdateContentCnByIdRequest();
+            update.setContentCn(translation);
+            ArticleServiceClient.ApiResponse<Boolean> response = articleServiceClient.updateContentCnById(articleId, update);
+            if (response == null || !response.isSuccess()) {
+                throw new IllegalStateException("同步中文翻译失败: " + (response != null ? response.getMessage() : "无响应"));
+            }
+            enhancedAiAnalysisService.saveTranslation(articleId, translation);
+        }
+        prewarmed.incrementAndGet();
+    }
+
+    private static int prewarmPriority(Integer score) {
+        int bounded = Math.max(0, Math.min(100, score != null ? score : 0));
+        int span = AnalysisJob.PRIORITY_PREWARM_MAX - AnalysisJob.PRIORITY_PREWARM_MIN;
+        return AnalysisJob.PRIORITY_PREWARM_MIN + Math.round(span * bounded / 100f);
+    }
+
+    private static String truncate(String message) {
+        return message.length() > 500 ? message.substring(0, 500) : message;
+    }
+}
@@ -0,0 +1,105 @@
+package com.xreadup.ai.service.job;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 入库预热每日预算
+ * <p>
+ * 预热任务没有用户在等待，每执行一篇消耗一个额度；计数按自然日存放在 Redis，多实例共享。
+ * 额度用尽后当日不再执行预热任务，任务保留在队列中，次日或被用户请求提升优先级后再执行。
+ * Redis 不可用时不放行预热，避免失去控制地调用付费接口。
+ * </p>
+ */
+@Slf4j
+@Component
+public class PrewarmBudget {
+
+    private static final String KEY_PREFIX = "ai:prewarm:budget:";
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final StringRedisTemplate redisTemplate;
+    private final int dailyBudget;
+
+    public PrewarmBudget(StringRedisTemplate redisTemplate,
+                         @Value("${ai.prewarm.daily-budget:200}") int dailyBudget) {
+        this.redisTemplate = redisTemplate;
+        this.dailyBudget = dailyBudget;
+    }
+
+    /**
+     * 当日是否还有额度（不消耗额度）
+     */
+    public boolean hasRemaining() {
+        return dailyBudget > 0 && used() < dailyBudget;
+    }
+
+    /**
+     * 尝试消耗一个额度
+     *
+     * @return 是否成功
+     */
+    public boolean tryAcquire() {
+        if (dailyBudget <= 0) {
+            return false;
+        }
+        String key = todayKey();
+        try {
+            Long used = redisTemplate.opsForValue().increment(key);
+            if (used == null) {
+                return false;
+            }
+            if (used == 1L) {
+                redisTemplate.expire(key, Duration.ofDays(2));
+            }
+            if (used > dailyBudget) {
+                redisTemplate.opsForValue().decrement(key);
+                return false;
+            }
+            return true;
+        } catch (Exception e) {
+            log.warn("扣减预热预算失败: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 退还一个额度（已扣减但任务未能执行）
+     */
+    public void refund() {
+        try {
+            redisTemplate.opsForValue().decrement(todayKey());
+        } catch (Exception e) {
+            log.warn("退还预热预算失败: {}", e.getMessage());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("dailyBudget", dailyBudget);
+        stats.put("used", used());
+        return stats;
+    }
+
+    private long used() {
+        try {
+            String value = redisTemplate.opsForValue().get(todayKey());
+            return value != null ? Long.parseLong(value) : 0L;
+        } catch (Exception e) {
+            log.warn("读取预热预算失败: {}", e.getMessage());
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private static String todayKey() {
+        return KEY_PREFIX + LocalDate.now().format(DAY_FORMAT);
+    }
+}
@@ -0,0 +1,249 @@
+package com.xreadup.ai.service.translate;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.text.BreakIterator;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.function.UnaryOperator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 长文本分块翻译引擎
+ * <p>
+ * 按段落、句子边界切分长文本，在共享线程池中并行翻译各块，
+ * 每个翻译引擎持有独立的许可数以满足其QPS限制，单块失败按次数重试，最后按原顺序拼接。
+ * </p>
+ */
+@Slf4j
+@Component
+public class ChunkedTranslationEngine {
+
+    private static final Pattern PARAGRAPH_BREAK = Pattern.compile("\\n+");
+    private static final Pattern LEADING_SPACE = Pattern.compile("^\\s*");
+    private static final Pattern TRAILING_SPACE = Pattern.compile("\\s*$");
+
+    /**
+     * 翻译引擎
+     */
+    public enum Provider {
+        TENCENT, LLM
+    }
+
+    private final Executor executor;
+    private final Map<Provider, Semaphore> permits = new EnumMap<>(Provider.class);
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+
+    public ChunkedTranslationEngine(@Qualifier("translateChunkExecutor") Executor executor,
+                                    @Value("${ai.translate.tencent-permits:5}") int tencentPermits,
+                                    @Value("${ai.translate.llm-permits:4}") int llmPermits,
+                                    @Value("${ai.translate.chunk-max-attempts:3}") int maxAttempts,
+                                    @Value("${ai.translate.retry-backoff-ms:500}") long retryBackoffMs) {
+        this.executor = executor;
+        this.permits.put(Provider.TENCENT, new Semaphore(tencentPermits, true));
+        this.permits.put(Provider.LLM, new Semaphore(llmPermits, true));
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoffMs = retryBackoffMs;
+    }
+
+    /**
+     * 获取一个引擎许可；不经分块的调用（如批量接口）也须先获取，与分块翻译共同受QPS限制
+     */
+    public void acquirePermit(Provider provider) throws InterruptedException {
+        permits.get(provider).acquire();
+    }
+
+    /**
+     * 归还 {@link #acquirePermit} 获取的许可
+     */
+    public void releasePermit(Provider provider) {
+        permits.get(provider).release();
+    }
+
+    /**
+     * 分块并行翻译
+     *
+     * @param text           待翻译文本
+     * @param maxChunkLength 单块最大字符数
+     * @param provider       翻译引擎，决定使用哪一组并发许可
+     * @param translateChunk 单块翻译函数，失败时抛出异常
+     * @return 按原文顺序拼接的译文，段落间空白保持不变
+     */
+    public String translate(String text, int maxChunkLength, Provider provider, UnaryOperator<String> translateChunk) {
+        List<String> chunks = split(text, maxChunkLength);
+        log.info("分块翻译[{}]: 原文长度={}, 共 {} 块", provider, text.length(), chunks.size());
+
+        List<CompletableFuture<String>> futures = new ArrayList<>(chunks.size());
+        for (int i = 0; i < chunks.size(); i++) {
+            String chunk = chunks.get(i);
+            int index = i + 1;
+            futures.add(CompletableFuture.supplyAsync(() -> translateWithRetry(chunk, index, provider, translateChunk), executor));
+        }
+
+        StringBuilder result = new StringBuilder(text.length());
+        try {
+            for (CompletableFuture<String> future : futures) {
+                result.append(future.join());
+            }
+        } catch (CompletionException e) {
+            futures.forEach(f -> f.cancel(false));
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw new RuntimeException("分块翻译失败: " + cause.getMessage(), cause);
+        }
+
+        log.info("分块翻译[{}]完成: 共 {} 块, 译文长度={}", provider, chunks.size(), result.length());
+        return result.toString();
+    }
+
+    /**
+     * 翻译单块，保留块首尾的空白（段落换行），失败时退避重试
+     */
+    private String translateWithRetry(String chunk, int index, Provider provider, UnaryOperator<String> translateChunk) {
+        String body = chunk.strip();
+        if (body.isEmpty()) {
+            return chunk;
+        }
+        String leading = leadingWhitespace(chunk);
+        String trailing = trailingWhitespace(chunk);
+
+        Semaphore semaphore = permits.get(provider);
+        RuntimeException lastError = null;
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            try {
+                semaphore.acquire();
+                try {
+                    String translated = translateChunk.apply(body);
+                    return leading + (translated != null ? translated.strip() : body) + trailing;
+                } finally {
+                    semaphore.release();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("分块翻译被中断", e);
+            } catch (RuntimeException e) {
+                lastError = e;
+                log.warn("第 {} 块翻译失败（第 {}/{} 次）: {}", index, attempt, maxAttempts, e.getMessage());
+                if (attempt < maxAttempts) {
+                    sleepQuietly(retryBackoffMs * attempt);
+                }
+            }
+        }
+        throw lastError;
+    }
+
+    /**
+     * 按段落、句子边界切分文本，各块首尾相接即为原文
+     */
+    List<String> split(String text, int maxChunkLength) {
+        List<String> chunks = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+
+        for (String paragraph : splitKeepingDelimiter(text)) {
+            if (current.length() + paragraph.length() <= maxChunkLength) {
+                current.append(paragraph);
+                continue;
+            }
+            flush(current, chunks);
+            if (paragraph.length() <= maxChunkLength) {
+                current.append(paragraph);
+                continue;
+            }
+            // 单个段落超长，按句子继续切分
+            for (String sentence : splitSentences(paragraph)) {
+                if (current.length() + sentence.length() > maxChunkLength) {
+                    flush(current, chunks);
+                }
+                if (sentence.length() <= maxChunkLength) {
+                    current.append(sentence);
+                } else {
+                    // 单句仍超长时只能在空白处硬切
+                    chunks.addAll(splitHard(sentence, maxChunkLength));
+                }
+            }
+        }
+        flush(current, chunks);
+        return chunks;
+    }
+
+    /**
+     * 按换行切分段落，换行符保留在段落末尾
+     */
+    private List<String> splitKeepingDelimiter(String text) {
+        List<String> paragraphs = new ArrayList<>();
+        Matcher matcher = PARAGRAPH_BREAK.matcher(text);
+        int start = 0;
+        while (matcher.find()) {
+            paragraphs.add(text.substring(start, matcher.end()));
+            start = matcher.end();
+        }
+        if (start < text.length()) {
+            paragraphs.add(text.substring(start));
+        }
+        return paragraphs;
+    }
+
+    private List<String> splitSentences(String paragraph) {
+        List<String> sentences = new ArrayList<>();
+        BreakIterator iterator = BreakIterator.getSentenceInstance(Locale.ENGLISH);
+        iterator.setText(paragraph);
+        int start = iterator.first();
+        for (int end = iterator.next(); end != BreakIterator.DONE; start = end, end = iterator.next()) {
+            sentences.add(paragraph.substring(start, end));
+        }
+        return sentences;
+    }
+
+    private List<String> splitHard(String sentence, int maxChunkLength) {
+        List<String> pieces = new ArrayList<>();
+        int start = 0;
+        while (start < sentence.length()) {
+            int end = Math.min(start + maxChunkLength, sentence.length());
+            if (end < sentence.length()) {
+                int space = sentence.lastIndexOf(' ', end - 1);
+                if (space > start) {
+                    end = space + 1;
+                }
+            }
+            pieces.add(sentence.substring(start, end));
+            start = end;
+        }
+        return pieces;
+    }
+
+    private void flush(StringBuilder current, List<String> chunks) {
+        if (current.length() > 0) {
+            chunks.add(current.toString());
+            current.setLength(0);
+        }
+    }
+
+    private String leadingWhitespace(String chunk) {
+        Matcher matcher = LEADING_SPACE.matcher(chunk);
+        return matcher.find() ? matcher.group() : "";
+    }
+
+    private String trailingWhitespace(String chunk) {
+        Matcher matcher = TRAILING_SPACE.matcher(chunk);
+        return matcher.find() ? matcher.group() : "";
+    }
+
+    private void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
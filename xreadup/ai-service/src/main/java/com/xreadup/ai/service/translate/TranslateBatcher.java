@@ -0,0 +1,312 @@
+package com.xreadup.ai.service.translate;
+
+import com.tencentcloudapi.common.exception.TencentCloudSDKException;
+import com.tencentcloudapi.tmt.v20180321.TmtClient;
+import com.tencentcloudapi.tmt.v20180321.models.TextTranslateBatchRequest;
+import com.tencentcloudapi.tmt.v20180321.models.TextTranslateBatchResponse;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 短文本合批翻译
+ * <p>
+ * 在很短的时间窗口内收集并发到达的单条翻译请求，按语言对合并为一次 TextTranslateBatch 调用，
+ * 达到条数或字符上限时立即发送。调用方拿到的是各自条目的结果。
+ * </p>
+ * 定时线程只负责到期时把批次交给发送线程池，阻塞的 HTTP 调用在有界的发送线程池中执行，
+ * 慢请求不会拖住其他批次的定时发送。等待超时的调用方可撤回尚未发出的条目；已发出的条目不可撤回。
+ * 每次批量调用占用一个腾讯云许可（与分块翻译共用 {@link ChunkedTranslationEngine} 的许可），不会突破QPS限制。
+ */
+@Slf4j
+@Component
+public class TranslateBatcher {
+
+    private final TmtClient tmtClient;
+    private final ChunkedTranslationEngine chunkedTranslationEngine;
+    private final long windowMs;
+    private final int maxItems;
+    private final int maxChars;
+    private final ScheduledExecutorService scheduler;
+    private final ThreadPoolExecutor sender;
+
+    // 语言对 -> 正在收集中的批次
+    private final Map<String, Batch> openBatches = new HashMap<>();
+
+    private final AtomicLong batchCalls = new AtomicLong();
+    private final AtomicLong batchedItems = new AtomicLong();
+
+    public TranslateBatcher(TmtClient tmtClient,
+                            ChunkedTranslationEngine chunkedTranslationEngine,
+                            @Value("${ai.translate.batch.window-ms:20}") long windowMs,
+                            @Value("${ai.translate.batch.max-items:50}") int maxItems,
+                            @Value("${ai.translate.batch.max-chars:5000}") int maxChars,
+                            @Value("${ai.translate.batch.pool-size:2}") int poolSize,
+                            @Value("${ai.translate.batch.queue-capacity:100}") int queueCapacity) {
+        this.tmtClient = tmtClient;
+        this.chunkedTranslationEngine = chunkedTranslationEngine;
+        this.windowMs = windowMs;
+        this.maxItems = maxItems;
+        this.maxChars = maxChars;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "translate-batch-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.sender = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+            Thread thread = new Thread(r, "translate-batch-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 文本是否适合合批（单条不超过批次字符上限）
+     */
+    public boolean accepts(String text) {
+        return text.length() <= maxChars;
+    }
+
+    /**
+     * 提交单条翻译，等待所在批次发送后得到结果
+     */
+    public CompletableFuture<String> submit(String text, String sourceLang, String targetLang) {
+        String langPair = sourceLang + ">" + targetLang;
+        Entry future = new Entry();
+        Batch full = null;
+        Batch overflow = null;
+
+        synchronized (openBatches) {
+            Batch batch = openBatches.get(langPair);
+            if (batch != null && batch.chars() + text.length() > maxChars) {
+                // 放不下时先把当前批次发出去
+                openBatches.remove(langPair);
+                overflow = batch;
+                batch = null;
+            }
+            if (batch == null) {
+                batch = new Batch(sourceLang, targetLang);
+                openBatches.put(langPair, batch);
+                Batch scheduled = batch;
+                scheduler.schedule(() -> flush(langPair, scheduled), windowMs, TimeUnit.MILLISECONDS);
+            }
+            batch.add(text, future);
+            if (batch.size() >= maxItems) {
+                openBatches.remove(langPair);
+                full = batch;
+            }
+        }
+
+        if (overflow != null) {
+            dispatch(overflow);
+        }
+        if (full != null) {
+            dispatch(full);
+        }
+        return future;
+    }
+
+    /**
+     * 撤回尚未发出的条目，撤回后调用方可自行改用单条接口
+     *
+     * @return false 表示条目所在批次已发出（或已有结果），调用方应继续等待该批次的结果，避免同一文本重复计费
+     */
+    public boolean withdraw(CompletableFuture<String> future) {
+        if (!(future instanceof Entry entry) || entry.batch == null) {
+            return false;
+        }
+        return entry.batch.withdraw(entry);
+    }
+
+    /**
+     * 同步批量翻译（调用方已自行打包），返回与入参一一对应的译文
+     */
+    public String[] translateNow(List<String> texts, String sourceLang, String targetLang)
+            throws TencentCloudSDKException, InterruptedException {
+        TextTranslateBatchRequest request = new TextTranslateBatchRequest();
+        request.setSource(sourceLang);
+        request.setTarget(targetLang);
+        request.setSourceTextList(texts.toArray(new String[0]));
+        request.setProjectId(0L);
+
+        TextTranslateBatchResponse response;
+        chunkedTranslationEngine.acquirePermit(ChunkedTranslationEngine.Provider.TENCENT);
+        try {
+            response = tmtClient.TextTranslateBatch(request);
+        } finally {
+            chunkedTranslationEngine.releasePermit(ChunkedTranslationEngine.Provider.TENCENT);
+        }
+        batchCalls.incrementAndGet();
+        batchedItems.addAndGet(texts.size());
+
+        String[] targets = response != null ? response.getTargetTextList() : null;
+        if (targets == null || targets.length != texts.size()) {
+            throw new IllegalStateException("批量翻译返回条数不一致: 期望 " + texts.size() + ", 实际 "
+                    + (targets == null ? 0 : targets.length));
+        }
+        return targets;
+    }
+
+    /**
+     * 单批最多条数
+     */
+    public int getMaxItems() {
+        return maxItems;
+    }
+
+    /**
+     * 单批最多字符数
+     */
+    public int getMaxChars() {
+        return maxChars;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("batchCalls", batchCalls.get());
+        stats.put("batchedItems", batchedItems.get());
+        long calls = batchCalls.get();
+        stats.put("averageBatchSize", calls == 0 ? 0.0 : Math.round(batchedItems.get() * 100.0 / calls) / 100.0);
+        return stats;
+    }
+
+    private void flush(String langPair, Batch batch) {
+        synchronized (openBatches) {
+            // 已因条数或字符上限提前发送
+            if (openBatches.get(langPair) != batch) {
+                return;
+            }
+            openBatches.remove(langPair);
+        }
+        dispatch(batch);
+    }
+
+    /**
+     * 交给发送线程池；队列已满时本批条目以异常结束，调用方改用单条接口
+     */
+    private void dispatch(Batch batch) {
+        try {
+            sender.execute(() -> send(batch));
+        } catch (RejectedExecutionException e) {
+            log.warn("合批发送队列已满，条数: {}", batch.size());
+            batch.fail(e);
+        }
+    }
+
+    private void send(Batch batch) {
+        // 标记为已发出，此后条目不可撤回
+        List<String> texts = new ArrayList<>();
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        batch.markSending(texts, futures);
+        if (texts.isEmpty()) {
+            return;
+        }
+        try {
+            String[] targets = translateNow(texts, batch.sourceLang, batch.targetLang);
+            log.debug("合批翻译完成: {} -> {}, 条数: {}", batch.sourceLang, batch.targetLang, texts.size());
+            for (int i = 0; i < targets.length; i++) {
+                futures.get(i).complete(targets[i]);
+            }
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.warn("合批翻译失败，条数: {}, 原因: {}", texts.size(), e.getMessage());
+            futures.forEach(f -> f.completeExceptionally(e));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        List<Batch> remaining;
+        synchronized (openBatches) {
+            remaining = new ArrayList<>(openBatches.values());
+            openBatches.clear();
+        }
+        scheduler.shutdownNow();
+        remaining.forEach(this::send);
+        sender.shutdown();
+    }
+
+    /**
+     * 单个条目的结果，记录所在批次以便撤回
+     */
+    private static class Entry extends CompletableFuture<String> {
+        private volatile Batch batch;
+    }
+
+    /**
+     * 收集中的批次
+     */
+    private static class Batch {
+        private final String sourceLang;
+        private final String targetLang;
+        private final List<String> texts = new ArrayList<>();
+        private final List<Entry> futures = new ArrayList<>();
+        private int chars;
+        private boolean sending;
+
+        Batch(String sourceLang, String targetLang) {
+            this.sourceLang = sourceLang;
+            this.targetLang = targetLang;
+        }
+
+        synchronized void add(String text, Entry future) {
+            texts.add(text);
+            futures.add(future);
+            chars += text.length();
+            future.batch = this;
+        }
+
+        synchronized int size() {
+            return texts.size();
+        }
+
+        synchronized int chars() {
+            return chars;
+        }
+
+        synchronized boolean withdraw(Entry future) {
+            if (sending) {
+                return false;
+            }
+            int index = futures.indexOf(future);
+            if (index < 0) {
+                return false;
+            }
+            chars -= texts.remove(index).length();
+            futures.remove(index);
+            return true;
+        }
+
+        synchronized void markSending(List<String> textsOut, List<CompletableFuture<String>> futuresOut) {
+            sending = true;
+            textsOut.addAll(texts);
+            futuresOut.addAll(futures);
+        }
+
+        synchronized void fail(Exception e) {
+            futures.forEach(f -> f.completeExceptionally(e));
+            // 已结束的条目无需撤回
+            texts.clear();
+            futures.clear();
+        }
+    }
+}
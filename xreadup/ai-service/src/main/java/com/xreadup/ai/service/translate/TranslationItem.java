@@ -0,0 +1,47 @@
+package com.xreadup.ai.service.translate;
+
+import lombok.Data;
+
+/**
+ * 批量翻译的单条结果
+ */
+@Data
+public class TranslationItem {
+
+    /**
+     * 在请求列表中的位置
+     */
+    private int index;
+
+    private String sourceText;
+
+    private String translatedText;
+
+    /**
+     * 是否来自翻译记忆
+     */
+    private boolean fromMemory;
+
+    private boolean success;
+
+    private String error;
+
+    public static TranslationItem success(int index, String sourceText, String translatedText, boolean fromMemory) {
+        TranslationItem item = new TranslationItem();
+        item.setIndex(index);
+        item.setSourceText(sourceText);
+        item.setTranslatedText(translatedText);
+        item.setFromMemory(fromMemory);
+        item.setSuccess(true);
+        return item;
+    }
+
+    public static TranslationItem failure(int index, String sourceText, String error) {
+        TranslationItem item = new TranslationItem();
+        item.setIndex(index);
+        item.setSourceText(sourceText);
+        item.setSuccess(false);
+        item.setError(error);
+        return item;
+    }
+}
@@ -0,0 +1,125 @@
+package com.xreadup.ai.service.translate;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 翻译记忆
+ * <p>
+ * 以（原文哈希, 源语言, 目标语言）为键缓存译文，本地 Caffeine 与共享 Redis 两级，
+ * 位于所有腾讯云翻译调用之前，重复的标题、摘要、段落不再重复计费。
+ * 本地缓存按字符数计权（键 + 译文），条目长短差异很大（标题与整篇文章），按条数限制无法约束内存占用。
+ * </p>
+ */
+@Slf4j
+@Component
+public class TranslationMemory {
+
+    private static final String REDIS_KEY_PREFIX = "ai:translation-memory:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final Cache<String, String> localCache;
+    private final Duration redisTtl;
+
+    private final AtomicLong localHits = new AtomicLong();
+    private final AtomicLong redisHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong redisErrors = new AtomicLong();
+
+    public TranslationMemory(StringRedisTemplate redisTemplate,
+                             @Value("${ai.translate.memory.local-max-chars:20000000}") long localMaxChars,
+                             @Value("${ai.translate.memory.local-ttl-minutes:120}") long localTtlMinutes,
+                             @Value("${ai.translate.memory.redis-ttl-days:30}") long redisTtlDays) {
+        this.redisTemplate = redisTemplate;
+        this.localCache = Caffeine.newBuilder()
+                .maximumWeight(localMaxChars)
+                .weigher((String key, String value) -> key.length() + value.length())
+                .expireAfterWrite(localTtlMinutes, TimeUnit.MINUTES)
+                .build();
+        this.redisTtl = Duration.ofDays(redisTtlDays);
+    }
+
+    /**
+     * 查询译文，未命中返回 null
+     */
+    public String get(String text, String sourceLang, String targetLang) {
+        String key = keyOf(text, sourceLang, targetLang);
+        String local = localCache.getIfPresent(key);
+        if (local != null) {
+            localHits.incrementAndGet();
+            return local;
+        }
+        try {
+            String cached = redisTemplate.opsForValue().get(REDIS_KEY_PREFIX + key);
+            if (cached != null) {
+                redisHits.incrementAndGet();
+                localCache.put(key, cached);
+                return cached;
+            }
+        } catch (Exception e) {
+            redisErrors.incrementAndGet();
+            log.warn("读取翻译记忆失败: {}", e.getMessage());
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * 记录译文
+     */
+    public void put(String text, String sourceLang, String targetLang, String translated) {
+        if (translated == null || translated.isEmpty()) {
+            return;
+        }
+        String key = keyOf(text, sourceLang, targetLang);
+        localCache.put(key, translated);
+        try {
+            redisTemplate.opsForValue().set(REDIS_KEY_PREFIX + key, translated, redisTtl);
+        } catch (Exception e) {
+            redisErrors.incrementAndGet();
+            log.warn("写入翻译记忆失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 翻译记忆命中统计
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long hits = localHits.get() + redisHits.get();
+        long total = hits + misses.get();
+        stats.put("localSize", localCache.estimatedSize());
+        stats.put("localWeightChars", localCache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L));
+        stats.put("localHits", localHits.get());
+        stats.put("redisHits", redisHits.get());
+        stats.put("misses", misses.get());
+        stats.put("redisErrors", redisErrors.get());
+        stats.put("hitRate", total == 0 ? 0.0 : Math.round(hits * 10000.0 / total) / 100.0);
+        return stats;
+    }
+
+    private String keyOf(String text, String sourceLang, String targetLang) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            String hash = HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+            return sourceLang + ":" + targetLang + ":" + hash;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    }
+}
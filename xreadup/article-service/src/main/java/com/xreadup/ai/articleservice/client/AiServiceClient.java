@@ -2,6 +2,7 @@ package com.xreadup.ai.articleservice.client;
 
 import com.xreadup.ai.articleservice.client.dto.ArticleAnalysisRequest;
 import com.xreadup.ai.articleservice.client.dto.ArticleAnalysisResponse;
+import com.xreadup.ai.articleservice.client.dto.PrewarmJobRequest;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.*;
 
@@ -57,4 +58,13 @@ public interface AiServiceClient {
      */
     @DeleteMapping("/result/{articleId}")
     Map<String, Object> deleteAnalysisResult(@PathVariable("articleId") Long articleId);
+
+    /**
+     * 【预热API】提交新入库文章的预热任务（分析、测验题、中文翻译）
+     * 
+     * @param request 文章ID与预测热度分
+     * @return 提交结果，data为新入队的任务数
+     */
+    @PostMapping("/analysis/jobs/internal/prewarm")
+    Map<String, Object> submitPrewarmJobs(@RequestBody PrewarmJobRequest request);
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.xreadup.ai.articleservice.client;
+
+import com.xreadup.ai.articleservice.model.common.ApiResponse;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+
+/**
+ * 系统配置服务客户端
+ * 用于文章服务读取管理后台维护的配置（如敏感词库）
+ */
+@FeignClient(name = "admin-service", contextId = "articleSystemConfigClient", url = "${admin.service.url:http://localhost:8085}")
+public interface SystemConfigClient {
+
+    /**
+     * 获取配置值（内部接口，无需管理员认证）
+     *
+     * @param configKey 配置键
+     * @return 配置值，配置不存在时 data 为 null
+     */
+    @GetMapping("/api/admin/system-config/internal/value/{configKey}")
+    ApiResponse<String> getConfigValue(@PathVariable("configKey") String configKey);
+}
@@ -0,0 +1,21 @@
+package com.xreadup.ai.articleservice.client.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * 入库预热请求DTO
+ * 用于文章服务在新文章入库后向AI服务提交预热任务
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PrewarmJobRequest {
+    /**
+     * 文章ID → 预测热度分（0-100）
+     */
+    private Map<Long, Integer> popularityScores;
+}
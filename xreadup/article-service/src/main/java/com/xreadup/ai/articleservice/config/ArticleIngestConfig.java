@@ -0,0 +1,40 @@
+package com.xreadup.ai.articleservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 文章抓取流水线配置
+ * 为全文抓取阶段提供有界工作线程池
+ */
+@Configuration
+public class ArticleIngestConfig {
+
+    @Value("${article.ingest.scrape-concurrency:4}")
+    private int scrapeConcurrency;
+
+    @Value("${article.ingest.queue-capacity:200}")
+    private int queueCapacity;
+
+    /**
+     * 抓取线程池
+     * 队列满时由调用线程执行，形成自然的背压
+     */
+    @Bean(name = "articleIngestExecutor")
+    public ThreadPoolTaskExecutor articleIngestExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(scrapeConcurrency);
+        executor.setMaxPoolSize(scrapeConcurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("article-ingest-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -8,6 +8,8 @@ import com.xreadup.ai.articleservice.model.entity.Article;
 import com.xreadup.ai.articleservice.model.entity.ContentFilterLog;
 import com.xreadup.ai.articleservice.service.ArticleService;
 import com.xreadup.ai.articleservice.service.ContentFilterLogService;
+import com.xreadup.ai.articleservice.service.cache.ArticleCache;
+import com.xreadup.ai.articleservice.service.counter.ReadCountAggregator;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -15,6 +17,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -30,6 +33,8 @@ public class AdminArticleController {
     private final ArticleService articleService;
     private final ArticleMapper articleMapper;
     private final ContentFilterLogService contentFilterLogService;
+    private final ArticleCache articleCache;
+    private final ReadCountAggregator readCountAggregator;
 
     /**
      * 获取文章详情
@@ -89,14 +94,11 @@ public class AdminArticleController {
             @PathVariable Long articleId,
             @RequestParam String category) {
         try {
-            Article article = articleMapper.selectById(articleId);
-            if (article == null) {
+            if (articleMapper.updateCategory(articleId, category) == 0) {
                 return ApiResponse.error("文章不存在");
             }
-            
-            article.setCategory(category);
-            boolean updated = articleMapper.updateById(article) > 0;
-            return ApiResponse.success(updated);
+            articleCache.evictArticle(articleId);
+            return ApiResponse.success(true);
         } catch (Exception e) {
             return ApiResponse.error("更新文章分类失败: " + e.getMessage());
         }
@@ -114,20 +116,53 @@ public class AdminArticleController {
             @PathVariable Long articleId,
             @RequestParam String difficulty) {
         try {
-            Article article = articleMapper.selectById(articleId);
-            if (article == null) {
+            if (articleMapper.updateManualDifficulty(articleId, difficulty) == 0) {
                 return ApiResponse.error("文章不存在");
             }
-            
-            article.setDifficultyLevel(difficulty);
-            article.setManualDifficulty(difficulty);
-            boolean updated = articleMapper.updateById(article) > 0;
-            return ApiResponse.success(updated);
+            articleCache.evictArticle(articleId);
+            return ApiResponse.success(true);
         } catch (Exception e) {
             return ApiResponse.error("更新文章难度失败: " + e.getMessage());
         }
     }
 
+    /**
+     * 按当前CEFR词表重新评估全部文章难度
+     * 手动标注过难度的文章保持不变
+     * @param batchSize 每批读取的文章数
+     * @return 处理统计
+     */
+    @PostMapping("/difficulty/regrade")
+    @Operation(summary = "重新评估文章难度", description = "按当前词表重新评估全部文章的自动难度等级")
+    public ApiResponse<Map<String, Object>> regradeDifficulty(
+            @RequestParam(defaultValue = "500") Integer batchSize) {
+        try {
+            return ApiResponse.success(articleService.regradeDifficulty(Math.max(1, Math.min(batchSize, 5000))));
+        } catch (Exception e) {
+            return ApiResponse.error("重新评估文章难度失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 文章读缓存统计
+     * @return 命中率等统计
+     */
+    @GetMapping("/cache/stats")
+    @Operation(summary = "文章缓存统计", description = "文章详情与探索列表缓存的命中情况")
+    public ApiResponse<Map<String, Object>> getCacheStats() {
+        return ApiResponse.success(articleCache.getStats());
+    }
+
+    /**
+     * 阅读数聚合统计
+     * @return 累计次数、写回次数与合并比
+     */
+    @GetMapping("/read-counter/stats")
+    @Operation(summary = "阅读数聚合统计", description = "阅读数在 Redis 中累计与批量写回的情况")
+    public ApiResponse<Map<String, Object>> getReadCounterStats() {
+        return ApiResponse.success(readCountAggregator.getStats());
+    }
+
     /**
      * 标记/取消标记精选文章
      * @param articleId 文章ID
@@ -140,14 +175,11 @@ public class AdminArticleController {
             @PathVariable Long articleId,
             @RequestParam Boolean isFeatured) {
         try {
-            Article article = articleMapper.selectById(articleId);
-            if (article == null) {
+            if (articleMapper.updateFeatured(articleId, isFeatured) == 0) {
                 return ApiResponse.error("文章不存在");
             }
-            
-            article.setIsFeatured(isFeatured);
-            boolean updated = articleMapper.updateById(article) > 0;
-            return ApiResponse.success(updated);
+            articleCache.evictArticle(articleId);
+            return ApiResponse.success(true);
         } catch (Exception e) {
             return ApiResponse.error("标记精选文章失败: " + e.getMessage());
         }
@@ -169,6 +201,9 @@ public class AdminArticleController {
             
             // 使用逻辑删除
             boolean deleted = articleMapper.deleteById(articleId) > 0;
+            if (deleted) {
+                articleCache.evictArticle(articleId);
+            }
             return ApiResponse.success(deleted);
         } catch (Exception e) {
             return ApiResponse.error("删除文章失败: " + e.getMessage());
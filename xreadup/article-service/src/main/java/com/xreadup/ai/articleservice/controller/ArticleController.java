@@ -2,15 +2,18 @@ package com.xreadup.ai.articleservice.controller;
 
 import com.xreadup.ai.articleservice.model.dto.ArticleQueryDTO;
 import com.xreadup.ai.articleservice.model.dto.ManualDifficultyDTO;
+import com.xreadup.ai.articleservice.model.dto.UpdateContentCnByIdRequest;
 import com.xreadup.ai.articleservice.model.dto.UpdateContentCnRequest;
 import com.xreadup.ai.articleservice.service.ArticleService;
 import com.xreadup.ai.articleservice.service.ScraperService;
 import com.xreadup.ai.articleservice.model.common.ApiResponse;
 import com.xreadup.ai.articleservice.model.common.PageResult;
+import com.xreadup.ai.articleservice.model.vo.ArticleVO;
 import com.xreadup.ai.articleservice.model.vo.ArticleDetailVO;
 import com.xreadup.ai.articleservice.model.vo.ArticleListVO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 
@@ -46,6 +49,14 @@ public class ArticleController {
         return articleService.readArticle(id);
     }
 
+    @GetMapping("/{id}/source")
+    @Operation(summary = "【文章正文】获取文章正文", 
+               description = "供AI分析等后台任务读取文章，不增加阅读次数")
+    public ApiResponse<ArticleVO> getArticleSource(@PathVariable Long id) {
+        ArticleVO article = articleService.getArticleDetail(id);
+        return article != null ? ApiResponse.success(article) : ApiResponse.error("文章不存在");
+    }
+
     @GetMapping("/{id}/deep-dive")
     @Operation(summary = "【深度精读】AI深度分析", 
                description = "对文章进行AI深度分析，包括难度评估、关键词提取、摘要生成等")
@@ -137,6 +148,16 @@ public class ArticleController {
         return articleService.updateContentCn(request.getContentEn(), request.getContentCn());
     }
     
+    /**
+     * 按文章ID更新中文翻译内容
+     */
+    @PostMapping("/{id}/content-cn")
+    @Operation(summary = "【更新中文内容】按文章ID更新中文翻译内容", 
+               description = "已知文章ID时直接更新其中文翻译内容，无需按英文内容查找")
+    public ApiResponse<Boolean> updateContentCnById(@PathVariable Long id, @Valid @RequestBody UpdateContentCnByIdRequest request) {
+        return articleService.updateContentCnById(id, request.getContentCn());
+    }
+    
     @GetMapping("/extract-content")
     @Operation(summary = "【内容提取】从URL提取可读内容", 
                description = "使用Readability4J从指定URL提取文章的可读内容")
@@ -6,10 +6,99 @@ import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.xreadup.ai.articleservice.model.entity.Article;
 import com.xreadup.ai.articleservice.model.dto.ArticleQueryDTO;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
 @Repository
 public interface ArticleMapper extends BaseMapper<Article> {
     
     IPage<Article> selectArticlePage(Page<Article> page, @Param("query") ArticleQueryDTO query);
-}
\ No newline at end of file
+
+    /**
+     * 按ID游标分批读取待重新评估难度的文章（跳过手动标注难度的文章）
+     */
+    @Select("SELECT id, content_en, difficulty_level FROM article " +
+            "WHERE id > #{afterId} AND deleted = 0 AND (manual_difficulty IS NULL OR manual_difficulty = '') " +
+            "ORDER BY id LIMIT #{limit}")
+    List<Article> selectForDifficultyRegrade(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    /**
+     * 更新自动评估的难度等级
+     */
+    @Update("UPDATE article SET difficulty_level = #{difficultyLevel} WHERE id = #{id}")
+    int updateDifficultyLevel(@Param("id") Long id, @Param("difficultyLevel") String difficultyLevel);
+
+    /**
+     * 手动标注难度（同时覆盖自动评估的难度等级，只更新这两列）
+     */
+    @Update("UPDATE article SET difficulty_level = #{difficulty}, manual_difficulty = #{difficulty} WHERE id = #{id} AND deleted = 0")
+    int updateManualDifficulty(@Param("id") Long id, @Param("difficulty") String difficulty);
+
+    /**
+     * 更新文章分类（只更新 category）
+     */
+    @Update("UPDATE article SET category = #{category} WHERE id = #{id} AND deleted = 0")
+    int updateCategory(@Param("id") Long id, @Param("category") String category);
+
+    /**
+     * 标记/取消精选（只更新 is_featured）
+     */
+    @Update("UPDATE article SET is_featured = #{featured} WHERE id = #{id} AND deleted = 0")
+    int updateFeatured(@Param("id") Long id, @Param("featured") Boolean featured);
+
+    /**
+     * 阅读数加一（Redis 不可用时的兜底路径）
+     */
+    @Update("UPDATE article SET read_count = read_count + 1, update_time = update_time WHERE id = #{id}")
+    int incrementReadCount(@Param("id") Long id);
+
+    /**
+     * 批量累加阅读数，key为文章ID，value为增量；阅读不视为内容修改，保持 update_time 不变
+     */
+    @Update("<script>" +
+            "UPDATE article SET update_time = update_time, read_count = read_count + CASE id " +
+            "<foreach collection='deltas' index='id' item='delta'>WHEN #{id} THEN #{delta} </foreach>" +
+            "END WHERE id IN " +
+            "<foreach collection='deltas' index='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int addReadCounts(@Param("deltas") Map<Long, Long> deltas);
+
+    /**
+     * 更新文章中文内容（只更新 content_cn，不覆盖其他列）
+     */
+    @Update("UPDATE article SET content_cn = #{contentCn}, update_time = NOW() WHERE id = #{id} AND deleted = 0")
+    int updateContentCn(@Param("id") Long id, @Param("contentCn") String contentCn);
+
+    /**
+     * 全站文章平均阅读数（预热热度评估的基准）
+     */
+    @Select("SELECT COALESCE(AVG(read_count), 0) FROM article WHERE deleted = 0")
+    double selectAvgReadCount();
+
+    /**
+     * 按分类统计平均阅读数，结果列：name, avgReads
+     */
+    @Select("<script>" +
+            "SELECT category AS name, AVG(read_count) AS avgReads FROM article " +
+            "WHERE deleted = 0 AND category IN " +
+            "<foreach collection='categories' item='c' open='(' separator=',' close=')'>#{c}</foreach> " +
+            "GROUP BY category" +
+            "</script>")
+    List<Map<String, Object>> selectAvgReadCountByCategory(@Param("categories") Collection<String> categories);
+
+    /**
+     * 按来源统计平均阅读数，结果列：name, avgReads
+     */
+    @Select("<script>" +
+            "SELECT source AS name, AVG(read_count) AS avgReads FROM article " +
+            "WHERE deleted = 0 AND source IN " +
+            "<foreach collection='sources' item='s' open='(' separator=',' close=')'>#{s}</foreach> " +
+            "GROUP BY source" +
+            "</script>")
+    List<Map<String, Object>> selectAvgReadCountBySource(@Param("sources") Collection<String> sources);
+}
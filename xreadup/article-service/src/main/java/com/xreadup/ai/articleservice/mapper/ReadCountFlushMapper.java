@@ -0,0 +1,26 @@
+package com.xreadup.ai.articleservice.mapper;
+
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+/**
+ * 阅读数写回批次Mapper
+ * 写回ID与阅读数更新在同一事务中写入，用于跳过已写回的批次
+ */
+@Mapper
+public interface ReadCountFlushMapper {
+
+    /**
+     * 记录写回ID，已存在时返回0
+     */
+    @Insert("INSERT IGNORE INTO read_count_flush (flush_id, articles, total_reads) VALUES (#{flushId}, #{articles}, #{reads})")
+    int insertIgnore(@Param("flushId") String flushId, @Param("articles") int articles, @Param("reads") long reads);
+
+    /**
+     * 清理早于保留时长的记录
+     */
+    @Delete("DELETE FROM read_count_flush WHERE flushed_at < NOW() - INTERVAL #{retentionHours} HOUR")
+    int deleteOlderThan(@Param("retentionHours") int retentionHours);
+}
@@ -0,0 +1,22 @@
+package com.xreadup.ai.articleservice.model.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+/**
+ * 按文章ID更新中文内容请求
+ * 
+ * 调用方已知文章ID时使用，无需传递英文原文
+ * 
+ * @author XReadUp Team
+ * @version 1.0.0
+ */
+@Data
+public class UpdateContentCnByIdRequest {
+    
+    /**
+     * 文章的中文翻译内容
+     */
+    @NotBlank(message = "中文内容不能为空")
+    private String contentCn;
+}
@@ -17,6 +17,9 @@ public class Article {
     @TableField("content_en")
     private String contentEn;
     
+    @TableField("content_hash")
+    private String contentHash; // 英文正文的 SHA-256 指纹，唯一索引
+
     @TableField("content_cn")
     private String contentCn;
     
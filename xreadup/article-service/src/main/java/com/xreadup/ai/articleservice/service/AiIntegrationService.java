@@ -3,11 +3,14 @@ package com.xreadup.ai.articleservice.service;
 import com.xreadup.ai.articleservice.client.AiServiceClient;
 import com.xreadup.ai.articleservice.client.dto.ArticleAnalysisRequest;
 import com.xreadup.ai.articleservice.client.dto.ArticleAnalysisResponse;
+import com.xreadup.ai.articleservice.client.dto.PrewarmJobRequest;
 import com.xreadup.ai.articleservice.model.entity.Article;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
+
 /**
  * AI集成服务 - 重构版
  * 适配新的统一API接口，移除冗余调用
@@ -68,6 +71,22 @@ public class AiIntegrationService {
         }
     }
 
+    /**
+     * 【预热模式】提交新入库文章的后台预热任务，不等待分析完成
+     *
+     * @param popularityScores 文章ID → 预测热度分（0-100）
+     * @return 是否提交成功
+     */
+    public boolean submitPrewarm(Map<Long, Integer> popularityScores) {
+        try {
+            Map<String, Object> response = aiServiceClient.submitPrewarmJobs(new PrewarmJobRequest(popularityScores));
+            return response != null && Boolean.TRUE.equals(response.get("success"));
+        } catch (Exception e) {
+            log.warn("提交预热任务失败: {} 篇, 原因: {}", popularityScores.size(), e.getMessage());
+            return false;
+        }
+    }
+
     /**
      * 获取已保存的分析结果
      */
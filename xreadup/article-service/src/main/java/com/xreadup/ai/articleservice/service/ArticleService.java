@@ -10,6 +10,7 @@ import com.xreadup.ai.articleservice.model.vo.ArticleVO;
 import com.xreadup.ai.articleservice.model.common.ApiResponse;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * 文章服务接口
@@ -97,6 +98,15 @@ public interface ArticleService {
      * @return 更新是否成功
      */
     ApiResponse<Boolean> updateContentCn(String contentEn, String contentCn);
+
+    /**
+     * 按文章ID更新中文翻译内容
+     *
+     * @param id 文章ID
+     * @param contentCn 文章的中文翻译内容
+     * @return 更新结果，文章不存在时为false
+     */
+    ApiResponse<Boolean> updateContentCnById(Long id, String contentCn);
     
     /**
      * 根据关键词搜索文章（用于自定义主题）
@@ -133,4 +143,11 @@ public interface ArticleService {
      */
     List<ArticleVO> getArticlesByCategory(String category, int limit, String language, 
             String country, String fromDate, String toDate, String sortBy);
-}
\ No newline at end of file
+
+    /**
+     * 按当前CEFR词表重新评估全部文章难度（跳过手动标注难度的文章）
+     * @param batchSize 每批读取的文章数
+     * @return 处理统计：scanned 扫描数、updated 难度变化数、elapsedMs 耗时
+     */
+    Map<String, Object> regradeDifficulty(int batchSize);
+}
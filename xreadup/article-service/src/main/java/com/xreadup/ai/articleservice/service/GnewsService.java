@@ -9,6 +9,10 @@ import org.springframework.web.reactive.function.client.WebClientResponseExcepti
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
@@ -40,6 +44,10 @@ public class GnewsService {
         "entertainment", "sports", "science", "health"
     );
     
+    // GNews 时间参数格式 (2024-01-01T00:00:00Z)
+    private static final DateTimeFormatter GNEWS_TIME_FORMAT =
+        DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss'Z'").withZone(ZoneOffset.UTC);
+    
     // 支持的语言代码
     private static final Set<String> SUPPORTED_LANGUAGES = Set.of(
         "en", "zh", "es", "fr", "de", "it", "pt", "ru", "ja", "ko", "ar", "hi"
@@ -100,44 +108,8 @@ public class GnewsService {
                 category, actualLang, actualCountry, fromDate, toDate, sortBy, actualCount);
         
         try {
-            WebClient client = getWebClient();
-            
-            // 构建查询参数
-            var uriBuilder = client.get()
-                    .uri(uri -> {
-                        var builder = uri
-                                .path("/top-headlines")
-                                .queryParam("category", category)
-                                .queryParam("lang", actualLang)
-                                .queryParam("country", actualCountry)
-                                .queryParam("max", actualCount)
-                                .queryParam("apikey", apiKey);
-                        
-                        // 添加可选参数
-                        if (fromDate != null && !fromDate.isEmpty()) {
-                            builder.queryParam("from", fromDate);
-                        }
-                        if (toDate != null && !toDate.isEmpty()) {
-                            builder.queryParam("to", toDate);
-                        }
-                        if (sortBy != null && !sortBy.isEmpty()) {
-                            builder.queryParam("sortby", sortBy);
-                        }
-                        
-                        return builder.build();
-                    });
-            
-            Mono<GnewsResponse> response = uriBuilder
-                    .retrieve()
-                    .onStatus(status -> status.is4xxClientError() || status.is5xxServerError(),
-                            clientResponse -> {
-                                log.error("GNews API error: {}", clientResponse.statusCode());
-                                return Mono.error(new RuntimeException("GNews API error: " + clientResponse.statusCode()));
-                            })
-                    .bodyToMono(GnewsResponse.class)
-                    .timeout(Duration.ofSeconds(30));
-
-            GnewsResponse gnewsResponse = response.block();
+            GnewsResponse gnewsResponse = requestCategoryHeadlines(category, actualCount, actualLang, actualCountry,
+                    fromDate, toDate, sortBy).block();
             
             if (gnewsResponse != null && gnewsResponse.getArticles() != null) {
                 log.info("Successfully fetched {} articles from GNews for category {}", 
@@ -163,6 +135,70 @@ public class GnewsService {
         }
     }
 
+    /**
+     * 非阻塞获取分类下指定时间区间内发布的文章，按发布时间从新到旧排列（供定时增量抓取并发、分页调用）
+     * 请求失败时返回错误，由调用方决定是否推进游标
+     * @param category 分类
+     * @param count 文章数量
+     * @param from 起始时间（UTC，含），为null时不限制
+     * @param to 截止时间（UTC，含），为null时不限制
+     * @return 文章列表
+     */
+    public Mono<List<GnewsResponse.GnewsArticle>> fetchArticlesBetween(String category, Integer count, Instant from, Instant to) {
+        if (!SUPPORTED_CATEGORIES.contains(category)) {
+            log.warn("Unsupported category: {}. Supported categories: {}", category, SUPPORTED_CATEGORIES);
+            return Mono.just(Collections.emptyList());
+        }
+        int actualCount = (count == null || count <= 0) ? maxResults : Math.min(count, 100);
+        String fromDate = from != null ? GNEWS_TIME_FORMAT.format(from.truncatedTo(ChronoUnit.SECONDS)) : null;
+        String toDate = to != null ? GNEWS_TIME_FORMAT.format(to.truncatedTo(ChronoUnit.SECONDS)) : null;
+        
+        return requestCategoryHeadlines(category, actualCount, language, country, fromDate, toDate, "publishedAt")
+                .map(gnewsResponse -> gnewsResponse.getArticles() != null
+                        ? gnewsResponse.getArticles() : Collections.<GnewsResponse.GnewsArticle>emptyList())
+                .defaultIfEmpty(Collections.emptyList())
+                .doOnError(e -> log.error("Error fetching articles from GNews: category={}, from={}, to={}, error={}",
+                        category, fromDate, toDate, e.getMessage()));
+    }
+
+    /**
+     * 构建分类头条请求（不订阅）
+     */
+    private Mono<GnewsResponse> requestCategoryHeadlines(String category, int count, String lang, String countryCode,
+            String fromDate, String toDate, String sortBy) {
+        return getWebClient().get()
+                .uri(uri -> {
+                    var builder = uri
+                            .path("/top-headlines")
+                            .queryParam("category", category)
+                            .queryParam("lang", lang)
+                            .queryParam("country", countryCode)
+                            .queryParam("max", count)
+                            .queryParam("apikey", apiKey);
+                    
+                    // 添加可选参数
+                    if (fromDate != null && !fromDate.isEmpty()) {
+                        builder.queryParam("from", fromDate);
+                    }
+                    if (toDate != null && !toDate.isEmpty()) {
+                        builder.queryParam("to", toDate);
+                    }
+                    if (sortBy != null && !sortBy.isEmpty()) {
+                        builder.queryParam("sortby", sortBy);
+                    }
+                    
+                    return builder.build();
+                })
+                .retrieve()
+                .onStatus(status -> status.is4xxClientError() || status.is5xxServerError(),
+                        clientResponse -> {
+                            log.error("GNews API error: {}", clientResponse.statusCode());
+                            return Mono.error(new RuntimeException("GNews API error: " + clientResponse.statusCode()));
+                        })
+                .bodyToMono(GnewsResponse.class)
+                .timeout(Duration.ofSeconds(30));
+    }
+
     public List<GnewsResponse.GnewsArticle> fetchTopHeadlines(Integer count) {
         int actualCount = (count == null || count <= 0) ? maxResults : Math.min(count, 100);
         
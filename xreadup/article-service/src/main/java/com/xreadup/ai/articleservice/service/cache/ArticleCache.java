@@ -0,0 +1,331 @@
+package com.xreadup.ai.articleservice.service.cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.xreadup.ai.articleservice.model.common.PageResult;
+import com.xreadup.ai.articleservice.model.dto.ArticleQueryDTO;
+import com.xreadup.ai.articleservice.model.vo.ArticleListVO;
+import com.xreadup.ai.articleservice.model.vo.ArticleVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 文章读缓存
+ * <p>
+ * 文章详情按ID缓存，探索列表按规范化后的查询条件缓存，均为 Redis 读穿透。
+ * 防击穿：同一实例内同一键只有一个线程回源，跨实例通过短期 Redis 锁只放一个实例回源，
+ * 其余等待缓存写入；过期时间带随机抖动，不存在的文章短暂缓存空标记。
+ * 文章变更时删除详情缓存；列表缓存通过递增版本号整体失效，旧版本键随过期自然清除。
+ * 在事务中调用失效方法时推迟到事务提交后执行，避免提交前的并发读把旧数据重新写回缓存。
+ * </p>
+ */
+@Slf4j
+@Component
+public class ArticleCache {
+
+    private static final String DETAIL_KEY_PREFIX = "article:detail:";
+    private static final String EXPLORE_KEY_PREFIX = "article:explore:";
+    private static final String EXPLORE_VERSION_KEY = "article:explore:version";
+    private static final String LOCK_KEY_PREFIX = "article:lock:";
+    private static final String NULL_MARKER = "__NULL__";
+    private static final Set<String> SORT_FIELDS = Set.of("publishedAt", "readCount", "likeCount", "wordCount");
+    private static final long LOCK_POLL_MS = 50;
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper = JsonMapper.builder().addModule(new JavaTimeModule()).build();
+    private final JavaType explorePageType = objectMapper.getTypeFactory()
+            .constructParametricType(PageResult.class, ArticleListVO.class);
+
+    private final Duration detailTtl;
+    private final Duration exploreTtl;
+    private final Duration readCountExploreTtl;
+    private final Duration nullTtl;
+    private final Duration lockTtl;
+    private final long lockWaitMs;
+
+    // 本实例内正在回源的键，同一键的并发请求共用一次回源结果
+    private final Map<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong redisErrors = new AtomicLong();
+
+    public ArticleCache(StringRedisTemplate redisTemplate,
+                        @Value("${article.cache.article-ttl:3600}") long detailTtlSeconds,
+                        @Value("${article.cache.list-ttl:1800}") long exploreTtlSeconds,
+                        @Value("${article.cache.read-count-list-ttl:60}") long readCountExploreTtlSeconds,
+                        @Value("${article.cache.null-ttl:60}") long nullTtlSeconds,
+                        @Value("${article.cache.lock-ttl-ms:5000}") long lockTtlMs,
+                        @Value("${article.cache.lock-wait-ms:2000}") long lockWaitMs) {
+        this.redisTemplate = redisTemplate;
+        this.detailTtl = Duration.ofSeconds(detailTtlSeconds);
+        this.exploreTtl = Duration.ofSeconds(exploreTtlSeconds);
+        this.readCountExploreTtl = Duration.ofSeconds(readCountExploreTtlSeconds);
+        this.nullTtl = Duration.ofSeconds(nullTtlSeconds);
+        this.lockTtl = Duration.ofMillis(lockTtlMs);
+        this.lockWaitMs = lockWaitMs;
+    }
+
+    /**
+     * 获取文章详情，未命中时由 loader 从数据库加载，文章不存在时返回 null
+     */
+    public ArticleVO getDetail(Long id, Supplier<ArticleVO> loader) {
+        String json = load(DETAIL_KEY_PREFIX + id, detailTtl, () -> toJson(loader.get()));
+        return json == null ? null : fromJson(json, objectMapper.getTypeFactory().constructType(ArticleVO.class));
+    }
+
+    /**
+     * 获取探索列表分页，未命中时由 loader 从数据库加载
+     * 按阅读数排序的列表使用较短的过期时间，使排序跟随定时写回的阅读数
+     */
+    public PageResult<ArticleListVO> getExplorePage(ArticleQueryDTO query, Supplier<PageResult<ArticleListVO>> loader) {
+        String key = EXPLORE_KEY_PREFIX + currentExploreVersion() + ":" + normalize(query);
+        Duration ttl = "readCount".equals(query.getSortBy()) ? readCountExploreTtl : exploreTtl;
+        String json = load(key, ttl, () -> toJson(loader.get()));
+        return json == null ? null : fromJson(json, explorePageType);
+    }
+
+    /**
+     * 文章内容或属性变更：删除详情缓存并使列表缓存失效
+     */
+    public void evictArticle(Long id) {
+        evictDetail(id);
+        evictExplorePages();
+    }
+
+    /**
+     * 删除单篇文章的详情缓存
+     */
+    public void evictDetail(Long id) {
+        afterCommit(() -> deleteDetail(id));
+    }
+
+    /**
+     * 使全部探索列表缓存失效（新文章入库、文章属性变更时调用）
+     */
+    public void evictExplorePages() {
+        afterCommit(this::bumpExploreVersion);
+    }
+
+    private void deleteDetail(Long id) {
+        try {
+            redisTemplate.delete(DETAIL_KEY_PREFIX + id);
+        } catch (Exception e) {
+            redisErrors.incrementAndGet();
+            log.warn("删除文章详情缓存失败，文章ID: {}, 原因: {}", id, e.getMessage());
+        }
+    }
+
+    private void bumpExploreVersion() {
+        try {
+            redisTemplate.opsForValue().increment(EXPLORE_VERSION_KEY);
+        } catch (Exception e) {
+            redisErrors.incrementAndGet();
+            log.warn("更新探索列表缓存版本失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 有活动事务时在提交后执行，回滚时不执行；不在事务中时立即执行
+     */
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * 缓存命中统计
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long total = hits.get() + misses.get();
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("loads", loads.get());
+        stats.put("redisErrors", redisErrors.get());
+        stats.put("hitRate", total == 0 ? 0.0 : Math.round(hits.get() * 10000.0 / total) / 100.0);
+        return stats;
+    }
+
+    /**
+     * 读穿透：缓存 → 本实例合并回源 → 跨实例锁 → 数据库
+     */
+    private String load(String key, Duration ttl, Supplier<String> loader) {
+        String cached = readCache(key);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return NULL_MARKER.equals(cached) ? null : cached;
+        }
+        misses.incrementAndGet();
+
+        CompletableFuture<String> mine = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            return existing.join();
+        }
+        try {
+            String value = loadWithLock(key, ttl, loader);
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private String loadWithLock(String key, Duration ttl, Supplier<String> loader) {
+        String lockKey = LOCK_KEY_PREFIX + key;
+        String token = UUID.randomUUID().toString();
+        boolean locked = tryLock(lockKey, token);
+        if (!locked) {
+            // 其他实例正在回源，等待其写入缓存
+            long deadline = System.currentTimeMillis() + lockWaitMs;
+            while (System.currentTimeMillis() < deadline) {
+                sleepQuietly(LOCK_POLL_MS);
+                String cached = readCache(key);
+                if (cached != null) {
+                    return NULL_MARKER.equals(cached) ? null : cached;
+                }
+            }
+            log.debug("等待缓存回源超时，直接查询数据库: {}", key);
+        }
+        try {
+            loads.incrementAndGet();
+            String value = loader.get();
+            writeCache(key, value, ttl);
+            return value;
+        } finally {
+            if (locked) {
+                unlock(lockKey, token);
+            }
+        }
+    }
+
+    private String readCache(String key) {
+        try {
+            return redisTemplate.opsForValue().get(key);
+        } catch (Exception e) {
+            redisErrors.incrementAndGet();
+            log.warn("读取文章缓存失败: {}, 原因: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeCache(String key, String value, Duration ttl) {
+        try {
+            if (value == null) {
+                redisTemplate.opsForValue().set(key, NULL_MARKER, nullTtl);
+            } else {
+                // 过期时间加入最多10%的随机抖动，避免同批写入的键同时失效
+                long jitterSeconds = ThreadLocalRandom.current().nextLong(ttl.getSeconds() / 10 + 1);
+                redisTemplate.opsForValue().set(key, value, ttl.plusSeconds(jitterSeconds));
+            }
+        } catch (Exception e) {
+            redisErrors.incrementAndGet();
+            log.warn("写入文章缓存失败: {}, 原因: {}", key, e.getMessage());
+        }
+    }
+
+    private boolean tryLock(String lockKey, String token) {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(lockKey, token, lockTtl));
+        } catch (Exception e) {
+            redisErrors.incrementAndGet();
+            // Redis 不可用时按持有锁处理，直接回源
+            return true;
+        }
+    }
+
+    private void unlock(String lockKey, String token) {
+        try {
+            if (token.equals(redisTemplate.opsForValue().get(lockKey))) {
+                redisTemplate.delete(lockKey);
+            }
+        } catch (Exception e) {
+            redisErrors.incrementAndGet();
+        }
+    }
+
+    private long currentExploreVersion() {
+        try {
+            String version = redisTemplate.opsForValue().get(EXPLORE_VERSION_KEY);
+            return version == null ? 0 : Long.parseLong(version);
+        } catch (Exception e) {
+            redisErrors.incrementAndGet();
+            return 0;
+        }
+    }
+
+    /**
+     * 规范化查询条件：空白视为未设置，关键词忽略大小写，未知排序字段按发布时间
+     */
+    private String normalize(ArticleQueryDTO query) {
+        String keyword = query.getKeyword() == null ? "" : query.getKeyword().trim().toLowerCase(Locale.ROOT);
+        String category = query.getCategory() == null ? "" : query.getCategory().trim();
+        String difficulty = query.getDifficultyLevel() == null ? "" : query.getDifficultyLevel().trim();
+        String sortBy = query.getSortBy() != null && SORT_FIELDS.contains(query.getSortBy()) ? query.getSortBy() : "publishedAt";
+        boolean ascending = Boolean.TRUE.equals(query.getAscending()) && query.getSortBy() != null
+                && SORT_FIELDS.contains(query.getSortBy());
+        String normalized = String.join("|", keyword, category, difficulty,
+                String.valueOf(query.getPage()), String.valueOf(query.getSize()), sortBy, String.valueOf(ascending));
+        return DigestUtils.md5DigestAsHex(normalized.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String toJson(Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (Exception e) {
+            throw new IllegalStateException("文章缓存序列化失败", e);
+        }
+    }
+
+    private <T> T fromJson(String json, JavaType type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (Exception e) {
+            throw new IllegalStateException("文章缓存反序列化失败", e);
+        }
+    }
+
+    private void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
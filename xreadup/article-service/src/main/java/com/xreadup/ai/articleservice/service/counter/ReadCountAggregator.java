@@ -0,0 +1,303 @@
+package com.xreadup.ai.articleservice.service.counter;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.xreadup.ai.articleservice.mapper.ArticleMapper;
+import com.xreadup.ai.articleservice.mapper.ReadCountFlushMapper;
+import com.xreadup.ai.articleservice.model.entity.Article;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 文章阅读数聚合
+ * <p>
+ * 阅读时只在 Redis 哈希中 HINCRBY 累计增量，不在请求路径上更新文章行；
+ * 定时任务把累计的增量批量写回 article.read_count，热门文章的多次阅读合并为一次更新。
+ * 写回后把这些文章的最新阅读数按文章记入带过期时间的 Redis 键，读取时以此为基数（缓存中的值可能早于写回）
+ * 叠加尚未写回的增量，得到近实时的阅读数；过期时间长于文章缓存，过期后缓存中的值已不早于写回。
+ * </p>
+ * 每批写回有唯一的写回ID，与阅读数更新在同一事务中记入 read_count_flush；事务已提交但 Redis 清理未完成时，
+ * 重试发现写回ID已存在即跳过，同一批增量只累加一次。
+ */
+@Slf4j
+@Component
+public class ReadCountAggregator {
+
+    // 待写回的增量：field=文章ID，value=增量
+    private static final String PENDING_KEY = "article:read-count:pending";
+    // 写回中的增量，写回成功后删除；写回中途宕机时由下一次写回继续处理
+    private static final String FLUSHING_KEY = "article:read-count:flushing";
+    // 写回中的增量对应的写回ID，与写回中的增量一起删除
+    private static final String FLUSH_ID_KEY = "article:read-count:flush-id";
+    // 最近一次写回后数据库中的阅读数：键后缀=文章ID，value=阅读数
+    private static final String SYNCED_KEY_PREFIX = "article:read-count:synced:";
+    // 旧版本按哈希保存的写回后阅读数，启动时清理
+    private static final String LEGACY_SYNCED_KEY = "article:read-count:synced";
+    private static final String FLUSH_LOCK_KEY = "article:read-count:flush-lock";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ArticleMapper articleMapper;
+    private final ReadCountFlushMapper readCountFlushMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int flushBatchSize;
+    private final Duration flushLockTtl;
+    private final int flushRecordRetentionHours;
+    private final long syncedTtlSeconds;
+
+    private final AtomicLong increments = new AtomicLong();
+    private final AtomicLong directUpdates = new AtomicLong();
+    private final AtomicLong flushedArticles = new AtomicLong();
+    private final AtomicLong flushedReads = new AtomicLong();
+    private final AtomicLong skippedFlushes = new AtomicLong();
+
+    public ReadCountAggregator(StringRedisTemplate redisTemplate,
+                               ArticleMapper articleMapper,
+                               ReadCountFlushMapper readCountFlushMapper,
+                               TransactionTemplate transactionTemplate,
+                               @Value("${article.read-counter.flush-batch-size:500}") int flushBatchSize,
+                               @Value("${article.read-counter.flush-lock-ttl-ms:60000}") long flushLockTtlMs,
+                               @Value("${article.read-counter.flush-record-retention-hours:24}") int flushRecordRetentionHours,
+                               @Value("${article.read-counter.synced-ttl-seconds:7200}") long syncedTtlSeconds) {
+        this.redisTemplate = redisTemplate;
+        this.articleMapper = articleMapper;
+        this.readCountFlushMapper = readCountFlushMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.flushBatchSize = flushBatchSize;
+        this.flushLockTtl = Duration.ofMillis(flushLockTtlMs);
+        this.flushRecordRetentionHours = flushRecordRetentionHours;
+        this.syncedTtlSeconds = syncedTtlSeconds;
+    }
+
+    @PostConstruct
+    public void removeLegacySyncedHash() {
+        try {
+            redisTemplate.delete(LEGACY_SYNCED_KEY);
+        } catch (Exception e) {
+            log.debug("清理旧版写回阅读数哈希失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 记录一次阅读，Redis 不可用时直接原子更新数据库
+     */
+    public void increment(Long articleId) {
+        try {
+            redisTemplate.opsForHash().increment(PENDING_KEY, String.valueOf(articleId), 1);
+            increments.incrementAndGet();
+        } catch (Exception e) {
+            log.warn("累计阅读数失败，直接更新数据库，文章ID: {}, 原因: {}", articleId, e.getMessage());
+            articleMapper.incrementReadCount(articleId);
+            directUpdates.incrementAndGet();
+        }
+    }
+
+    /**
+     * 计算近实时阅读数
+     *
+     * @param cachedCounts 文章ID -> 缓存或数据库中读到的阅读数
+     * @return 文章ID -> 当前阅读数；Redis 不可用时原样返回传入的阅读数
+     */
+    public Map<Long, Long> getCurrentCounts(Map<Long, Integer> cachedCounts) {
+        Map<Long, Long> counts = new HashMap<>();
+        if (cachedCounts == null || cachedCounts.isEmpty()) {
+            return counts;
+        }
+        List<Long> ids = new ArrayList<>(cachedCounts.keySet());
+        List<Object> fields = new ArrayList<>(ids.size());
+        List<String> syncedKeys = new ArrayList<>(ids.size());
+        ids.forEach(id -> {
+            fields.add(String.valueOf(id));
+            syncedKeys.add(SYNCED_KEY_PREFIX + id);
+        });
+        try {
+            List<String> synced = redisTemplate.opsForValue().multiGet(syncedKeys);
+            List<Object> pending = redisTemplate.opsForHash().multiGet(PENDING_KEY, fields);
+            List<Object> flushing = redisTemplate.opsForHash().multiGet(FLUSHING_KEY, fields);
+            for (int i = 0; i < ids.size(); i++) {
+                Integer cached = cachedCounts.get(ids.get(i));
+                long base = synced.get(i) != null ? parse(synced.get(i)) : (cached == null ? 0 : cached);
+                counts.put(ids.get(i), base + parse(pending.get(i)) + parse(flushing.get(i)));
+            }
+        } catch (Exception e) {
+            log.debug("读取近实时阅读数失败: {}", e.getMessage());
+            cachedCounts.forEach((id, count) -> counts.put(id, count == null ? 0L : count));
+        }
+        return counts;
+    }
+
+    /**
+     * 把累计的增量批量写回数据库
+     * 多实例部署时通过 Redis 锁保证同一时刻只有一个实例写回
+     */
+    @Scheduled(initialDelayString = "${article.read-counter.flush-interval-ms:10000}",
+            fixedDelayString = "${article.read-counter.flush-interval-ms:10000}")
+    @PreDestroy
+    public void flush() {
+        String token = UUID.randomUUID().toString();
+        try {
+            if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(FLUSH_LOCK_KEY, token, flushLockTtl))) {
+                return;
+            }
+        } catch (Exception e) {
+            log.warn("获取阅读数写回锁失败: {}", e.getMessage());
+            return;
+        }
+
+        try {
+            // 上次写回未完成时先处理遗留部分，否则把待写回的增量整体转入写回中
+            if (!Boolean.TRUE.equals(redisTemplate.hasKey(FLUSHING_KEY))) {
+                if (!Boolean.TRUE.equals(redisTemplate.hasKey(PENDING_KEY))) {
+                    return;
+                }
+                redisTemplate.delete(FLUSH_ID_KEY);
+                redisTemplate.rename(PENDING_KEY, FLUSHING_KEY);
+            }
+            // 首次处理这批增量时生成写回ID，重试沿用同一ID
+            redisTemplate.opsForValue().setIfAbsent(FLUSH_ID_KEY, UUID.randomUUID().toString());
+            String flushId = redisTemplate.opsForValue().get(FLUSH_ID_KEY);
+            if (flushId == null) {
+                return;
+            }
+
+            Map<Object, Object> entries = redisTemplate.opsForHash().entries(FLUSHING_KEY);
+            List<Map<Long, Long>> batches = new ArrayList<>();
+            Map<Long, Long> batch = new LinkedHashMap<>();
+            long reads = 0;
+            for (Map.Entry<Object, Object> entry : entries.entrySet()) {
+                long delta = parse(entry.getValue());
+                if (delta <= 0) {
+                    continue;
+                }
+                batch.put(Long.valueOf(entry.getKey().toString()), delta);
+                reads += delta;
+                if (batch.size() >= flushBatchSize) {
+                    batches.add(batch);
+                    batch = new LinkedHashMap<>();
+                }
+            }
+            if (!batch.isEmpty()) {
+                batches.add(batch);
+            }
+
+            // 写回ID与所有批次在同一事务中提交：失败时整体回滚；已提交过的写回ID不再累加
+            int articles = entries.size();
+            long totalReads = reads;
+            boolean applied = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                if (readCountFlushMapper.insertIgnore(flushId, articles, totalReads) == 0) {
+                    return false;
+                }
+                batches.forEach(articleMapper::addReadCounts);
+                return true;
+            }));
+            // 先记录写回后的阅读数再删除写回中的增量，期间读取最多短暂多计，不会出现阅读数回退
+            batches.forEach(this::recordSyncedCounts);
+            // 写回中的增量与写回ID一起删除，不会出现新一批增量沿用旧写回ID
+            redisTemplate.delete(List.of(FLUSHING_KEY, FLUSH_ID_KEY));
+
+            if (applied) {
+                flushedArticles.addAndGet(articles);
+                flushedReads.addAndGet(totalReads);
+                log.debug("阅读数写回完成: 文章 {} 篇, 阅读 {} 次", articles, totalReads);
+            } else {
+                skippedFlushes.incrementAndGet();
+                log.warn("写回ID {} 已写回过，跳过重复累加", flushId);
+            }
+        } catch (Exception e) {
+            // 写回中的增量保留在 Redis，下一次写回时重试
+            log.error("阅读数写回失败，将在下次重试: {}", e.getMessage(), e);
+        } finally {
+            try {
+                if (token.equals(redisTemplate.opsForValue().get(FLUSH_LOCK_KEY))) {
+                    redisTemplate.delete(FLUSH_LOCK_KEY);
+                }
+            } catch (Exception e) {
+                log.debug("释放阅读数写回锁失败: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 清理过期的写回批次记录
+     */
+    @Scheduled(initialDelayString = "${article.read-counter.flush-record-purge-interval-ms:3600000}",
+            fixedDelayString = "${article.read-counter.flush-record-purge-interval-ms:3600000}")
+    public void purgeFlushRecords() {
+        try {
+            int deleted = readCountFlushMapper.deleteOlderThan(flushRecordRetentionHours);
+            if (deleted > 0) {
+                log.debug("清理阅读数写回批次记录: {} 条", deleted);
+            }
+        } catch (Exception e) {
+            log.warn("清理阅读数写回批次记录失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 记录写回后数据库中的阅读数，失败不影响写回结果
+     */
+    private void recordSyncedCounts(Map<Long, Long> batch) {
+        try {
+            List<Article> articles = articleMapper.selectList(new LambdaQueryWrapper<Article>()
+                    .select(Article::getId, Article::getReadCount)
+                    .in(Article::getId, batch.keySet()));
+            Map<String, String> synced = new HashMap<>();
+            for (Article article : articles) {
+                if (article.getReadCount() != null) {
+                    synced.put(SYNCED_KEY_PREFIX + article.getId(), String.valueOf(article.getReadCount()));
+                }
+            }
+            if (!synced.isEmpty()) {
+                // 每篇文章一个键并设置过期时间，不再长期累积
+                redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                    synced.forEach((key, count) -> stringConnection.setEx(key, syncedTtlSeconds, count));
+                    return null;
+                });
+            }
+        } catch (Exception e) {
+            log.warn("记录写回后的阅读数失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 阅读数聚合统计
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("increments", increments.get());
+        stats.put("directUpdates", directUpdates.get());
+        stats.put("flushedArticles", flushedArticles.get());
+        stats.put("flushedReads", flushedReads.get());
+        stats.put("skippedFlushes", skippedFlushes.get());
+        long updates = flushedArticles.get();
+        stats.put("coalescingRatio", updates == 0 ? 0.0 : Math.round(flushedReads.get() * 100.0 / updates) / 100.0);
+        return stats;
+    }
+
+    private static long parse(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(value.toString());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
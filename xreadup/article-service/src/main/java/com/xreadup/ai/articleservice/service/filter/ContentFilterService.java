@@ -1,33 +1,54 @@
 package com.xreadup.ai.articleservice.service.filter;
 
+import com.xreadup.ai.articleservice.client.SystemConfigClient;
+import com.xreadup.ai.articleservice.model.common.ApiResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import java.util.*;
 
 /**
  * 文章服务内容过滤服务
  * 独立于其他服务，符合微服务架构原则
+ * <p>
+ * 词库编译为 {@link SensitiveWordMatcher} 自动机，一次扫描得到全部命中；
+ * 词库可在管理后台系统配置中维护，定时拉取，变化时重建自动机并原子替换。
+ * </p>
  */
 @Service
 @Slf4j
 public class ContentFilterService {
 
+    // 管理后台中的词库配置键，值为逗号或换行分隔的词条
+    static final String HIGH_RISK_WORDS_KEY = "content_filter.high_risk_words";
+    static final String SENSITIVE_WORDS_KEY = "content_filter.sensitive_words";
+
     // 英文敏感词库 - 针对英文文章（记录但不拦截，因为新闻中常见）
     private static final Set<String> ENGLISH_SENSITIVE_WORDS = Set.of(
-            "terrorism", "bomb", "explosion", "massacre", "genocide",
-            "violence", "murder", "kill", "death", "suicide", "gun", "weapon",
-            "porn", "pornography", "sex", "sexual", "nude", "naked",
-            "drug", "cocaine", "heroin", "marijuana", "addiction",
-            "gambling", "casino", "bet", "poker", "lottery",
-            "hate", "racism", "discrimination", "abuse", "torture"
+            "terrorism", "terrorist*", "bomb*", "explosion*", "massacre*", "genocide*",
+            "violence", "violent*", "murder*", "kill*", "death*", "suicide*", "gun", "guns", "weapon*",
+            "porn*", "sex", "sexual*", "nude*", "naked",
+            "drug*", "cocaine", "heroin", "marijuana", "addict*",
+            "gambling", "gambler*", "casino*", "bet", "poker", "lotter*",
+            "hate*", "racism", "racist*", "discriminat*", "abuse*", "abusive", "tortur*"
     );
 
     // 高风险词汇 - 直接拦截（仅限明显宣传或极端内容）
     private static final Set<String> HIGH_RISK_WORDS = Set.of(
-            "nazi", "hitler", "fascism", "extremism",
+            "nazi*", "hitler*", "fascism", "fascist*", "extremism", "extremist*",
             "法轮功", "六四", "天安门", "达赖", "台独", "港独", "疆独"
     );
 
+    @Autowired(required = false)
+    private SystemConfigClient systemConfigClient;
+
+    private volatile SensitiveWordMatcher matcher = SensitiveWordMatcher.build(HIGH_RISK_WORDS, ENGLISH_SENSITIVE_WORDS);
+
+    // 上次加载的原始配置，未变化时跳过重建
+    private volatile String loadedHighRiskConfig;
+    private volatile String loadedSensitiveConfig;
+
     /**
      * 过滤英文文章内容
      * 针对新闻内容优化，允许正常的新闻报道通过
@@ -38,35 +59,28 @@ public class ContentFilterService {
             return true;
         }
 
-        String lowerContent = content.toLowerCase();
         log.debug("🔍 开始检查文章内容，长度: {} 字符", content.length());
-
-        // 检查高风险词汇 - 直接拦截（仅限明显宣传或极端内容）
-        for (String word : HIGH_RISK_WORDS) {
-            if (lowerContent.contains(word.toLowerCase())) {
-                log.warn("🚨 文章包含高风险违禁词: '{}' - 直接拦截", word);
-                log.warn("📄 违禁词上下文: {}", getWordContext(content, word));
-                return false;
-            }
-        }
-
-        // 检查一般敏感词 - 记录但不拦截（新闻中常见，允许通过）
-        int sensitiveWordCount = 0;
-        for (String word : ENGLISH_SENSITIVE_WORDS) {
-            if (lowerContent.contains(word.toLowerCase())) {
-                sensitiveWordCount++;
-                log.info("⚠️ 文章包含敏感词汇: '{}' (新闻内容，已记录，允许通过)", word);
-                log.debug("📄 敏感词上下文: {}", getWordContext(content, word));
-            }
+        AnalysisResult result = analyze(content);
+
+        // 高风险词汇 - 直接拦截（仅限明显宣传或极端内容）
+        if (!result.isSafe()) {
+            SensitiveWordMatcher.Hit first = result.getHits().stream()
+                    .filter(hit -> hit.getLevel() == SensitiveWordMatcher.Level.HIGH_RISK)
+                    .findFirst()
+                    .orElseThrow();
+            log.warn("🚨 文章包含高风险违禁词: {} - 直接拦截", result.getHitHighRiskWords());
+            log.warn("📄 违禁词上下文: {}", getWordContext(content, first));
+            return false;
         }
 
-        // 特殊处理：如果文章包含大量敏感词汇，可能是极端内容
+        // 一般敏感词 - 记录但不拦截（新闻中常见，允许通过）
+        int sensitiveWordCount = result.getHitSensitiveWords().size();
         if (sensitiveWordCount > 5) {
             log.warn("⚠️ 文章包含过多敏感词汇 ({}个)，可能是极端内容，但仍允许通过", sensitiveWordCount);
         }
 
         if (sensitiveWordCount > 0) {
-            log.info("📊 文章包含 {} 个敏感词汇，已记录但允许通过", sensitiveWordCount);
+            log.info("📊 文章包含 {} 个敏感词汇 {}，已记录但允许通过", sensitiveWordCount, result.getHitSensitiveWords());
         } else {
             log.debug("✅ 文章内容检查通过，未发现违禁词汇");
         }
@@ -81,87 +95,122 @@ public class ContentFilterService {
         AnalysisResult result = new AnalysisResult();
         if (content == null || content.trim().isEmpty()) {
             result.setSafe(true);
-            result.setHitHighRiskWords(java.util.Collections.emptyList());
-            result.setHitSensitiveWords(java.util.Collections.emptyList());
+            result.setHitHighRiskWords(Collections.emptyList());
+            result.setHitSensitiveWords(Collections.emptyList());
+            result.setHits(Collections.emptyList());
             return result;
         }
 
-        java.util.List<String> high = findHitHighRiskWords(content);
-        java.util.List<String> sens = findHitSensitiveWords(content);
-        result.setHitHighRiskWords(high);
-        result.setHitSensitiveWords(sens);
+        List<SensitiveWordMatcher.Hit> hits = matcher.match(content);
+        Set<String> high = new LinkedHashSet<>();
+        Set<String> sens = new LinkedHashSet<>();
+        for (SensitiveWordMatcher.Hit hit : hits) {
+            (hit.getLevel() == SensitiveWordMatcher.Level.HIGH_RISK ? high : sens).add(hit.getWord());
+        }
+        result.setHitHighRiskWords(new ArrayList<>(high));
+        result.setHitSensitiveWords(new ArrayList<>(sens));
+        result.setHits(hits);
         result.setSafe(high.isEmpty());
         return result;
     }
 
     public static class AnalysisResult {
         private boolean safe;
-        private java.util.List<String> hitHighRiskWords;
-        private java.util.List<String> hitSensitiveWords;
+        private List<String> hitHighRiskWords;
+        private List<String> hitSensitiveWords;
+        private List<SensitiveWordMatcher.Hit> hits;
 
         public boolean isSafe() { return safe; }
         public void setSafe(boolean safe) { this.safe = safe; }
-        public java.util.List<String> getHitHighRiskWords() { return hitHighRiskWords; }
-        public void setHitHighRiskWords(java.util.List<String> hitHighRiskWords) { this.hitHighRiskWords = hitHighRiskWords; }
-        public java.util.List<String> getHitSensitiveWords() { return hitSensitiveWords; }
-        public void setHitSensitiveWords(java.util.List<String> hitSensitiveWords) { this.hitSensitiveWords = hitSensitiveWords; }
+        public List<String> getHitHighRiskWords() { return hitHighRiskWords; }
+        public void setHitHighRiskWords(List<String> hitHighRiskWords) { this.hitHighRiskWords = hitHighRiskWords; }
+        public List<String> getHitSensitiveWords() { return hitSensitiveWords; }
+        public void setHitSensitiveWords(List<String> hitSensitiveWords) { this.hitSensitiveWords = hitSensitiveWords; }
+        /** 全部命中（含位置），按出现顺序 */
+        public List<SensitiveWordMatcher.Hit> getHits() { return hits; }
+        public void setHits(List<SensitiveWordMatcher.Hit> hits) { this.hits = hits; }
     }
 
     /**
      * 提取命中的高风险词（用于拦截日志）
      */
-    public java.util.List<String> findHitHighRiskWords(String content) {
-        java.util.List<String> hits = new java.util.ArrayList<>();
-        if (content == null || content.isEmpty()) {
-            return hits;
-        }
-        String lower = content.toLowerCase();
-        for (String w : HIGH_RISK_WORDS) {
-            if (lower.contains(w.toLowerCase())) {
-                hits.add(w);
-            }
-        }
-        return hits;
+    public List<String> findHitHighRiskWords(String content) {
+        return analyze(content).getHitHighRiskWords();
     }
 
     /**
      * 提取命中的一般敏感词（允许通过，用于记录）
      */
-    public java.util.List<String> findHitSensitiveWords(String content) {
-        java.util.List<String> hits = new java.util.ArrayList<>();
-        if (content == null || content.isEmpty()) {
-            return hits;
+    public List<String> findHitSensitiveWords(String content) {
+        return analyze(content).getHitSensitiveWords();
+    }
+
+    /**
+     * 从管理后台拉取词库，配置变化时重建自动机
+     * 配置不存在或为空时使用内置词库，拉取失败时保留当前词库
+     */
+    @Scheduled(initialDelayString = "${article.content-filter.initial-delay-ms:10000}",
+            fixedDelayString = "${article.content-filter.refresh-interval-ms:60000}")
+    public void refreshDictionary() {
+        if (systemConfigClient == null) {
+            return;
         }
-        String lower = content.toLowerCase();
-        for (String w : ENGLISH_SENSITIVE_WORDS) {
-            if (lower.contains(w.toLowerCase())) {
-                hits.add(w);
+        try {
+            String highRiskConfig = fetchConfig(HIGH_RISK_WORDS_KEY);
+            String sensitiveConfig = fetchConfig(SENSITIVE_WORDS_KEY);
+            if (Objects.equals(highRiskConfig, loadedHighRiskConfig)
+                    && Objects.equals(sensitiveConfig, loadedSensitiveConfig)) {
+                return;
             }
+            reloadDictionary(highRiskConfig, sensitiveConfig);
+            loadedHighRiskConfig = highRiskConfig;
+            loadedSensitiveConfig = sensitiveConfig;
+        } catch (Exception e) {
+            log.warn("刷新敏感词库失败，继续使用当前词库: {}", e.getMessage());
         }
-        return hits;
     }
 
     /**
-     * 获取词汇在内容中的上下文
+     * 用给定的词库配置重建自动机，参数为 null 或空白时使用对应的内置词库
      */
-    private String getWordContext(String content, String word) {
-        try {
-            String lowerContent = content.toLowerCase();
-            String lowerWord = word.toLowerCase();
-            int index = lowerContent.indexOf(lowerWord);
-
-            if (index == -1) {
-                return "未找到上下文";
-            }
+    public void reloadDictionary(String highRiskConfig, String sensitiveConfig) {
+        Collection<String> highRisk = parseWords(highRiskConfig, HIGH_RISK_WORDS);
+        Collection<String> sensitive = parseWords(sensitiveConfig, ENGLISH_SENSITIVE_WORDS);
+        matcher = SensitiveWordMatcher.build(highRisk, sensitive);
+        log.info("敏感词库已更新: 高风险 {} 个, 一般敏感 {} 个, 共 {} 个词条",
+                highRisk.size(), sensitive.size(), matcher.size());
+    }
 
-            int start = Math.max(0, index - 50);
-            int end = Math.min(content.length(), index + word.length() + 50);
-            String context = content.substring(start, end);
+    private String fetchConfig(String configKey) {
+        ApiResponse<String> response = systemConfigClient.getConfigValue(configKey);
+        if (response == null || !response.isSuccess()) {
+            throw new IllegalStateException("读取配置 " + configKey + " 失败");
+        }
+        return response.getData();
+    }
 
-            // 高亮显示关键词
-            return context.replaceAll("(?i)" + word, "【" + word + "】");
-        } catch (Exception e) {
-            return "获取上下文失败: " + e.getMessage();
+    private Collection<String> parseWords(String config, Set<String> defaults) {
+        if (config == null || config.isBlank()) {
+            return defaults;
+        }
+        List<String> words = new ArrayList<>();
+        for (String word : config.split("[,，\\r\\n]+")) {
+            if (!word.isBlank()) {
+                words.add(word.trim());
+            }
         }
+        return words.isEmpty() ? defaults : words;
+    }
+
+    /**
+     * 获取命中词在内容中的上下文
+     */
+    private String getWordContext(String content, SensitiveWordMatcher.Hit hit) {
+        int start = Math.max(0, hit.getStart() - 50);
+        int end = Math.min(content.length(), hit.getEnd() + 50);
+        // 高亮显示关键词
+        return content.substring(start, hit.getStart())
+                + "【" + content.substring(hit.getStart(), hit.getEnd()) + "】"
+                + content.substring(hit.getEnd(), end);
     }
 }
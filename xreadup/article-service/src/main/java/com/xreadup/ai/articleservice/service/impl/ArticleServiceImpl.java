@@ -20,6 +20,11 @@ import com.xreadup.ai.articleservice.model.dto.GnewsResponse;
 import com.xreadup.ai.articleservice.service.ScraperService;
 import com.xreadup.ai.articleservice.service.filter.ContentFilterService;
 import com.xreadup.ai.articleservice.service.ContentFilterLogService;
+import com.xreadup.ai.articleservice.service.cache.ArticleCache;
+import com.xreadup.ai.articleservice.service.counter.ReadCountAggregator;
+import com.xreadup.ai.articleservice.service.ingest.ArticleIngestPipeline;
+import com.xreadup.ai.articleservice.service.ingest.ArticlePrewarmService;
+import com.xreadup.ai.articleservice.util.ContentFingerprint;
 import com.xreadup.ai.articleservice.util.DifficultyEvaluator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -29,7 +34,10 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.regex.Matcher;
@@ -48,38 +56,29 @@ public class ArticleServiceImpl implements ArticleService {
     private final DifficultyEvaluator difficultyEvaluator;
     private final ContentFilterService contentFilterService;
     private final ContentFilterLogService contentFilterLogService;
+    private final ArticleIngestPipeline articleIngestPipeline;
+    private final ArticlePrewarmService articlePrewarmService;
+    private final ArticleCache articleCache;
+    private final ReadCountAggregator readCountAggregator;
     
     @Override
     public ApiResponse<ArticleDetailVO> readArticle(Long id) {
         try {
-            Article article = articleMapper.selectById(id);
-            if (article == null) {
+            ArticleVO articleVO = getArticleDetail(id);
+            if (articleVO == null) {
                 return ApiResponse.error("文章不存在");
             }
             
-            // 增加阅读次数
+            // 增加阅读次数，并叠加尚未写回数据库的阅读数
             incrementReadCount(id);
-            
-            // 创建ArticleVO对象
-            ArticleVO articleVO = new ArticleVO();
-            articleVO.setId(article.getId());
-            articleVO.setTitle(article.getTitle());
-            articleVO.setContentEn(article.getContentEn());
-            articleVO.setContentCn(article.getContentCn());
-            articleVO.setDescription(article.getDescription());
-            articleVO.setUrl(article.getUrl());
-            articleVO.setImage(article.getImage());
-            articleVO.setCategory(article.getCategory());
-            articleVO.setPublishedAt(article.getPublishedAt());
-            articleVO.setSource(article.getSource());
-            articleVO.setReadCount(article.getReadCount());
-            articleVO.setDifficultyLevel(article.getDifficultyLevel());
-            articleVO.setWordCount(article.getWordCount());
+            Map<Long, Integer> cachedCount = new HashMap<>();
+            cachedCount.put(id, articleVO.getReadCount());
+            articleVO.setReadCount(readCountAggregator.getCurrentCounts(cachedCount).get(id).intValue());
             
             // 创建ArticleDetailVO对象
             ArticleDetailVO detailVO = new ArticleDetailVO();
             detailVO.setArticle(articleVO);
-            detailVO.setHasAiAnalysis(!article.getContentCn().isEmpty());
+            detailVO.setHasAiAnalysis(articleVO.getContentCn() != null && !articleVO.getContentCn().isEmpty());
             
             return ApiResponse.success(detailVO);
         } catch (Exception e) {
@@ -91,103 +90,128 @@ public class ArticleServiceImpl implements ArticleService {
     @Override
     public ApiResponse<PageResult<ArticleListVO>> exploreArticles(ArticleQueryDTO query) {
         try {
-            // 构建查询条件
-            LambdaQueryWrapper<Article> queryWrapper = new LambdaQueryWrapper<>();
-            
-            // 根据关键词模糊查询
-            if (StringUtils.isNotBlank(query.getKeyword())) {
-                queryWrapper.like(Article::getTitle, query.getKeyword());
-            }
-            
-            // 根据分类筛选
-            if (StringUtils.isNotBlank(query.getCategory())) {
-                queryWrapper.eq(Article::getCategory, query.getCategory());
-            }
-            
-            // 根据难度级别筛选
-            if (StringUtils.isNotBlank(query.getDifficultyLevel())) {
-                queryWrapper.eq(Article::getDifficultyLevel, query.getDifficultyLevel());
-            }
-            
-            // 根据排序参数进行排序
-            if (StringUtils.isNotBlank(query.getSortBy())) {
-                switch (query.getSortBy()) {
-                    case "publishedAt":
-                        if (query.getAscending() != null && query.getAscending()) {
-                            queryWrapper.orderByAsc(Article::getPublishedAt);
-                        } else {
-                            queryWrapper.orderByDesc(Article::getPublishedAt);
-                        }
-                        break;
-                    case "readCount":
-                        if (query.getAscending() != null && query.getAscending()) {
-                            queryWrapper.orderByAsc(Article::getReadCount);
-                        } else {
-                            queryWrapper.orderByDesc(Article::getReadCount);
-                        }
-                        break;
-                    case "likeCount":
-                        if (query.getAscending() != null && query.getAscending()) {
-                            queryWrapper.orderByAsc(Article::getLikeCount);
-                        } else {
-                            queryWrapper.orderByDesc(Article::getLikeCount);
-                        }
-                        break;
-                    case "wordCount":
-                        if (query.getAscending() != null && query.getAscending()) {
-                            queryWrapper.orderByAsc(Article::getWordCount);
-                        } else {
-                            queryWrapper.orderByDesc(Article::getWordCount);
-                        }
-                        break;
-                    default:
-                        queryWrapper.orderByDesc(Article::getPublishedAt);
-                        break;
-                }
-            } else {
-                // 默认按发布时间排序
-                queryWrapper.orderByDesc(Article::getPublishedAt);
-            }
-            
-            // 执行分页查询
-            Page<Article> page = new Page<>(query.getPage(), query.getSize());
-            IPage<Article> articlePage = articleMapper.selectPage(page, queryWrapper);
-            
-            // 转换为ArticleListVO对象列表
-            List<ArticleListVO> listVOs = articlePage.getRecords().stream().map(article -> {
-                // 调试日志
-                log.info("处理文章: ID={}, Title={}, URL={}, Source={}", 
-                    article.getId(), article.getTitle(), article.getUrl(), article.getSource());
-                
-                ArticleListVO listVO = new ArticleListVO();
-                listVO.setId(article.getId());
-                listVO.setTitle(article.getTitle());
-                listVO.setDescription(article.getDescription());
-                listVO.setUrl(article.getUrl());
-                listVO.setImage(article.getImage());
-                listVO.setSource(article.getSource());
-                listVO.setCategory(article.getCategory());
-                listVO.setPublishedAt(article.getPublishedAt());
-                listVO.setReadCount(article.getReadCount());
-                listVO.setDifficultyLevel(article.getDifficultyLevel());
-                listVO.setWordCount(article.getWordCount());
-                return listVO;
-            }).collect(Collectors.toList());
-            
-            // 构建PageResult对象
-            PageResult<ArticleListVO> pageResult = new PageResult<>();
-            pageResult.setList(listVOs);
-            pageResult.setTotal(articlePage.getTotal());
-            pageResult.setCurrent(articlePage.getCurrent());
-            pageResult.setSize(articlePage.getSize());
-            
-            return ApiResponse.success(pageResult);
+            PageResult<ArticleListVO> page = articleCache.getExplorePage(query, () -> queryExplorePage(query));
+            applyCurrentReadCounts(page.getList());
+            return ApiResponse.success(page);
         } catch (Exception e) {
             log.error("探索文章列表失败", e);
             return ApiResponse.error("探索文章列表失败");
         }
     }
 
+    /**
+     * 用近实时阅读数替换列表缓存中的阅读数
+     */
+    private void applyCurrentReadCounts(List<ArticleListVO> items) {
+        if (items == null || items.isEmpty()) {
+            return;
+        }
+        Map<Long, Integer> cachedCounts = new HashMap<>();
+        items.forEach(item -> cachedCounts.put(item.getId(), item.getReadCount()));
+        Map<Long, Long> currentCounts = readCountAggregator.getCurrentCounts(cachedCounts);
+        items.forEach(item -> item.setReadCount(currentCounts.get(item.getId()).intValue()));
+    }
+
+    /**
+     * 从数据库查询探索列表，只读取列表展示所需的列，不加载正文
+     */
+    private PageResult<ArticleListVO> queryExplorePage(ArticleQueryDTO query) {
+        // 构建查询条件
+        LambdaQueryWrapper<Article> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.select(Article::getId, Article::getTitle, Article::getDescription, Article::getUrl,
+                Article::getImage, Article::getSource, Article::getCategory, Article::getPublishedAt,
+                Article::getReadCount, Article::getDifficultyLevel, Article::getWordCount);
+        
+        // 根据关键词模糊查询
+        if (StringUtils.isNotBlank(query.getKeyword())) {
+            queryWrapper.like(Article::getTitle, query.getKeyword());
+        }
+        
+        // 根据分类筛选
+        if (StringUtils.isNotBlank(query.getCategory())) {
+            queryWrapper.eq(Article::getCategory, query.getCategory());
+        }
+        
+        // 根据难度级别筛选
+        if (StringUtils.isNotBlank(query.getDifficultyLevel())) {
+            queryWrapper.eq(Article::getDifficultyLevel, query.getDifficultyLevel());
+        }
+        
+        // 根据排序参数进行排序
+        if (StringUtils.isNotBlank(query.getSortBy())) {
+            switch (query.getSortBy()) {
+                case "publishedAt":
+                    if (query.getAscending() != null && query.getAscending()) {
+                        queryWrapper.orderByAsc(Article::getPublishedAt);
+                    } else {
+                        queryWrapper.orderByDesc(Article::getPublishedAt);
+                    }
+                    break;
+                case "readCount":
+                    if (query.getAscending() != null && query.getAscending()) {
+                        queryWrapper.orderByAsc(Article::getReadCount);
+                    } else {
+                        queryWrapper.orderByDesc(Article::getReadCount);
+                    }
+                    break;
+                case "likeCount":
+                    if (query.getAscending() != null && query.getAscending()) {
+                        queryWrapper.orderByAsc(Article::getLikeCount);
+                    } else {
+                        queryWrapper.orderByDesc(Article::getLikeCount);
+                    }
+                    break;
+                case "wordCount":
+                    if (query.getAscending() != null && query.getAscending()) {
+                        queryWrapper.orderByAsc(Article::getWordCount);
+                    } else {
+                        queryWrapper.orderByDesc(Article::getWordCount);
+                    }
+                    break;
+                default:
+                    queryWrapper.orderByDesc(Article::getPublishedAt);
+                    break;
+            }
+        } else {
+            // 默认按发布时间排序
+            queryWrapper.orderByDesc(Article::getPublishedAt);
+        }
+        
+        // 执行分页查询
+        Page<Article> page = new Page<>(query.getPage(), query.getSize());
+        IPage<Article> articlePage = articleMapper.selectPage(page, queryWrapper);
+        
+        // 转换为ArticleListVO对象列表
+        List<ArticleListVO> listVOs = articlePage.getRecords().stream().map(article -> {
+            // 调试日志
+            log.info("处理文章: ID={}, Title={}, URL={}, Source={}", 
+                article.getId(), article.getTitle(), article.getUrl(), article.getSource());
+            
+            ArticleListVO listVO = new ArticleListVO();
+            listVO.setId(article.getId());
+            listVO.setTitle(article.getTitle());
+            listVO.setDescription(article.getDescription());
+            listVO.setUrl(article.getUrl());
+            listVO.setImage(article.getImage());
+            listVO.setSource(article.getSource());
+            listVO.setCategory(article.getCategory());
+            listVO.setPublishedAt(article.getPublishedAt());
+            listVO.setReadCount(article.getReadCount());
+            listVO.setDifficultyLevel(article.getDifficultyLevel());
+            listVO.setWordCount(article.getWordCount());
+            return listVO;
+        }).collect(Collectors.toList());
+        
+        // 构建PageResult对象
+        PageResult<ArticleListVO> pageResult = new PageResult<>();
+        pageResult.setList(listVOs);
+        pageResult.setTotal(articlePage.getTotal());
+        pageResult.setCurrent(articlePage.getCurrent());
+        pageResult.setSize(articlePage.getSize());
+        
+        return pageResult;
+    }
+
     @Override
     public IPage<ArticleVO> getArticlePage(ArticleQueryDTO query) {
         Page<Article> page = new Page<>(query.getPage(), query.getSize());
@@ -225,6 +249,10 @@ public class ArticleServiceImpl implements ArticleService {
 
     @Override
     public ArticleVO getArticleDetail(Long id) {
+        return articleCache.getDetail(id, () -> loadArticleVO(id));
+    }
+
+    private ArticleVO loadArticleVO(Long id) {
         Article article = articleMapper.selectById(id);
         if (article == null) {
             return null;
@@ -291,17 +319,13 @@ public class ArticleServiceImpl implements ArticleService {
     @Override
     @Transactional
     public ApiResponse<Boolean> updateManualDifficulty(ManualDifficultyDTO dto) {
-        Article article = articleMapper.selectById(dto.getArticleId());
-        if (article == null) {
+        // 只更新难度两列，不用读出的整行覆盖并发写入的阅读数、翻译等列
+        if (articleMapper.updateManualDifficulty(dto.getArticleId(), dto.getManualDifficulty()) == 0) {
             return ApiResponse.error("文章不存在");
         }
-        
-        // 修复：使用正确的setDifficultyLevel()而不是setDifficulty()
-        article.setDifficultyLevel(dto.getManualDifficulty());
-        article.setManualDifficulty(dto.getManualDifficulty());
-        
-        boolean updated = articleMapper.updateById(article) > 0;
-        return ApiResponse.success(updated);
+        // 事务提交后才删除缓存，避免并发读在提交前回源旧数据并重新写入缓存
+        articleCache.evictArticle(dto.getArticleId());
+        return ApiResponse.success(true);
     }
 
     @Override
@@ -383,119 +407,20 @@ public class ArticleServiceImpl implements ArticleService {
             List<GnewsResponse.GnewsArticle> gnewsArticles = gnewsService.fetchTopHeadlines(safeLimit);
             log.info("从GNews API获取到{}篇热点文章，将全部处理", gnewsArticles.size());
             
-            int processedCount = 0;
-            int savedCount = 0;
-            int existingCount = 0;
-            int failedScrapeCount = 0;
-            int filteredCount = 0; // 被过滤的文章数量
-            // 遍历热点文章并处理每一篇
-            for (GnewsResponse.GnewsArticle gnewsArticle : gnewsArticles) {
-                processedCount++;
-                String url = gnewsArticle.getUrl();
-                String title = gnewsArticle.getTitle();
-                log.info("处理第{}篇热点文章: {} - {}", processedCount, url, title);
-                
-                // 检查数据库是否已存在该文章
-                if (isArticleExists(url)) {
-                    existingCount++;
-                    log.info("热点文章已存在，跳过({}/{}): {} - {}", processedCount, gnewsArticles.size(), title, url);
-                    continue;
-                }
-                
-                // 使用Readability4J获取文章全文
-                log.info("尝试使用Readability4J获取文章全文: {}", url);
-                Optional<String> fullContentOptional = scraperService.scrapeArticleContent(url);
-                
-                if (fullContentOptional.isPresent()) {
-                    String fullContent = fullContentOptional.get();
-                    log.info("✅ 成功获取文章全文，长度: {} 字符", fullContent.length());
-                    
-                    // 封装Article实体
-                    Article article = new Article();
-                    article.setTitle(title);
-                    article.setDescription(gnewsArticle.getDescription());
-                    article.setUrl(url);
-                    article.setImage(gnewsArticle.getImage());
-                    article.setPublishedAt(gnewsArticle.getPublishedAt());
-                    article.setSource(gnewsArticle.getSource().getName());
-                    article.setCategory("general");
-                    article.setContentEn(fullContent);
-                    article.setContentCn("");
-                    article.setWordCount(countWords(fullContent));
-                    // 使用DifficultyEvaluator评估文章难度
-                    String difficultyLevel = difficultyEvaluator.evaluateDifficulty(fullContent);
-                    article.setDifficultyLevel(difficultyLevel);
-                    log.info("热点文章ID: {}, 标题: {}, 评估难度等级: {}", article.getId(), article.getTitle(), difficultyLevel);
-                    
-                    // 敏感词过滤（先判定是否允许保存，再进行持久化后记录日志）
-                    String contentToCheckTop = article.getContentEn() != null ? article.getContentEn() : article.getTitle();
-                    if (contentToCheckTop != null && !contentToCheckTop.trim().isEmpty()) {
-                        var analysis = contentFilterService.analyze(contentToCheckTop);
-                        if (!analysis.isSafe()) {
-                            // 拦截：记录日志（无文章ID），并跳过保存
-                            try {
-                            String matched = String.join(",", analysis.getHitHighRiskWords());
-                            contentFilterLogService.logContentFilter(
-                                null,
-                                "sensitive_word",
-                                matched.isEmpty() ? "(no_word)" : matched,
-                                "命中高风险敏感词，已拦截|system_auto",
-                                "high",
-                                "blocked",
-                                -1L
-                            );
-                            } catch (Exception e) {
-                                log.warn("记录敏感词拦截日志失败: {}", e.getMessage());
-                            }
-                            log.warn("文章包含高风险敏感内容，已拦截: {}", article.getTitle());
-                            filteredCount++;
-                            continue;
-                        }
-                    }
-
-                    // 插入数据库
-                    int insertResult = articleMapper.insert(article);
-                    if (insertResult > 0) {
-                        savedCount++;
-                        log.info("成功存储热点文章({}/{}): {} (ID: {})", savedCount, gnewsArticles.size(), title, article.getId());
-                        // 允许通过：持久化后记录检测日志（带articleId）
-                        if (contentToCheckTop != null && !contentToCheckTop.trim().isEmpty()) {
-                            try {
-                                var analysisAllowed = contentFilterService.analyze(contentToCheckTop);
-                                String matched = String.join(",", analysisAllowed.getHitSensitiveWords());
-                                if (!matched.isEmpty()) {
-                                    contentFilterLogService.logContentFilter(
-                                        article.getId(),
-                                        "sensitive_word",
-                                        matched,
-                                        "内容已通过检测|system_auto",
-                                        "medium",
-                                        "allowed",
-                                        -1L
-                                    );
-                                }
-                            } catch (Exception e) {
-                                log.warn("记录敏感词检测通过日志失败: {}", e.getMessage());
-                            }
-                        }
-                    } else {
-                        log.error("数据库插入失败，文章: {}", title);
-                    }
-                } else {
-                    failedScrapeCount++;
-                    log.warn("❌ 未能获取热点文章全文，跳过存储({}/{}): {} - {}", processedCount, gnewsArticles.size(), title, url);
-                    // 注意：这里可能包含因内容过滤而失败的文章
-                    // 具体的过滤日志会在ScraperServiceImpl中记录
-                }
+            // 交给抓取流水线处理，热点文章统一归入general分类
+            ArticleIngestPipeline.IngestResult result = articleIngestPipeline.ingest(gnewsArticles, "general");
+            if (result.getSavedCount() > 0) {
+                articleCache.evictExplorePages();
+                // 新文章在后台预先生成AI分析与中文翻译
+                articlePrewarmService.prewarm(result.getSavedArticles());
             }
             
             log.info("📊 热点文章处理完成，统计信息：");
-            log.info("   📥 总获取: {}篇", gnewsArticles.size());
-            log.info("   ✅ 成功存储: {}篇", savedCount);
-            log.info("   🔄 已存在: {}篇", existingCount);
-            log.info("   ❌ 抓取失败: {}篇 (包含内容过滤失败)", failedScrapeCount);
-            log.info("   ⛔ 过滤拦截: {}篇", filteredCount);
-            log.info("   📈 成功率: {:.1f}%", (double)(savedCount + existingCount) / gnewsArticles.size() * 100);
+            log.info("   📥 总获取: {}篇", result.getTotalCount());
+            log.info("   ✅ 成功存储: {}篇", result.getSavedCount());
+            log.info("   🔄 已存在: {}篇", result.getExistingCount());
+            log.info("   ❌ 抓取失败: {}篇 (包含内容过滤失败)", result.getFailedScrapeCount());
+            log.info("   ⛔ 过滤拦截: {}篇", result.getFilteredCount());
             
             // 从数据库获取热点文章并返回
             LambdaQueryWrapper<Article> queryWrapper = new LambdaQueryWrapper<>();
@@ -556,11 +481,8 @@ public class ArticleServiceImpl implements ArticleService {
 
     @Override
     public void incrementReadCount(Long id) {
-        Article article = articleMapper.selectById(id);
-        if (article != null) {
-            article.setReadCount(article.getReadCount() + 1);
-            articleMapper.updateById(article);
-        }
+        // 阅读数先在 Redis 中累计，由 ReadCountAggregator 定时批量写回
+        readCountAggregator.increment(id);
     }
 
     @Override
@@ -581,65 +503,80 @@ public class ArticleServiceImpl implements ArticleService {
         try {
             log.info("更新文章中文内容，英文内容长度: {}", contentEn.length());
             
-            // 优化查找方式，使用内容片段而不是完整内容来查找文章
-            // 当内容很长时，完整内容匹配会导致性能问题和匹配失败
-            LambdaQueryWrapper<Article> queryWrapper = new LambdaQueryWrapper<>();
-            
-            // 提取内容前200个字符和后200个字符作为识别依据
-            String contentStart = contentEn.length() > 200 ? contentEn.substring(0, 200) : contentEn;
-            String contentEnd = contentEn.length() > 200 ? 
-                contentEn.substring(contentEn.length() - 200) : 
-                contentEn.substring(0, Math.min(50, contentEn.length()));
-            
-            queryWrapper.likeRight(Article::getContentEn, contentStart)
-                        .likeLeft(Article::getContentEn, contentEnd)
-                        .last("LIMIT 1");
-            
-            Article article = articleMapper.selectOne(queryWrapper);
+            // 通过正文指纹走 content_hash 唯一索引定位文章，不扫描 content_en
+            Article article = articleMapper.selectOne(new LambdaQueryWrapper<Article>()
+                    .select(Article::getId)
+                    .eq(Article::getContentHash, ContentFingerprint.of(contentEn)));
             
             if (article == null) {
-                // 如果基于内容片段的搜索失败，记录错误并尝试通过文章标题查找（如果能从内容中提取）
-                log.warn("未找到匹配的文章，尝试其他方式查找");
+                log.warn("未找到正文指纹匹配的文章，英文内容长度: {}", contentEn.length());
                 return ApiResponse.success(false); // 返回成功但更新状态为false，避免影响主流程
             }
             
-            // 检查英文内容是否包含分段标记
-            boolean hasParagraphs = contentEn.contains("\n\n") || contentEn.contains("\r\n\r\n");
-            log.info("文章ID: {}，英文内容分段标记检查结果: {}, 包含\n\n: {}, 包含\r\n\r\n: {}", 
-                article.getId(), hasParagraphs, contentEn.contains("\n\n"), contentEn.contains("\r\n\r\n"));
-            
-            // 如果英文内容包含分段标记，但中文翻译不包含，尝试智能分段
-            boolean cnHasParagraphs = contentCn.contains("\n\n") || contentCn.contains("\r\n\r\n");
-            log.info("文章ID: {}，中文翻译分段标记检查结果: {}, 包含\n\n: {}, 包含\r\n\r\n: {}", 
-                article.getId(), cnHasParagraphs, contentCn.contains("\n\n"), contentCn.contains("\r\n\r\n"));
-            
-            if (hasParagraphs && !cnHasParagraphs) {
-                contentCn = segmentChineseTranslation(contentCn, contentEn);
-                log.info("文章ID: {}，已触发智能分段处理，处理前中文长度: {}，处理后中文长度: {}", 
-                    article.getId(), contentCn.length(), contentCn.length());
-            } else if (!hasParagraphs) {
-                log.info("文章ID: {}，未触发智能分段处理 - 英文内容不包含分段标记", article.getId());
-            } else if (cnHasParagraphs) {
-                log.info("文章ID: {}，未触发智能分段处理 - 中文翻译已包含分段标记", article.getId());
-            }
-            
-            // 更新中文内容
-            article.setContentCn(contentCn);
-            int updateResult = articleMapper.updateById(article);
-            
-            if (updateResult > 0) {
-                log.info("成功更新文章中文内容，文章ID: {}", article.getId());
-                return ApiResponse.success(true);
-            } else {
-                log.warn("更新文章中文内容失败，文章ID: {}", article.getId());
-                return ApiResponse.success(false); // 返回成功但更新状态为false
-            }
+            return ApiResponse.success(saveContentCn(article.getId(), contentEn, contentCn));
         } catch (Exception e) {
             log.error("更新文章中文内容时发生异常", e);
             // 返回成功但更新状态为false，避免影响翻译功能主流程
             return ApiResponse.success(false);
         }
     }
+
+    @Override
+    public ApiResponse<Boolean> updateContentCnById(Long id, String contentCn) {
+        try {
+            Article article = articleMapper.selectOne(new LambdaQueryWrapper<Article>()
+                    .select(Article::getId, Article::getContentEn)
+                    .eq(Article::getId, id));
+            if (article == null) {
+                log.warn("文章ID {} 不存在，无法更新中文内容", id);
+                return ApiResponse.success(false);
+            }
+            return ApiResponse.success(saveContentCn(id, article.getContentEn(), contentCn));
+        } catch (Exception e) {
+            log.error("更新文章中文内容时发生异常，文章ID: {}", id, e);
+            return ApiResponse.success(false);
+        }
+    }
+
+    /**
+     * 按英文原文的段落结构整理中文翻译后写入文章
+     */
+    private boolean saveContentCn(Long articleId, String contentEn, String contentCn) {
+        if (contentEn == null) {
+            contentEn = "";
+        }
+        // 检查英文内容是否包含分段标记
+        boolean hasParagraphs = contentEn.contains("\n\n") || contentEn.contains("\r\n\r\n");
+        log.info("文章ID: {}，英文内容分段标记检查结果: {}, 包含\n\n: {}, 包含\r\n\r\n: {}", 
+            articleId, hasParagraphs, contentEn.contains("\n\n"), contentEn.contains("\r\n\r\n"));
+        
+        // 如果英文内容包含分段标记，但中文翻译不包含，尝试智能分段
+        boolean cnHasParagraphs = contentCn.contains("\n\n") || contentCn.contains("\r\n\r\n");
+        log.info("文章ID: {}，中文翻译分段标记检查结果: {}, 包含\n\n: {}, 包含\r\n\r\n: {}", 
+            articleId, cnHasParagraphs, contentCn.contains("\n\n"), contentCn.contains("\r\n\r\n"));
+        
+        if (hasParagraphs && !cnHasParagraphs) {
+            contentCn = segmentChineseTranslation(contentCn, contentEn);
+            log.info("文章ID: {}，已触发智能分段处理，处理前中文长度: {}，处理后中文长度: {}", 
+                articleId, contentCn.length(), contentCn.length());
+        } else if (!hasParagraphs) {
+            log.info("文章ID: {}，未触发智能分段处理 - 英文内容不包含分段标记", articleId);
+        } else if (cnHasParagraphs) {
+            log.info("文章ID: {}，未触发智能分段处理 - 中文翻译已包含分段标记", articleId);
+        }
+        
+        // 只更新中文内容列，避免覆盖阅读数等并发更新的列
+        int updateResult = articleMapper.updateContentCn(articleId, contentCn);
+        
+        if (updateResult > 0) {
+            articleCache.evictArticle(articleId);
+            log.info("成功更新文章中文内容，文章ID: {}", articleId);
+            return true;
+        } else {
+            log.warn("更新文章中文内容失败，文章ID: {}", articleId);
+            return false;
+        }
+    }
     
     // 定义中文标点符号数组，用于智能分段
     private static final char[] punctuationMarks = { '。', '？', '！', '.', '?', '!', '；', '…' };
@@ -1018,13 +955,7 @@ public class ArticleServiceImpl implements ArticleService {
     }
     
     @Override
-    @Transactional
     public int fetchAndSaveArticles(String category, int limit) {
-        int savedCount = 0;
-        int totalProcessed = 0;
-        int existingCount = 0;
-        int failedScrapeCount = 0;
-        int failedInsertCount = 0;
         try {
             // 确保请求数量为非负值
             int safeLimit = Math.max(0, limit);
@@ -1034,182 +965,24 @@ public class ArticleServiceImpl implements ArticleService {
               
             log.info("从GNews API获取到 {} 篇关于 {} 分类的文章", gnewsArticles.size(), category);
               
-            // 2. 遍历每篇文章
-            for (GnewsResponse.GnewsArticle gnewsArticle : gnewsArticles) {
-                totalProcessed++;
-                String url = gnewsArticle.getUrl();
-                String title = gnewsArticle.getTitle();
-                  
-                log.info("处理第{}篇文章: {} - {}", totalProcessed, url, title);
-                  
-                // 3. 检查数据库是否已存在该文章
-                boolean exists = isArticleExists(url);
-                if (exists) {
-                    existingCount++;
-                    log.info("文章已存在，跳过({}/{}): {} - {}", totalProcessed, gnewsArticles.size(), title, url);
-                    continue;
-                }
-                  
-                // 4. 使用 Readability4J 爬虫服务获取文章全文
-                log.info("尝试使用Readability4J获取文章全文: {}", url);
-                Optional<String> fullContentOptional = scraperService.scrapeArticleContent(url);
-                  
-                if (fullContentOptional.isEmpty()) {
-                    failedScrapeCount++;
-                    log.warn("未能获取文章全文，跳过存储({}/{}): {} - {}", totalProcessed, gnewsArticles.size(), title, url);
-                    continue;
-                }
-                  
-                String fullContent = fullContentOptional.get();
-                log.info("成功获取文章全文，长度: {} 字符", fullContent.length());
-                  
-                // 检查英文内容分段情况
-                boolean hasDoubleNewline = fullContent.contains("\n\n");
-                boolean hasCarriageReturnDoubleNewline = fullContent.contains("\r\n\r\n");
-                boolean hasParagraphs = hasDoubleNewline || hasCarriageReturnDoubleNewline;
-                int paragraphCount = 0;
-                if (hasParagraphs) {
-                    paragraphCount = countParagraphs(fullContent);
-                }
-                log.info("英文内容分段检查 - 包含\n\n: {}, 包含\r\n\r\n: {}, 总段落数: {}", 
-                    hasDoubleNewline, hasCarriageReturnDoubleNewline, paragraphCount);
-                  
-                // 英文内容分段详细分析
-                if (hasParagraphs) {
-                    // 分割英文内容为段落
-                    String[] englishParagraphs;
-                    if (hasCarriageReturnDoubleNewline) {
-                        englishParagraphs = fullContent.split("\\r\\n\\r\\n");
-                    } else {
-                        englishParagraphs = fullContent.split("\\n\\n");
-                    }
-                    
-                    // 过滤空段落
-                    List<String> nonEmptyParagraphs = new ArrayList<>();
-                    for (String paragraph : englishParagraphs) {
-                        if (!paragraph.trim().isEmpty()) {
-                            nonEmptyParagraphs.add(paragraph);
-                        }
-                    }
-                    
-                    log.info("英文内容分段详细信息 - 原始段落数: {}, 非空段落数: {}", 
-                        englishParagraphs.length, nonEmptyParagraphs.size());
-                    
-                    // 记录前3个段落的长度信息
-                    for (int i = 0; i < Math.min(3, nonEmptyParagraphs.size()); i++) {
-                        log.debug("英文段落{}长度: {}字符", i + 1, nonEmptyParagraphs.get(i).length());
-                    }
-                }
-                  
-                // 5. 封装 Article 实体
-                Article article = new Article();
-                article.setTitle(title);
-                article.setDescription(gnewsArticle.getDescription());
-                article.setUrl(url);
-                article.setImage(gnewsArticle.getImage());
-                article.setPublishedAt(gnewsArticle.getPublishedAt());
-                article.setSource(gnewsArticle.getSource().getName());
-                article.setCategory(category);
-                article.setContentEn(fullContent); // 存储完整内容
-                article.setContentCn(""); // 初始为空
-                article.setWordCount(countWords(fullContent)); // 计算单词数
-                // 使用DifficultyEvaluator评估文章难度
-                String difficultyLevel = difficultyEvaluator.evaluateDifficulty(fullContent);
-                article.setDifficultyLevel(difficultyLevel);
-                log.info("文章ID: {}, 标题: {}, 评估难度等级: {}", article.getId(), article.getTitle(), difficultyLevel);
-                article.setReadCount(0);
-                article.setLikeCount(0);
-                
-                // 6. 敏感词过滤（先判定是否允许保存，再进行持久化后记录日志）
-                String contentToCheckCat = article.getContentEn() != null ? article.getContentEn() : article.getTitle();
-                if (contentToCheckCat != null && !contentToCheckCat.trim().isEmpty()) {
-                    var analysis = contentFilterService.analyze(contentToCheckCat);
-                    if (!analysis.isSafe()) {
-                        // 拦截：记录日志（无文章ID），并跳过保存
-                        try {
-                            String matched = String.join(",", analysis.getHitHighRiskWords());
-                            contentFilterLogService.logContentFilter(
-                                null,
-                                "sensitive_word",
-                                matched.isEmpty() ? "(no_word)" : matched,
-                                "命中高风险敏感词，已拦截|system_auto",
-                                "high",
-                                "blocked",
-                                -1L
-                            );
-                        } catch (Exception e) {
-                            log.warn("记录敏感词拦截日志失败: {}", e.getMessage());
-                        }
-                        log.warn("文章包含高风险敏感内容，已拦截: {}", article.getTitle());
-                        continue;
-                    }
-                }
-
-                // 7. 插入数据库
-                try {
-                    int insertResult = articleMapper.insert(article);
-                    if (insertResult > 0) {
-                        savedCount++;
-                        log.info("成功存储文章({}/{}): {} (ID: {})", savedCount, gnewsArticles.size(), title, article.getId());
-                        log.info("存储的文章内容信息 - 长度: {}字符, 单词数: {}, 段落数: {}", 
-                            fullContent.length(), article.getWordCount(), paragraphCount);
-                        // 允许通过：持久化后记录检测日志（带articleId）
-                        if (contentToCheckCat != null && !contentToCheckCat.trim().isEmpty()) {
-                            try {
-                                var analysisAllowed = contentFilterService.analyze(contentToCheckCat);
-                                String matched = String.join(",", analysisAllowed.getHitSensitiveWords());
-                                if (!matched.isEmpty()) {
-                                    contentFilterLogService.logContentFilter(
-                                        article.getId(),
-                                        "sensitive_word",
-                                        matched,
-                                        "内容已通过检测|system_auto",
-                                        "medium",
-                                        "allowed",
-                                        -1L
-                                    );
-                                }
-                            } catch (Exception e) {
-                                log.warn("记录敏感词检测通过日志失败: {}", e.getMessage());
-                            }
-                        }
-                    } else {
-                        failedInsertCount++;
-                        log.warn("数据库插入失败({}/{}): {}", totalProcessed, gnewsArticles.size(), title);
-                    }
-                } catch (Exception e) {
-                    failedInsertCount++;
-                    log.error("数据库插入异常({}/{}): {}", totalProcessed, gnewsArticles.size(), title, e);
-                }
-                  
-                // 礼貌延迟，避免被封，每篇文章抓取后延迟3~5秒
-                try {
-                    Thread.sleep(3000 + (long)(Math.random() * 2000)); // 3~5秒随机延迟
-                    log.debug("延迟完成，继续处理下一篇文章");
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    log.warn("延迟线程被中断");
-                }
+            // 2. 交给抓取流水线：去重 → 并行抓取 → 分析 → 逐篇短事务入库
+            ArticleIngestPipeline.IngestResult result = articleIngestPipeline.ingest(gnewsArticles, category);
+            if (result.getSavedCount() > 0) {
+                articleCache.evictExplorePages();
+                // 新文章在后台预先生成AI分析与中文翻译
+                articlePrewarmService.prewarm(result.getSavedArticles());
             }
               
-            log.info("文章处理完成，统计信息：总获取={}篇，成功存储={}篇，已存在={}篇，抓取失败={}篇，插入失败={}篇", 
-                     gnewsArticles.size(), savedCount, existingCount, failedScrapeCount, failedInsertCount);
-            return savedCount;
+            log.info("文章处理完成，统计信息：总获取={}篇，成功存储={}篇，已存在={}篇，抓取失败={}篇，插入失败={}篇，过滤拦截={}篇", 
+                     result.getTotalCount(), result.getSavedCount(), result.getExistingCount(),
+                     result.getFailedScrapeCount(), result.getFailedInsertCount(), result.getFilteredCount());
+            return result.getSavedCount();
         } catch (Exception e) {
-            log.error("获取和存储文章失败, 当前进度：已处理={}篇, 已保存={}篇", totalProcessed, savedCount, e);
+            log.error("获取和存储文章失败，分类: {}", category, e);
             throw new RuntimeException("获取和存储文章失败", e);
         }
     }
     
-    /**
-     * 检查文章是否已存在于数据库
-     */
-    private boolean isArticleExists(String url) {
-        LambdaQueryWrapper<Article> queryWrapper = new LambdaQueryWrapper<>();
-        queryWrapper.eq(Article::getUrl, url);
-        return articleMapper.selectCount(queryWrapper) > 0;
-    }
-    
     /**
      * 计算文本中的单词数
      */
@@ -1314,6 +1087,7 @@ public class ArticleServiceImpl implements ArticleService {
                     article.setPublishedAt(gnewsArticle.getPublishedAt());
                     article.setCategory(keyword); // 使用关键词作为分类
                     article.setContentEn(fullContent); // 使用Readability4J获取的全文
+                    article.setContentHash(ContentFingerprint.of(fullContent));
                     article.setContentCn(""); // 初始为空，后续通过AI服务填充
                     article.setWordCount(countWords(fullContent)); // 计算单词数
                     article.setDifficultyLevel(difficultyEvaluator.evaluateDifficulty(fullContent)); // 评估难度
@@ -1323,8 +1097,10 @@ public class ArticleServiceImpl implements ArticleService {
                     
                     // 敏感词过滤（先判定是否允许保存，再进行持久化后记录日志）
                     String contentToCheckBasic = article.getContentEn() != null ? article.getContentEn() : article.getTitle();
-                    if (contentToCheckBasic != null && !contentToCheckBasic.trim().isEmpty()) {
-                        var analysis = contentFilterService.analyze(contentToCheckBasic);
+                    // 只扫描一次，拦截判定与通过后的日志共用同一结果
+                    ContentFilterService.AnalysisResult analysis = contentToCheckBasic != null && !contentToCheckBasic.trim().isEmpty()
+                            ? contentFilterService.analyze(contentToCheckBasic) : null;
+                    if (analysis != null) {
                         if (!analysis.isSafe()) {
                             // 拦截：记录日志（无文章ID），并跳过保存
                         try {
@@ -1354,10 +1130,9 @@ public class ArticleServiceImpl implements ArticleService {
                     
                     log.info("成功保存自定义主题文章: {}", article.getTitle());
                     // 允许通过：持久化后记录检测日志（带articleId）
-                    if (contentToCheckBasic != null && !contentToCheckBasic.trim().isEmpty()) {
+                    if (analysis != null) {
                         try {
-                            var analysisAllowed = contentFilterService.analyze(contentToCheckBasic);
-                            String matched = String.join(",", analysisAllowed.getHitSensitiveWords());
+                            String matched = String.join(",", analysis.getHitSensitiveWords());
                             if (!matched.isEmpty()) {
                                 contentFilterLogService.logContentFilter(
                                     article.getId(),
@@ -1380,6 +1155,9 @@ public class ArticleServiceImpl implements ArticleService {
             }
             
             log.info("搜索完成，共处理 {} 篇文章", articles.size());
+            if (!articles.isEmpty()) {
+                articleCache.evictExplorePages();
+            }
             return articles;
             
         } catch (Exception e) {
@@ -1479,6 +1257,7 @@ public class ArticleServiceImpl implements ArticleService {
                     article.setPublishedAt(gnewsArticle.getPublishedAt());
                     article.setCategory(keyword); // 使用关键词作为分类
                     article.setContentEn(fullContent); // 使用Readability4J获取的全文
+                    article.setContentHash(ContentFingerprint.of(fullContent));
                     article.setContentCn(""); // 初始为空，后续通过AI服务填充
                     article.setWordCount(0); // 初始为0，后续通过AI服务计算
                     article.setDifficultyLevel(""); // 初始为空，后续通过AI服务评估
@@ -1488,8 +1267,10 @@ public class ArticleServiceImpl implements ArticleService {
                     
                     // 敏感词过滤（先判定是否允许保存，再进行持久化后记录日志）
                     String contentToCheck = article.getContentEn() != null ? article.getContentEn() : article.getTitle();
-                    if (contentToCheck != null && !contentToCheck.trim().isEmpty()) {
-                        var analysis = contentFilterService.analyze(contentToCheck);
+                    // 只扫描一次，拦截判定与通过后的日志共用同一结果
+                    ContentFilterService.AnalysisResult analysis = contentToCheck != null && !contentToCheck.trim().isEmpty()
+                            ? contentFilterService.analyze(contentToCheck) : null;
+                    if (analysis != null) {
                         if (!analysis.isSafe()) {
                             // 拦截：记录日志（无文章ID），并跳过保存
                             try {
@@ -1515,10 +1296,9 @@ public class ArticleServiceImpl implements ArticleService {
                     articleMapper.insert(article);
 
                     // 允许通过：仅在命中一般敏感词时持久化（带articleId）
-                    if (contentToCheck != null && !contentToCheck.trim().isEmpty()) {
+                    if (analysis != null) {
                         try {
-                            var analysisAllowed = contentFilterService.analyze(contentToCheck);
-                            String matched = String.join(",", analysisAllowed.getHitSensitiveWords());
+                            String matched = String.join(",", analysis.getHitSensitiveWords());
                             if (!matched.isEmpty()) {
                                 contentFilterLogService.logContentFilter(
                                     article.getId(),
@@ -1550,6 +1330,9 @@ public class ArticleServiceImpl implements ArticleService {
                     articles.size(), existingCount, failedScrapeCount);
             
             log.info("增强搜索完成，共处理 {} 篇文章", articles.size());
+            if (!articles.isEmpty()) {
+                articleCache.evictExplorePages();
+            }
             return articles;
             
         } catch (Exception e) {
@@ -1627,6 +1410,7 @@ public class ArticleServiceImpl implements ArticleService {
                     article.setPublishedAt(gnewsArticle.getPublishedAt());
                     article.setCategory(category); // 使用实际分类
                     article.setContentEn(fullContent); // 使用Readability4J获取的全文
+                    article.setContentHash(ContentFingerprint.of(fullContent));
                     article.setContentCn(""); // 初始为空，后续通过AI服务填充
                     article.setWordCount(0); // 初始为0，后续通过AI服务计算
                     article.setDifficultyLevel(""); // 初始为空，后续通过AI服务评估
@@ -1636,8 +1420,10 @@ public class ArticleServiceImpl implements ArticleService {
                     
                     // 敏感词过滤（先判定是否允许保存，再进行持久化后记录日志）
                     String contentToCheck2 = article.getContentEn() != null ? article.getContentEn() : article.getTitle();
-                    if (contentToCheck2 != null && !contentToCheck2.trim().isEmpty()) {
-                        var analysis2 = contentFilterService.analyze(contentToCheck2);
+                    // 只扫描一次，拦截判定与通过后的日志共用同一结果
+                    ContentFilterService.AnalysisResult analysis2 = contentToCheck2 != null && !contentToCheck2.trim().isEmpty()
+                            ? contentFilterService.analyze(contentToCheck2) : null;
+                    if (analysis2 != null) {
                         if (!analysis2.isSafe()) {
                             // 拦截：记录日志（无文章ID），并跳过保存
                             try {
@@ -1663,10 +1449,9 @@ public class ArticleServiceImpl implements ArticleService {
                     articleMapper.insert(article);
 
                     // 允许通过：仅在命中一般敏感词时持久化（带articleId）
-                    if (contentToCheck2 != null && !contentToCheck2.trim().isEmpty()) {
+                    if (analysis2 != null) {
                         try {
-                            var analysisAllowed2 = contentFilterService.analyze(contentToCheck2);
-                            String matched2 = String.join(",", analysisAllowed2.getHitSensitiveWords());
+                            String matched2 = String.join(",", analysis2.getHitSensitiveWords());
                             if (!matched2.isEmpty()) {
                                 contentFilterLogService.logContentFilter(
                                     article.getId(),
@@ -1698,6 +1483,9 @@ public class ArticleServiceImpl implements ArticleService {
                     articles.size(), existingCount, failedScrapeCount);
             
             log.info("增强分类文章完成，共处理 {} 篇文章", articles.size());
+            if (!articles.isEmpty()) {
+                articleCache.evictExplorePages();
+            }
             return articles;
             
         } catch (Exception e) {
@@ -1705,4 +1493,43 @@ public class ArticleServiceImpl implements ArticleService {
             return Collections.emptyList();
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public Map<String, Object> regradeDifficulty(int batchSize) {
+        long startTime = System.currentTimeMillis();
+        int scanned = 0;
+        int updated = 0;
+        long lastId = 0;
+
+        log.info("开始重新评估文章难度，词表词条数: {}", difficultyEvaluator.getLexiconSize());
+        while (true) {
+            List<Article> batch = articleMapper.selectForDifficultyRegrade(lastId, batchSize);
+            if (batch.isEmpty()) {
+                break;
+            }
+            for (Article article : batch) {
+                String level = difficultyEvaluator.evaluateDifficulty(article.getContentEn());
+                if (!level.equals(article.getDifficultyLevel())) {
+                    articleMapper.updateDifficultyLevel(article.getId(), level);
+                    articleCache.evictDetail(article.getId());
+                    updated++;
+                }
+            }
+            scanned += batch.size();
+            lastId = batch.get(batch.size() - 1).getId();
+        }
+
+        if (updated > 0) {
+            articleCache.evictExplorePages();
+        }
+
+        long elapsedMs = System.currentTimeMillis() - startTime;
+        log.info("文章难度重新评估完成: 扫描 {} 篇, 变化 {} 篇, 耗时 {}ms", scanned, updated, elapsedMs);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("scanned", scanned);
+        result.put("updated", updated);
+        result.put("elapsedMs", elapsedMs);
+        return result;
+    }
+}
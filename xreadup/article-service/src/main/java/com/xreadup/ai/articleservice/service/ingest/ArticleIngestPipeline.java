@@ -0,0 +1,315 @@
+package com.xreadup.ai.articleservice.service.ingest;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.xreadup.ai.articleservice.mapper.ArticleMapper;
+import com.xreadup.ai.articleservice.model.dto.GnewsResponse;
+import com.xreadup.ai.articleservice.model.entity.Article;
+import com.xreadup.ai.articleservice.service.ContentFilterLogService;
+import com.xreadup.ai.articleservice.service.ScraperService;
+import com.xreadup.ai.articleservice.service.filter.ContentFilterService;
+import com.xreadup.ai.articleservice.util.ContentFingerprint;
+import com.xreadup.ai.articleservice.util.DifficultyEvaluator;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 文章抓取流水线
+ * 获取列表 → 去重 → 并行抓取全文 → 难度评估/敏感词分析 → 逐篇短事务入库
+ *
+ * 全文抓取在有界线程池中并行执行，礼貌延迟按来源站点调度，等待期间不占用抓取线程；
+ * 数据库写入只在调用线程中进行，每篇文章独立提交，不再持有长事务。
+ */
+@Slf4j
+@Component
+public class ArticleIngestPipeline {
+
+    private static final Pattern WORD_PATTERN = Pattern.compile("\\b\\w+\\b");
+
+    // IN 查询单批最多携带的URL数量
+    private static final int EXISTS_QUERY_BATCH = 200;
+
+    private final ArticleMapper articleMapper;
+    private final ScraperService scraperService;
+    private final DifficultyEvaluator difficultyEvaluator;
+    private final ContentFilterService contentFilterService;
+    private final ContentFilterLogService contentFilterLogService;
+    private final HostThrottle hostThrottle;
+    private final Executor ingestExecutor;
+    private final TransactionTemplate transactionTemplate;
+
+    public ArticleIngestPipeline(ArticleMapper articleMapper,
+                                 ScraperService scraperService,
+                                 DifficultyEvaluator difficultyEvaluator,
+                                 ContentFilterService contentFilterService,
+                                 ContentFilterLogService contentFilterLogService,
+                                 HostThrottle hostThrottle,
+                                 @Qualifier("articleIngestExecutor") Executor ingestExecutor,
+                                 PlatformTransactionManager transactionManager) {
+        this.articleMapper = articleMapper;
+        this.scraperService = scraperService;
+        this.difficultyEvaluator = difficultyEvaluator;
+        this.contentFilterService = contentFilterService;
+        this.contentFilterLogService = contentFilterLogService;
+        this.hostThrottle = hostThrottle;
+        this.ingestExecutor = ingestExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * 处理一批GNews文章并入库
+     *
+     * @param gnewsArticles GNews返回的文章列表
+     * @param category      入库分类
+     * @return 处理统计及成功入库的文章
+     */
+    public IngestResult ingest(List<GnewsResponse.GnewsArticle> gnewsArticles, String category) {
+        IngestResult result = new IngestResult(gnewsArticles.size());
+
+        // 1. 批内去重（同一次返回中可能出现重复URL）
+        Map<String, GnewsResponse.GnewsArticle> unique = new LinkedHashMap<>();
+        for (GnewsResponse.GnewsArticle gnewsArticle : gnewsArticles) {
+            String url = gnewsArticle.getUrl();
+            if (url == null || url.isBlank() || unique.putIfAbsent(url, gnewsArticle) != null) {
+                result.existingCount++;
+            }
+        }
+
+        // 2. 一次性查询已入库的URL，替代逐篇 selectCount
+        Set<String> existingUrls = findExistingUrls(unique.keySet());
+        result.existingCount += existingUrls.size();
+        existingUrls.forEach(unique::remove);
+
+        if (unique.isEmpty()) {
+            log.info("分类 {} 没有需要抓取的新文章", category);
+            return result;
+        }
+
+        // 3. 按站点礼貌延迟调度，并行抓取全文并完成分析，按完成顺序取回结果
+        BlockingQueue<CompletableFuture<PreparedArticle>> completed = new LinkedBlockingQueue<>();
+        for (GnewsResponse.GnewsArticle gnewsArticle : unique.values()) {
+            CompletableFuture<PreparedArticle> future =
+                    hostThrottle.submit(gnewsArticle.getUrl(), () -> prepare(gnewsArticle, category), ingestExecutor);
+            future.whenComplete((prepared, e) -> completed.add(future));
+        }
+
+        // 4. 逐篇短事务入库
+        for (int i = 0; i < unique.size(); i++) {
+            PreparedArticle prepared;
+            try {
+                prepared = completed.take().get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("文章抓取流水线被中断，已保存 {} 篇", result.savedCount);
+                break;
+            } catch (ExecutionException e) {
+                result.failedScrapeCount++;
+                log.error("文章抓取任务异常: {}", e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+                continue;
+            }
+            persist(prepared, result);
+        }
+
+        return result;
+    }
+
+    /**
+     * 抓取与分析阶段（在工作线程中执行，不访问数据库）
+     */
+    private PreparedArticle prepare(GnewsResponse.GnewsArticle gnewsArticle, String category) {
+        String url = gnewsArticle.getUrl();
+
+        log.info("尝试使用Readability4J获取文章全文: {}", url);
+        Optional<String> fullContentOptional = scraperService.scrapeArticleContent(url);
+        if (fullContentOptional.isEmpty()) {
+            log.warn("未能获取文章全文，跳过存储: {} - {}", gnewsArticle.getTitle(), url);
+            return PreparedArticle.scrapeFailed();
+        }
+
+        String fullContent = fullContentOptional.get();
+        log.info("成功获取文章全文，长度: {} 字符", fullContent.length());
+
+        Article article = new Article();
+        article.setTitle(gnewsArticle.getTitle());
+        article.setDescription(gnewsArticle.getDescription());
+        article.setUrl(url);
+        article.setImage(gnewsArticle.getImage());
+        article.setPublishedAt(gnewsArticle.getPublishedAt());
+        article.setSource(gnewsArticle.getSource() != null ? gnewsArticle.getSource().getName() : null);
+        article.setCategory(category);
+        article.setContentEn(fullContent);
+        article.setContentHash(ContentFingerprint.of(fullContent));
+        article.setContentCn("");
+        article.setWordCount(countWords(fullContent));
+        article.setDifficultyLevel(difficultyEvaluator.evaluateDifficulty(fullContent));
+        article.setReadCount(0);
+        article.setLikeCount(0);
+
+        // 敏感词分析只做一次，拦截与放行日志共用同一结果
+        ContentFilterService.AnalysisResult analysis = contentFilterService.analyze(fullContent);
+        return PreparedArticle.ready(article, analysis);
+    }
+
+    /**
+     * 入库阶段（在调用线程中执行）
+     */
+    private void persist(PreparedArticle prepared, IngestResult result) {
+        if (prepared.article == null) {
+            result.failedScrapeCount++;
+            return;
+        }
+
+        Article article = prepared.article;
+        ContentFilterService.AnalysisResult analysis = prepared.analysis;
+
+        if (!analysis.isSafe()) {
+            try {
+                String matched = String.join(",", analysis.getHitHighRiskWords());
+                contentFilterLogService.logContentFilter(
+                    null,
+                    "sensitive_word",
+                    matched.isEmpty() ? "(no_word)" : matched,
+                    "命中高风险敏感词，已拦截|system_auto",
+                    "high",
+                    "blocked",
+                    -1L
+                );
+            } catch (Exception e) {
+                log.warn("记录敏感词拦截日志失败: {}", e.getMessage());
+            }
+            log.warn("文章包含高风险敏感内容，已拦截: {}", article.getTitle());
+            result.filteredCount++;
+            return;
+        }
+
+        try {
+            Boolean inserted = transactionTemplate.execute(status -> {
+                if (articleMapper.insert(article) <= 0) {
+                    return false;
+                }
+                String matched = String.join(",", analysis.getHitSensitiveWords());
+                if (!matched.isEmpty()) {
+                    contentFilterLogService.logContentFilter(
+                        article.getId(),
+                        "sensitive_word",
+                        matched,
+                        "内容已通过检测|system_auto",
+                        "medium",
+                        "allowed",
+                        -1L
+                    );
+                }
+                return true;
+            });
+
+            if (Boolean.TRUE.equals(inserted)) {
+                result.savedCount++;
+                result.savedArticles.add(article);
+                log.info("成功存储文章({}/{}): {} (ID: {}, 难度: {}, 单词数: {})", result.savedCount, result.totalCount,
+                        article.getTitle(), article.getId(), article.getDifficultyLevel(), article.getWordCount());
+            } else {
+                result.failedInsertCount++;
+                log.warn("数据库插入失败: {}", article.getTitle());
+            }
+        } catch (DuplicateKeyException e) {
+            // 不同URL转载的同一篇正文，由 content_hash 唯一索引拦截
+            result.existingCount++;
+            log.info("文章正文已存在，跳过: {} - {}", article.getTitle(), article.getUrl());
+        } catch (Exception e) {
+            result.failedInsertCount++;
+            log.error("数据库插入异常: {}", article.getTitle(), e);
+        }
+    }
+
+    /**
+     * 分批查询已存在的文章URL
+     */
+    private Set<String> findExistingUrls(Collection<String> urls) {
+        Set<String> existing = new HashSet<>();
+        if (urls.isEmpty()) {
+            return existing;
+        }
+        List<String> all = new ArrayList<>(urls);
+        for (int from = 0; from < all.size(); from += EXISTS_QUERY_BATCH) {
+            List<String> batch = all.subList(from, Math.min(from + EXISTS_QUERY_BATCH, all.size()));
+            LambdaQueryWrapper<Article> wrapper = new LambdaQueryWrapper<Article>()
+                    .select(Article::getUrl)
+                    .in(Article::getUrl, batch);
+            articleMapper.selectList(wrapper).forEach(a -> existing.add(a.getUrl()));
+        }
+        return existing;
+    }
+
+    private int countWords(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        Matcher matcher = WORD_PATTERN.matcher(text);
+        int count = 0;
+        while (matcher.find()) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * 抓取分析阶段的中间结果
+     */
+    private static class PreparedArticle {
+        private final Article article;
+        private final ContentFilterService.AnalysisResult analysis;
+
+        private PreparedArticle(Article article, ContentFilterService.AnalysisResult analysis) {
+            this.article = article;
+            this.analysis = analysis;
+        }
+
+        static PreparedArticle scrapeFailed() {
+            return new PreparedArticle(null, null);
+        }
+
+        static PreparedArticle ready(Article article, ContentFilterService.AnalysisResult analysis) {
+            return new PreparedArticle(article, analysis);
+        }
+    }
+
+    /**
+     * 流水线处理统计
+     */
+    @Getter
+    public static class IngestResult {
+        private final int totalCount;
+        private int savedCount;
+        private int existingCount;
+        private int failedScrapeCount;
+        private int failedInsertCount;
+        private int filteredCount;
+        private final List<Article> savedArticles = new ArrayList<>();
+
+        IngestResult(int totalCount) {
+            this.totalCount = totalCount;
+        }
+    }
+}
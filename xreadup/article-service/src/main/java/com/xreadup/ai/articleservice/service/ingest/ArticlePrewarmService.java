@@ -0,0 +1,144 @@
+package com.xreadup.ai.articleservice.service.ingest;
+
+import com.xreadup.ai.articleservice.mapper.ArticleMapper;
+import com.xreadup.ai.articleservice.model.entity.Article;
+import com.xreadup.ai.articleservice.service.AiIntegrationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 新文章预热
+ * <p>
+ * 抓取入库后按预测热度把新文章提交给AI服务的任务队列，由其在后台生成摘要、关键词、测验题和中文翻译，
+ * 首位读者打开新文章时直接命中已生成的结果。预热只提交任务不等待结果，失败不影响入库；
+ * 执行顺序与每日预算由AI服务控制。
+ * </p>
+ * 预测热度（0-100）= 发布时间新鲜度 + 同分类历史平均阅读数 + 同来源历史平均阅读数
+ */
+@Slf4j
+@Service
+public class ArticlePrewarmService {
+
+    private static final double RECENCY_WEIGHT = 0.4;
+    private static final double CATEGORY_WEIGHT = 0.3;
+    private static final double SOURCE_WEIGHT = 0.3;
+
+    private final ArticleMapper articleMapper;
+    private final AiIntegrationService aiIntegrationService;
+    private final boolean enabled;
+    private final long maxAgeHours;
+    private final double recencyHalfLifeHours;
+
+    public ArticlePrewarmService(ArticleMapper articleMapper,
+                                 AiIntegrationService aiIntegrationService,
+                                 @Value("${article.prewarm.enabled:true}") boolean enabled,
+                                 @Value("${article.prewarm.max-age-hours:72}") long maxAgeHours,
+                                 @Value("${article.prewarm.recency-half-life-hours:12}") double recencyHalfLifeHours) {
+        this.articleMapper = articleMapper;
+        this.aiIntegrationService = aiIntegrationService;
+        this.enabled = enabled;
+        this.maxAgeHours = maxAgeHours;
+        this.recencyHalfLifeHours = recencyHalfLifeHours;
+    }
+
+    /**
+     * 提交新入库文章的预热任务
+     *
+     * @param savedArticles 本次成功入库的文章
+     */
+    public void prewarm(List<Article> savedArticles) {
+        if (!enabled || savedArticles.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Article> candidates = savedArticles.stream()
+                .filter(a -> a.getId() != null)
+                .filter(a -> a.getPublishedAt() == null
+                        || Duration.between(a.getPublishedAt(), now).toHours() <= maxAgeHours)
+                .collect(Collectors.toList());
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Integer> scores;
+        try {
+            scores = predictPopularity(candidates, now);
+        } catch (Exception e) {
+            // 统计查询失败时按相同热度提交，仍由AI服务按入队顺序执行
+            log.warn("预测文章热度失败，按默认热度预热: {}", e.getMessage());
+            scores = new LinkedHashMap<>();
+            for (Article article : candidates) {
+                scores.put(article.getId(), 50);
+            }
+        }
+
+        if (aiIntegrationService.submitPrewarm(scores)) {
+            log.info("已提交新文章预热: {} 篇", scores.size());
+        }
+    }
+
+    private Map<Long, Integer> predictPopularity(List<Article> articles, LocalDateTime now) {
+        double globalAvg = articleMapper.selectAvgReadCount();
+        Set<String> categories = articles.stream().map(Article::getCategory)
+                .filter(Objects::nonNull).collect(Collectors.toSet());
+        Set<String> sources = articles.stream().map(Article::getSource)
+                .filter(Objects::nonNull).collect(Collectors.toSet());
+        Map<String, Double> categoryAvg = categories.isEmpty() ? Map.of()
+                : toAvgMap(articleMapper.selectAvgReadCountByCategory(categories));
+        Map<String, Double> sourceAvg = sources.isEmpty() ? Map.of()
+                : toAvgMap(articleMapper.selectAvgReadCountBySource(sources));
+
+        Map<Long, Integer> scores = new LinkedHashMap<>();
+        for (Article article : articles) {
+            double score = RECENCY_WEIGHT * recency(article.getPublishedAt(), now)
+                    + CATEGORY_WEIGHT * relative(categoryAvg.get(article.getCategory()), globalAvg)
+                    + SOURCE_WEIGHT * relative(sourceAvg.get(article.getSource()), globalAvg);
+            scores.put(article.getId(), (int) Math.round(score * 100));
+        }
+        return scores;
+    }
+
+    /**
+     * 发布时间新鲜度，按半衰期指数衰减，取值 0-1
+     */
+    private double recency(LocalDateTime publishedAt, LocalDateTime now) {
+        if (publishedAt == null) {
+            return 0.5;
+        }
+        double ageHours = Math.max(0, Duration.between(publishedAt, now).toMinutes() / 60.0);
+        return Math.pow(0.5, ageHours / recencyHalfLifeHours);
+    }
+
+    /**
+     * 平均阅读数相对全站水平，全站平均记为0.5，两倍及以上记为1；无历史数据记为0.5
+     */
+    private static double relative(Double avg, double globalAvg) {
+        if (avg == null || globalAvg <= 0) {
+            return 0.5;
+        }
+        return Math.min(1.0, avg / (2 * globalAvg));
+    }
+
+    private static Map<String, Double> toAvgMap(List<Map<String, Object>> rows) {
+        Map<String, Double> result = new HashMap<>();
+        for (Map<String, Object> row : rows) {
+            Object name = row.get("name");
+            Object avg = row.get("avgReads");
+            if (name != null && avg instanceof Number) {
+                result.put(name.toString(), ((Number) avg).doubleValue());
+            }
+        }
+        return result;
+    }
+}
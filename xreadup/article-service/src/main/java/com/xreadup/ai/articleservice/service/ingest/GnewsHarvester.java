@@ -0,0 +1,422 @@
+package com.xreadup.ai.articleservice.service.ingest;
+
+import com.xreadup.ai.articleservice.model.dto.GnewsResponse;
+import com.xreadup.ai.articleservice.model.entity.Article;
+import com.xreadup.ai.articleservice.service.GnewsService;
+import com.xreadup.ai.articleservice.service.cache.ArticleCache;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * GNews 定时增量抓取
+ * <p>
+ * 定时并发拉取所有支持的分类，每个分类记录已完整抓取到的发布时间作为游标（存于 Redis，重启不丢失），
+ * 下次只请求游标之后发布的文章。接口按发布时间从新到旧返回，一页取满说明还有更早的文章，
+ * 以本页最早的发布时间为截止时间继续向前翻页；每轮翻页数有上限，未取完的区间记为待补抓区间，
+ * 游标不越过该区间，下一轮先抓新文章再接着补抓。同一URL在多个分类的头条中重复出现时，在内存中按
+ * 最近抓取过的URL集合去重后再交给入库流水线，避免重复查询数据库和重复抓取全文。
+ * </p>
+ * 分类处理顺序中 general 排在最后，综合头条里与具体分类重复的文章归入具体分类。
+ * 多实例部署时通过 Redis 锁保证同一时刻只有一个实例在抓取，避免重复消耗 GNews 配额。
+ * 一轮抓取可能持续数分钟，在独立的调度线程上执行，不占用共享的 @Scheduled 线程。
+ */
+@Slf4j
+@Component
+public class GnewsHarvester {
+
+    private static final String CURSOR_KEY_PREFIX = "article:harvest:cursor:";
+    // 待补抓区间：值为 "区间截止时间,已抓取到的最新发布时间"，区间起点即游标
+    private static final String BACKLOG_KEY_PREFIX = "article:harvest:backlog:";
+    private static final String LOCK_KEY = "article:harvest:lock";
+    private static final String GENERAL_CATEGORY = "general";
+
+    private final GnewsService gnewsService;
+    private final ArticleIngestPipeline articleIngestPipeline;
+    private final ArticleCache articleCache;
+    private final ArticlePrewarmService articlePrewarmService;
+    private final StringRedisTemplate redisTemplate;
+
+    private final boolean enabled;
+    private final int perCategoryMax;
+    private final int maxPagesPerRun;
+    private final int concurrency;
+    private final Duration initialLookback;
+    private final Duration fetchTimeout;
+    private final Duration lockTtl;
+    private final long initialDelayMs;
+    private final long intervalMs;
+
+    // 最近抓取过的URL（跨分类、跨轮次），超出容量时淘汰最早加入的
+    private final Set<String> recentUrls;
+
+    private final AtomicBoolean harvesting = new AtomicBoolean(false);
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "gnews-harvester");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public GnewsHarvester(GnewsService gnewsService,
+                          ArticleIngestPipeline articleIngestPipeline,
+                          ArticleCache articleCache,
+                          ArticlePrewarmService articlePrewarmService,
+                          StringRedisTemplate redisTemplate,
+                          @Value("${article.harvest.enabled:true}") boolean enabled,
+                          @Value("${article.harvest.per-category-max:10}") int perCategoryMax,
+                          @Value("${article.harvest.max-pages-per-run:5}") int maxPagesPerRun,
+                          @Value("${article.harvest.concurrency:3}") int concurrency,
+                          @Value("${article.harvest.initial-lookback-hours:24}") long initialLookbackHours,
+                          @Value("${article.harvest.fetch-timeout-seconds:120}") long fetchTimeoutSeconds,
+                          @Value("${article.harvest.recent-url-capacity:20000}") int recentUrlCapacity,
+                          @Value("${article.harvest.lock-ttl-ms:1800000}") long lockTtlMs,
+                          @Value("${article.harvest.initial-delay-ms:60000}") long initialDelayMs,
+                          @Value("${article.harvest.interval-ms:10800000}") long intervalMs) {
+        this.gnewsService = gnewsService;
+        this.articleIngestPipeline = articleIngestPipeline;
+        this.articleCache = articleCache;
+        this.articlePrewarmService = articlePrewarmService;
+        this.redisTemplate = redisTemplate;
+        this.enabled = enabled;
+        this.perCategoryMax = perCategoryMax;
+        this.maxPagesPerRun = Math.max(1, maxPagesPerRun);
+        this.concurrency = Math.max(1, concurrency);
+        this.initialLookback = Duration.ofHours(initialLookbackHours);
+        this.fetchTimeout = Duration.ofSeconds(fetchTimeoutSeconds);
+        this.lockTtl = Duration.ofMillis(lockTtlMs);
+        this.initialDelayMs = initialDelayMs;
+        this.intervalMs = intervalMs;
+        this.recentUrls = Collections.newSetFromMap(new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > recentUrlCapacity;
+            }
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        if (enabled) {
+            scheduler.scheduleWithFixedDelay(this::scheduledHarvest, initialDelayMs, intervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    private void scheduledHarvest() {
+        try {
+            harvest();
+        } catch (Exception e) {
+            // 异常不能抛出调度线程，否则后续轮次不再执行
+            log.error("GNews定时增量抓取异常", e);
+        }
+    }
+
+    /**
+     * 执行一轮增量抓取
+     *
+     * @return 本轮新入库的文章数，本实例或其他实例已有抓取在进行时返回-1
+     */
+    public int harvest() {
+        if (!harvesting.compareAndSet(false, true)) {
+            log.info("上一轮增量抓取尚未结束，跳过本轮");
+            return -1;
+        }
+        try {
+            return harvestWithLock();
+        } finally {
+            harvesting.set(false);
+        }
+    }
+
+    private int harvestWithLock() {
+        String token = UUID.randomUUID().toString();
+        try {
+            if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, token, lockTtl))) {
+                log.info("其他实例正在执行增量抓取，跳过本轮");
+                return -1;
+            }
+        } catch (Exception e) {
+            log.warn("获取增量抓取锁失败，跳过本轮: {}", e.getMessage());
+            return -1;
+        }
+        try {
+            return doHarvest();
+        } catch (Exception e) {
+            log.error("GNews增量抓取失败", e);
+            return 0;
+        } finally {
+            try {
+                if (token.equals(redisTemplate.opsForValue().get(LOCK_KEY))) {
+                    redisTemplate.delete(LOCK_KEY);
+                }
+            } catch (Exception e) {
+                log.debug("释放增量抓取锁失败: {}", e.getMessage());
+            }
+        }
+    }
+
+    private int doHarvest() {
+        List<String> categories = new ArrayList<>(gnewsService.getSupportedCategories());
+        categories.sort(Comparator.comparing((String c) -> GENERAL_CATEGORY.equals(c)).thenComparing(c -> c));
+
+        Instant now = Instant.now();
+        Map<String, HarvestState> states = new HashMap<>();
+        for (String category : categories) {
+            states.put(category, loadState(category, now));
+        }
+
+        // 1. 并发请求各分类（非阻塞，分类内按页顺序翻页），全部返回后统一处理
+        Map<String, CategoryHarvest> fetched = Flux.fromIterable(categories)
+                .flatMap(category -> fetchCategory(category, states.get(category))
+                        .map(harvest -> Map.entry(category, harvest)), concurrency)
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .block(fetchTimeout);
+        if (fetched == null) {
+            return 0;
+        }
+
+        int fetchedCount = 0;
+        int duplicateCount = 0;
+        List<Article> saved = new ArrayList<>();
+        // 本轮已交给入库流水线的URL；入库返回后才加入 recentUrls，入库异常时下一轮还会重试
+        Set<String> roundUrls = new HashSet<>();
+        for (String category : categories) {
+            CategoryHarvest harvest = fetched.get(category);
+            if (harvest == null) {
+                continue;
+            }
+            fetchedCount += harvest.articles.size();
+
+            // 2. 跨分类、跨轮次按URL去重
+            List<GnewsResponse.GnewsArticle> fresh = new ArrayList<>();
+            for (GnewsResponse.GnewsArticle article : harvest.articles) {
+                String url = article.getUrl();
+                if (url != null && !url.isBlank() && !recentUrls.contains(url) && roundUrls.add(url)) {
+                    fresh.add(article);
+                } else {
+                    duplicateCount++;
+                }
+            }
+
+            // 3. 入库（流水线内部仍会按URL批量查询数据库兜底）
+            if (!fresh.isEmpty()) {
+                ArticleIngestPipeline.IngestResult result = articleIngestPipeline.ingest(fresh, category);
+                saved.addAll(result.getSavedArticles());
+                for (GnewsResponse.GnewsArticle article : fresh) {
+                    recentUrls.add(article.getUrl());
+                }
+            }
+
+            // 4. 入库后再保存游标和待补抓区间
+            if (harvest.state.backlogTo != null) {
+                log.warn("分类 {} 本轮翻页达到上限 {}，{} 之前的文章下轮继续补抓", category, maxPagesPerRun, harvest.state.backlogTo);
+            }
+            if (harvest.state != states.get(category)) {
+                saveState(category, harvest.state);
+            }
+        }
+
+        if (!saved.isEmpty()) {
+            articleCache.evictExplorePages();
+            articlePrewarmService.prewarm(saved);
+        }
+        log.info("GNews增量抓取完成: 分类={}个, 返回={}篇, 去重跳过={}篇, 新入库={}篇",
+                categories.size(), fetchedCount, duplicateCount, saved.size());
+        return saved.size();
+    }
+
+    /**
+     * 抓取一个分类：先抓已抓取到的最新发布时间之后的新文章，取完后用剩余页数补抓待补抓区间
+     */
+    private Mono<CategoryHarvest> fetchCategory(String category, HarvestState state) {
+        return fetchWindow(category, state.seenUntil, null, maxPagesPerRun).flatMap(latest -> {
+            Instant newest = latestPublishedAt(latest.articles)
+                    .filter(time -> time.isAfter(state.seenUntil))
+                    .orElse(state.seenUntil);
+            if (!latest.drained) {
+                // 新文章未取完：本页之前到游标之间都待补抓（与原待补抓区间合并，重叠部分靠URL去重）
+                HarvestState next = latest.oldest != null
+                        ? new HarvestState(state.cursor, latest.oldest, newest)
+                        : state;
+                return Mono.just(new CategoryHarvest(latest.articles, next));
+            }
+            if (state.backlogTo == null) {
+                return Mono.just(new CategoryHarvest(latest.articles, new HarvestState(newest, null, newest)));
+            }
+            return fetchWindow(category, state.cursor, state.backlogTo, maxPagesPerRun - latest.pages).map(backlog -> {
+                List<GnewsResponse.GnewsArticle> articles = new ArrayList<>(latest.articles);
+                articles.addAll(backlog.articles);
+                HarvestState next = backlog.drained
+                        ? new HarvestState(newest, null, newest)
+                        : new HarvestState(state.cursor, backlog.oldest != null ? backlog.oldest : state.backlogTo, newest);
+                return new CategoryHarvest(articles, next);
+            });
+        });
+    }
+
+    /**
+     * 分页抓取 [from, to] 区间，一页取满时以本页最早的发布时间为截止时间继续向前翻页
+     */
+    private Mono<Window> fetchWindow(String category, Instant from, Instant to, int maxPages) {
+        return fetchPage(category, from, to, maxPages, new Window());
+    }
+
+    private Mono<Window> fetchPage(String category, Instant from, Instant to, int pagesLeft, Window window) {
+        if (pagesLeft <= 0) {
+            return Mono.just(window);
+        }
+        return gnewsService.fetchArticlesBetween(category, perCategoryMax, from, to)
+                .flatMap(articles -> {
+                    window.pages++;
+                    window.articles.addAll(articles);
+                    Optional<Instant> oldest = oldestPublishedAt(articles);
+                    oldest.ifPresent(time -> window.oldest = time);
+                    if (articles.size() < perCategoryMax || oldest.isEmpty() || !oldest.get().isAfter(from)) {
+                        window.drained = true;
+                        return Mono.just(window);
+                    }
+                    if (to != null && !oldest.get().isBefore(to)) {
+                        // 同一秒发布的文章超过单页条数，无法继续向前翻页
+                        log.warn("分类 {} 在 {} 发布的文章超过单页条数 {}，部分文章无法抓取", category, to, perCategoryMax);
+                        window.drained = true;
+                        return Mono.just(window);
+                    }
+                    return fetchPage(category, from, oldest.get(), pagesLeft - 1, window);
+                })
+                // 请求失败时保留已抓取的部分，区间视为未取完，游标不越过
+                .onErrorResume(e -> Mono.just(window));
+    }
+
+    private static Optional<Instant> latestPublishedAt(List<GnewsResponse.GnewsArticle> articles) {
+        return articles.stream()
+                .map(GnewsResponse.GnewsArticle::getPublishedAt)
+                .filter(Objects::nonNull)
+                .max(LocalDateTime::compareTo)
+                .map(publishedAt -> publishedAt.toInstant(ZoneOffset.UTC));
+    }
+
+    private static Optional<Instant> oldestPublishedAt(List<GnewsResponse.GnewsArticle> articles) {
+        return articles.stream()
+                .map(GnewsResponse.GnewsArticle::getPublishedAt)
+                .filter(Objects::nonNull)
+                .min(LocalDateTime::compareTo)
+                .map(publishedAt -> publishedAt.toInstant(ZoneOffset.UTC));
+    }
+
+    private HarvestState loadState(String category, Instant now) {
+        Instant cursor = loadCursor(category, now);
+        try {
+            String backlog = redisTemplate.opsForValue().get(BACKLOG_KEY_PREFIX + category);
+            if (backlog != null) {
+                String[] parts = backlog.split(",", 2);
+                return new HarvestState(cursor, Instant.parse(parts[0]), Instant.parse(parts[1]));
+            }
+        } catch (Exception e) {
+            log.warn("读取待补抓区间失败: category={}, error={}", category, e.getMessage());
+        }
+        return new HarvestState(cursor, null, cursor);
+    }
+
+    private void saveState(String category, HarvestState state) {
+        saveCursor(category, state.cursor);
+        try {
+            if (state.backlogTo != null) {
+                redisTemplate.opsForValue().set(BACKLOG_KEY_PREFIX + category, state.backlogTo + "," + state.seenUntil);
+            } else {
+                redisTemplate.delete(BACKLOG_KEY_PREFIX + category);
+            }
+        } catch (Exception e) {
+            log.warn("保存待补抓区间失败: category={}, error={}", category, e.getMessage());
+        }
+    }
+
+    private Instant loadCursor(String category, Instant now) {
+        try {
+            String value = redisTemplate.opsForValue().get(CURSOR_KEY_PREFIX + category);
+            if (value != null) {
+                return Instant.parse(value);
+            }
+        } catch (Exception e) {
+            log.warn("读取抓取游标失败: category={}, error={}", category, e.getMessage());
+        }
+        return now.minus(initialLookback);
+    }
+
+    private void saveCursor(String category, Instant cursor) {
+        try {
+            redisTemplate.opsForValue().set(CURSOR_KEY_PREFIX + category, cursor.toString());
+        } catch (Exception e) {
+            log.warn("保存抓取游标失败: category={}, error={}", category, e.getMessage());
+        }
+    }
+
+    /**
+     * 分类抓取进度：游标之前已全部抓取；存在待补抓区间时 (游标, backlogTo] 尚未取完，
+     * seenUntil 为已抓取到的最新发布时间，没有待补抓区间时等于游标
+     */
+    private static class HarvestState {
+        private final Instant cursor;
+        private final Instant backlogTo;
+        private final Instant seenUntil;
+
+        HarvestState(Instant cursor, Instant backlogTo, Instant seenUntil) {
+            this.cursor = cursor;
+            this.backlogTo = backlogTo;
+            this.seenUntil = seenUntil;
+        }
+    }
+
+    /**
+     * 一个分类本轮抓取到的文章及抓取后的进度
+     */
+    private static class CategoryHarvest {
+        private final List<GnewsResponse.GnewsArticle> articles;
+        private final HarvestState state;
+
+        CategoryHarvest(List<GnewsResponse.GnewsArticle> articles, HarvestState state) {
+            this.articles = articles;
+            this.state = state;
+        }
+    }
+
+    /**
+     * 一个时间区间的分页抓取结果
+     */
+    private static class Window {
+        private final List<GnewsResponse.GnewsArticle> articles = new ArrayList<>();
+        private int pages;
+        private Instant oldest;
+        private boolean drained;
+    }
+}
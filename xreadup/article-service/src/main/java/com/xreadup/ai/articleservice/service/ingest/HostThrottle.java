@@ -0,0 +1,116 @@
+package com.xreadup.ai.articleservice.service.ingest;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按来源站点的礼貌延迟控制
+ * 同一站点的相邻两次抓取之间保持随机间隔，不同站点互不影响
+ * 等待期间任务挂在调度线程上，到点后才提交给工作线程池，不占用抓取线程
+ */
+@Slf4j
+@Component
+public class HostThrottle {
+
+    private static final int PRUNE_THRESHOLD = 1000;
+
+    @Value("${article.ingest.host-delay-min-ms:3000}")
+    private long minDelayMs;
+
+    @Value("${article.ingest.host-delay-max-ms:5000}")
+    private long maxDelayMs;
+
+    // 站点 -> 下一次允许抓取的时间戳
+    private final Map<String, Long> nextAllowedAt = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "host-throttle");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * 按指定URL所属站点预约抓取时间，到点后在工作线程池中执行任务
+     *
+     * @param url      抓取地址
+     * @param task     抓取任务
+     * @param executor 执行任务的工作线程池
+     * @return 任务结果，线程池拒绝时以异常完成
+     */
+    public <T> CompletableFuture<T> submit(String url, Callable<T> task, Executor executor) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Runnable dispatch = () -> {
+            try {
+                executor.execute(() -> {
+                    try {
+                        future.complete(task.call());
+                    } catch (Throwable e) {
+                        future.completeExceptionally(e);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                future.completeExceptionally(e);
+            }
+        };
+
+        long waitMs = reserve(url);
+        if (waitMs > 0) {
+            scheduler.schedule(dispatch, waitMs, TimeUnit.MILLISECONDS);
+        } else {
+            dispatch.run();
+        }
+        return future;
+    }
+
+    /**
+     * 为指定URL所属站点预约下一个时间槽
+     *
+     * @return 距预约时间的等待毫秒数
+     */
+    private long reserve(String url) {
+        String host = hostOf(url);
+        long now = System.currentTimeMillis();
+        long delay = minDelayMs + ThreadLocalRandom.current().nextLong(Math.max(1, maxDelayMs - minDelayMs + 1));
+
+        // 原子地预约下一个时间槽，保证同一站点的请求串行间隔
+        long reserved = nextAllowedAt.compute(host, (k, prev) -> Math.max(now, prev == null ? now : prev) + delay) - delay;
+
+        long waitMs = reserved - now;
+        if (waitMs > 0) {
+            log.debug("站点 {} 礼貌延迟 {} ms", host, waitMs);
+        }
+
+        if (nextAllowedAt.size() > PRUNE_THRESHOLD) {
+            nextAllowedAt.values().removeIf(t -> t < now);
+        }
+        return waitMs;
+    }
+
+    private String hostOf(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host != null ? host.toLowerCase() : url;
+        } catch (Exception e) {
+            return url;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.xreadup.ai.articleservice.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * 文章正文指纹
+ * <p>
+ * 对英文正文的 UTF-8 字节计算 SHA-256，结果为64位小写十六进制，
+ * 与 MySQL 中 SHA2(content_en, 256) 的结果一致，存量数据可直接在数据库中回填。
+ * </p>
+ */
+public final class ContentFingerprint {
+
+    private ContentFingerprint() {
+    }
+
+    /**
+     * 计算正文指纹，正文为空时返回 null（空正文不参与唯一约束）
+     */
+    public static String of(String contentEn) {
+        if (contentEn == null || contentEn.isEmpty()) {
+            return null;
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(contentEn.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    }
+}
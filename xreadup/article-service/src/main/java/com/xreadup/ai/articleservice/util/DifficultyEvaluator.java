@@ -1,104 +1,247 @@
 package com.xreadup.ai.articleservice.util;
 
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
 import org.springframework.stereotype.Component;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 文章难度评估
+ * <p>
+ * CEFR 词表从资源文件加载到哈希表，评估时对文本只扫描一遍，按词表等级统计各级词数。
+ * 难度取"累计覆盖率达到阈值的最低等级"：读者掌握该等级及以下词汇即可认识文中绝大部分单词。
+ * 词表外的小写单词视为超出 C2，首字母大写的词表外单词视为专有名词不计入。
+ * </p>
+ */
+@Slf4j
 @Component
 public class DifficultyEvaluator {
-    
-    private static final String[] A1_WORDS = {
-        "a", "an", "the", "and", "or", "but", "in", "on", "at", "to", "for", "of", "with", "by", 
-        "be", "am", "is", "are", "was", "were", "have", "has", "had", "do", "does", "did", 
-        "will", "would", "can", "could", "shall", "should", "may", "might", "must"
-    };
-    
-    private static final String[] A2_WORDS = {
-        "good", "bad", "big", "small", "happy", "sad", "old", "new", "right", "wrong", 
-        "love", "like", "hate", "want", "need", "use", "work", "play", "live", "make"
-    };
-    
-    private static final String[] B1_WORDS = {
-        "important", "necessary", "possible", "different", "similar", "available", "responsible", 
-        "experience", "situation", "opportunity", "relationship", "development", "information"
-    };
-    
-    private static final String[] B2_WORDS = {
-        "significant", "substantial", "considerable", "comprehensive", "sophisticated", 
-        "implementation", "perspective", "consequence", "implication", "interpretation"
-    };
-    
-    private static final String[] C1_WORDS = {
-        "utilize", "demonstrate", "establish", "indicate", "represent", "substantiate", 
-        "methodology", "paradigm", "hypothesis", "phenomenon", "substantiation", "correlation"
-    };
-    
+
+    private static final String DEFAULT_LEVEL = "B1";
+
+    private static final String[] LEVELS = {"A1", "A2", "B1", "B2", "C1", "C2"};
+
+    // 词表等级对应的下标，LEVELS.length 表示超出 C2
+    private static final Map<String, Integer> LEVEL_INDEX = Map.of(
+            "A1", 0, "A2", 1, "B1", 2, "B2", 3, "C1", 4, "C2", 5
+    );
+
+    // 平均句长达到该值时难度上调一级
+    private static final int LONG_SENTENCE_LENGTH = 30;
+
+    // 单词 -> 等级下标
+    private final Map<String, Integer> lexicon;
+
+    // 累计覆盖率阈值
+    private final double coverageThreshold;
+
+    public DifficultyEvaluator(ResourceLoader resourceLoader,
+                               @Value("${article.difficulty.lexicon-location:classpath:lexicon/cefr-words.txt}") String lexiconLocation,
+                               @Value("${article.difficulty.coverage-threshold:0.9}") double coverageThreshold) {
+        this.lexicon = loadLexicon(resourceLoader.getResource(lexiconLocation));
+        this.coverageThreshold = coverageThreshold;
+        log.info("CEFR词表加载完成: {} 个词条, 来源: {}, 覆盖率阈值: {}", lexicon.size(), lexiconLocation, coverageThreshold);
+    }
+
     public String evaluateDifficulty(String text) {
         if (text == null || text.trim().isEmpty()) {
-            return "B1"; // 默认难度
-        }
-        
-        String lowerText = text.toLowerCase();
-        String[] words = lowerText.split("\\s+");
-        
-        int totalWords = words.length;
-        if (totalWords == 0) return "B1";
-        
-        int c1Count = countWordsInList(words, C1_WORDS);
-        int c2Count = countAdvancedWords(words);
-        int b2Count = countWordsInList(words, B2_WORDS);
-        int b1Count = countWordsInList(words, B1_WORDS);
-        int a2Count = countWordsInList(words, A2_WORDS);
-        int a1Count = countWordsInList(words, A1_WORDS);
-        
-        // 计算复杂度得分
-        double complexityScore = (c2Count * 5.0 + c1Count * 4.0 + b2Count * 3.0 + 
-                               b1Count * 2.0 + a2Count * 1.0) / totalWords;
-        
-        // 根据句子长度调整
-        double avgSentenceLength = calculateAvgSentenceLength(text);
-        complexityScore += (avgSentenceLength - 15) * 0.1;
-        
-        // 返回对应难度等级
-        if (complexityScore >= 3.5) return "C2";
-        if (complexityScore >= 2.5) return "C1";
-        if (complexityScore >= 1.8) return "B2";
-        if (complexityScore >= 1.2) return "B1";
-        if (complexityScore >= 0.8) return "A2";
-        return "A1";
-    }
-    
-    private int countWordsInList(String[] words, String[] targetWords) {
-        int count = 0;
-        for (String word : words) {
-            for (String target : targetWords) {
-                if (word.equals(target)) {
-                    count++;
-                    break;
+            return DEFAULT_LEVEL; // 默认难度
+        }
+
+        // 各等级词数，最后一格为超出 C2 的词
+        int[] levelCounts = new int[LEVELS.length + 1];
+        int countedWords = 0;
+        int totalWords = 0;
+        int sentenceCount = 0;
+        int wordsInSentence = 0;
+        boolean capitalized = false;
+        boolean hasDigit = false;
+        StringBuilder word = new StringBuilder(32);
+
+        int length = text.length();
+        for (int i = 0; i <= length; i++) {
+            char c = i < length ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c) || (c == '\'' && word.length() > 0)) {
+                if (word.length() == 0) {
+                    capitalized = Character.isUpperCase(c);
+                }
+                hasDigit |= Character.isDigit(c);
+                word.append(Character.toLowerCase(c));
+                continue;
+            }
+            if (word.length() > 0) {
+                // 去掉词尾的撇号（如 students'）
+                if (word.charAt(word.length() - 1) == '\'') {
+                    word.setLength(word.length() - 1);
+                }
+                totalWords++;
+                wordsInSentence++;
+                if (!hasDigit) {
+                    Integer level = lookup(word.toString());
+                    if (level != null) {
+                        levelCounts[level]++;
+                        countedWords++;
+                    } else if (!capitalized) {
+                        levelCounts[LEVELS.length]++;
+                        countedWords++;
+                    }
                 }
+                word.setLength(0);
+                hasDigit = false;
             }
+            // 句末标点后紧跟字母或数字时（如小数、缩写）不视为句子结束
+            if (isSentenceEnd(c) && wordsInSentence > 0
+                    && (i + 1 >= length || !Character.isLetterOrDigit(text.charAt(i + 1)))) {
+                sentenceCount++;
+                wordsInSentence = 0;
+            }
+        }
+        if (wordsInSentence > 0) {
+            sentenceCount++;
         }
-        return count;
+
+        if (countedWords == 0) return DEFAULT_LEVEL;
+
+        // 取累计覆盖率达到阈值的最低等级
+        int levelIndex = LEVELS.length - 1;
+        int covered = 0;
+        for (int i = 0; i < LEVELS.length; i++) {
+            covered += levelCounts[i];
+            if ((double) covered / countedWords >= coverageThreshold) {
+                levelIndex = i;
+                break;
+            }
+        }
+
+        // 长句较多时阅读难度更高
+        if ((double) totalWords / sentenceCount >= LONG_SENTENCE_LENGTH) {
+            levelIndex = Math.min(levelIndex + 1, LEVELS.length - 1);
+        }
+        return LEVELS[levelIndex];
+    }
+
+    /**
+     * 词表词条数
+     */
+    public int getLexiconSize() {
+        return lexicon.size();
     }
-    
-    private int countAdvancedWords(String[] words) {
-        // 简单实现：统计长单词和复杂单词
-        int count = 0;
-        for (String word : words) {
-            if (word.length() >= 8) {
-                count++;
+
+    /**
+     * 查词表，未命中时去掉所有格/缩写并对常见屈折形式做简单还原后再查
+     */
+    private Integer lookup(String word) {
+        Integer level = lexicon.get(word);
+        if (level != null) {
+            return level;
+        }
+        int apostrophe = word.indexOf('\'');
+        if (apostrophe > 0) {
+            return lookup(word.substring(0, apostrophe));
+        }
+        int len = word.length();
+        if (len <= 3) {
+            return null;
+        }
+        // studies / studied / easier / easiest / happily -> y
+        if (word.endsWith("ies") || word.endsWith("ied") || word.endsWith("ier")) {
+            return lexicon.get(word.substring(0, len - 3) + "y");
+        }
+        if (word.endsWith("iest")) {
+            return lexicon.get(word.substring(0, len - 4) + "y");
+        }
+        if (word.endsWith("ily")) {
+            return lexicon.get(word.substring(0, len - 3) + "y");
+        }
+        if (word.endsWith("ing")) {
+            return lookupStem(word.substring(0, len - 3));
+        }
+        if (word.endsWith("ed")) {
+            return lookupStem(word.substring(0, len - 2));
+        }
+        if (word.endsWith("est")) {
+            return lookupStem(word.substring(0, len - 3));
+        }
+        if (word.endsWith("er")) {
+            return lookupStem(word.substring(0, len - 2));
+        }
+        if (word.endsWith("ly")) {
+            level = lexicon.get(word.substring(0, len - 2));
+            // basically -> basic
+            return level != null || !word.endsWith("ally") ? level : lexicon.get(word.substring(0, len - 4));
+        }
+        if (word.endsWith("es")) {
+            level = lexicon.get(word.substring(0, len - 2));
+            if (level != null) {
+                return level;
             }
         }
-        return count;
+        // workers -> worker -> work
+        if (word.endsWith("s") && !word.endsWith("ss")) {
+            return lookup(word.substring(0, len - 1));
+        }
+        return null;
     }
-    
-    private double calculateAvgSentenceLength(String text) {
-        String[] sentences = text.split("[.!?]+");
-        if (sentences.length == 0) return 15;
-        
-        int totalWords = 0;
-        for (String sentence : sentences) {
-            totalWords += sentence.trim().split("\\s+").length;
+
+    /**
+     * 还原去掉 -ing/-ed/-er/-est 后的词干：原样、补回词尾 e、去掉重复辅音
+     */
+    private Integer lookupStem(String stem) {
+        if (stem.length() < 2) {
+            return null;
+        }
+        Integer level = lexicon.get(stem);
+        if (level == null) {
+            level = lexicon.get(stem + "e");
+        }
+        int len = stem.length();
+        if (level == null && stem.charAt(len - 1) == stem.charAt(len - 2)) {
+            level = lexicon.get(stem.substring(0, len - 1));
+        }
+        return level;
+    }
+
+    private static boolean isSentenceEnd(char c) {
+        return c == '.' || c == '!' || c == '?';
+    }
+
+    /**
+     * 加载词表：每行 "单词 等级"，以制表符、逗号或空格分隔，# 开头为注释；重复词条取最低等级
+     */
+    private static Map<String, Integer> loadLexicon(Resource resource) {
+        Map<String, Integer> words = new HashMap<>(16384);
+        int skipped = 0;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] parts = line.split("[\\t,\\s]+");
+                Integer level = parts.length == 2 ? LEVEL_INDEX.get(parts[1].toUpperCase(Locale.ROOT)) : null;
+                if (level == null) {
+                    skipped++;
+                    continue;
+                }
+                words.merge(parts[0].toLowerCase(Locale.ROOT), level, Math::min);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("加载CEFR词表失败: " + resource.getDescription(), e);
+        }
+        if (skipped > 0) {
+            log.warn("CEFR词表中有 {} 行格式不正确，已跳过", skipped);
         }
-        
-        return (double) totalWords / sentences.length;
+        return words;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,42 @@
+package com.xreadup.ai.articleservice.service.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentFilterServiceTest {
+
+    @Test
+    void testBuiltInDictionaryMatchesInflections() {
+        ContentFilterService filter = new ContentFilterService();
+
+        assertFalse(filter.isArticleSafe("Marchers carried Nazis flags through the square."));
+        assertFalse(filter.isArticleSafe("The report profiles fascist groups across Europe."));
+        assertFalse(filter.isArticleSafe("Officials warned about extremists online."));
+
+        ContentFilterService.AnalysisResult result = filter.analyze("Bombings and killings were reported after the explosions.");
+        assertTrue(result.isSafe());
+        assertEquals(List.of("bomb", "kill", "explosion"), result.getHitSensitiveWords());
+    }
+
+    @Test
+    void testWholeWordEntriesDoNotMatchLongerWords() {
+        ContentFilterService filter = new ContentFilterService();
+
+        ContentFilterService.AnalysisResult result = filter.analyze("A better alphabet for Essex readers.");
+        assertTrue(result.isSafe());
+        assertTrue(result.getHitSensitiveWords().isEmpty());
+    }
+
+    @Test
+    void testConfiguredPrefixEntriesMatchInflections() {
+        ContentFilterService filter = new ContentFilterService();
+        filter.reloadDictionary("bomb*\nmassacre*", "");
+
+        assertFalse(filter.isArticleSafe("Three bombings were reported overnight."));
+        assertFalse(filter.isArticleSafe("Survivors recalled the massacres."));
+        assertTrue(filter.isArticleSafe("The demolition squad cleared the site."));
+    }
+}
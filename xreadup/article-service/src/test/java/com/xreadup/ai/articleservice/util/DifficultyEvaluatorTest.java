@@ -0,0 +1,45 @@
+package com.xreadup.ai.articleservice.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DifficultyEvaluatorTest {
+
+    private final DifficultyEvaluator evaluator =
+            new DifficultyEvaluator(new DefaultResourceLoader(), "classpath:lexicon/cefr-words.txt", 0.9);
+
+    @Test
+    void testElementaryText() {
+        String text = "My name is Tom. I am ten years old. I live in a small house with my mother, my father and my sister. "
+                + "We have a dog. His name is Max. Every morning I walk to school with my friend Sam. "
+                + "After school we play football in the park.";
+        assertEquals("A1", evaluator.evaluateDifficulty(text));
+    }
+
+    @Test
+    void testNewsText() {
+        String text = "The government has unveiled a controversial plan to overhaul the country's pension system, "
+                + "arguing that the current arrangements are no longer sustainable as the population ages. "
+                + "Critics contend that the proposals would disproportionately burden low-income workers, while supporters "
+                + "insist that the reforms are essential to safeguard public finances. Economists have cautioned that the "
+                + "impact will depend largely on how the changes are implemented and whether adequate transitional "
+                + "protections are put in place. Opposition parties have vowed to challenge the legislation in parliament.";
+        assertEquals("B2", evaluator.evaluateDifficulty(text));
+    }
+
+    @Test
+    void testProficientText() {
+        String text = "Critics excoriated the minister's sententious peroration as a specious exercise in sophistry, "
+                + "its mellifluous platitudes serving merely to obfuscate the government's pusillanimous vacillation. "
+                + "Such obsequious equivocation betrays a perfidious disregard for probity.";
+        assertEquals("C2", evaluator.evaluateDifficulty(text));
+    }
+
+    @Test
+    void testEmptyTextFallsBackToDefault() {
+        assertEquals("B1", evaluator.evaluateDifficulty(""));
+        assertEquals("B1", evaluator.evaluateDifficulty("2024 100 3.5"));
+    }
+}
@@ -0,0 +1,30 @@
+-- 数据库迁移脚本：AI文章分析任务队列
+-- 批量分析不再在一次HTTP请求内逐篇同步执行，改为写入任务表，由 ai-service 工作线程按优先级异步处理
+-- 每篇文章最多一行任务（uk_article_id），重复提交时合并：进行中的任务只提升优先级，已结束的任务重新排队
+-- 多实例部署时各实例以条件更新（status = 'PENDING'）抢占任务，不会重复执行
+
+USE readup_ai;
+
+-- 创建分析任务表
+CREATE TABLE IF NOT EXISTS `ai_analysis_job`
+(
+    `id`               BIGINT PRIMARY KEY AUTO_INCREMENT,
+    `article_id`       BIGINT       NOT NULL COMMENT '文章ID',
+    `priority`         INT          NOT NULL DEFAULT 50 COMMENT '优先级，越大越先执行（交互100/普通50/批量回填10）',
+    `status`           VARCHAR(20)  NOT NULL DEFAULT 'PENDING' COMMENT '状态：PENDING/RUNNING/SUCCEEDED/FAILED',
+    `force_regenerate` TINYINT(1)   NOT NULL DEFAULT 0 COMMENT '是否强制重新生成',
+    `attempts`         INT          NOT NULL DEFAULT 0 COMMENT '已尝试次数',
+    `next_run_at`      DATETIME     NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '最早执行时间（重试退避）',
+    `locked_by`        VARCHAR(100) NULL COMMENT '执行实例',
+    `started_at`       DATETIME     NULL COMMENT '本次开始执行时间',
+    `finished_at`      DATETIME     NULL COMMENT '结束时间',
+    `last_error`       VARCHAR(500) NULL COMMENT '最近一次失败原因',
+    `created_at`       DATETIME DEFAULT CURRENT_TIMESTAMP,
+    `updated_at`       DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    UNIQUE KEY `uk_article_id` (`article_id`),
+    INDEX `idx_status_priority` (`status`, `priority`, `next_run_at`)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4 COMMENT ='AI文章分析任务队列';
+
+-- 验证表结构
+DESCRIBE ai_analysis_job;
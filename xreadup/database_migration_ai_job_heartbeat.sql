@@ -0,0 +1,15 @@
+-- 数据库迁移脚本：AI分析任务心跳
+-- 执行中的任务由所在实例定时刷新 heartbeat_at；只有心跳超时的任务才视为实例已退出并重新排队，
+-- 执行时间长但实例仍存活的任务不会被重复执行。重新排队计入尝试次数，达到上限后标记为失败。
+
+USE readup_ai;
+
+ALTER TABLE `ai_analysis_job`
+    ADD COLUMN `heartbeat_at` DATETIME NULL COMMENT '执行实例最近一次心跳时间' AFTER `started_at`,
+    ADD INDEX `idx_status_heartbeat` (`status`, `heartbeat_at`);
+
+-- 已在执行中的任务以开始时间作为初始心跳
+UPDATE ai_analysis_job SET heartbeat_at = started_at WHERE status = 'RUNNING' AND heartbeat_at IS NULL;
+
+-- 验证表结构
+DESCRIBE ai_analysis_job;
@@ -0,0 +1,12 @@
+-- 数据库迁移脚本：新文章预热（入库后自动分析、出题与翻译）
+-- 文章服务在抓取入库后按预测热度提交预热任务，复用 ai_analysis_job 任务队列
+-- enrich = 1 的任务在分析之外还会生成测验题并补全 article.content_cn
+-- 预热任务的优先级介于批量回填与普通提交之间，并受每日预算限制
+
+USE readup_ai;
+
+ALTER TABLE `ai_analysis_job`
+    ADD COLUMN `enrich` TINYINT(1) NOT NULL DEFAULT 0 COMMENT '是否同时生成测验题与中文翻译（入库预热）' AFTER `force_regenerate`;
+
+-- 验证表结构
+DESCRIBE ai_analysis_job;
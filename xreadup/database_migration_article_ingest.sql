@@ -0,0 +1,10 @@
+-- 数据库迁移脚本：文章抓取流水线
+-- 抓取去重改为按URL批量 IN 查询，为url列补充索引
+
+USE readup_ai;
+
+-- 为article表的url字段添加前缀索引
+CREATE INDEX idx_url ON article(url(255));
+
+-- 验证索引添加成功
+SHOW INDEX FROM article;
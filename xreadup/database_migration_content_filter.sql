@@ -0,0 +1,16 @@
+-- 数据库迁移脚本：敏感词库配置
+-- 文章服务与AI服务定时从系统配置拉取敏感词库，变化时重建匹配自动机
+-- 配置值为逗号或换行分隔的词条，词条以 * 结尾表示前缀匹配（如 kill* 可命中 killed）
+-- 英文词条建议使用前缀写法（如 bomb*、nazi*），否则复数与时态变化无法命中
+-- 配置为空时各服务使用内置词库
+
+USE readup_ai;
+
+INSERT IGNORE INTO `system_config` (`config_key`, `config_value`, `config_type`, `description`, `category`, `is_system`) VALUES
+('content_filter.high_risk_words', '', 'STRING', '文章高风险词（命中即拦截）', 'GENERAL', TRUE),
+('content_filter.sensitive_words', '', 'STRING', '文章一般敏感词（记录但放行）', 'GENERAL', TRUE),
+('content_filter.chat_high_risk_words', '', 'STRING', 'AI对话高风险词（命中即拦截）', 'GENERAL', TRUE),
+('content_filter.chat_sensitive_words', '', 'STRING', 'AI对话一般敏感词（记录但放行）', 'GENERAL', TRUE);
+
+-- 验证配置添加成功
+SELECT config_key, description FROM system_config WHERE config_key LIKE 'content_filter.%';
@@ -0,0 +1,18 @@
+-- 数据库迁移脚本：敏感词库改为前缀匹配
+-- 词库按整词匹配时 bomb 无法命中 bombs、bombing，nazi 无法命中 nazis
+-- 将已在管理后台配置的常见英文词条改为前缀写法（bomb -> bomb*），与各服务内置词库保持一致
+-- 需要 MySQL 8.0+（REGEXP_REPLACE）
+
+USE readup_ai;
+
+UPDATE `system_config`
+SET `config_value` = REGEXP_REPLACE(
+        `config_value`,
+        '(^|[,，\\r\\n])[ \\t]*(terrorist|bomb|explosion|massacre|genocide|violent|murder|kill|death|suicide|weapon|porn|sexual|nude|drug|addict|gambler|casino|lottery|hate|racist|abuse|torture|nazi|hitler|fascist|extremist)[ \\t]*(?=[,，\\r\\n]|$)',
+        '$1$2*', 1, 0, 'i')
+WHERE `config_key` IN ('content_filter.high_risk_words', 'content_filter.sensitive_words',
+                       'content_filter.chat_high_risk_words', 'content_filter.chat_sensitive_words')
+  AND `config_value` <> '';
+
+-- 验证迁移结果
+SELECT config_key, config_value FROM system_config WHERE config_key LIKE 'content_filter.%';
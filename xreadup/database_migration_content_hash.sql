@@ -0,0 +1,27 @@
+-- 数据库迁移脚本：文章正文指纹
+-- 翻译回写不再用 LIKE 扫描 content_en，改为按正文 SHA-256 指纹走唯一索引定位文章
+-- 指纹与文章服务 ContentFingerprint 的计算方式一致（UTF-8 字节的 SHA-256，小写十六进制）
+-- 空正文不计算指纹（NULL 不参与唯一约束）
+
+USE readup_ai;
+
+-- 添加正文指纹列
+ALTER TABLE article ADD COLUMN content_hash CHAR(64) NULL COMMENT '英文正文SHA-256指纹' AFTER content_en;
+
+-- 回填存量文章的指纹
+UPDATE article SET content_hash = SHA2(content_en, 256) WHERE content_en IS NOT NULL AND content_en <> '';
+
+-- 正文重复的文章只保留ID最小的一篇的指纹，避免创建唯一索引失败
+UPDATE article a
+    JOIN (SELECT content_hash, MIN(id) AS keep_id
+          FROM article
+          WHERE content_hash IS NOT NULL
+          GROUP BY content_hash
+          HAVING COUNT(*) > 1) d ON a.content_hash = d.content_hash AND a.id <> d.keep_id
+SET a.content_hash = NULL;
+
+-- 添加唯一索引
+CREATE UNIQUE INDEX uk_content_hash ON article(content_hash);
+
+-- 验证索引添加成功
+SHOW INDEX FROM article WHERE Key_name = 'uk_content_hash';
@@ -0,0 +1,23 @@
+-- 数据库迁移脚本：阅读数写回批次记录
+-- 文章服务把 Redis 中累计的阅读数增量批量写回 article.read_count，每一批有唯一的写回ID；
+-- 写回ID与阅读数更新在同一事务中写入本表，事务提交后、清理 Redis 之前中断时，
+-- 重试发现写回ID已存在即跳过，同一批增量不会重复累加。只保留最近的记录，过期记录由文章服务定时清理。
+--
+-- 上线步骤：
+--   1. 执行本脚本建表
+--   2. 发布新版本 article-service
+
+USE readup_ai;
+
+CREATE TABLE IF NOT EXISTS `read_count_flush`
+(
+    `flush_id`    CHAR(36) PRIMARY KEY COMMENT '写回ID',
+    `articles`    INT      NOT NULL DEFAULT 0 COMMENT '写回的文章数',
+    `total_reads` BIGINT   NOT NULL DEFAULT 0 COMMENT '写回的阅读次数',
+    `flushed_at`  DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '写回时间',
+    INDEX `idx_flushed_at` (`flushed_at`)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4 COMMENT ='阅读数写回批次（写回幂等）';
+
+-- 验证表结构
+DESCRIBE read_count_flush;
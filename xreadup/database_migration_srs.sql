@@ -0,0 +1,38 @@
+-- 数据库迁移脚本：单词复习间隔重复调度（SM-2）
+-- user_word 增加每个用户每个单词的记忆状态（难度系数、当前间隔、连续答对次数、遗忘次数），
+-- 下次复习时间仍使用 next_review_at，到期队列走已有的 idx_user_next_review (user_id, next_review_at)
+-- 新增 user_review_due_daily 保存每个用户未来若干天的到期数量，复习提交后按用户刷新，每日凌晨全量重建
+--
+-- 上线步骤：
+--   1. 执行本脚本（加列、按原复习状态初始化记忆状态、建表）
+--   2. 发布新版本 report-service
+--   3. 到期数量表由每日任务生成，也可立即调用 POST /api/report/review-forecast/rebuild
+
+USE readup_ai;
+
+-- 1. 记忆状态列
+ALTER TABLE `user_word`
+    ADD COLUMN `ease_factor`   DECIMAL(4, 2) NOT NULL DEFAULT 2.50 COMMENT '难度系数（SM-2 EF，最小1.30）' AFTER `review_status`,
+    ADD COLUMN `interval_days` INT           NOT NULL DEFAULT 0 COMMENT '当前复习间隔（天）' AFTER `ease_factor`,
+    ADD COLUMN `repetitions`   INT           NOT NULL DEFAULT 0 COMMENT '连续答对次数' AFTER `interval_days`,
+    ADD COLUMN `lapses`        INT           NOT NULL DEFAULT 0 COMMENT '遗忘次数' AFTER `repetitions`;
+
+-- 2. 按原固定规则的状态初始化（learning 相当于答对1次、间隔1天；mastered 相当于答对2次、间隔3天）
+UPDATE `user_word` SET `repetitions` = 1, `interval_days` = 1 WHERE `review_status` = 'learning';
+UPDATE `user_word` SET `repetitions` = 2, `interval_days` = 3 WHERE `review_status` = 'mastered';
+
+-- 3. 每日到期数量
+CREATE TABLE IF NOT EXISTS `user_review_due_daily`
+(
+    `id`         BIGINT PRIMARY KEY AUTO_INCREMENT,
+    `user_id`    BIGINT NOT NULL COMMENT '用户ID',
+    `due_date`   DATE   NOT NULL COMMENT '到期日期（已逾期的计入当天）',
+    `due_count`  INT    NOT NULL DEFAULT 0 COMMENT '当日到期单词数',
+    `updated_at` DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    UNIQUE KEY `uk_user_date` (`user_id`, `due_date`)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4 COMMENT ='用户每日待复习单词数（复习提交后刷新，每日重建）';
+
+-- 验证表结构
+DESCRIBE user_word;
+DESCRIBE user_review_due_daily;
@@ -0,0 +1,26 @@
+-- 数据库迁移脚本：订阅额度用量记录
+-- 网关按用户、计量项、自然月在 Redis 中原子累加用量并按套餐额度拦截；
+-- user-service 定时把有变化的计数同步到本表，作为计费与对账依据（以 Redis 计数为准覆盖写入）
+--
+-- 上线步骤：
+--   1. 执行本脚本建表
+--   2. 发布新版本 user-service（启动时把各套餐额度写入 Redis，开始定时同步用量）
+--   3. 发布新版本 gateway（开始计量与拦截）
+
+USE readup_ai;
+
+CREATE TABLE IF NOT EXISTS `usage_record`
+(
+    `id`         BIGINT PRIMARY KEY AUTO_INCREMENT,
+    `user_id`    BIGINT      NOT NULL COMMENT '用户ID',
+    `meter`      VARCHAR(20) NOT NULL COMMENT '计量项：articles/ai/translation',
+    `period`     CHAR(6)     NOT NULL COMMENT '计量周期（自然月，yyyyMM）',
+    `used`       INT         NOT NULL DEFAULT 0 COMMENT '周期内用量',
+    `updated_at` DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    UNIQUE KEY `uk_user_meter_period` (`user_id`, `meter`, `period`),
+    INDEX `idx_period_meter` (`period`, `meter`)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4 COMMENT ='订阅额度用量（由Redis计数定时同步）';
+
+-- 验证表结构
+DESCRIBE usage_record;
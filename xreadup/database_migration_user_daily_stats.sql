@@ -0,0 +1,35 @@
+-- 数据库迁移脚本：用户每日学习汇总表
+-- 学习报表不再对 reading_log / user_word 逐次聚合，改为读取按 (user_id, stat_date) 汇总的 user_daily_stats
+-- 汇总行在记录阅读、加入生词、复习单词时增量累加（INSERT ... ON DUPLICATE KEY UPDATE）
+--
+-- 上线步骤：
+--   1. 执行本脚本建表、补索引
+--   2. 发布新版本 user-service / report-service（开始增量累加）
+--   3. 调用 report-service 回填接口补齐历史数据，结束日期取发布前一天，范围较大时分段调用：
+--      POST /api/report/daily-stats/backfill?startDate=2024-01-01&endDate=2024-12-31
+--   之后每日凌晨自动校正最近几天（report.daily-stats.*）
+
+USE readup_ai;
+
+-- 创建每日学习汇总表
+CREATE TABLE IF NOT EXISTS `user_daily_stats`
+(
+    `id`             BIGINT PRIMARY KEY AUTO_INCREMENT,
+    `user_id`        BIGINT NOT NULL COMMENT '用户ID',
+    `stat_date`      DATE   NOT NULL COMMENT '统计日期',
+    `read_seconds`   INT    NOT NULL DEFAULT 0 COMMENT '当日阅读时长（秒）',
+    `articles_read`  INT    NOT NULL DEFAULT 0 COMMENT '当日阅读文章数',
+    `words_added`    INT    NOT NULL DEFAULT 0 COMMENT '当日新增生词数',
+    `words_reviewed` INT    NOT NULL DEFAULT 0 COMMENT '当日复习单词次数',
+    `updated_at`     DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    UNIQUE KEY `uk_user_date` (`user_id`, `stat_date`)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4 COMMENT ='用户每日学习汇总（阅读、加词、复习时增量更新）';
+
+-- reading_log 补充索引：按用户的明细查询、按日期的回填
+CREATE INDEX idx_user_finished ON reading_log(user_id, finished_at) ALGORITHM = INPLACE LOCK = NONE;
+CREATE INDEX idx_finished_at ON reading_log(finished_at) ALGORITHM = INPLACE LOCK = NONE;
+
+-- 验证表结构与索引
+DESCRIBE user_daily_stats;
+SHOW INDEX FROM reading_log;
@@ -0,0 +1,74 @@
+-- 数据库迁移脚本：用户生词关联表
+-- word.user_ids（逗号分隔）改为 user_word 关联表，复习进度按用户独立记录
+--
+-- 在线迁移步骤：
+--   1. 执行本脚本第一部分建表（不锁word表）
+--   2. 发布新版本 user-service / report-service（写入 user_word，同时双写 user_ids）
+--   3. 执行第二部分回填历史数据，可重复执行（INSERT IGNORE）
+--   4. 确认旧版本全部下线后，再执行第三部分移除 user_ids
+
+USE readup_ai;
+
+-- ========== 第一部分：建表与索引 ==========
+
+CREATE TABLE IF NOT EXISTS `user_word`
+(
+    `id`               BIGINT PRIMARY KEY AUTO_INCREMENT,
+    `user_id`          BIGINT   NOT NULL COMMENT '用户ID',
+    `word_id`          BIGINT   NOT NULL COMMENT '单词ID',
+    `review_status`    VARCHAR(20) DEFAULT 'new' COMMENT '复习状态：new/learning/mastered',
+    `last_reviewed_at` DATETIME NULL COMMENT '上次复习时间',
+    `next_review_at`   DATETIME NULL COMMENT '下次复习时间',
+    `added_at`         DATETIME    DEFAULT CURRENT_TIMESTAMP COMMENT '加入生词本时间',
+    UNIQUE KEY `uk_user_word` (`user_id`, `word_id`),
+    INDEX `idx_user_next_review` (`user_id`, `next_review_at`),
+    INDEX `idx_user_status` (`user_id`, `review_status`),
+    INDEX `idx_user_added` (`user_id`, `added_at`),
+    INDEX `idx_word_id` (`word_id`)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4 COMMENT ='用户生词关联表（每个用户独立的复习进度）';
+
+-- 共享词库按单词查找
+CREATE INDEX idx_word ON word(word) ALGORITHM = INPLACE LOCK = NONE;
+
+-- ========== 第二部分：回填历史数据 ==========
+-- 按主键分段拆分 user_ids，每段一个短事务，避免长时间持有锁
+
+DROP PROCEDURE IF EXISTS migrate_word_user_ids;
+
+DELIMITER $$
+CREATE PROCEDURE migrate_word_user_ids(IN batch_size INT)
+BEGIN
+    DECLARE start_id BIGINT DEFAULT 0;
+    DECLARE max_id BIGINT;
+
+    SELECT COALESCE(MAX(id), 0) INTO max_id FROM word;
+
+    WHILE start_id < max_id DO
+        INSERT IGNORE INTO user_word (user_id, word_id, review_status, last_reviewed_at, next_review_at, added_at)
+        SELECT CAST(TRIM(j.uid) AS UNSIGNED), w.id, COALESCE(w.review_status, 'new'), w.last_reviewed_at, w.next_review_at,
+               COALESCE(w.added_at, NOW())
+        FROM word w
+                 JOIN JSON_TABLE(
+                CONCAT('["', REPLACE(w.user_ids, ',', '","'), '"]'),
+                '$[*]' COLUMNS (uid VARCHAR(20) PATH '$')
+                      ) j
+        WHERE w.id > start_id
+          AND w.id <= start_id + batch_size
+          AND w.user_ids IS NOT NULL
+          AND w.user_ids <> ''
+          AND TRIM(j.uid) REGEXP '^[0-9]+$';
+
+        SET start_id = start_id + batch_size;
+    END WHILE;
+END $$
+DELIMITER ;
+
+CALL migrate_word_user_ids(5000);
+DROP PROCEDURE migrate_word_user_ids;
+
+-- 验证回填结果
+SELECT COUNT(*) AS user_word_rows, COUNT(DISTINCT user_id) AS users, COUNT(DISTINCT word_id) AS words FROM user_word;
+
+-- ========== 第三部分：清理旧字段（旧版本全部下线后手动执行） ==========
+-- ALTER TABLE word DROP COLUMN user_ids;
@@ -0,0 +1,59 @@
+-- 数据库迁移脚本：共享词库按单词唯一
+-- 单词写入改为单条 INSERT ... ON DUPLICATE KEY UPDATE，用户归属只追加到 user_word / user_ids，
+-- 并发查询同一单词时不再产生重复行，也不再在 Java 中读改写 user_ids 造成丢失更新
+--
+-- 执行步骤：
+--   1. 合并历史重复单词（保留每个单词ID最小的一行，用户归属迁到保留行）
+--   2. 将 idx_word 普通索引替换为 uk_word 唯一索引
+--   3. 发布新版本 user-service
+
+USE readup_ai;
+
+-- ========== 第一部分：合并重复单词 ==========
+
+DROP TEMPORARY TABLE IF EXISTS word_dedupe;
+CREATE TEMPORARY TABLE word_dedupe
+(
+    `word`    VARCHAR(100) NOT NULL PRIMARY KEY,
+    `keep_id` BIGINT       NOT NULL
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4;
+
+INSERT INTO word_dedupe (word, keep_id)
+SELECT word, MIN(id)
+FROM word
+GROUP BY word
+HAVING COUNT(*) > 1;
+
+-- 用户归属迁到保留行；用户已拥有保留行时忽略（uk_user_word）
+UPDATE IGNORE user_word uw
+    JOIN word w ON w.id = uw.word_id
+    JOIN word_dedupe d ON d.word = w.word AND w.id <> d.keep_id
+SET uw.word_id = d.keep_id;
+
+-- 删除未能迁移的重复归属（用户已拥有保留行）
+DELETE uw
+FROM user_word uw
+         JOIN word w ON w.id = uw.word_id
+         JOIN word_dedupe d ON d.word = w.word AND w.id <> d.keep_id;
+
+-- 删除重复单词行
+DELETE w
+FROM word w
+         JOIN word_dedupe d ON d.word = w.word AND w.id <> d.keep_id;
+
+-- 按 user_word 重建保留行的 user_ids（迁移期间的双写字段）
+UPDATE word w
+    JOIN word_dedupe d ON d.keep_id = w.id
+SET w.user_ids = (SELECT GROUP_CONCAT(uw.user_id ORDER BY uw.user_id) FROM user_word uw WHERE uw.word_id = w.id);
+
+DROP TEMPORARY TABLE word_dedupe;
+
+-- ========== 第二部分：唯一索引 ==========
+
+ALTER TABLE word
+    DROP INDEX idx_word,
+    ADD UNIQUE KEY uk_word (word);
+
+-- 验证：应无重复单词
+SELECT word, COUNT(*) AS cnt FROM word GROUP BY word HAVING cnt > 1;
@@ -0,0 +1,23 @@
+package com.xreadup.ai.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 订阅计划限流配置
+ * 各计划在路由限流配置基础上的倍率，未配置的计划倍率为1
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+public class PlanRateLimitProperties {
+
+    /**
+     * 计划 -> 倍率
+     */
+    private Map<String, Integer> planMultipliers = new HashMap<>();
+}
@@ -0,0 +1,54 @@
+package com.xreadup.ai.gateway.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按订阅计划分级的Redis限流器
+ * 限流key形如 "计划:用户ID"（见 userKeyResolver），按计划倍率放大路由上配置的
+ * replenishRate / burstCapacity；匿名请求（"ip:地址"）和未配置倍率的计划沿用路由配置。
+ */
+@Slf4j
+public class PlanTieredRateLimiter extends RedisRateLimiter {
+    
+    private final Map<String, Integer> planMultipliers;
+    
+    // 分级配置 -> 生成它时使用的路由配置，路由配置刷新后重新生成
+    private final Map<String, Config> tierSources = new ConcurrentHashMap<>();
+    
+    public PlanTieredRateLimiter(ReactiveStringRedisTemplate redisTemplate, RedisScript<List<Long>> script,
+                                 ConfigurationService configurationService, Map<String, Integer> planMultipliers) {
+        super(redisTemplate, script, configurationService);
+        this.planMultipliers = planMultipliers;
+    }
+    
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        int separator = id.indexOf(':');
+        Integer multiplier = separator > 0 ? planMultipliers.get(id.substring(0, separator)) : null;
+        Config routeConfig = getConfig().get(routeId);
+        if (multiplier == null || multiplier <= 1 || routeConfig == null) {
+            return super.isAllowed(routeId, id);
+        }
+        
+        String tierRouteId = routeId + "#" + id.substring(0, separator);
+        if (tierSources.get(tierRouteId) != routeConfig) {
+            Config tierConfig = new Config()
+                    .setReplenishRate(routeConfig.getReplenishRate() * multiplier)
+                    .setBurstCapacity(routeConfig.getBurstCapacity() * multiplier)
+                    .setRequestedTokens(routeConfig.getRequestedTokens());
+            getConfig().put(tierRouteId, tierConfig);
+            tierSources.put(tierRouteId, routeConfig);
+            log.debug("生成分级限流配置: {}, 倍率: {}", tierRouteId, multiplier);
+        }
+        return super.isAllowed(tierRouteId, id);
+    }
+}
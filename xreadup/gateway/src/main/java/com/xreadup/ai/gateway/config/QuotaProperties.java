@@ -0,0 +1,35 @@
+package com.xreadup.ai.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 订阅额度计量配置
+ * 各计量项对应的接口，写法为 "方法 路径模式"，如 "GET /api/article/read/**"；
+ * 各计划的额度由 user-service 按套餐配置写入 Redis，网关不重复配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "quota")
+public class QuotaProperties {
+
+    /**
+     * 是否启用额度计量
+     */
+    private boolean enabled = true;
+
+    /**
+     * 计量项 -> 接口列表
+     */
+    private Map<String, List<String>> meters = new LinkedHashMap<>();
+
+    /**
+     * 用量计数保留天数（需覆盖一个完整周期）
+     */
+    private int counterTtlDays = 40;
+}
@@ -1,12 +1,20 @@
 package com.xreadup.ai.gateway.config;
 
+import com.xreadup.ai.gateway.filter.JwtAuthFilter;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 /**
  * 网关配置类
  * 配置限流器和WebClient
@@ -29,7 +37,6 @@ public class RateLimiterConfig {
      * 用于RequestRateLimiter限流过滤器
      */
     @Bean
-    @Primary
     public KeyResolver remoteAddrKeyResolver() {
         return exchange -> Mono.just(
             exchange.getRequest().getRemoteAddress().getAddress().getHostAddress()
@@ -37,31 +44,38 @@ public class RateLimiterConfig {
     }
 
     /**
-     * 基于用户ID的KeyResolver（备用）
-     * 可以根据需要从请求头或参数中获取用户ID
+     * 基于认证用户的KeyResolver
+     * 用户来自 JwtAuthFilter 校验过的token，key形如 "计划:用户ID"，同一学校/NAT下的用户各自计数；
+     * 未登录请求按IP计数，key形如 "ip:地址"
      */
     @Bean
+    @Primary
     public KeyResolver userKeyResolver() {
         return exchange -> {
-            // 从请求头获取用户ID
-            String userId = exchange.getRequest().getHeaders().getFirst("X-User-ID");
-            if (userId != null) {
-                return Mono.just(userId);
+            JwtAuthFilter.UserPrincipal principal = exchange.getAttribute(JwtAuthFilter.PRINCIPAL_ATTR);
+            if (principal != null) {
+                return Mono.just(principal.getPlan() + ":" + principal.getUserId());
             }
             
-            // 从查询参数获取用户ID
-            userId = exchange.getRequest().getQueryParams().getFirst("userId");
-            if (userId != null) {
-                return Mono.just(userId);
-            }
-            
-            // 默认使用IP地址
-            return Mono.just(
+            // 未登录时使用IP地址
+            return Mono.just("ip:" +
                 exchange.getRequest().getRemoteAddress().getAddress().getHostAddress()
             );
         };
     }
 
+    /**
+     * 按订阅计划分级的限流器，替换默认的RedisRateLimiter
+     */
+    @Bean
+    @Primary
+    public RedisRateLimiter planTieredRateLimiter(ReactiveStringRedisTemplate redisTemplate,
+                                                  @Qualifier(RedisRateLimiter.REDIS_SCRIPT_NAME) RedisScript<List<Long>> script,
+                                                  ConfigurationService configurationService,
+                                                  PlanRateLimitProperties properties) {
+        return new PlanTieredRateLimiter(redisTemplate, script, configurationService, properties.getPlanMultipliers());
+    }
+
     /**
      * 基于请求路径的KeyResolver（备用）
      */
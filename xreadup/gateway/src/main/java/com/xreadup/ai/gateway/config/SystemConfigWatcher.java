@@ -0,0 +1,230 @@
+package com.xreadup.ai.gateway.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 系统配置监听器
+ * <p>
+ * 网关内共享的维护模式与功能开关快照。后台定时从管理服务拉取一次配置快照，
+ * 同时订阅管理服务的配置变更频道，收到通知立即刷新；并发触发的刷新合并为一次请求。
+ * 请求路径上只读内存，不会阻塞或调用其他服务。
+ * 刷新失败时保留上一次成功加载的快照。
+ * </p>
+ * 维护模式配置：
+ * <ul>
+ *     <li>maintenance.enabled：全局维护开关</li>
+ *     <li>maintenance.message：维护提示信息</li>
+ *     <li>maintenance.routes.{路由ID}：单个路由维护，值为 true，或维护时间窗口 "开始时间/结束时间"
+ *     （ISO 本地时间，如 2025-10-20T02:00/2025-10-20T04:00）</li>
+ * </ul>
+ *
+ * @author XReadUp
+ * @since 2025-10-12
+ */
+@Component
+@Slf4j
+public class SystemConfigWatcher {
+
+    /**
+     * 配置变更频道，与管理服务的发布方保持一致
+     */
+    public static final String CHANNEL = "system-config:changed";
+
+    private static final String MAINTENANCE_ENABLED_KEY = "maintenance.enabled";
+    private static final String MAINTENANCE_MESSAGE_KEY = "maintenance.message";
+    private static final String ROUTE_MAINTENANCE_PREFIX = "maintenance.routes.";
+    private static final String DEFAULT_MESSAGE = "系统正在维护中，请稍后再试";
+
+    private final WebClient webClient;
+    private final ReactiveRedisConnectionFactory redisConnectionFactory;
+    private final long refreshIntervalMs;
+
+    private volatile Map<String, String> values = Collections.emptyMap();
+    private final AtomicBoolean refreshing = new AtomicBoolean(false);
+    private final AtomicBoolean pendingRefresh = new AtomicBoolean(false);
+    private final AtomicLong lastSuccessTime = new AtomicLong(0);
+    private final Disposable.Composite subscriptions = Disposables.composite();
+    private ReactiveRedisMessageListenerContainer listenerContainer;
+
+    public SystemConfigWatcher(WebClient.Builder webClientBuilder,
+                               ReactiveRedisConnectionFactory redisConnectionFactory,
+                               @Value("${admin.service.url:http://localhost:8085}") String adminServiceUrl,
+                               @Value("${gateway.config-watcher.refresh-interval-ms:30000}") long refreshIntervalMs) {
+        this.webClient = webClientBuilder.clone().baseUrl(adminServiceUrl).build();
+        this.redisConnectionFactory = redisConnectionFactory;
+        this.refreshIntervalMs = refreshIntervalMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        // 定时轮询（兜底，变更通知丢失或 Redis 不可用时生效）
+        subscriptions.add(Flux.interval(Duration.ZERO, Duration.ofMillis(refreshIntervalMs))
+                .onBackpressureDrop()
+                .concatMap(tick -> refresh())
+                .subscribe());
+
+        // 配置变更通知，连接断开后退避重连
+        listenerContainer = new ReactiveRedisMessageListenerContainer(redisConnectionFactory);
+        subscriptions.add(listenerContainer.receive(ChannelTopic.of(CHANNEL))
+                .doOnNext(message -> log.info("收到配置变更通知: {}", message.getMessage()))
+                .concatMap(message -> refresh())
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30)))
+                .subscribe());
+    }
+
+    @PreDestroy
+    public void stop() {
+        subscriptions.dispose();
+        if (listenerContainer != null) {
+            listenerContainer.destroyLater().subscribe();
+        }
+    }
+
+    /**
+     * 从管理服务重新加载快照
+     * 先登记待刷新再争抢刷新权：已有刷新在进行时不再发起请求，由进行中的刷新在结束前补一次，
+     * 避免刷新开始后才提交的变更被漏掉
+     *
+     * @return 本次是否加载成功
+     */
+    public Mono<Boolean> refresh() {
+        return Mono.defer(() -> {
+            pendingRefresh.set(true);
+            if (!refreshing.compareAndSet(false, true)) {
+                return Mono.just(false);
+            }
+            return drainPending();
+        });
+    }
+
+    /**
+     * 持有刷新权时循环加载，直到没有新的待刷新请求
+     */
+    private Mono<Boolean> drainPending() {
+        pendingRefresh.set(false);
+        return load()
+                .defaultIfEmpty(false)
+                .doOnCancel(() -> refreshing.set(false))
+                .flatMap(success -> {
+                    if (pendingRefresh.get()) {
+                        return drainPending();
+                    }
+                    refreshing.set(false);
+                    // 释放后再检查一次：请求可能恰好在上面的检查与释放之间登记
+                    if (pendingRefresh.get() && refreshing.compareAndSet(false, true)) {
+                        return drainPending();
+                    }
+                    return Mono.just(success);
+                });
+    }
+
+    private Mono<Boolean> load() {
+        return webClient.get()
+                .uri("/api/admin/system-config/internal/snapshot")
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {})
+                .timeout(Duration.ofSeconds(5))
+                .map(response -> {
+                    // 处理API响应格式: {code: 200, data: {配置键: 配置值}, success: true}
+                    Object data = response.get("data");
+                    if (!(data instanceof Map)) {
+                        throw new IllegalStateException("配置快照响应缺少data: " + response.get("message"));
+                    }
+                    Map<String, String> loaded = new LinkedHashMap<>();
+                    ((Map<?, ?>) data).forEach((key, value) -> loaded.put(String.valueOf(key), value != null ? String.valueOf(value) : null));
+                    if (!loaded.equals(values)) {
+                        log.info("网关配置快照已更新: {} 项, 全局维护: {}", loaded.size(), loaded.get(MAINTENANCE_ENABLED_KEY));
+                    }
+                    values = Collections.unmodifiableMap(loaded);
+                    lastSuccessTime.set(System.currentTimeMillis());
+                    return true;
+                })
+                .onErrorResume(error -> {
+                    log.warn("刷新网关配置快照失败，继续使用当前快照（上次成功: {}ms前）: {}",
+                            lastSuccessTime.get() > 0 ? System.currentTimeMillis() - lastSuccessTime.get() : -1,
+                            error.getMessage());
+                    return Mono.just(false);
+                });
+    }
+
+    /**
+     * 指定路由当前是否处于维护中（全局维护或该路由的维护窗口内）
+     *
+     * @param routeId 路由ID，可为空
+     */
+    public boolean isUnderMaintenance(String routeId) {
+        if (getBoolean(MAINTENANCE_ENABLED_KEY, false)) {
+            return true;
+        }
+        return routeId != null && getRouteMaintenanceEnd(routeId) != null;
+    }
+
+    /**
+     * 路由维护结束时间；路由维护为无时间窗口的开关时返回 LocalDateTime.MAX，未在维护中返回null
+     */
+    public LocalDateTime getRouteMaintenanceEnd(String routeId) {
+        String value = values.get(ROUTE_MAINTENANCE_PREFIX + routeId);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        value = value.trim();
+        int separator = value.indexOf('/');
+        if (separator < 0) {
+            return Boolean.parseBoolean(value) ? LocalDateTime.MAX : null;
+        }
+        try {
+            LocalDateTime start = LocalDateTime.parse(value.substring(0, separator).trim());
+            LocalDateTime end = LocalDateTime.parse(value.substring(separator + 1).trim());
+            LocalDateTime now = LocalDateTime.now();
+            return !now.isBefore(start) && now.isBefore(end) ? end : null;
+        } catch (Exception e) {
+            log.warn("路由维护窗口格式错误: {}={}", ROUTE_MAINTENANCE_PREFIX + routeId, value);
+            return null;
+        }
+    }
+
+    /**
+     * 维护提示信息
+     */
+    public String getMaintenanceMessage() {
+        String message = values.get(MAINTENANCE_MESSAGE_KEY);
+        return message == null || message.isBlank() ? DEFAULT_MESSAGE : message;
+    }
+
+    /**
+     * 读取布尔配置（功能开关等），配置不存在时返回默认值
+     */
+    public boolean getBoolean(String configKey, boolean defaultValue) {
+        String value = values.get(configKey);
+        return value == null || value.isBlank() ? defaultValue : Boolean.parseBoolean(value.trim());
+    }
+
+    /**
+     * 读取字符串配置，配置不存在时返回默认值
+     */
+    public String getString(String configKey, String defaultValue) {
+        return values.getOrDefault(configKey, defaultValue);
+    }
+}
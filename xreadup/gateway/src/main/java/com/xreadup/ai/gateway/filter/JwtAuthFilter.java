@@ -0,0 +1,213 @@
+package com.xreadup.ai.gateway.filter;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * JWT认证全局过滤器
+ * 在网关统一校验用户token，校验通过后向下游传递可信的 X-User-ID / X-User-Plan 请求头，
+ * 并把认证用户放入请求属性，供限流 KeyResolver 按用户计数。
+ * 客户端自带的同名请求头一律移除，下游服务只会看到网关写入的值。
+ * 服务间内部接口（路径含 /internal 段）不对外转发，直接返回404。
+ * 
+ * 签名密钥只构建一次；校验结果按token缓存到其过期时间，同一token不重复验签。
+ * 
+ * @author XReadUp
+ * @since 2025-10-12
+ */
+@Component
+@Slf4j
+public class JwtAuthFilter implements GlobalFilter, Ordered {
+    
+    public static final String USER_ID_HEADER = "X-User-ID";
+    public static final String USER_PLAN_HEADER = "X-User-Plan";
+    
+    /**
+     * 认证用户请求属性
+     */
+    public static final String PRINCIPAL_ATTR = JwtAuthFilter.class.getName() + ".principal";
+    
+    // 携带过期或无效token也可以访问的接口（重新登录、注册）
+    private static final List<String> PUBLIC_PATHS = Arrays.asList(
+        "/api/user/login",
+        "/api/user/register"
+    );
+    
+    // 管理员接口使用admin-service自己的会话token，不在网关校验
+    private static final String ADMIN_PATH_PREFIX = "/api/admin/";
+    
+    // 内部接口路径段，只供服务间直接调用
+    private static final String INTERNAL_SEGMENT = "/internal";
+    
+    // 校验结果缓存上限，超出时整体清空
+    private static final int MAX_CACHED_TOKENS = 10000;
+    
+    private final JwtParser parser;
+    
+    private final Map<String, UserPrincipal> verifiedTokens = new ConcurrentHashMap<>();
+    
+    public JwtAuthFilter(@Value("${jwt.secret:readupSecretKey2025ForJWTAuthenticationWithStrongSecurity}") String secret) {
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+                .build();
+    }
+    
+    /**
+     * 认证用户
+     */
+    public static class UserPrincipal {
+        private final String userId;
+        private final String plan;
+        private final long expireAt;
+        
+        public UserPrincipal(String userId, String plan, long expireAt) {
+            this.userId = userId;
+            this.plan = plan;
+            this.expireAt = expireAt;
+        }
+        
+        public String getUserId() { return userId; }
+        public String getPlan() { return plan; }
+        
+        boolean isExpired() {
+            return System.currentTimeMillis() >= expireAt;
+        }
+    }
+    
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String path = request.getURI().getPath();
+        
+        if (isInternalPath(path)) {
+            log.warn("拒绝外部访问内部接口: {}", path);
+            return handleNotFound(exchange);
+        }
+        
+        // 移除客户端伪造的用户请求头
+        ServerHttpRequest.Builder mutated = request.mutate().headers(headers -> {
+            headers.remove(USER_ID_HEADER);
+            headers.remove(USER_PLAN_HEADER);
+        });
+        
+        String token = getBearerToken(request);
+        if (token == null || path.startsWith(ADMIN_PATH_PREFIX)) {
+            return chain.filter(exchange.mutate().request(mutated.build()).build());
+        }
+        
+        UserPrincipal principal = verify(token);
+        if (principal == null) {
+            if (PUBLIC_PATHS.stream().anyMatch(path::startsWith)) {
+                return chain.filter(exchange.mutate().request(mutated.build()).build());
+            }
+            log.debug("用户token无效或已过期: {}", path);
+            return handleUnauthorized(exchange);
+        }
+        
+        mutated.header(USER_ID_HEADER, principal.getUserId());
+        mutated.header(USER_PLAN_HEADER, principal.getPlan());
+        ServerWebExchange authenticated = exchange.mutate().request(mutated.build()).build();
+        authenticated.getAttributes().put(PRINCIPAL_ATTR, principal);
+        return chain.filter(authenticated);
+    }
+    
+    /**
+     * 校验token，无效或过期返回null
+     */
+    private UserPrincipal verify(String token) {
+        UserPrincipal cached = verifiedTokens.get(token);
+        if (cached != null) {
+            if (!cached.isExpired()) {
+                return cached;
+            }
+            verifiedTokens.remove(token);
+            return null;
+        }
+        
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            if (claims.getSubject() == null) {
+                return null;
+            }
+            String plan = claims.get("plan", String.class);
+            long expireAt = claims.getExpiration() != null ? claims.getExpiration().getTime() : Long.MAX_VALUE;
+            // 已签发的旧token中计划名可能为小写，按大写匹配限流配置
+            UserPrincipal principal = new UserPrincipal(claims.getSubject(),
+                    plan != null && !plan.isBlank() ? plan.trim().toUpperCase() : "FREE", expireAt);
+            if (verifiedTokens.size() >= MAX_CACHED_TOKENS) {
+                verifiedTokens.clear();
+            }
+            verifiedTokens.put(token, principal);
+            return principal;
+        } catch (Exception e) {
+            log.debug("用户token校验失败: {}", e.getMessage());
+            return null;
+        }
+    }
+    
+    private static boolean isInternalPath(String path) {
+        return path.endsWith(INTERNAL_SEGMENT) || path.contains(INTERNAL_SEGMENT + "/");
+    }
+    
+    private String getBearerToken(ServerHttpRequest request) {
+        String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            String token = authHeader.substring(7).trim();
+            return token.isEmpty() ? null : token;
+        }
+        return null;
+    }
+    
+    /**
+     * 处理未认证响应
+     */
+    private Mono<Void> handleUnauthorized(ServerWebExchange exchange) {
+        exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+        exchange.getResponse().getHeaders().add("Content-Type", MediaType.APPLICATION_JSON_VALUE);
+        
+        String responseBody = "{\"success\":false,\"message\":\"登录已过期，请重新登录\",\"code\":401}";
+        
+        return exchange.getResponse().writeWith(
+                Mono.just(exchange.getResponse().bufferFactory().wrap(responseBody.getBytes(StandardCharsets.UTF_8)))
+        );
+    }
+    
+    /**
+     * 处理内部接口访问响应
+     */
+    private Mono<Void> handleNotFound(ServerWebExchange exchange) {
+        exchange.getResponse().setStatusCode(HttpStatus.NOT_FOUND);
+        exchange.getResponse().getHeaders().add("Content-Type", MediaType.APPLICATION_JSON_VALUE);
+        
+        String responseBody = "{\"success\":false,\"message\":\"接口不存在\",\"code\":404}";
+        
+        return exchange.getResponse().writeWith(
+                Mono.just(exchange.getResponse().bufferFactory().wrap(responseBody.getBytes(StandardCharsets.UTF_8)))
+        );
+    }
+    
+    @Override
+    public int getOrder() {
+        return -900; // 维护模式检查之后，路由限流之前
+    }
+}
@@ -0,0 +1,272 @@
+package com.xreadup.ai.gateway.filter;
+
+import com.xreadup.ai.gateway.config.QuotaProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 订阅额度计量全局过滤器
+ * <p>
+ * 计量接口（文章阅读、AI分析、翻译）只允许已登录用户访问，未登录返回401。访问时在 Redis 中按用户、计量项、
+ * 自然月原子累加用量：一次脚本调用完成读取用户当前计划、读取计划额度、判断并累加，不查询数据库。超出额度返回429，
+ * 下游返回错误状态码或 success:false 的响应体时退还本次用量。响应头返回本月额度、剩余次数和重置时间。
+ * </p>
+ * 用户当前计划与各计划额度由 user-service 写入 Redis，用户计划缺失时使用token中的计划，
+ * 计划额度缺失时只计量不限制；Redis 不可用时放行。用量由 user-service 定时同步到 MySQL 用于计费。
+ */
+@Component
+@Slf4j
+public class QuotaMeteringFilter implements GlobalFilter, Ordered {
+
+    // 以下 Redis key 与 user-service 的 UsageMeter 保持一致
+    private static final String USAGE_KEY_PREFIX = "quota:usage:";
+    private static final String USER_PLAN_KEY_PREFIX = "quota:plan:";
+    private static final String PLAN_LIMITS_KEY = "quota:limits";
+    private static final String DIRTY_KEY = "quota:dirty";
+
+    private static final String HEADER_METER = "X-Quota-Meter";
+    private static final String HEADER_LIMIT = "X-Quota-Limit";
+    private static final String HEADER_REMAINING = "X-Quota-Remaining";
+    private static final String HEADER_RESET = "X-Quota-Reset";
+
+    private static final DateTimeFormatter PERIOD_FORMAT = DateTimeFormatter.ofPattern("yyyyMM");
+
+    // 各服务出错时多以 HTTP 200 返回 {"success":false,...} 或 {"code":500,...}，只检查响应体开头
+    private static final int BODY_PREFIX_LENGTH = 256;
+    private static final Pattern FAILED_BODY = Pattern.compile("\"success\"\\s*:\\s*false");
+    private static final Pattern BODY_CODE = Pattern.compile("^\\s*\\{\\s*\"code\"\\s*:\\s*(\\d+)");
+
+    // KEYS: 用量计数, 用户当前计划, 计划额度, 待同步集合
+    // ARGV: token中的计划, 计量项, 计数过期秒数, 待同步成员
+    // 返回 {是否放行, 额度(-1不限), 本周期已用}；计划名按大写匹配额度字段
+    private static final String ACQUIRE_LUA =
+            "local plan = string.upper(redis.call('GET', KEYS[2]) or ARGV[1]) " +
+            "local limit = tonumber(redis.call('HGET', KEYS[3], plan .. ':' .. ARGV[2]) or '-1') " +
+            "local used = tonumber(redis.call('GET', KEYS[1]) or '0') " +
+            "if limit >= 0 and used >= limit then return {0, limit, used} end " +
+            "used = redis.call('INCR', KEYS[1]) " +
+            "if used == 1 then redis.call('EXPIRE', KEYS[1], ARGV[3]) end " +
+            "redis.call('SADD', KEYS[4], ARGV[4]) " +
+            "return {1, limit, used}";
+
+    // KEYS: 用量计数, 待同步集合  ARGV: 待同步成员
+    private static final String REFUND_LUA =
+            "if tonumber(redis.call('GET', KEYS[1]) or '0') > 0 then " +
+            "redis.call('DECR', KEYS[1]) redis.call('SADD', KEYS[2], ARGV[1]) return 1 end " +
+            "return 0";
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final RedisScript<List<Long>> ACQUIRE_SCRIPT = (RedisScript) RedisScript.of(ACQUIRE_LUA, List.class);
+    private static final RedisScript<Long> REFUND_SCRIPT = RedisScript.of(REFUND_LUA, Long.class);
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final boolean enabled;
+    private final String counterTtlSeconds;
+    private final List<MeteredEndpoint> endpoints = new ArrayList<>();
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public QuotaMeteringFilter(ReactiveStringRedisTemplate redisTemplate, QuotaProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.enabled = properties.isEnabled();
+        this.counterTtlSeconds = String.valueOf(Duration.ofDays(properties.getCounterTtlDays()).getSeconds());
+        for (Map.Entry<String, List<String>> entry : properties.getMeters().entrySet()) {
+            for (String endpoint : entry.getValue()) {
+                endpoints.add(MeteredEndpoint.parse(entry.getKey(), endpoint));
+            }
+        }
+    }
+
+    /**
+     * 计量接口：方法为空时匹配任意方法
+     */
+    private static class MeteredEndpoint {
+        private final String meter;
+        private final String method;
+        private final String pattern;
+
+        private MeteredEndpoint(String meter, String method, String pattern) {
+            this.meter = meter;
+            this.method = method;
+            this.pattern = pattern;
+        }
+
+        static MeteredEndpoint parse(String meter, String endpoint) {
+            String[] parts = endpoint.trim().split("\\s+", 2);
+            return parts.length == 2
+                    ? new MeteredEndpoint(meter, parts[0].toUpperCase(), parts[1])
+                    : new MeteredEndpoint(meter, null, parts[0]);
+        }
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!enabled) {
+            return chain.filter(exchange);
+        }
+        String meter = matchMeter(exchange);
+        if (meter == null) {
+            return chain.filter(exchange);
+        }
+        JwtAuthFilter.UserPrincipal principal = exchange.getAttribute(JwtAuthFilter.PRINCIPAL_ATTR);
+        if (principal == null) {
+            // 计量接口不允许匿名访问，否则不带 token 即可绕过额度
+            return handleUnauthorized(exchange);
+        }
+
+        LocalDate today = LocalDate.now();
+        String member = meter + ":" + principal.getUserId() + ":" + today.format(PERIOD_FORMAT);
+        String usageKey = USAGE_KEY_PREFIX + member;
+        List<String> keys = Arrays.asList(usageKey, USER_PLAN_KEY_PREFIX + principal.getUserId(), PLAN_LIMITS_KEY, DIRTY_KEY);
+
+        return redisTemplate.execute(ACQUIRE_SCRIPT, keys, Arrays.asList(principal.getPlan(), meter, counterTtlSeconds, member))
+                .next()
+                .onErrorResume(e -> {
+                    log.warn("额度计量失败，放行请求: meter={}, userId={}, error={}", meter, principal.getUserId(), e.getMessage());
+                    return Mono.empty();
+                })
+                .flatMap(result -> {
+                    boolean allowed = result.get(0) == 1L;
+                    long limit = result.get(1);
+                    long used = result.get(2);
+                    addQuotaHeaders(exchange, meter, limit, used, today);
+                    if (!allowed) {
+                        log.debug("额度已用完: meter={}, userId={}, limit={}", meter, principal.getUserId(), limit);
+                        return handleQuotaExceeded(exchange, meter).thenReturn(false);
+                    }
+                    AtomicBoolean failedBody = new AtomicBoolean(false);
+                    ServerWebExchange inspected = exchange.mutate().response(inspectBody(exchange, failedBody)).build();
+                    return chain.filter(inspected)
+                            .doFinally(signal -> refundIfFailed(exchange, signal, failedBody.get(), usageKey, member))
+                            .thenReturn(true);
+                })
+                .switchIfEmpty(Mono.defer(() -> chain.filter(exchange).thenReturn(true)))
+                .then();
+    }
+
+    private String matchMeter(ServerWebExchange exchange) {
+        String method = exchange.getRequest().getMethod().name();
+        String path = exchange.getRequest().getURI().getPath();
+        for (MeteredEndpoint endpoint : endpoints) {
+            if ((endpoint.method == null || endpoint.method.equals(method)) && pathMatcher.match(endpoint.pattern, path)) {
+                return endpoint.meter;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 检查响应体开头是否为失败结果（HTTP 200 + success:false 或非2xx的 code）
+     */
+    private ServerHttpResponseDecorator inspectBody(ServerWebExchange exchange, AtomicBoolean failedBody) {
+        AtomicBoolean checked = new AtomicBoolean(false);
+        return new ServerHttpResponseDecorator(exchange.getResponse()) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                return super.writeWith(Flux.from(body).doOnNext(buffer -> {
+                    if (checked.compareAndSet(false, true)) {
+                        int length = Math.min(buffer.readableByteCount(), BODY_PREFIX_LENGTH);
+                        failedBody.set(isFailedBody(buffer.toString(buffer.readPosition(), length, StandardCharsets.UTF_8)));
+                    }
+                }));
+            }
+        };
+    }
+
+    private static boolean isFailedBody(String prefix) {
+        if (FAILED_BODY.matcher(prefix).find()) {
+            return true;
+        }
+        Matcher code = BODY_CODE.matcher(prefix);
+        if (code.find()) {
+            int value = Integer.parseInt(code.group(1));
+            return value >= 300;
+        }
+        return false;
+    }
+
+    /**
+     * 下游返回错误（状态码或响应体）、请求异常或被取消时退还本次用量
+     */
+    private void refundIfFailed(ServerWebExchange exchange, SignalType signal, boolean failedBody, String usageKey, String member) {
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        if (signal == SignalType.ON_COMPLETE && !failedBody && (status == null || !status.isError())) {
+            return;
+        }
+        redisTemplate.execute(REFUND_SCRIPT, Arrays.asList(usageKey, DIRTY_KEY), List.of(member))
+                .subscribe(null, e -> log.warn("退还额度失败: {}, error={}", member, e.getMessage()));
+    }
+
+    private void addQuotaHeaders(ServerWebExchange exchange, String meter, long limit, long used, LocalDate today) {
+        HttpHeaders headers = exchange.getResponse().getHeaders();
+        headers.set(HEADER_METER, meter);
+        headers.set(HEADER_RESET, String.valueOf(
+                today.withDayOfMonth(1).plusMonths(1).atStartOfDay(ZoneId.systemDefault()).toEpochSecond()));
+        if (limit >= 0) {
+            headers.set(HEADER_LIMIT, String.valueOf(limit));
+            headers.set(HEADER_REMAINING, String.valueOf(Math.max(0, limit - used)));
+        }
+    }
+
+    /**
+     * 处理未登录访问计量接口的响应
+     */
+    private Mono<Void> handleUnauthorized(ServerWebExchange exchange) {
+        exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+        exchange.getResponse().getHeaders().add("Content-Type", MediaType.APPLICATION_JSON_VALUE);
+
+        String responseBody = "{\"success\":false,\"message\":\"请先登录\",\"code\":401}";
+
+        return exchange.getResponse().writeWith(
+                Mono.just(exchange.getResponse().bufferFactory().wrap(responseBody.getBytes(StandardCharsets.UTF_8)))
+        );
+    }
+
+    /**
+     * 处理额度用完响应
+     */
+    private Mono<Void> handleQuotaExceeded(ServerWebExchange exchange, String meter) {
+        exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        exchange.getResponse().getHeaders().add("Content-Type", MediaType.APPLICATION_JSON_VALUE);
+
+        String responseBody = "{\"success\":false,\"message\":\"本月额度已用完，请升级套餐或等待下月重置\",\"code\":429,\"meter\":\"" + meter + "\"}";
+
+        return exchange.getResponse().writeWith(
+                Mono.just(exchange.getResponse().bufferFactory().wrap(responseBody.getBytes(StandardCharsets.UTF_8)))
+        );
+    }
+
+    @Override
+    public int getOrder() {
+        return -800; // JWT认证之后，路由限流之前
+    }
+}
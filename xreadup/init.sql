@@ -37,6 +37,7 @@ CREATE TABLE `article`
     `id`                BIGINT PRIMARY KEY AUTO_INCREMENT,
     `title`             VARCHAR(200) NOT NULL COMMENT '标题',
     `content_en`        LONGTEXT     NOT NULL COMMENT '英文原文',
+    `content_hash`      CHAR(64)     NULL COMMENT '英文正文SHA-256指纹',
     `content_cn`        LONGTEXT     NOT NULL COMMENT '中文翻译',
     `difficulty`        VARCHAR(10) COMMENT '难度等级',
     `category`          VARCHAR(50) COMMENT 'AI自动分类',
@@ -60,10 +61,23 @@ CREATE TABLE `article`
     `readability_score` DECIMAL(5,2) COMMENT '可读性评分',
     `create_time`       DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
     `update_time`       DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
-    `deleted`           TINYINT  DEFAULT 0 COMMENT '是否删除：0否 1是'
+    `deleted`           TINYINT  DEFAULT 0 COMMENT '是否删除：0否 1是',
+    INDEX `idx_url` (`url`(255)),
+    UNIQUE KEY `uk_content_hash` (`content_hash`)
 ) ENGINE = InnoDB
   DEFAULT CHARSET = utf8mb4;
 
+-- 阅读数写回批次表（写回ID与阅读数更新同一事务提交，重试时跳过已写回的批次）
+CREATE TABLE `read_count_flush`
+(
+    `flush_id`    CHAR(36) PRIMARY KEY COMMENT '写回ID',
+    `articles`    INT      NOT NULL DEFAULT 0 COMMENT '写回的文章数',
+    `total_reads` BIGINT   NOT NULL DEFAULT 0 COMMENT '写回的阅读次数',
+    `flushed_at`  DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '写回时间',
+    INDEX `idx_flushed_at` (`flushed_at`)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4 COMMENT ='阅读数写回批次（写回幂等）';
+
 -- AI分析表（新增）
 CREATE TABLE `ai_analysis`
 (
@@ -99,7 +113,7 @@ CREATE TABLE `ai_analysis`
 CREATE TABLE `word`
 (
     `id`                BIGINT PRIMARY KEY AUTO_INCREMENT,
-    `user_id`           BIGINT       NOT NULL,
+    `user_ids`          TEXT         NULL COMMENT '使用该单词的用户ID（逗号分隔，已由user_word取代，仅迁移期间双写）',
     `word`              VARCHAR(100) NOT NULL COMMENT '单词',
     `meaning`           VARCHAR(500) COMMENT '释义',
     `example`           TEXT COMMENT '例句',
@@ -112,9 +126,30 @@ CREATE TABLE `word`
     `added_at`          DATETIME    DEFAULT CURRENT_TIMESTAMP,
     `phonetic`          VARCHAR(50) COMMENT '音标',
     `difficulty`        VARCHAR(10) COMMENT '难度等级：A1/A2/B1/B2/C1/C2',
-    UNIQUE KEY `uk_user_word_context` (`user_id`, `word`, `context`) -- 同一单词不同上下文可存多条
+    UNIQUE KEY `uk_word` (`word`)
 ) ENGINE = InnoDB
-  DEFAULT CHARSET = utf8mb4;
+  DEFAULT CHARSET = utf8mb4 COMMENT ='共享词库（每个单词一行，用户归属见 user_word）';
+
+CREATE TABLE `user_word`
+(
+    `id`               BIGINT PRIMARY KEY AUTO_INCREMENT,
+    `user_id`          BIGINT   NOT NULL COMMENT '用户ID',
+    `word_id`          BIGINT   NOT NULL COMMENT '单词ID',
+    `review_status`    VARCHAR(20) DEFAULT 'new' COMMENT '复习状态：new/learning/mastered',
+    `ease_factor`      DECIMAL(4, 2) NOT NULL DEFAULT 2.50 COMMENT '难度系数（SM-2 EF，最小1.30）',
+    `interval_days`    INT      NOT NULL DEFAULT 0 COMMENT '当前复习间隔（天）',
+    `repetitions`      INT      NOT NULL DEFAULT 0 COMMENT '连续答对次数',
+    `lapses`           INT      NOT NULL DEFAULT 0 COMMENT '遗忘次数',
+    `last_reviewed_at` DATETIME NULL COMMENT '上次复习时间',
+    `next_review_at`   DATETIME NULL COMMENT '下次复习时间',
+    `added_at`         DATETIME    DEFAULT CURRENT_TIMESTAMP COMMENT '加入生词本时间',
+    UNIQUE KEY `uk_user_word` (`user_id`, `word_id`),
+    INDEX `idx_user_next_review` (`user_id`, `next_review_at`),
+    INDEX `idx_user_status` (`user_id`, `review_status`),
+    INDEX `idx_user_added` (`user_id`, `added_at`),
+    INDEX `idx_word_id` (`word_id`)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4 COMMENT ='用户生词关联表（每个用户独立的复习进度）';
 
 
 CREATE TABLE `reading_log`
@@ -123,10 +158,61 @@ CREATE TABLE `reading_log`
     `user_id`       BIGINT NOT NULL,
     `article_id`    BIGINT NOT NULL,
     `read_time_sec` INT COMMENT '阅读时长（秒）',
-    `finished_at`   DATETIME DEFAULT CURRENT_TIMESTAMP
+    `finished_at`   DATETIME DEFAULT CURRENT_TIMESTAMP,
+    INDEX `idx_user_finished` (`user_id`, `finished_at`),
+    INDEX `idx_finished_at` (`finished_at`)
 ) ENGINE = InnoDB
   DEFAULT CHARSET = utf8mb4;
 
+CREATE TABLE `user_daily_stats`
+(
+    `id`             BIGINT PRIMARY KEY AUTO_INCREMENT,
+    `user_id`        BIGINT NOT NULL COMMENT '用户ID',
+    `stat_date`      DATE   NOT NULL COMMENT '统计日期',
+    `read_seconds`   INT    NOT NULL DEFAULT 0 COMMENT '当日阅读时长（秒）',
+    `articles_read`  INT    NOT NULL DEFAULT 0 COMMENT '当日阅读文章数',
+    `words_added`    INT    NOT NULL DEFAULT 0 COMMENT '当日新增生词数',
+    `words_reviewed` INT    NOT NULL DEFAULT 0 COMMENT '当日复习单词次数',
+    `updated_at`     DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    UNIQUE KEY `uk_user_date` (`user_id`, `stat_date`)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4 COMMENT ='用户每日学习汇总（阅读、加词、复习时增量更新）';
+
+CREATE TABLE `user_review_due_daily`
+(
+    `id`         BIGINT PRIMARY KEY AUTO_INCREMENT,
+    `user_id`    BIGINT NOT NULL COMMENT '用户ID',
+    `due_date`   DATE   NOT NULL COMMENT '到期日期（已逾期的计入当天）',
+    `due_count`  INT    NOT NULL DEFAULT 0 COMMENT '当日到期单词数',
+    `updated_at` DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    UNIQUE KEY `uk_user_date` (`user_id`, `due_date`)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4 COMMENT ='用户每日待复习单词数（复习提交后刷新，每日重建）';
+
+
+CREATE TABLE `ai_analysis_job`
+(
+    `id`               BIGINT PRIMARY KEY AUTO_INCREMENT,
+    `article_id`       BIGINT       NOT NULL COMMENT '文章ID',
+    `priority`         INT          NOT NULL DEFAULT 50 COMMENT '优先级，越大越先执行（交互100/普通50/预热11-49/批量回填10）',
+    `status`           VARCHAR(20)  NOT NULL DEFAULT 'PENDING' COMMENT '状态：PENDING/RUNNING/SUCCEEDED/FAILED',
+    `force_regenerate` TINYINT(1)   NOT NULL DEFAULT 0 COMMENT '是否强制重新生成',
+    `enrich`           TINYINT(1)   NOT NULL DEFAULT 0 COMMENT '是否同时生成测验题与中文翻译（入库预热）',
+    `attempts`         INT          NOT NULL DEFAULT 0 COMMENT '已尝试次数',
+    `next_run_at`      DATETIME     NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '最早执行时间（重试退避）',
+    `locked_by`        VARCHAR(100) NULL COMMENT '执行实例',
+    `started_at`       DATETIME     NULL COMMENT '本次开始执行时间',
+    `heartbeat_at`     DATETIME     NULL COMMENT '执行实例最近一次心跳时间',
+    `finished_at`      DATETIME     NULL COMMENT '结束时间',
+    `last_error`       VARCHAR(500) NULL COMMENT '最近一次失败原因',
+    `created_at`       DATETIME DEFAULT CURRENT_TIMESTAMP,
+    `updated_at`       DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    UNIQUE KEY `uk_article_id` (`article_id`),
+    INDEX `idx_status_priority` (`status`, `priority`, `next_run_at`),
+    INDEX `idx_status_heartbeat` (`status`, `heartbeat_at`)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4 COMMENT ='AI文章分析任务队列';
+
 
 CREATE TABLE `ai_cache`
 (
@@ -183,6 +269,19 @@ CREATE TABLE subscription (
                               FOREIGN KEY (user_id) REFERENCES user(id) ON DELETE CASCADE
 ) COMMENT='用户订阅表';
 
+CREATE TABLE `usage_record`
+(
+    `id`         BIGINT PRIMARY KEY AUTO_INCREMENT,
+    `user_id`    BIGINT      NOT NULL COMMENT '用户ID',
+    `meter`      VARCHAR(20) NOT NULL COMMENT '计量项：articles/ai/translation',
+    `period`     CHAR(6)     NOT NULL COMMENT '计量周期（自然月，yyyyMM）',
+    `used`       INT         NOT NULL DEFAULT 0 COMMENT '周期内用量',
+    `updated_at` DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    UNIQUE KEY `uk_user_meter_period` (`user_id`, `meter`, `period`),
+    INDEX `idx_period_meter` (`period`, `meter`)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4 COMMENT ='订阅额度用量（由Redis计数定时同步）';
+
 -- 插入初始超级管理员用户
 -- 注意：实际部署时，请替换为真实的用户ID
 INSERT INTO admin_user (user_id, role) VALUES (17, 'SUPER_ADMIN');
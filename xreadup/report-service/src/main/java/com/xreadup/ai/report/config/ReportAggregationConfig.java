@@ -0,0 +1,40 @@
+package com.xreadup.ai.report.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 报表聚合配置
+ * 仪表盘、周报的各数据来源并发获取，使用有界线程池
+ */
+@Configuration
+public class ReportAggregationConfig {
+
+    @Value("${report.aggregation.pool-size:16}")
+    private int poolSize;
+
+    @Value("${report.aggregation.queue-capacity:200}")
+    private int queueCapacity;
+
+    /**
+     * 报表聚合线程池
+     * 队列满时直接拒绝，由聚合服务把该区块按获取失败处理（沿用缓存或默认值），不在请求线程上同步执行
+     */
+    @Bean(name = "reportAggregationExecutor")
+    public ThreadPoolTaskExecutor reportAggregationExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("report-agg-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -3,10 +3,13 @@ package com.xreadup.ai.report.controller;
 import com.xreadup.ai.report.common.ApiResponse;
 import com.xreadup.ai.report.dto.DashboardData;
 import com.xreadup.ai.report.dto.ReadingTimeData;
+import com.xreadup.ai.report.dto.ReviewBatchRequest;
 import com.xreadup.ai.report.dto.ReviewWordDto;
 import com.xreadup.ai.report.dto.VocabularyGrowthData;
-import com.xreadup.ai.report.feign.UserServiceClient;
+import com.xreadup.ai.report.service.DailyStatsBackfillService;
 import com.xreadup.ai.report.service.ReadingTimeService;
+import com.xreadup.ai.report.service.ReportAggregationService;
+import com.xreadup.ai.report.service.ReviewScheduleService;
 import com.xreadup.ai.report.service.VocabularyGrowthService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -18,8 +21,6 @@ import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -72,7 +73,13 @@ public class ReportController {
     private ReadingTimeService readingTimeService;
 
     @Autowired
-    private UserServiceClient userServiceClient;
+    private ReportAggregationService reportAggregationService;
+
+    @Autowired
+    private DailyStatsBackfillService dailyStatsBackfillService;
+
+    @Autowired
+    private ReviewScheduleService reviewScheduleService;
 
     @GetMapping("/growth-curve")
     @Operation(summary = "【词汇增长】学习曲线", description = "追踪你的词汇量成长轨迹")
@@ -130,63 +137,7 @@ public class ReportController {
     @Operation(summary = "【一周洞察】学习周报", description = "本周学习成果深度分析")
     public ApiResponse<Object> weeklyInsights(
             @Parameter(description = "用户ID", required = true) @RequestParam @NotNull(message = "用户ID不能为空") Long userId) {
-        Map<String, Object> weeklyData = new HashMap<>();
-        
-        // 获取本周阅读趋势数据
-        Map<String, Object> currentWeekTrend = readingTimeService.getReadingTrend(userId, 7);
-        weeklyData.putAll(currentWeekTrend);
-        
-        // 获取上周阅读趋势数据用于对比
-        Map<String, Object> previousWeekTrend = readingTimeService.getReadingTrend(userId, 14);
-        List<ReadingTimeData.DailyReading> previousWeekReadings = previousWeekTrend.get("dailyReadings") != null ? 
-            (List<ReadingTimeData.DailyReading>) previousWeekTrend.get("dailyReadings") : new ArrayList<>();
-        
-        // 计算上周数据（第8-14天）
-        int previousWeekMinutes = 0;
-        int previousWeekArticles = 0;
-        if (previousWeekReadings.size() > 7) {
-            for (int i = 7; i < previousWeekReadings.size(); i++) {
-                ReadingTimeData.DailyReading reading = previousWeekReadings.get(i);
-                previousWeekMinutes += reading.getMinutes() != null ? reading.getMinutes() : 0;
-                previousWeekArticles += reading.getArticles() != null ? reading.getArticles() : 0;
-            }
-        }
-        
-        // 计算本周数据
-        List<ReadingTimeData.DailyReading> currentWeekReadings = currentWeekTrend.get("dailyReadings") != null ? 
-            (List<ReadingTimeData.DailyReading>) currentWeekTrend.get("dailyReadings") : new ArrayList<>();
-        int currentWeekMinutes = 0;
-        int currentWeekArticles = 0;
-        for (ReadingTimeData.DailyReading reading : currentWeekReadings) {
-            currentWeekMinutes += reading.getMinutes() != null ? reading.getMinutes() : 0;
-            currentWeekArticles += reading.getArticles() != null ? reading.getArticles() : 0;
-        }
-        
-        // 获取词汇增长数据用于计算变化量
-        Map<String, Object> vocabularyStats = vocabularyGrowthService.getVocabularyStats(userId);
-        int currentWeekWords = (Integer) vocabularyStats.get("weeklyNewWords");
-        
-        // 简化处理：假设上周词汇数据为本周的一半（实际项目中应该查询真实数据）
-        int previousWeekWords = Math.max(0, currentWeekWords / 2);
-        
-        // 计算变化量
-        int minutesChange = currentWeekMinutes - previousWeekMinutes;
-        int articlesChange = currentWeekArticles - previousWeekArticles;
-        int wordsChange = currentWeekWords - previousWeekWords;
-        
-        // 添加变化量数据
-        weeklyData.put("minutesChange", minutesChange);
-        weeklyData.put("articlesChange", articlesChange);
-        weeklyData.put("wordsChange", wordsChange);
-        
-        // 添加词汇增长数据（使用已获取的数据）
-        weeklyData.put("weeklyNewWords", vocabularyStats.get("weeklyNewWords"));
-        weeklyData.put("totalWords", vocabularyStats.get("totalWords"));
-        
-        // 从阅读趋势数据中获取总文章数，避免重复调用
-        ReadingTimeData readingData = readingTimeService.getReadingStats(userId, 7);
-        weeklyData.put("totalArticles", readingData.getTotalArticles());
-        
+        Map<String, Object> weeklyData = reportAggregationService.getWeeklyInsights(userId);
         return ApiResponse.success(weeklyData);
     }
 
@@ -196,20 +147,7 @@ public class ReportController {
     @Operation(summary = "【学习仪表盘】综合数据", description = "一站式查看所有学习数据")
     public ApiResponse<DashboardData> dashboard(
             @Parameter(description = "用户ID", required = true) @RequestParam @NotNull(message = "用户ID不能为空") Long userId) {
-        DashboardData dashboard = new DashboardData();
-
-        // 获取词汇增长数据
-        VocabularyGrowthData vocabularyData = vocabularyGrowthService.getGrowthCurve(userId, 30);
-        dashboard.setVocabularyData(vocabularyData);
-
-        // 获取阅读时长数据
-        ReadingTimeData readingData = readingTimeService.getReadingStats(userId, 30);
-        dashboard.setReadingData(readingData);
-
-        // 计算打卡数据（基于实际数据）
-        dashboard.setCurrentStreak(calculateCurrentStreak(userId));
-        dashboard.setTotalDays(calculateTotalDays(userId));
-
+        DashboardData dashboard = reportAggregationService.getDashboard(userId);
         return ApiResponse.success(dashboard);
     }
     
@@ -252,13 +190,52 @@ public class ReportController {
         }
     }
     
+    @PostMapping("/review/batch")
+    @Operation(summary = "【批量复习】提交复习会话结果", description = "一次提交复习会话中的全部回答，在一个事务内按 SM-2 更新记忆状态")
+    public ApiResponse<Map<String, Object>> submitReviewBatch(
+            @RequestBody @NotNull(message = "请求参数不能为空") ReviewBatchRequest request) {
+        try {
+            return ApiResponse.success(reviewScheduleService.submitReviews(request.getUserId(), request.getReviews()));
+        } catch (IllegalArgumentException e) {
+            return ApiResponse.error(e.getMessage());
+        } catch (Exception e) {
+            return ApiResponse.error("提交复习结果失败：" + e.getMessage());
+        }
+    }
+
+    @GetMapping("/review-forecast")
+    @Operation(summary = "【复习预测】每日待复习数量", description = "获取今天起每天到期的单词数（已逾期的计入今天）")
+    public ApiResponse<Map<String, Integer>> getReviewForecast(
+            @Parameter(description = "用户ID", required = true) @RequestParam @NotNull(message = "用户ID不能为空") Long userId,
+            @Parameter(description = "天数", example = "7") @RequestParam(defaultValue = "7") @Min(value = 1, message = "天数必须大于0") int days) {
+        try {
+            return ApiResponse.success(reviewScheduleService.getDueForecast(userId, days));
+        } catch (Exception e) {
+            return ApiResponse.error("获取复习预测失败：" + e.getMessage());
+        }
+    }
+
+    @PostMapping("/review-forecast/rebuild")
+    @Operation(summary = "【复习预测】重建每日待复习数量", description = "立即重建全部用户的每日待复习数量（每日凌晨自动执行）")
+    public ApiResponse<Map<String, Object>> rebuildReviewForecast() {
+        try {
+            return ApiResponse.success(reviewScheduleService.rebuildDueCounts());
+        } catch (Exception e) {
+            return ApiResponse.error("重建每日待复习数量失败：" + e.getMessage());
+        }
+    }
+
     @PostMapping("/no-longer-review/{wordId}")
     @Operation(summary = "【不再巩固】单词设置", description = "设置单词为不再需要巩固")
     public ApiResponse<String> setWordAsNoLongerReview(
+            @Parameter(description = "用户ID", required = true) @RequestParam @NotNull(message = "用户ID不能为空") Long userId,
             @Parameter(description = "单词ID", required = true) @PathVariable("wordId") Long wordId) {
         
+        if (userId == null || userId <= 0) {
+            return ApiResponse.badRequest("用户ID必须为正数");
+        }
         try {
-            boolean success = vocabularyGrowthService.setWordAsNoLongerReview(wordId);
+            boolean success = vocabularyGrowthService.setWordAsNoLongerReview(userId, wordId);
             
             if (success) {
                 return ApiResponse.success("单词已设置为不再巩固");
@@ -305,14 +282,6 @@ public class ReportController {
             // 使用新的日期范围查询方法获取历史数据
             List<ReadingTimeData.DailyReading> dailyReadings = readingTimeService.getDailyReadingsByDateRange(userId, start, end);
             
-            // 为每日阅读数据添加词汇信息
-            if (dailyReadings != null) {
-                for (ReadingTimeData.DailyReading reading : dailyReadings) {
-                    // 添加模拟词汇数据（实际项目中应该从词汇表获取）
-                    reading.setNewWords(Math.max(1, (int)(Math.random() * 5) + 1));
-                }
-            }
-            
             // 计算总阅读时长和平均阅读时长
             int totalMinutes = dailyReadings != null ? dailyReadings.stream()
                     .mapToInt(ReadingTimeData.DailyReading::getMinutes)
@@ -334,81 +303,31 @@ public class ReportController {
         }
     }
 
-    @GetMapping("/health")
-    @Operation(summary = "健康检查", description = "检查报表服务状态")
-    public ApiResponse<String> health() {
-        return ApiResponse.success("报表服务运行正常✅");
-    }
-
-    /**
-     * 计算当前连续学习天数
-     * @param userId 用户ID
-     * @return 连续学习天数
-     */
-    private int calculateCurrentStreak(Long userId) {
+    @PostMapping("/daily-stats/backfill")
+    @Operation(summary = "【汇总回填】每日学习汇总", description = "按日期范围从阅读记录和生词本重算每日学习汇总（上线补齐历史数据时使用）")
+    public ApiResponse<Map<String, Object>> backfillDailyStats(
+            @Parameter(description = "开始日期", required = true) @RequestParam @NotNull(message = "开始日期不能为空") String startDate,
+            @Parameter(description = "结束日期", required = true) @RequestParam @NotNull(message = "结束日期不能为空") String endDate) {
         try {
-            // 调用用户服务的打卡API获取真实的连续打卡天数
-            ApiResponse<Integer> response = userServiceClient.getCheckInStreak(userId);
-            
-            // 检查响应是否成功且包含有效的数据
-            if (response != null && response.getCode() == 200 && response.getData() != null) {
-                return response.getData();
+            Map<String, Object> result = dailyStatsBackfillService.backfill(LocalDate.parse(startDate), LocalDate.parse(endDate));
+            if (Boolean.TRUE.equals(result.get("skipped"))) {
+                return ApiResponse.error("回填任务正在执行，请稍后重试");
             }
+            return ApiResponse.success(result);
         } catch (Exception e) {
-            // 发生异常时记录日志，返回默认值
-            System.err.println("获取连续打卡天数失败: " + e.getMessage());
+            return ApiResponse.error("回填每日学习汇总失败：" + e.getMessage());
         }
-        
-        // 失败时返回默认值
-        return 7;
     }
 
-    /**
-     * 计算总学习天数
-     * @param userId 用户ID
-     * @return 总学习天数
-     */
-    private int calculateTotalDays(Long userId) {
-        try {
-            // 调用用户服务获取用户详情，获取注册日期
-            ApiResponse<Map<String, Object>> userDetailResponse = userServiceClient.getUserDetail(userId);
-            
-            // 检查响应是否成功且包含有效的数据
-            if (userDetailResponse != null && userDetailResponse.getCode() == 200 && userDetailResponse.getData() != null) {
-                Map<String, Object> userData = userDetailResponse.getData();
-                if (userData != null && userData.containsKey("data")) {
-                    Map<String, Object> userInfo = (Map<String, Object>) userData.get("data");
-                    if (userInfo != null && userInfo.containsKey("createdAt")) {
-                        // 解析用户注册日期
-                        String createdAtStr = userInfo.get("createdAt").toString();
-                        // 假设createdAt格式为ISO格式或可直接解析的日期字符串
-                        // 这里需要根据实际格式进行适当的解析
-                        LocalDateTime createdAt;
-                        try {
-                            createdAt = LocalDateTime.parse(createdAtStr);
-                        } catch (Exception e) {
-                            // 如果解析失败，尝试其他格式或记录日志
-                            System.err.println("解析用户注册日期失败: " + e.getMessage());
-                            // 尝试使用默认格式解析
-                            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-                            createdAt = LocalDateTime.parse(createdAtStr, formatter);
-                        }
-                        
-                        // 计算从注册日期到现在的天数
-                        LocalDateTime now = LocalDateTime.now();
-                        long days = ChronoUnit.DAYS.between(createdAt, now);
-                        // 确保返回的天数不小于1
-                        return Math.max(1, (int) days);
-                    }
-                }
-            }
-            
-            // 如果无法获取注册日期，返回默认估算值
-            return 90;
-        } catch (Exception e) {
-            // 发生异常时记录日志，返回默认值
-            System.err.println("获取总学习天数失败: " + e.getMessage());
-            return 30; // 失败时返回默认值
-        }
+    @GetMapping("/aggregation/stats")
+    @Operation(summary = "【聚合统计】仪表盘缓存与区块失败次数", description = "查看仪表盘缓存命中、部分结果及各数据区块失败次数")
+    public ApiResponse<Map<String, Object>> aggregationStats() {
+        return ApiResponse.success(reportAggregationService.getStats());
+    }
+
+    @GetMapping("/health")
+    @Operation(summary = "健康检查", description = "检查报表服务状态")
+    public ApiResponse<String> health() {
+        return ApiResponse.success("报表服务运行正常✅");
     }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.xreadup.ai.report.dto;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * 用户学习仪表盘数据DTO
@@ -13,6 +14,12 @@ public class DashboardData {
     private Integer totalDays;
     private Double reviewSuccessRate;
     private List<String> achievements;
+    // 各数据区块状态：fresh 本次获取，stale 获取超时或失败时沿用的上次结果，missing 无可用结果（使用默认值）
+    private Map<String, String> sectionStatus;
+    // 是否存在非 fresh 的区块
+    private Boolean partial;
+    // 数据生成时间（毫秒时间戳）
+    private Long generatedAt;
 
     public DashboardData() {}
 
@@ -84,6 +91,30 @@ public class DashboardData {
         this.achievements = achievements;
     }
 
+    public Map<String, String> getSectionStatus() {
+        return sectionStatus;
+    }
+
+    public void setSectionStatus(Map<String, String> sectionStatus) {
+        this.sectionStatus = sectionStatus;
+    }
+
+    public Boolean getPartial() {
+        return partial;
+    }
+
+    public void setPartial(Boolean partial) {
+        this.partial = partial;
+    }
+
+    public Long getGeneratedAt() {
+        return generatedAt;
+    }
+
+    public void setGeneratedAt(Long generatedAt) {
+        this.generatedAt = generatedAt;
+    }
+
     @Override
     public String toString() {
         return "DashboardData{" +
@@ -94,6 +125,9 @@ public class DashboardData {
                 ", totalDays=" + totalDays +
                 ", reviewSuccessRate=" + reviewSuccessRate +
                 ", achievements=" + achievements +
+                ", sectionStatus=" + sectionStatus +
+                ", partial=" + partial +
+                ", generatedAt=" + generatedAt +
                 '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,70 @@
+package com.xreadup.ai.report.dto;
+
+import java.util.List;
+
+/**
+ * 批量提交复习结果请求
+ * 一次复习会话中的全部回答，按回答顺序排列；同一单词可出现多次
+ */
+public class ReviewBatchRequest {
+    private Long userId;
+    private List<ReviewAnswer> reviews;
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public List<ReviewAnswer> getReviews() {
+        return reviews;
+    }
+
+    public void setReviews(List<ReviewAnswer> reviews) {
+        this.reviews = reviews;
+    }
+
+    /**
+     * 单次回答
+     * quality 为回答质量 0-5（3及以上为答对）；未提供时按 remembered 换算
+     */
+    public static class ReviewAnswer {
+        private Long wordId;
+        private Integer quality;
+        private Boolean remembered;
+
+        public ReviewAnswer() {}
+
+        public ReviewAnswer(Long wordId, Integer quality, Boolean remembered) {
+            this.wordId = wordId;
+            this.quality = quality;
+            this.remembered = remembered;
+        }
+
+        public Long getWordId() {
+            return wordId;
+        }
+
+        public void setWordId(Long wordId) {
+            this.wordId = wordId;
+        }
+
+        public Integer getQuality() {
+            return quality;
+        }
+
+        public void setQuality(Integer quality) {
+            this.quality = quality;
+        }
+
+        public Boolean getRemembered() {
+            return remembered;
+        }
+
+        public void setRemembered(Boolean remembered) {
+            this.remembered = remembered;
+        }
+    }
+}
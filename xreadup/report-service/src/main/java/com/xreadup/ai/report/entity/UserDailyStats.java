@@ -0,0 +1,28 @@
+package com.xreadup.ai.report.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 用户每日学习汇总实体
+ * 每个用户每天一行，阅读与词汇事件发生时增量累加
+ */
+@Data
+@TableName("user_daily_stats")
+public class UserDailyStats {
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    private Long userId;
+    private LocalDate statDate;
+    private Integer readSeconds; // 当日阅读时长（秒）
+    private Integer articlesRead; // 当日阅读文章数
+    private Integer wordsAdded; // 当日新增生词数
+    private Integer wordsReviewed; // 当日复习单词次数
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,23 @@
+package com.xreadup.ai.report.entity;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 单词复习记忆状态
+ * 对应 user_word 中某个用户某个单词的复习相关列
+ */
+@Data
+public class WordReviewState {
+    private Long userId;
+    private Long wordId;
+    private String reviewStatus; // new/learning/mastered，由记忆状态推导
+    private BigDecimal easeFactor; // 难度系数（SM-2 EF）
+    private Integer intervalDays; // 当前复习间隔（天）
+    private Integer repetitions; // 连续答对次数
+    private Integer lapses; // 遗忘次数
+    private LocalDateTime lastReviewedAt;
+    private LocalDateTime nextReviewAt;
+}
@@ -13,33 +13,12 @@ import java.util.List;
 @Mapper
 public interface ReadingRecordMapper extends BaseMapper<ReadingRecord> {
 
-    @Select("SELECT COALESCE(SUM(read_time_sec)/60, 0) FROM reading_log WHERE user_id = #{userId} AND DATE(finished_at) = #{date}")
-    Integer getTodayReadingMinutes(@Param("userId") Long userId, @Param("date") LocalDate date);
-
-    @Select("SELECT COALESCE(COUNT(*), 0) FROM reading_log WHERE user_id = #{userId} AND DATE(finished_at) = #{date}")
-    Integer getTodayArticlesRead(@Param("userId") Long userId, @Param("date") LocalDate date);
-
-    @Select("SELECT COALESCE(SUM(read_time_sec)/60, 0) FROM reading_log WHERE user_id = #{userId} AND DATE(finished_at) >= #{startDate}")
-    Integer getTotalReadingMinutesSince(@Param("userId") Long userId, @Param("startDate") LocalDate startDate);
-
-    @Select("SELECT COALESCE(AVG(read_time_sec)/60, 0) FROM reading_log WHERE user_id = #{userId} AND DATE(finished_at) >= DATE_SUB(CURDATE(), INTERVAL 7 DAY)")
-    Integer getWeeklyAverageMinutes(@Param("userId") Long userId);
-
-    @Select("SELECT COALESCE(SUM(read_time_sec)/60, 0) FROM reading_log WHERE user_id = #{userId}")
-    Integer getTotalReadingMinutes(@Param("userId") Long userId);
-
-    @Select("SELECT COALESCE(COUNT(*), 0) FROM reading_log WHERE user_id = #{userId}")
-    Integer getTotalArticlesRead(@Param("userId") Long userId);
-
-    @Select("SELECT DATE(finished_at) as date, COALESCE(SUM(read_time_sec)/60, 0) as minutes, COALESCE(COUNT(*), 0) as articles FROM reading_log WHERE user_id = #{userId} GROUP BY DATE(finished_at) ORDER BY DATE(finished_at) DESC LIMIT #{days}")
-    List<ReadingTimeData.DailyReading> getDailyReadings(@Param("userId") Long userId, @Param("days") int days);
+    // 按天的阅读时长、文章数由 user_daily_stats 汇总表提供，见 UserDailyStatsMapper
+    // 以下查询基于 reading_log 的 (user_id, finished_at) 索引；日期条件写成范围比较以便走索引
 
     @Select("SELECT a.difficulty_level as difficulty, COALESCE(COUNT(*), 0) as count, COALESCE(SUM(r.read_time_sec)/60, 0) as totalMinutes FROM reading_log r LEFT JOIN article a ON r.article_id = a.id WHERE r.user_id = #{userId} GROUP BY a.difficulty_level")
     List<ReadingTimeData.DifficultyStats> getDifficultyStats(@Param("userId") Long userId);
 
-    @Select("SELECT id, user_id, article_id, read_time_sec, finished_at FROM reading_log WHERE user_id = #{userId} AND DATE(finished_at) BETWEEN #{startDate} AND #{endDate} ORDER BY finished_at")
+    @Select("SELECT id, user_id, article_id, read_time_sec, finished_at FROM reading_log WHERE user_id = #{userId} AND finished_at >= #{startDate} AND finished_at < DATE_ADD(#{endDate}, INTERVAL 1 DAY) ORDER BY finished_at")
     List<ReadingRecord> getReadingRecordsByDateRange(@Param("userId") Long userId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
-
-    @Select("SELECT DATE(finished_at) as date, COALESCE(SUM(read_time_sec)/60, 0) as minutes, COALESCE(COUNT(*), 0) as articles FROM reading_log WHERE user_id = #{userId} AND DATE(finished_at) BETWEEN #{startDate} AND #{endDate} GROUP BY DATE(finished_at) ORDER BY DATE(finished_at) ASC")
-    List<ReadingTimeData.DailyReading> getDailyReadingsByDateRange(@Param("userId") Long userId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
-}
\ No newline at end of file
+}
@@ -0,0 +1,51 @@
+package com.xreadup.ai.report.mapper;
+
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 用户每日待复习单词数Mapper
+ * 由 user_word 的到期时间按天汇总生成，已逾期的计入当天；只保留今天起若干天
+ */
+@Mapper
+public interface ReviewDueDailyMapper {
+
+    // 增减时新建的行可能为负数（汇总数据已过期），读取时按0处理
+    @Select("SELECT due_date AS date, GREATEST(due_count, 0) AS count FROM user_review_due_daily " +
+            "WHERE user_id = #{userId} AND due_date BETWEEN #{startDate} AND #{endDate} ORDER BY due_date")
+    List<Map<String, Object>> getDueCounts(@Param("userId") Long userId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    // ========== 复习提交时按变化增减（复习提交的事务内执行） ==========
+
+    // 只锁定涉及的 (用户, 日期) 行；调用方按日期升序传入，并发提交按相同顺序加锁
+    @Insert("<script>" +
+            "INSERT INTO user_review_due_daily (user_id, due_date, due_count) VALUES " +
+            "<foreach collection='deltas' index='date' item='delta' separator=','>(#{userId}, #{date}, #{delta})</foreach> " +
+            "ON DUPLICATE KEY UPDATE due_count = GREATEST(due_count + VALUES(due_count), 0)" +
+            "</script>")
+    int addDueCounts(@Param("userId") Long userId, @Param("deltas") Map<LocalDate, Integer> deltas);
+
+    // ========== 单个用户刷新（全量重建时逐个用户执行） ==========
+
+    @Delete("DELETE FROM user_review_due_daily WHERE user_id = #{userId}")
+    int deleteByUser(@Param("userId") Long userId);
+
+    // 走 idx_user_next_review 范围扫描
+    @Insert("INSERT INTO user_review_due_daily (user_id, due_date, due_count) " +
+            "SELECT user_id, GREATEST(DATE(next_review_at), #{today}) AS due_day, COUNT(*) FROM user_word " +
+            "WHERE user_id = #{userId} AND next_review_at < #{endExclusive} GROUP BY user_id, due_day")
+    int insertForUser(@Param("userId") Long userId, @Param("today") LocalDate today, @Param("endExclusive") LocalDate endExclusive);
+
+    // ========== 全量重建（每日逐个用户刷新） ==========
+
+    // 有单词的用户，以及已不再有单词但仍有旧数据的用户
+    @Select("SELECT DISTINCT user_id FROM user_word UNION SELECT DISTINCT user_id FROM user_review_due_daily")
+    List<Long> selectUserIds();
+}
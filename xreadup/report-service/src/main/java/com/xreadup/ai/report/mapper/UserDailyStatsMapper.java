@@ -0,0 +1,87 @@
+package com.xreadup.ai.report.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.xreadup.ai.report.dto.ReadingTimeData;
+import com.xreadup.ai.report.entity.UserDailyStats;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 用户每日学习汇总Mapper
+ * 查询均按 uk_user_date (user_id, stat_date) 唯一索引做范围扫描，每个用户每天最多一行
+ */
+@Mapper
+public interface UserDailyStatsMapper extends BaseMapper<UserDailyStats> {
+
+    // ========== 增量更新 ==========
+
+    @Insert("INSERT INTO user_daily_stats (user_id, stat_date, read_seconds, articles_read) " +
+            "VALUES (#{userId}, #{date}, #{readSeconds}, 1) " +
+            "ON DUPLICATE KEY UPDATE read_seconds = read_seconds + #{readSeconds}, articles_read = articles_read + 1")
+    int addReading(@Param("userId") Long userId, @Param("date") LocalDate date, @Param("readSeconds") int readSeconds);
+
+    @Insert("INSERT INTO user_daily_stats (user_id, stat_date, words_reviewed) VALUES (#{userId}, #{date}, #{count}) " +
+            "ON DUPLICATE KEY UPDATE words_reviewed = words_reviewed + #{count}")
+    int addWordsReviewed(@Param("userId") Long userId, @Param("date") LocalDate date, @Param("count") int count);
+
+    // ========== 查询 ==========
+
+    @Select("SELECT user_id, stat_date, read_seconds, articles_read, words_added, words_reviewed FROM user_daily_stats " +
+            "WHERE user_id = #{userId} AND stat_date = #{date}")
+    UserDailyStats getByDate(@Param("userId") Long userId, @Param("date") LocalDate date);
+
+    @Select("SELECT #{userId} AS user_id, COALESCE(SUM(read_seconds), 0) AS read_seconds, COALESCE(SUM(articles_read), 0) AS articles_read, " +
+            "COALESCE(SUM(words_added), 0) AS words_added, COALESCE(SUM(words_reviewed), 0) AS words_reviewed " +
+            "FROM user_daily_stats WHERE user_id = #{userId}")
+    UserDailyStats getTotals(@Param("userId") Long userId);
+
+    // 每篇文章的平均阅读分钟数
+    @Select("SELECT COALESCE(FLOOR(SUM(read_seconds) / NULLIF(SUM(articles_read), 0) / 60), 0) FROM user_daily_stats " +
+            "WHERE user_id = #{userId} AND stat_date >= #{startDate}")
+    Integer getAverageMinutesPerArticleSince(@Param("userId") Long userId, @Param("startDate") LocalDate startDate);
+
+    @Select("SELECT stat_date AS date, FLOOR(read_seconds / 60) AS minutes, articles_read AS articles, words_added AS newWords " +
+            "FROM user_daily_stats WHERE user_id = #{userId} AND articles_read > 0 ORDER BY stat_date DESC LIMIT #{days}")
+    List<ReadingTimeData.DailyReading> getDailyReadings(@Param("userId") Long userId, @Param("days") int days);
+
+    @Select("SELECT stat_date AS date, FLOOR(read_seconds / 60) AS minutes, articles_read AS articles, words_added AS newWords " +
+            "FROM user_daily_stats WHERE user_id = #{userId} AND stat_date BETWEEN #{startDate} AND #{endDate} AND articles_read > 0 " +
+            "ORDER BY stat_date ASC")
+    List<ReadingTimeData.DailyReading> getDailyReadingsByDateRange(@Param("userId") Long userId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Select("SELECT stat_date AS date, words_added AS count FROM user_daily_stats " +
+            "WHERE user_id = #{userId} AND stat_date BETWEEN #{startDate} AND #{endDate} AND words_added > 0 ORDER BY stat_date")
+    List<Map<String, Object>> getDailyWordsAdded(@Param("userId") Long userId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Select("SELECT COALESCE(SUM(words_added), 0) FROM user_daily_stats WHERE user_id = #{userId} AND stat_date >= #{startDate}")
+    Integer sumWordsAddedSince(@Param("userId") Long userId, @Param("startDate") LocalDate startDate);
+
+    // ========== 回填（按天从明细表重算） ==========
+
+    // 阅读明细完整保留在 reading_log 中，以明细为准覆盖
+    @Insert("INSERT INTO user_daily_stats (user_id, stat_date, read_seconds, articles_read) " +
+            "SELECT user_id, #{date}, COALESCE(SUM(read_time_sec), 0), COUNT(*) FROM reading_log " +
+            "WHERE finished_at >= #{date} AND finished_at < DATE_ADD(#{date}, INTERVAL 1 DAY) GROUP BY user_id " +
+            "ON DUPLICATE KEY UPDATE read_seconds = VALUES(read_seconds), articles_read = VALUES(articles_read)")
+    int backfillReading(@Param("date") LocalDate date);
+
+    // user_word 不保留已删除的单词，回填值只作为下限，不覆盖增量累计的更大值
+    @Insert("INSERT INTO user_daily_stats (user_id, stat_date, words_added) " +
+            "SELECT user_id, #{date}, COUNT(*) FROM user_word " +
+            "WHERE added_at >= #{date} AND added_at < DATE_ADD(#{date}, INTERVAL 1 DAY) GROUP BY user_id " +
+            "ON DUPLICATE KEY UPDATE words_added = GREATEST(words_added, VALUES(words_added))")
+    int backfillWordsAdded(@Param("date") LocalDate date);
+
+    // user_word 只记录最近一次复习时间，同上只作为下限
+    @Insert("INSERT INTO user_daily_stats (user_id, stat_date, words_reviewed) " +
+            "SELECT user_id, #{date}, COUNT(*) FROM user_word " +
+            "WHERE last_reviewed_at >= #{date} AND last_reviewed_at < DATE_ADD(#{date}, INTERVAL 1 DAY) GROUP BY user_id " +
+            "ON DUPLICATE KEY UPDATE words_reviewed = GREATEST(words_reviewed, VALUES(words_reviewed))")
+    int backfillWordsReviewed(@Param("date") LocalDate date);
+}
@@ -3,52 +3,84 @@ package com.xreadup.ai.report.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.xreadup.ai.report.dto.ReviewWordDto;
 import com.xreadup.ai.report.entity.UserVocabulary;
+import com.xreadup.ai.report.entity.WordReviewState;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.annotations.Update;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
 @Mapper
 public interface UserVocabularyMapper extends BaseMapper<UserVocabulary> {
 
-    @Select("SELECT COALESCE(COUNT(*), 0) FROM word WHERE user_ids LIKE CONCAT('%', #{userId}, '%')")
+    // 以下查询均基于 user_word 的 (user_id, ...) 复合索引；日期条件写成范围比较以便走索引
+
+    @Select("SELECT COALESCE(COUNT(*), 0) FROM user_word WHERE user_id = #{userId}")
     Integer countTotalWords(@Param("userId") Long userId);
 
-    @Select("SELECT COALESCE(COUNT(*), 0) FROM word WHERE user_ids LIKE CONCAT('%', #{userId}, '%') AND DATE(added_at) >= #{date}")
+    @Select("SELECT COALESCE(COUNT(*), 0) FROM user_word WHERE user_id = #{userId} AND added_at >= #{date}")
     Integer countWordsAfterDate(@Param("userId") Long userId, @Param("date") LocalDate date);
 
-    @Select("SELECT DATE(added_at) as date, COALESCE(COUNT(*), 0) as count FROM word WHERE user_ids LIKE CONCAT('%', #{userId}, '%') AND DATE(added_at) >= #{startDate} GROUP BY DATE(added_at) ORDER BY DATE(added_at)")
+    @Select("SELECT DATE(added_at) as date, COALESCE(COUNT(*), 0) as count FROM user_word WHERE user_id = #{userId} AND added_at >= #{startDate} GROUP BY DATE(added_at) ORDER BY DATE(added_at)")
     List<Map<String, Object>> getDailyWordCounts(@Param("userId") Long userId, @Param("startDate") LocalDate startDate);
 
-    @Select("SELECT review_status as difficulty, COALESCE(COUNT(*), 0) as count FROM word WHERE user_ids LIKE CONCAT('%', #{userId}, '%') GROUP BY review_status")
+    @Select("SELECT review_status as difficulty, COALESCE(COUNT(*), 0) as count FROM user_word WHERE user_id = #{userId} GROUP BY review_status")
     List<Map<String, Object>> getDifficultyDistribution(@Param("userId") Long userId);
 
-    @Select("SELECT w.id as wordId, w.word, w.meaning, w.phonetic, w.example, w.review_status as difficulty, w.next_review_at as dueDate FROM word w WHERE w.user_ids LIKE CONCAT('%', #{userId}, '%') AND w.next_review_at < DATE_ADD(CURDATE(), INTERVAL 1 DAY) ORDER BY w.next_review_at")
-    List<ReviewWordDto> getWordsForReview(@Param("userId") Long userId);
+    // 到期队列：按 idx_user_next_review 顺序读取最早到期的若干个
+    @Select("SELECT w.id as wordId, w.word, w.meaning, w.phonetic, w.example, uw.review_status as difficulty, uw.next_review_at as dueDate FROM user_word uw JOIN word w ON w.id = uw.word_id WHERE uw.user_id = #{userId} AND uw.next_review_at < DATE_ADD(CURDATE(), INTERVAL 1 DAY) ORDER BY uw.next_review_at LIMIT #{limit}")
+    List<ReviewWordDto> getWordsForReview(@Param("userId") Long userId, @Param("limit") int limit);
 
-    @Select("SELECT COALESCE(COUNT(*), 0) FROM word WHERE user_ids LIKE CONCAT('%', #{userId}, '%') AND next_review_at < DATE_ADD(CURDATE(), INTERVAL 1 DAY)")
+    @Select("SELECT COALESCE(COUNT(*), 0) FROM user_word WHERE user_id = #{userId} AND next_review_at < DATE_ADD(CURDATE(), INTERVAL 1 DAY)")
     Integer countWordsForReview(@Param("userId") Long userId);
 
     // 新增方法：获取待复习单词的数量（仅包括未掌握的单词）
-    @Select("SELECT COALESCE(COUNT(*), 0) FROM word WHERE user_ids LIKE CONCAT('%', #{userId}, '%') AND next_review_at < DATE_ADD(CURDATE(), INTERVAL 1 DAY) AND review_status != 'mastered'")
+    @Select("SELECT COALESCE(COUNT(*), 0) FROM user_word WHERE user_id = #{userId} AND next_review_at < DATE_ADD(CURDATE(), INTERVAL 1 DAY) AND review_status != 'mastered'")
     Integer countPendingReviewWords(@Param("userId") Long userId);
 
-    @Select("SELECT COALESCE(COUNT(*), 0) FROM word WHERE user_ids LIKE CONCAT('%', #{userId}, '%') AND last_reviewed_at IS NOT NULL")
+    @Select("SELECT COALESCE(COUNT(*), 0) FROM user_word WHERE user_id = #{userId} AND last_reviewed_at IS NOT NULL")
     Integer countReviewedWords(@Param("userId") Long userId);
 
-    @Select("SELECT COALESCE(COUNT(*), 0) FROM word WHERE user_ids LIKE CONCAT('%', #{userId}, '%') AND last_reviewed_at IS NOT NULL")
+    @Select("SELECT COALESCE(COUNT(*), 0) FROM user_word WHERE user_id = #{userId} AND last_reviewed_at IS NOT NULL")
     Integer countSuccessfulReviews(@Param("userId") Long userId);
 
-    @Update("UPDATE word SET next_review_at = #{nextReviewDate}, last_reviewed_at = NOW() WHERE id = #{wordId}")
-    int updateReviewStatus(@Param("wordId") Long wordId, @Param("nextReviewDate") LocalDate nextReviewDate, @Param("result") boolean result);
+    @Select("SELECT review_status FROM user_word WHERE user_id = #{userId} AND word_id = #{wordId}")
+    String getReviewStatus(@Param("userId") Long userId, @Param("wordId") Long wordId);
+
+    @Update("UPDATE user_word SET next_review_at = #{nextReviewDate}, last_reviewed_at = NOW() WHERE user_id = #{userId} AND word_id = #{wordId}")
+    int updateReviewStatus(@Param("userId") Long userId, @Param("wordId") Long wordId, @Param("nextReviewDate") LocalDate nextReviewDate, @Param("result") boolean result);
+
+    @Update("UPDATE user_word SET next_review_at = #{nextReviewDate}, last_reviewed_at = NOW(), review_status = #{status} WHERE user_id = #{userId} AND word_id = #{wordId}")
+    int updateReviewStatusAndStatus(@Param("userId") Long userId, @Param("wordId") Long wordId, @Param("nextReviewDate") LocalDate nextReviewDate, @Param("status") String status);
+
+    // ========== 间隔重复记忆状态 ==========
+
+    // 批量复习时在同一事务内锁定本次涉及的行
+    @Select("<script>" +
+            "SELECT user_id, word_id, review_status, ease_factor, interval_days, repetitions, lapses, last_reviewed_at, next_review_at " +
+            "FROM user_word WHERE user_id = #{userId} AND word_id IN " +
+            "<foreach collection='wordIds' item='wordId' open='(' separator=',' close=')'>#{wordId}</foreach> " +
+            "FOR UPDATE" +
+            "</script>")
+    List<WordReviewState> selectReviewStatesForUpdate(@Param("userId") Long userId, @Param("wordIds") Collection<Long> wordIds);
 
-    @Update("UPDATE word SET next_review_at = #{nextReviewDate}, last_reviewed_at = NOW(), review_status = #{status} WHERE id = #{wordId}")
-    int updateReviewStatusAndStatus(@Param("wordId") Long wordId, @Param("nextReviewDate") LocalDate nextReviewDate, @Param("status") String status);
+    // 一条语句写回多行；行已在同一事务内锁定且确定存在，按 uk_user_word 命中后只更新复习列
+    @Insert("<script>" +
+            "INSERT INTO user_word (user_id, word_id, review_status, ease_factor, interval_days, repetitions, lapses, last_reviewed_at, next_review_at) VALUES " +
+            "<foreach collection='states' item='s' separator=','>" +
+            "(#{s.userId}, #{s.wordId}, #{s.reviewStatus}, #{s.easeFactor}, #{s.intervalDays}, #{s.repetitions}, #{s.lapses}, #{s.lastReviewedAt}, #{s.nextReviewAt})" +
+            "</foreach> " +
+            "ON DUPLICATE KEY UPDATE review_status = VALUES(review_status), ease_factor = VALUES(ease_factor), " +
+            "interval_days = VALUES(interval_days), repetitions = VALUES(repetitions), lapses = VALUES(lapses), " +
+            "last_reviewed_at = VALUES(last_reviewed_at), next_review_at = VALUES(next_review_at)" +
+            "</script>")
+    int batchUpdateReviewStates(@Param("states") Collection<WordReviewState> states);
 
-    @Select("SELECT COALESCE(COUNT(*), 0) FROM word WHERE user_ids LIKE CONCAT('%', #{userId}, '%') AND DATE(added_at) >= #{startDate} AND DATE(added_at) <= #{endDate}")
+    @Select("SELECT COALESCE(COUNT(*), 0) FROM user_word WHERE user_id = #{userId} AND added_at >= #{startDate} AND added_at < DATE_ADD(#{endDate}, INTERVAL 1 DAY)")
     Integer countWordsByDateRange(@Param("userId") Long userId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 }
\ No newline at end of file
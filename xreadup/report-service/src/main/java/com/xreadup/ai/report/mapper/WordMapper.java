@@ -13,18 +13,12 @@ import java.util.Map;
 @Mapper
 public interface WordMapper extends BaseMapper<UserLearningStats> {
 
-    @Select("SELECT DATE(added_at) as date, COUNT(*) as count FROM word WHERE user_ids LIKE CONCAT('%', #{userId}, '%') AND DATE(added_at) >= #{startDate} AND DATE(added_at) <= #{endDate} GROUP BY DATE(added_at) ORDER BY DATE(added_at)")
-    List<Map<String, Object>> getDailyWordCount(@Param("userId") Long userId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
-
-    @Select("SELECT COUNT(*) FROM word WHERE user_ids LIKE CONCAT('%', #{userId}, '%')")
+    @Select("SELECT COUNT(*) FROM user_word WHERE user_id = #{userId}")
     int countUserWords(@Param("userId") Long userId);
 
-    @Select("SELECT COUNT(*) FROM word WHERE user_ids LIKE CONCAT('%', #{userId}, '%') AND DATE(added_at) >= #{date}")
-    int countWordsAfterDate(@Param("userId") Long userId, @Param("date") LocalDate date);
-
-    @Select("SELECT review_status as difficulty, COUNT(*) as count FROM word WHERE user_ids LIKE CONCAT('%', #{userId}, '%') GROUP BY review_status")
+    @Select("SELECT review_status as difficulty, COUNT(*) as count FROM user_word WHERE user_id = #{userId} GROUP BY review_status")
     List<Map<String, Object>> getDifficultyDistribution(@Param("userId") Long userId);
 
-    @Select("SELECT DATE(added_at) as date, COUNT(*) as count FROM word WHERE user_ids LIKE CONCAT('%', #{userId}, '%') AND DATE(added_at) >= #{startDate} GROUP BY DATE(added_at) ORDER BY DATE(added_at)")
+    @Select("SELECT DATE(added_at) as date, COUNT(*) as count FROM user_word WHERE user_id = #{userId} AND added_at >= #{startDate} GROUP BY DATE(added_at) ORDER BY DATE(added_at)")
     List<Map<String, Object>> getDailyWordCounts(@Param("userId") Long userId, @Param("startDate") LocalDate startDate);
 }
\ No newline at end of file
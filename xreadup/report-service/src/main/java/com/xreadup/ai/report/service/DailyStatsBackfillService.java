@@ -0,0 +1,109 @@
+package com.xreadup.ai.report.service;
+
+import com.xreadup.ai.report.mapper.UserDailyStatsMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 每日学习汇总回填
+ * <p>
+ * user_daily_stats 由阅读、加词、复习事件增量维护；本任务按天从明细表重算，
+ * 用于上线时补齐历史数据，以及每日凌晨校正前几天可能漏记的增量。
+ * 逐天执行，每天一条语句一个短事务；多实例部署时通过 Redis 锁只由一个实例执行。
+ * </p>
+ */
+@Slf4j
+@Service
+public class DailyStatsBackfillService {
+
+    private static final String LOCK_KEY = "report:daily-stats:backfill-lock";
+
+    private final UserDailyStatsMapper userDailyStatsMapper;
+    private final StringRedisTemplate redisTemplate;
+    private final int reconcileDays;
+    private final Duration lockTtl;
+
+    public DailyStatsBackfillService(UserDailyStatsMapper userDailyStatsMapper,
+                                     StringRedisTemplate redisTemplate,
+                                     @Value("${report.daily-stats.reconcile-days:3}") int reconcileDays,
+                                     @Value("${report.daily-stats.lock-ttl-ms:600000}") long lockTtlMs) {
+        this.userDailyStatsMapper = userDailyStatsMapper;
+        this.redisTemplate = redisTemplate;
+        this.reconcileDays = reconcileDays;
+        this.lockTtl = Duration.ofMillis(lockTtlMs);
+    }
+
+    /**
+     * 每日校正：重算截至昨天的最近几天
+     * 不重算当天，避免与正在发生的增量更新交错
+     */
+    @Scheduled(cron = "${report.daily-stats.reconcile-cron:0 30 3 * * ?}")
+    public void reconcileRecentDays() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        Map<String, Object> result = backfill(yesterday.minusDays(reconcileDays - 1L), yesterday);
+        log.info("每日学习汇总校正完成: {}", result);
+    }
+
+    /**
+     * 按日期范围回填
+     *
+     * @return 回填结果；其他实例正在回填时 skipped 为 true
+     */
+    public Map<String, Object> backfill(LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null) {
+            throw new IllegalArgumentException("开始日期和结束日期不能为空");
+        }
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("开始日期不能晚于结束日期");
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("startDate", startDate.toString());
+        result.put("endDate", endDate.toString());
+
+        String token = UUID.randomUUID().toString();
+        try {
+            if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, token, lockTtl))) {
+                result.put("skipped", true);
+                return result;
+            }
+        } catch (Exception e) {
+            log.warn("获取学习汇总回填锁失败: {}", e.getMessage());
+            result.put("skipped", true);
+            return result;
+        }
+
+        int days = 0;
+        long rows = 0;
+        try {
+            for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+                rows += userDailyStatsMapper.backfillReading(date);
+                rows += userDailyStatsMapper.backfillWordsAdded(date);
+                rows += userDailyStatsMapper.backfillWordsReviewed(date);
+                days++;
+            }
+        } finally {
+            try {
+                if (token.equals(redisTemplate.opsForValue().get(LOCK_KEY))) {
+                    redisTemplate.delete(LOCK_KEY);
+                }
+            } catch (Exception e) {
+                log.debug("释放学习汇总回填锁失败: {}", e.getMessage());
+            }
+        }
+
+        result.put("skipped", false);
+        result.put("days", days);
+        result.put("affectedRows", rows);
+        return result;
+    }
+}
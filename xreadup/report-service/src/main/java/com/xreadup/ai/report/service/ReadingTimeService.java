@@ -2,9 +2,12 @@ package com.xreadup.ai.report.service;
 
 import com.xreadup.ai.report.dto.ReadingTimeData;
 import com.xreadup.ai.report.entity.ReadingRecord;
+import com.xreadup.ai.report.entity.UserDailyStats;
 import com.xreadup.ai.report.mapper.ReadingRecordMapper;
+import com.xreadup.ai.report.mapper.UserDailyStatsMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -15,6 +18,7 @@ import java.util.logging.Logger;
 /**
  * 阅读时长统计服务
  * 统计用户的阅读时长和学习数据
+ * 按天的统计读取 user_daily_stats 汇总表，记录阅读时同步累加；只有难度分布仍需关联明细
  */
 @Service
 public class ReadingTimeService {
@@ -24,6 +28,9 @@ public class ReadingTimeService {
     @Autowired
     private ReadingRecordMapper readingRecordMapper;
 
+    @Autowired
+    private UserDailyStatsMapper userDailyStatsMapper;
+
     /**
      * 获取用户阅读时长统计
      * @param userId 用户ID
@@ -38,37 +45,22 @@ public class ReadingTimeService {
         try {
             ReadingTimeData data = new ReadingTimeData();
             
-            // 获取今日阅读时长
-            Integer todayMinutes = readingRecordMapper.getTodayReadingMinutes(userId, LocalDate.now());
-            data.setTodayMinutes(todayMinutes != null ? todayMinutes : 0);
-            
-            // 获取今日阅读文章数
-            Integer todayArticles = readingRecordMapper.getTodayArticlesRead(userId, LocalDate.now());
-            data.setTodayArticles(todayArticles != null ? todayArticles : 0);
+            // 今日阅读时长与文章数
+            UserDailyStats today = userDailyStatsMapper.getByDate(userId, LocalDate.now());
+            data.setTodayMinutes(today != null ? today.getReadSeconds() / 60 : 0);
+            data.setTodayArticles(today != null ? today.getArticlesRead() : 0);
             
             // 获取本周平均阅读时长
-            Integer weeklyAverage = readingRecordMapper.getWeeklyAverageMinutes(userId);
+            Integer weeklyAverage = userDailyStatsMapper.getAverageMinutesPerArticleSince(userId, LocalDate.now().minusDays(7));
             data.setWeeklyAverageMinutes(weeklyAverage != null ? weeklyAverage : 0);
             
-            // 获取总阅读时长
-            Integer totalMinutes = readingRecordMapper.getTotalReadingMinutes(userId);
-            data.setTotalMinutes(totalMinutes != null ? totalMinutes : 0);
-            
-            // 获取总阅读文章数
-            Integer totalArticles = readingRecordMapper.getTotalArticlesRead(userId);
-            data.setTotalArticles(totalArticles != null ? totalArticles : 0);
-            
-            // 获取每日阅读数据
-            List<ReadingTimeData.DailyReading> dailyReadings = readingRecordMapper.getDailyReadings(userId, days);
-            
-            // 为每日阅读数据添加词汇信息
-            if (dailyReadings != null) {
-                for (ReadingTimeData.DailyReading reading : dailyReadings) {
-                    // 添加模拟词汇数据（实际项目中应该从词汇表获取）
-                    reading.setNewWords(Math.max(1, (int)(Math.random() * 5) + 1));
-                }
-            }
+            // 总阅读时长与文章数
+            UserDailyStats totals = userDailyStatsMapper.getTotals(userId);
+            data.setTotalMinutes(totals != null ? totals.getReadSeconds() / 60 : 0);
+            data.setTotalArticles(totals != null ? totals.getArticlesRead() : 0);
             
+            // 获取每日阅读数据（含当日新增生词数）
+            List<ReadingTimeData.DailyReading> dailyReadings = userDailyStatsMapper.getDailyReadings(userId, days);
             data.setDailyReadings(dailyReadings != null ? dailyReadings : new ArrayList<>());
             
             // 获取难度分布统计
@@ -101,15 +93,7 @@ public class ReadingTimeService {
             Map<String, Object> trend = new HashMap<>();
             
             // 获取指定天数内的每日阅读数据
-            List<ReadingTimeData.DailyReading> dailyReadings = readingRecordMapper.getDailyReadings(userId, days);
-            
-            // 为每日阅读数据添加词汇信息
-            if (dailyReadings != null) {
-                for (ReadingTimeData.DailyReading reading : dailyReadings) {
-                    // 添加模拟词汇数据（实际项目中应该从词汇表获取）
-                    reading.setNewWords(Math.max(1, (int)(Math.random() * 5) + 1));
-                }
-            }
+            List<ReadingTimeData.DailyReading> dailyReadings = userDailyStatsMapper.getDailyReadings(userId, days);
             
             // 计算总阅读时长和平均阅读时长
             int totalMinutes = dailyReadings.stream()
@@ -132,10 +116,12 @@ public class ReadingTimeService {
 
     /**
      * 记录用户阅读行为
+     * 明细与当日汇总在同一事务中写入
      * @param userId 用户ID
      * @param articleId 文章ID
      * @param readTimeSec 阅读时长（秒）
      */
+    @Transactional
     public void recordReading(Long userId, Long articleId, int readTimeSec) {
         if (userId == null || userId <= 0) {
             throw new IllegalArgumentException("用户ID必须为正数");
@@ -155,6 +141,7 @@ public class ReadingTimeService {
             record.setFinishedAt(LocalDateTime.now());
             
             readingRecordMapper.insert(record);
+            userDailyStatsMapper.addReading(userId, record.getFinishedAt().toLocalDate(), readTimeSec);
             logger.info("记录阅读行为成功 - 用户ID: " + userId + ", 文章ID: " + articleId + ", 时长: " + readTimeSec + "秒");
         } catch (Exception e) {
             logger.log(Level.SEVERE, "记录阅读行为失败 - 用户ID: " + userId + ", 文章ID: " + articleId, e);
@@ -181,7 +168,7 @@ public class ReadingTimeService {
         }
         
         try {
-            List<ReadingTimeData.DailyReading> dailyReadings = readingRecordMapper.getDailyReadingsByDateRange(userId, startDate, endDate);
+            List<ReadingTimeData.DailyReading> dailyReadings = userDailyStatsMapper.getDailyReadingsByDateRange(userId, startDate, endDate);
             logger.info("用户ID: " + userId + " 日期范围: " + startDate + " 到 " + endDate + ", 获取到 " + (dailyReadings != null ? dailyReadings.size() : 0) + " 条每日数据");
             return dailyReadings != null ? dailyReadings : new ArrayList<>();
         } catch (Exception e) {
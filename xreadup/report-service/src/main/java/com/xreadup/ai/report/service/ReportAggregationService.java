@@ -0,0 +1,346 @@
+package com.xreadup.ai.report.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xreadup.ai.report.common.ApiResponse;
+import com.xreadup.ai.report.dto.DashboardData;
+import com.xreadup.ai.report.dto.ReadingTimeData;
+import com.xreadup.ai.report.dto.VocabularyGrowthData;
+import com.xreadup.ai.report.feign.UserServiceClient;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 报表聚合服务
+ * <p>
+ * 仪表盘、周报的各数据来源相互独立，在有界线程池中并发获取，每个来源单独设置超时。
+ * 某个来源超时或失败时不拖住整个响应：仪表盘沿用缓存中该区块的上次结果并标记为 stale，
+ * 没有可用结果时标记为 missing 并使用默认值。线程池已满时同样按失败处理，不在请求线程上同步获取。
+ * 超时只让响应不再等待，底层调用另有与区块超时一致的限制：本地查询通过只读事务超时设置 JDBC 查询超时，
+ * 用户服务调用由 Feign 读超时（spring.cloud.openfeign.client.config.user-service）限制，超时后工作线程随即释放。
+ * 完整的仪表盘按用户缓存在 Redis 中，短时间内重复打开直接返回；部分结果只做更短时间的缓存。
+ * </p>
+ */
+@Slf4j
+@Service
+public class ReportAggregationService {
+
+    public static final String STATUS_FRESH = "fresh";
+    public static final String STATUS_STALE = "stale";
+    public static final String STATUS_MISSING = "missing";
+
+    private static final String DASHBOARD_KEY_PREFIX = "report:dashboard:";
+    private static final DateTimeFormatter CREATED_AT_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    // 用户服务不可用且无缓存时沿用的默认值
+    private static final int DEFAULT_STREAK = 7;
+    private static final int DEFAULT_TOTAL_DAYS = 90;
+
+    private final VocabularyGrowthService vocabularyGrowthService;
+    private final ReadingTimeService readingTimeService;
+    private final UserServiceClient userServiceClient;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Executor executor;
+    private final TransactionTemplate dbReadTemplate;
+
+    private final long dbTimeoutMs;
+    private final long remoteTimeoutMs;
+    private final long freshTtlMs;
+    private final long partialTtlMs;
+    private final Duration retainTtl;
+
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong assembled = new AtomicLong();
+    private final AtomicLong partials = new AtomicLong();
+    private final Map<String, AtomicLong> sectionFailures = new HashMap<>();
+
+    public ReportAggregationService(VocabularyGrowthService vocabularyGrowthService,
+                                    ReadingTimeService readingTimeService,
+                                    UserServiceClient userServiceClient,
+                                    StringRedisTemplate redisTemplate,
+                                    ObjectMapper objectMapper,
+                                    @Qualifier("reportAggregationExecutor") Executor executor,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${report.aggregation.db-timeout-ms:1500}") long dbTimeoutMs,
+                                    @Value("${report.aggregation.remote-timeout-ms:800}") long remoteTimeoutMs,
+                                    @Value("${report.dashboard.cache-ttl-seconds:60}") long freshTtlSeconds,
+                                    @Value("${report.dashboard.partial-cache-ttl-seconds:10}") long partialTtlSeconds,
+                                    @Value("${report.dashboard.retain-hours:24}") long retainHours) {
+        this.vocabularyGrowthService = vocabularyGrowthService;
+        this.readingTimeService = readingTimeService;
+        this.userServiceClient = userServiceClient;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.executor = executor;
+        // 事务超时按秒计，向上取整后作为区块内各条 SQL 的查询超时
+        this.dbReadTemplate = new TransactionTemplate(transactionManager);
+        this.dbReadTemplate.setReadOnly(true);
+        this.dbReadTemplate.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(dbTimeoutMs + 999)));
+        this.dbTimeoutMs = dbTimeoutMs;
+        this.remoteTimeoutMs = remoteTimeoutMs;
+        this.freshTtlMs = TimeUnit.SECONDS.toMillis(freshTtlSeconds);
+        this.partialTtlMs = TimeUnit.SECONDS.toMillis(partialTtlSeconds);
+        this.retainTtl = Duration.ofHours(retainHours);
+        for (String section : List.of("vocabulary", "reading", "streak", "totalDays",
+                "currentWeek", "previousWeek", "vocabularyStats", "readingStats")) {
+            sectionFailures.put(section, new AtomicLong());
+        }
+    }
+
+    /**
+     * 获取学习仪表盘
+     */
+    public DashboardData getDashboard(Long userId) {
+        DashboardData cached = readDashboard(userId);
+        if (cached != null && isFresh(cached)) {
+            cacheHits.incrementAndGet();
+            return cached;
+        }
+
+        CompletableFuture<VocabularyGrowthData> vocabulary = fetchDb(() -> vocabularyGrowthService.getGrowthCurve(userId, 30));
+        CompletableFuture<ReadingTimeData> reading = fetchDb(() -> readingTimeService.getReadingStats(userId, 30));
+        CompletableFuture<Integer> streak = fetch(() -> fetchCurrentStreak(userId), remoteTimeoutMs);
+        CompletableFuture<Integer> totalDays = fetch(() -> fetchTotalDays(userId), remoteTimeoutMs);
+
+        Map<String, String> status = new LinkedHashMap<>();
+        DashboardData dashboard = new DashboardData();
+        dashboard.setVocabularyData(resolve("vocabulary", vocabulary, cached, DashboardData::getVocabularyData, null, status));
+        dashboard.setReadingData(resolve("reading", reading, cached, DashboardData::getReadingData, null, status));
+        dashboard.setCurrentStreak(resolve("streak", streak, cached, DashboardData::getCurrentStreak, DEFAULT_STREAK, status));
+        dashboard.setTotalDays(resolve("totalDays", totalDays, cached, DashboardData::getTotalDays, DEFAULT_TOTAL_DAYS, status));
+
+        boolean partial = status.values().stream().anyMatch(s -> !STATUS_FRESH.equals(s));
+        dashboard.setSectionStatus(status);
+        dashboard.setPartial(partial);
+        dashboard.setGeneratedAt(System.currentTimeMillis());
+
+        assembled.incrementAndGet();
+        if (partial) {
+            partials.incrementAndGet();
+            log.warn("仪表盘部分数据获取失败，用户ID: {}, 区块状态: {}", userId, status);
+        }
+        writeDashboard(userId, dashboard);
+        return dashboard;
+    }
+
+    /**
+     * 获取一周学习洞察
+     * 各来源失败时使用空数据，并在 sectionStatus 中标记为 missing
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> getWeeklyInsights(Long userId) {
+        CompletableFuture<Map<String, Object>> currentWeek = fetchDb(() -> readingTimeService.getReadingTrend(userId, 7));
+        CompletableFuture<Map<String, Object>> previousWeek = fetchDb(() -> readingTimeService.getReadingTrend(userId, 14));
+        CompletableFuture<Map<String, Object>> vocabulary = fetchDb(() -> vocabularyGrowthService.getVocabularyStats(userId));
+        CompletableFuture<ReadingTimeData> reading = fetchDb(() -> readingTimeService.getReadingStats(userId, 7));
+
+        Map<String, String> status = new LinkedHashMap<>();
+        Map<String, Object> currentWeekTrend = resolve("currentWeek", currentWeek, null, null, emptyTrend(), status);
+        Map<String, Object> previousWeekTrend = resolve("previousWeek", previousWeek, null, null, emptyTrend(), status);
+        Map<String, Object> vocabularyStats = resolve("vocabularyStats", vocabulary, null, null, new HashMap<>(), status);
+        ReadingTimeData readingData = resolve("readingStats", reading, null, null, null, status);
+
+        Map<String, Object> weeklyData = new HashMap<>(currentWeekTrend);
+
+        List<ReadingTimeData.DailyReading> previousWeekReadings = previousWeekTrend.get("dailyReadings") != null ?
+            (List<ReadingTimeData.DailyReading>) previousWeekTrend.get("dailyReadings") : new ArrayList<>();
+
+        // 计算上周数据（第8-14天）
+        int previousWeekMinutes = 0;
+        int previousWeekArticles = 0;
+        if (previousWeekReadings.size() > 7) {
+            for (int i = 7; i < previousWeekReadings.size(); i++) {
+                ReadingTimeData.DailyReading dailyReading = previousWeekReadings.get(i);
+                previousWeekMinutes += dailyReading.getMinutes() != null ? dailyReading.getMinutes() : 0;
+                previousWeekArticles += dailyReading.getArticles() != null ? dailyReading.getArticles() : 0;
+            }
+        }
+
+        // 计算本周数据
+        List<ReadingTimeData.DailyReading> currentWeekReadings = currentWeekTrend.get("dailyReadings") != null ?
+            (List<ReadingTimeData.DailyReading>) currentWeekTrend.get("dailyReadings") : new ArrayList<>();
+        int currentWeekMinutes = 0;
+        int currentWeekArticles = 0;
+        for (ReadingTimeData.DailyReading dailyReading : currentWeekReadings) {
+            currentWeekMinutes += dailyReading.getMinutes() != null ? dailyReading.getMinutes() : 0;
+            currentWeekArticles += dailyReading.getArticles() != null ? dailyReading.getArticles() : 0;
+        }
+
+        int currentWeekWords = vocabularyStats.get("weeklyNewWords") instanceof Number
+            ? ((Number) vocabularyStats.get("weeklyNewWords")).intValue() : 0;
+
+        // 简化处理：假设上周词汇数据为本周的一半（实际项目中应该查询真实数据）
+        int previousWeekWords = Math.max(0, currentWeekWords / 2);
+
+        // 添加变化量数据
+        weeklyData.put("minutesChange", currentWeekMinutes - previousWeekMinutes);
+        weeklyData.put("articlesChange", currentWeekArticles - previousWeekArticles);
+        weeklyData.put("wordsChange", currentWeekWords - previousWeekWords);
+
+        // 添加词汇增长数据
+        weeklyData.put("weeklyNewWords", currentWeekWords);
+        weeklyData.put("totalWords", vocabularyStats.getOrDefault("totalWords", 0));
+        weeklyData.put("totalArticles", readingData != null && readingData.getTotalArticles() != null ? readingData.getTotalArticles() : 0);
+
+        weeklyData.put("sectionStatus", status);
+        weeklyData.put("partial", status.values().stream().anyMatch(s -> !STATUS_FRESH.equals(s)));
+        return weeklyData;
+    }
+
+    /**
+     * 聚合统计
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("dashboardCacheHits", cacheHits.get());
+        stats.put("dashboardsAssembled", assembled.get());
+        stats.put("partialDashboards", partials.get());
+        Map<String, Long> failures = new LinkedHashMap<>();
+        sectionFailures.forEach((section, count) -> failures.put(section, count.get()));
+        stats.put("sectionFailures", failures);
+        return stats;
+    }
+
+    /**
+     * 本地查询区块：在带超时的只读事务中执行，超时的 SQL 由驱动取消
+     */
+    private <T> CompletableFuture<T> fetchDb(Supplier<T> source) {
+        return fetch(() -> dbReadTemplate.execute(status -> source.get()), dbTimeoutMs);
+    }
+
+    /**
+     * 提交到聚合线程池，线程池已满时返回失败的 future，由 resolve 按区块失败处理
+     */
+    private <T> CompletableFuture<T> fetch(Supplier<T> source, long timeoutMs) {
+        try {
+            return CompletableFuture.supplyAsync(source, executor).orTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * 取区块结果：成功为 fresh；失败时依次尝试缓存中的上次结果（stale）和默认值（missing）
+     */
+    private <T> T resolve(String section, CompletableFuture<T> future, DashboardData cached,
+                          Function<DashboardData, T> fromCache, T defaultValue, Map<String, String> status) {
+        try {
+            T value = future.join();
+            status.put(section, STATUS_FRESH);
+            return value;
+        } catch (Exception e) {
+            sectionFailures.get(section).incrementAndGet();
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            log.warn("报表区块获取失败: {}, 原因: {}", section, cause.toString());
+            // 上次结果本身是默认值时不再作为兜底
+            boolean cachedUsable = cached != null && fromCache != null && (cached.getSectionStatus() == null
+                    || !STATUS_MISSING.equals(cached.getSectionStatus().get(section)));
+            T stale = cachedUsable ? fromCache.apply(cached) : null;
+            if (stale != null) {
+                status.put(section, STATUS_STALE);
+                return stale;
+            }
+            status.put(section, STATUS_MISSING);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * 获取连续打卡天数，响应无效时抛出异常
+     */
+    private Integer fetchCurrentStreak(Long userId) {
+        ApiResponse<Integer> response = userServiceClient.getCheckInStreak(userId);
+        if (response == null || response.getCode() == null || response.getCode() != 200 || response.getData() == null) {
+            throw new IllegalStateException("获取连续打卡天数失败: " + (response != null ? response.getMessage() : "无响应"));
+        }
+        return response.getData();
+    }
+
+    /**
+     * 根据注册日期计算总学习天数，响应无效时抛出异常
+     */
+    @SuppressWarnings("unchecked")
+    private Integer fetchTotalDays(Long userId) {
+        ApiResponse<Map<String, Object>> response = userServiceClient.getUserDetail(userId);
+        if (response == null || response.getCode() == null || response.getCode() != 200 || response.getData() == null) {
+            throw new IllegalStateException("获取用户详情失败: " + (response != null ? response.getMessage() : "无响应"));
+        }
+        Map<String, Object> userInfo = response.getData();
+        // 兼容用户详情嵌套在 data 字段中的响应
+        if (userInfo.get("data") instanceof Map) {
+            userInfo = (Map<String, Object>) userInfo.get("data");
+        }
+        Object createdAt = userInfo.get("createdAt");
+        if (createdAt == null) {
+            throw new IllegalStateException("用户详情缺少注册日期");
+        }
+        String createdAtStr = createdAt.toString();
+        LocalDateTime registeredAt;
+        try {
+            registeredAt = LocalDateTime.parse(createdAtStr);
+        } catch (Exception e) {
+            registeredAt = LocalDateTime.parse(createdAtStr, CREATED_AT_FORMATTER);
+        }
+        // 确保返回的天数不小于1
+        return Math.max(1, (int) ChronoUnit.DAYS.between(registeredAt, LocalDateTime.now()));
+    }
+
+    private static Map<String, Object> emptyTrend() {
+        Map<String, Object> trend = new HashMap<>();
+        trend.put("dailyReadings", new ArrayList<>());
+        trend.put("totalMinutes", 0);
+        trend.put("averagePerDay", 0.0);
+        return trend;
+    }
+
+    private boolean isFresh(DashboardData dashboard) {
+        if (dashboard.getGeneratedAt() == null) {
+            return false;
+        }
+        long ttl = Boolean.TRUE.equals(dashboard.getPartial()) ? partialTtlMs : freshTtlMs;
+        return System.currentTimeMillis() - dashboard.getGeneratedAt() < ttl;
+    }
+
+    private DashboardData readDashboard(Long userId) {
+        try {
+            String json = redisTemplate.opsForValue().get(DASHBOARD_KEY_PREFIX + userId);
+            return json == null ? null : objectMapper.readValue(json, DashboardData.class);
+        } catch (Exception e) {
+            log.warn("读取仪表盘缓存失败，用户ID: {}, 原因: {}", userId, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 缓存保留时间远长于新鲜期，过了新鲜期的缓存只用作失败区块的兜底
+     */
+    private void writeDashboard(Long userId, DashboardData dashboard) {
+        try {
+            redisTemplate.opsForValue().set(DASHBOARD_KEY_PREFIX + userId, objectMapper.writeValueAsString(dashboard), retainTtl);
+        } catch (Exception e) {
+            log.warn("写入仪表盘缓存失败，用户ID: {}, 原因: {}", userId, e.getMessage());
+        }
+    }
+}
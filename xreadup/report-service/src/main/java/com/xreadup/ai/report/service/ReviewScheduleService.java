@@ -0,0 +1,238 @@
+package com.xreadup.ai.report.service;
+
+import com.xreadup.ai.report.dto.ReviewBatchRequest;
+import com.xreadup.ai.report.entity.WordReviewState;
+import com.xreadup.ai.report.mapper.ReviewDueDailyMapper;
+import com.xreadup.ai.report.mapper.UserDailyStatsMapper;
+import com.xreadup.ai.report.mapper.UserVocabularyMapper;
+import com.xreadup.ai.report.service.srs.Sm2Scheduler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 单词复习调度
+ * <p>
+ * 复习结果按 SM-2 更新 user_word 中每个用户每个单词的记忆状态，下次复习时间即到期队列
+ * （idx_user_next_review）。一次复习会话的全部回答在一个事务内提交：一条语句锁定并读取涉及的行，
+ * 在内存中依次应用回答，再用一条语句写回，同时累加当日复习数，并按各单词到期日期的变化增减每日到期数量
+ * （只锁定涉及日期的汇总行，不再扫描该用户的全部单词，同一用户的并发提交不会互相死锁）。
+ * </p>
+ * 每日到期数量（user_review_due_daily）另由每日任务逐个用户重建，使已逾期的单词计入当天，并修正其他入口改动到期时间造成的偏差。
+ */
+@Slf4j
+@Service
+public class ReviewScheduleService {
+
+    private final UserVocabularyMapper userVocabularyMapper;
+    private final UserDailyStatsMapper userDailyStatsMapper;
+    private final ReviewDueDailyMapper reviewDueDailyMapper;
+    private final Sm2Scheduler scheduler;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchMaxSize;
+    private final int forecastDays;
+
+    public ReviewScheduleService(UserVocabularyMapper userVocabularyMapper,
+                                 UserDailyStatsMapper userDailyStatsMapper,
+                                 ReviewDueDailyMapper reviewDueDailyMapper,
+                                 Sm2Scheduler scheduler,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${report.srs.batch-max-size:200}") int batchMaxSize,
+                                 @Value("${report.srs.forecast-days:30}") int forecastDays) {
+        this.userVocabularyMapper = userVocabularyMapper;
+        this.userDailyStatsMapper = userDailyStatsMapper;
+        this.reviewDueDailyMapper = reviewDueDailyMapper;
+        this.scheduler = scheduler;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchMaxSize = batchMaxSize;
+        this.forecastDays = forecastDays;
+    }
+
+    /**
+     * 批量提交复习结果
+     *
+     * @param userId  用户ID
+     * @param answers 按回答顺序排列的复习结果
+     * @return 提交结果：applied 已应用的回答数，skipped 不在用户词库中的回答数，words 更新的单词数
+     */
+    public Map<String, Object> submitReviews(Long userId, List<ReviewBatchRequest.ReviewAnswer> answers) {
+        if (userId == null || userId <= 0) {
+            throw new IllegalArgumentException("用户ID必须为正数");
+        }
+        if (answers == null || answers.isEmpty()) {
+            throw new IllegalArgumentException("复习结果不能为空");
+        }
+        if (answers.size() > batchMaxSize) {
+            throw new IllegalArgumentException("单次最多提交" + batchMaxSize + "条复习结果");
+        }
+        Set<Long> wordIds = new LinkedHashSet<>();
+        for (ReviewBatchRequest.ReviewAnswer answer : answers) {
+            if (answer == null || answer.getWordId() == null || answer.getWordId() <= 0) {
+                throw new IllegalArgumentException("单词ID必须为正数");
+            }
+            qualityOf(answer);
+            wordIds.add(answer.getWordId());
+        }
+
+        Map<String, Object> result = transactionTemplate.execute(status -> {
+            Map<Long, WordReviewState> states = userVocabularyMapper.selectReviewStatesForUpdate(userId, wordIds).stream()
+                    .collect(Collectors.toMap(WordReviewState::getWordId, Function.identity()));
+
+            LocalDateTime now = LocalDateTime.now();
+            LocalDate today = now.toLocalDate();
+            // 应用回答前各单词的到期日期
+            Map<Long, LocalDate> dueBefore = new LinkedHashMap<>();
+            states.values().forEach(state -> dueBefore.put(state.getWordId(), dueDay(state.getNextReviewAt(), today)));
+            int applied = 0;
+            int skipped = 0;
+            for (ReviewBatchRequest.ReviewAnswer answer : answers) {
+                WordReviewState state = states.get(answer.getWordId());
+                if (state == null) {
+                    skipped++;
+                    continue;
+                }
+                scheduler.apply(state, qualityOf(answer), now);
+                applied++;
+            }
+
+            if (!states.isEmpty()) {
+                userVocabularyMapper.batchUpdateReviewStates(states.values());
+                userDailyStatsMapper.addWordsReviewed(userId, today, applied);
+                adjustDueCounts(userId, states.values(), dueBefore, today);
+            }
+
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("applied", applied);
+            summary.put("skipped", skipped);
+            summary.put("words", states.size());
+            return summary;
+        });
+        log.debug("批量复习提交完成: userId={}, result={}", userId, result);
+        return result;
+    }
+
+    /**
+     * 获取用户今天起若干天每天的到期单词数（读取预先汇总的结果）
+     *
+     * @return 日期到到期数的映射，按日期升序，无到期单词的日期为0
+     */
+    public Map<String, Integer> getDueForecast(Long userId, int days) {
+        if (userId == null || userId <= 0) {
+            throw new IllegalArgumentException("用户ID必须为正数");
+        }
+        if (days <= 0 || days > forecastDays) {
+            throw new IllegalArgumentException("天数必须在1-" + forecastDays + "之间");
+        }
+        LocalDate today = LocalDate.now();
+        LocalDate endDate = today.plusDays(days - 1L);
+        Map<String, Integer> forecast = new LinkedHashMap<>();
+        for (LocalDate date = today; !date.isAfter(endDate); date = date.plusDays(1)) {
+            forecast.put(date.toString(), 0);
+        }
+        for (Map<String, Object> row : reviewDueDailyMapper.getDueCounts(userId, today, endDate)) {
+            Object date = row.get("date");
+            Object count = row.get("count");
+            if (date != null && count instanceof Number) {
+                forecast.put(date.toString(), ((Number) count).intValue());
+            }
+        }
+        return forecast;
+    }
+
+    /**
+     * 每日重建全部用户的到期数量
+     * 逐个用户一个短事务，避免长时间锁定 user_word
+     */
+    @Scheduled(cron = "${report.srs.forecast-rebuild-cron:0 10 0 * * ?}")
+    public void scheduledRebuild() {
+        Map<String, Object> result = rebuildDueCounts();
+        log.info("每日待复习数量重建完成: {}", result);
+    }
+
+    public Map<String, Object> rebuildDueCounts() {
+        LocalDate today = LocalDate.now();
+        List<Long> userIds = reviewDueDailyMapper.selectUserIds();
+        int failed = 0;
+        for (Long userId : userIds) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> refreshDueCounts(userId, today));
+            } catch (Exception e) {
+                failed++;
+                log.warn("重建待复习数量失败: userId={}, error={}", userId, e.getMessage());
+            }
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("users", userIds.size());
+        result.put("failed", failed);
+        return result;
+    }
+
+    /**
+     * 按到期日期的变化增减每日到期数量，日期升序提交以保证并发提交加锁顺序一致
+     */
+    private void adjustDueCounts(Long userId, Iterable<WordReviewState> states, Map<Long, LocalDate> dueBefore, LocalDate today) {
+        Map<LocalDate, Integer> deltas = new TreeMap<>();
+        for (WordReviewState state : states) {
+            LocalDate before = dueBefore.get(state.getWordId());
+            LocalDate after = dueDay(state.getNextReviewAt(), today);
+            if (Objects.equals(before, after)) {
+                continue;
+            }
+            if (before != null) {
+                deltas.merge(before, -1, Integer::sum);
+            }
+            if (after != null) {
+                deltas.merge(after, 1, Integer::sum);
+            }
+        }
+        deltas.values().removeIf(delta -> delta == 0);
+        if (!deltas.isEmpty()) {
+            reviewDueDailyMapper.addDueCounts(userId, deltas);
+        }
+    }
+
+    /**
+     * 到期时间计入的日期：已逾期的计入当天，超出预测范围或未安排复习的返回null
+     */
+    private LocalDate dueDay(LocalDateTime nextReviewAt, LocalDate today) {
+        if (nextReviewAt == null || !nextReviewAt.toLocalDate().isBefore(today.plusDays(forecastDays))) {
+            return null;
+        }
+        LocalDate date = nextReviewAt.toLocalDate();
+        return date.isBefore(today) ? today : date;
+    }
+
+    private void refreshDueCounts(Long userId, LocalDate today) {
+        reviewDueDailyMapper.deleteByUser(userId);
+        reviewDueDailyMapper.insertForUser(userId, today, today.plusDays(forecastDays));
+    }
+
+    private static int qualityOf(ReviewBatchRequest.ReviewAnswer answer) {
+        if (answer.getQuality() != null) {
+            int quality = answer.getQuality();
+            if (quality < Sm2Scheduler.QUALITY_MIN || quality > Sm2Scheduler.QUALITY_MAX) {
+                throw new IllegalArgumentException("回答质量必须在0-5之间");
+            }
+            return quality;
+        }
+        if (answer.getRemembered() == null) {
+            throw new IllegalArgumentException("回答质量和是否记住不能同时为空");
+        }
+        return answer.getRemembered() ? Sm2Scheduler.QUALITY_REMEMBERED : Sm2Scheduler.QUALITY_FORGOTTEN;
+    }
+}
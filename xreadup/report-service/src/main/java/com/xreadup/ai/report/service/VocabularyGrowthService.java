@@ -1,12 +1,14 @@
 package com.xreadup.ai.report.service;
 
+import com.xreadup.ai.report.dto.ReviewBatchRequest;
 import com.xreadup.ai.report.dto.ReviewWordDto;
 import com.xreadup.ai.report.dto.VocabularyGrowthData;
-import com.xreadup.ai.report.entity.UserVocabulary;
+import com.xreadup.ai.report.mapper.UserDailyStatsMapper;
 import com.xreadup.ai.report.mapper.UserVocabularyMapper;
 import com.xreadup.ai.report.mapper.WordMapper;
 import com.xreadup.ai.report.mapper.UserLearningStatsMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
@@ -20,6 +22,7 @@ import java.util.logging.Logger;
 /**
  * 词汇增长曲线服务
  * 统计用户的词汇学习增长趋势
+ * 按天新增词汇读取 user_daily_stats 汇总表；复习结果交由 ReviewScheduleService 按 SM-2 调度
  */
 @Service
 public class VocabularyGrowthService {
@@ -36,6 +39,16 @@ public class VocabularyGrowthService {
     @Autowired
     private UserVocabularyMapper userVocabularyMapper;
 
+    @Autowired
+    private UserDailyStatsMapper userDailyStatsMapper;
+
+    @Autowired
+    private ReviewScheduleService reviewScheduleService;
+
+    // 今日复习列表单次最多返回的单词数（按到期时间从早到晚）
+    @Value("${report.srs.review-queue-limit:200}")
+    private int reviewQueueLimit;
+
 
     /**
      * 获取用户词汇增长曲线
@@ -58,7 +71,7 @@ public class VocabularyGrowthService {
         LocalDate startDate = endDate.minusDays(days - 1);
         
         // 获取过去N天的词汇增长数据
-        List<Map<String, Object>> dailyData = wordMapper.getDailyWordCount(userId, startDate, endDate);
+        List<Map<String, Object>> dailyData = userDailyStatsMapper.getDailyWordsAdded(userId, startDate, endDate);
         
         // 构建日期和计数列表
         for (int i = days - 1; i >= 0; i--) {
@@ -90,10 +103,10 @@ public class VocabularyGrowthService {
         
         // 获取总词汇量和本周新词汇
         Integer totalWords = wordMapper.countUserWords(userId);
-        Integer weeklyNewWords = wordMapper.countWordsAfterDate(userId, LocalDate.now().minusDays(7));
+        Integer weeklyNewWords = userDailyStatsMapper.sumWordsAddedSince(userId, LocalDate.now().minusDays(7));
         
         // 计算日均新增
-        Double dailyAverage = days > 0 ? weeklyNewWords.doubleValue() / 7 : 0.0;
+        Double dailyAverage = days > 0 && weeklyNewWords != null ? weeklyNewWords.doubleValue() / 7 : 0.0;
         
         return new VocabularyGrowthData(dates, counts, 
             totalWords != null ? totalWords : 0, 
@@ -112,7 +125,7 @@ public class VocabularyGrowthService {
         }
         
         try {
-            return userVocabularyMapper.getWordsForReview(userId);
+            return userVocabularyMapper.getWordsForReview(userId, reviewQueueLimit);
         } catch (Exception e) {
             logger.log(Level.SEVERE, "获取待复习单词失败，用户ID: " + userId, e);
             return new ArrayList<>();
@@ -231,6 +244,7 @@ public class VocabularyGrowthService {
     
     /**
      * 记录单词复习结果
+     * 按单条复习提交给复习调度，批量提交请使用 {@link ReviewScheduleService#submitReviews}
      * @param userId 用户ID
      * @param wordId 单词ID
      * @param isRemembered 是否记住
@@ -242,105 +256,26 @@ public class VocabularyGrowthService {
                 throw new IllegalArgumentException("用户ID和单词ID必须为正数");
             }
             
-            // 获取当前单词状态
-            String currentStatus = getUserWordStatus(wordId);
-            
-            // 根据当前状态和复习结果确定新的状态
-            String newStatus = determineNewBackendStatus(currentStatus, isRemembered);
-            
-            // 计算下次复习日期（基于艾宾浩斯记忆曲线）
-            LocalDate nextReviewDate = calculateNextReviewDate(newStatus);
-            
-            // 更新单词的复习状态和下次复习时间
-            int rowsAffected = userVocabularyMapper.updateReviewStatusAndStatus(wordId, nextReviewDate, newStatus);
-            
-            return rowsAffected > 0;
+            Map<String, Object> result = reviewScheduleService.submitReviews(userId,
+                    List.of(new ReviewBatchRequest.ReviewAnswer(wordId, null, isRemembered)));
+            return ((Number) result.get("applied")).intValue() > 0;
         } catch (Exception e) {
             logger.log(Level.SEVERE, "记录复习结果失败，用户ID: " + userId + "，单词ID: " + wordId, e);
             return false;
         }
     }
     
-    /**
-     * 获取用户单词状态
-     * @param wordId 单词ID
-     * @return 单词状态
-     */
-    private String getUserWordStatus(Long wordId) {
-        try {
-            // 查询数据库获取单词当前状态
-            UserVocabulary userVocabulary = userVocabularyMapper.selectById(wordId);
-            if (userVocabulary != null && userVocabulary.getReviewStatus() != null) {
-                return userVocabulary.getReviewStatus();
-            }
-        } catch (Exception e) {
-            logger.log(Level.WARNING, "获取单词状态失败，单词ID: " + wordId, e);
-        }
-        // 默认返回new状态
-        return "new";
-    }
-    
-    /**
-     * 根据当前状态和复习结果确定新的后端状态
-     * @param currentStatus 当前状态
-     * @param reviewResult 复习结果
-     * @return 新状态
-     */
-    private String determineNewBackendStatus(String currentStatus, boolean reviewResult) {
-        if (reviewResult) {
-            // 复习成功
-            if ("new".equals(currentStatus)) {
-                return "learning";
-            } else if ("learning".equals(currentStatus)) {
-                return "mastered";
-            } else {
-                // 已掌握的单词，复习成功后保持已掌握状态
-                return "mastered";
-            }
-        } else {
-            // 复习失败
-            if ("mastered".equals(currentStatus)) {
-                return "learning";
-            } else if ("learning".equals(currentStatus)) {
-                return "new";
-            } else {
-                // 新单词，复习失败后保持新单词状态
-                return "new";
-            }
-        }
-    }
-    
-    /**
-     * 根据复习结果计算下次复习日期（基于艾宾浩斯记忆曲线）
-     * @param newStatus 新状态
-     * @return 下次复习日期
-     */
-    private LocalDate calculateNextReviewDate(String newStatus) {
-        LocalDate today = LocalDate.now();
-        
-        // 根据艾宾浩斯记忆曲线和单词状态确定复习间隔
-        if ("new".equals(newStatus)) {
-            // 新单词：当天复习
-            return today;
-        } else if ("learning".equals(newStatus)) {
-            // 学习中：1天后复习
-            return today.plusDays(1);
-        } else if ("mastered".equals(newStatus)) {
-            // 已掌握：3天后复习（统一使用3天，与user-service保持一致）
-            return today.plusDays(3);
-        }
-        
-        // 默认情况：1天后复习
-        return today.plusDays(1);
-    }
-    
     /**
      * 设置单词为不再巩固
+     * @param userId 用户ID
      * @param wordId 单词ID
      * @return 是否操作成功
      */
-    public boolean setWordAsNoLongerReview(Long wordId) {
+    public boolean setWordAsNoLongerReview(Long userId, Long wordId) {
         try {
+            if (userId == null || userId <= 0) {
+                throw new IllegalArgumentException("用户ID必须为正数");
+            }
             if (wordId == null || wordId <= 0) {
                 throw new IllegalArgumentException("单词ID必须为正数");
             }
@@ -349,10 +284,10 @@ public class VocabularyGrowthService {
             LocalDate farFutureDate = LocalDate.now().plusYears(100);
             
             // 更新单词的复习状态
-            int rowsAffected = userVocabularyMapper.updateReviewStatus(wordId, farFutureDate, true);
+            int rowsAffected = userVocabularyMapper.updateReviewStatus(userId, wordId, farFutureDate, true);
             
             // 同时更新单词状态为已掌握
-            userVocabularyMapper.updateReviewStatusAndStatus(wordId, farFutureDate, "mastered");
+            userVocabularyMapper.updateReviewStatusAndStatus(userId, wordId, farFutureDate, "mastered");
             
             return rowsAffected > 0;
         } catch (Exception e) {
@@ -392,13 +327,7 @@ public class VocabularyGrowthService {
             LocalDate today = LocalDate.now();
             Integer dailyNewWords = 0;
             try {
-                List<Map<String, Object>> todayData = wordMapper.getDailyWordCount(userId, today, today);
-                if (todayData != null && !todayData.isEmpty()) {
-                    Object countObj = todayData.get(0).get("count");
-                    if (countObj instanceof Number) {
-                        dailyNewWords = ((Number) countObj).intValue();
-                    }
-                }
+                dailyNewWords = userDailyStatsMapper.sumWordsAddedSince(userId, today);
             } catch (Exception e) {
                 logger.log(Level.WARNING, "获取今日新增词汇失败", e);
                 dailyNewWords = 0;
@@ -407,7 +336,7 @@ public class VocabularyGrowthService {
             // 获取本周新增词汇
             Integer weeklyNewWords = 0;
             try {
-                weeklyNewWords = wordMapper.countWordsAfterDate(userId, LocalDate.now().minusDays(7));
+                weeklyNewWords = userDailyStatsMapper.sumWordsAddedSince(userId, LocalDate.now().minusDays(7));
             } catch (Exception e) {
                 logger.log(Level.WARNING, "获取本周新增词汇失败", e);
                 weeklyNewWords = 0;
@@ -416,7 +345,7 @@ public class VocabularyGrowthService {
             // 获取本月新增词汇
             Integer monthlyNewWords = 0;
             try {
-                monthlyNewWords = wordMapper.countWordsAfterDate(userId, LocalDate.now().minusDays(30));
+                monthlyNewWords = userDailyStatsMapper.sumWordsAddedSince(userId, LocalDate.now().minusDays(30));
             } catch (Exception e) {
                 logger.log(Level.WARNING, "获取本月新增词汇失败", e);
                 monthlyNewWords = 0;
@@ -441,7 +370,7 @@ public class VocabularyGrowthService {
             }
             
             stats.put("totalWords", totalWords != null ? totalWords : 0);
-            stats.put("dailyNewWords", dailyNewWords);
+            stats.put("dailyNewWords", dailyNewWords != null ? dailyNewWords : 0);
             stats.put("weeklyNewWords", weeklyNewWords != null ? weeklyNewWords : 0);
             stats.put("monthlyNewWords", monthlyNewWords != null ? monthlyNewWords : 0);
             stats.put("difficultyDistribution", difficultyDistribution);
@@ -0,0 +1,100 @@
+package com.xreadup.ai.report.service.srs;
+
+import com.xreadup.ai.report.entity.WordReviewState;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+
+/**
+ * SM-2 间隔重复调度
+ * <p>
+ * 按回答质量（0-5，3及以上为答对）更新单词的难度系数和复习间隔：
+ * 连续答对第1次间隔1天、第2次6天，之后为上次间隔乘以难度系数；答错时连续答对次数清零、遗忘次数加一，
+ * 当天稍后重新复习。复习状态由记忆状态推导：从未答对过为 new，间隔达到阈值为 mastered，其余（含遗忘后重学）为 learning。
+ * </p>
+ */
+@Component
+public class Sm2Scheduler {
+
+    public static final int QUALITY_MIN = 0;
+    public static final int QUALITY_MAX = 5;
+    // 旧接口只有“记住/没记住”，分别按 4（答对，略有迟疑）和 1（答错）处理
+    public static final int QUALITY_REMEMBERED = 4;
+    public static final int QUALITY_FORGOTTEN = 1;
+
+    private static final int PASS_QUALITY = 3;
+    // 与 user_word.ease_factor 列默认值一致
+    private static final BigDecimal INITIAL_EASE = new BigDecimal("2.50");
+    private static final BigDecimal MIN_EASE = new BigDecimal("1.30");
+
+    private final int maxIntervalDays;
+    private final int masteredIntervalDays;
+    private final long relearnMinutes;
+
+    public Sm2Scheduler(@Value("${report.srs.max-interval-days:365}") int maxIntervalDays,
+                        @Value("${report.srs.mastered-interval-days:21}") int masteredIntervalDays,
+                        @Value("${report.srs.relearn-minutes:10}") long relearnMinutes) {
+        this.maxIntervalDays = maxIntervalDays;
+        this.masteredIntervalDays = masteredIntervalDays;
+        this.relearnMinutes = relearnMinutes;
+    }
+
+    /**
+     * 按一次回答更新记忆状态（原地修改）
+     *
+     * @param state   当前记忆状态
+     * @param quality 回答质量 0-5
+     * @param now     复习时间
+     */
+    public void apply(WordReviewState state, int quality, LocalDateTime now) {
+        if (quality < QUALITY_MIN || quality > QUALITY_MAX) {
+            throw new IllegalArgumentException("回答质量必须在0-5之间");
+        }
+        BigDecimal ease = state.getEaseFactor() != null ? state.getEaseFactor() : INITIAL_EASE;
+        int repetitions = state.getRepetitions() != null ? state.getRepetitions() : 0;
+        int interval = state.getIntervalDays() != null ? state.getIntervalDays() : 0;
+        int lapses = state.getLapses() != null ? state.getLapses() : 0;
+
+        if (quality >= PASS_QUALITY) {
+            repetitions++;
+            if (repetitions == 1) {
+                interval = 1;
+            } else if (repetitions == 2) {
+                interval = 6;
+            } else {
+                interval = (int) Math.round(Math.max(interval, 1) * ease.doubleValue());
+            }
+            interval = Math.min(interval, maxIntervalDays);
+            state.setNextReviewAt(now.toLocalDate().plusDays(interval).atStartOfDay());
+        } else {
+            if (repetitions > 0) {
+                lapses++;
+            }
+            repetitions = 0;
+            interval = 0;
+            state.setNextReviewAt(now.plusMinutes(relearnMinutes));
+        }
+
+        // EF' = EF + (0.1 - (5 - q) * (0.08 + (5 - q) * 0.02))，下限 1.3
+        int miss = QUALITY_MAX - quality;
+        double delta = 0.1 - miss * (0.08 + miss * 0.02);
+        BigDecimal newEase = ease.add(BigDecimal.valueOf(delta)).setScale(2, RoundingMode.HALF_UP);
+        state.setEaseFactor(newEase.max(MIN_EASE));
+
+        state.setRepetitions(repetitions);
+        state.setIntervalDays(interval);
+        state.setLapses(lapses);
+        state.setLastReviewedAt(now);
+        state.setReviewStatus(statusOf(repetitions, interval, lapses));
+    }
+
+    private String statusOf(int repetitions, int interval, int lapses) {
+        if (repetitions == 0) {
+            return lapses > 0 ? "learning" : "new";
+        }
+        return interval >= masteredIntervalDays ? "mastered" : "learning";
+    }
+}
@@ -0,0 +1,146 @@
+package com.xreadup.ai.userservice.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.function.Supplier;
+
+/**
+ * 带运行指标的有界线程池
+ * <p>
+ * 在 ThreadPoolTaskExecutor 基础上记录排队等待与执行耗时、失败与拒绝次数，
+ * 未被调用方观察到的任务异常统一记录日志，不再静默丢失。
+ * CompletableFuture 会吞掉任务异常，需通过 {@link #supplyAsync}/{@link #runAsync} 提交才能计入失败次数。
+ * </p>
+ */
+@Slf4j
+public class MonitoredThreadPoolTaskExecutor extends ThreadPoolTaskExecutor {
+
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong callerRuns = new AtomicLong();
+    private final AtomicLong totalWaitMs = new AtomicLong();
+    private final AtomicLong totalRunMs = new AtomicLong();
+    private final LongAccumulator maxWaitMs = new LongAccumulator(Long::max, 0);
+    private final LongAccumulator maxQueueDepth = new LongAccumulator(Long::max, 0);
+    // 当前线程上的任务已失败但异常被 CompletableFuture 捕获，由 instrument 读取后计入失败
+    private final ThreadLocal<Boolean> futureFailed = new ThreadLocal<>();
+
+    private int queueCapacity = Integer.MAX_VALUE;
+
+    public MonitoredThreadPoolTaskExecutor() {
+        setTaskDecorator(this::instrument);
+    }
+
+    @Override
+    public void setQueueCapacity(int queueCapacity) {
+        super.setQueueCapacity(queueCapacity);
+        this.queueCapacity = queueCapacity;
+    }
+
+    @Override
+    protected ThreadPoolExecutor initializeExecutor(ThreadFactory threadFactory, RejectedExecutionHandler rejectedExecutionHandler) {
+        return super.initializeExecutor(threadFactory, countingHandler(rejectedExecutionHandler));
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        super.execute(task);
+        maxQueueDepth.accumulate(getQueueSize());
+    }
+
+    /**
+     * 在本线程池中异步执行，任务异常计入失败次数后由返回的 future 传递给调用方
+     */
+    public <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return supplier.get();
+            } catch (RuntimeException | Error e) {
+                futureFailed.set(Boolean.TRUE);
+                throw e;
+            }
+        }, this);
+    }
+
+    /**
+     * 在本线程池中异步执行，任务异常计入失败次数后由返回的 future 传递给调用方
+     */
+    public CompletableFuture<Void> runAsync(Runnable task) {
+        return supplyAsync(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * 当前运行指标
+     */
+    public Map<String, Object> getStats() {
+        long done = completed.get() + failed.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("poolSize", getPoolSize());
+        stats.put("maxPoolSize", getMaxPoolSize());
+        stats.put("active", getActiveCount());
+        stats.put("queueDepth", getQueueSize());
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("maxQueueDepth", maxQueueDepth.get());
+        stats.put("completed", completed.get());
+        stats.put("failed", failed.get());
+        stats.put("rejected", rejected.get());
+        stats.put("callerRuns", callerRuns.get());
+        stats.put("avgWaitMs", done > 0 ? totalWaitMs.get() / done : 0);
+        stats.put("maxWaitMs", maxWaitMs.get());
+        stats.put("avgRunMs", done > 0 ? totalRunMs.get() / done : 0);
+        return stats;
+    }
+
+    private Runnable instrument(Runnable task) {
+        long submittedAt = System.currentTimeMillis();
+        return () -> {
+            long startedAt = System.currentTimeMillis();
+            long waitMs = startedAt - submittedAt;
+            totalWaitMs.addAndGet(waitMs);
+            maxWaitMs.accumulate(waitMs);
+            try {
+                task.run();
+                if (Boolean.TRUE.equals(futureFailed.get())) {
+                    failed.incrementAndGet();
+                } else {
+                    completed.incrementAndGet();
+                }
+            } catch (RuntimeException | Error e) {
+                failed.incrementAndGet();
+                log.error("线程池 {} 任务执行失败", getThreadNamePrefix(), e);
+                throw e;
+            } finally {
+                futureFailed.remove();
+                totalRunMs.addAndGet(System.currentTimeMillis() - startedAt);
+            }
+        };
+    }
+
+    private RejectedExecutionHandler countingHandler(RejectedExecutionHandler delegate) {
+        return (task, executor) -> {
+            if (delegate instanceof ThreadPoolExecutor.CallerRunsPolicy && !executor.isShutdown()) {
+                callerRuns.incrementAndGet();
+            } else {
+                rejected.incrementAndGet();
+            }
+            BlockingQueue<Runnable> queue = executor.getQueue();
+            log.debug("线程池 {} 已满（排队 {}），执行拒绝策略: {}", getThreadNamePrefix(), queue.size(),
+                    delegate.getClass().getSimpleName());
+            delegate.rejectedExecution(task, executor);
+        };
+    }
+}
@@ -38,6 +38,8 @@ public class SubscriptionPlanProperties {
         freePlan.setPriceCny(new BigDecimal("0"));
         freePlan.setMaxArticlesPerMonth(30);
         freePlan.setMaxWordsPerArticle(1500);
+        freePlan.setMaxAiCallsPerMonth(20);
+        freePlan.setMaxTranslationsPerMonth(50);
         freePlan.setAiFeaturesEnabled(false);
         freePlan.setPrioritySupport(false);
         plansMap.put("free", freePlan);
@@ -49,6 +51,8 @@ public class SubscriptionPlanProperties {
         basicPlan.setPriceCny(new BigDecimal("7"));
         basicPlan.setMaxArticlesPerMonth(100);
         basicPlan.setMaxWordsPerArticle(3000);
+        basicPlan.setMaxAiCallsPerMonth(100);
+        basicPlan.setMaxTranslationsPerMonth(200);
         basicPlan.setAiFeaturesEnabled(false);
         basicPlan.setPrioritySupport(false);
         plansMap.put("basic", basicPlan);
@@ -60,6 +64,8 @@ public class SubscriptionPlanProperties {
         proPlan.setPriceCny(new BigDecimal("17"));
         proPlan.setMaxArticlesPerMonth(300);
         proPlan.setMaxWordsPerArticle(5000);
+        proPlan.setMaxAiCallsPerMonth(1000);
+        proPlan.setMaxTranslationsPerMonth(2000);
         proPlan.setAiFeaturesEnabled(true);
         proPlan.setPrioritySupport(false);
         plansMap.put("pro", proPlan);
@@ -71,6 +77,8 @@ public class SubscriptionPlanProperties {
         enterprisePlan.setPriceCny(new BigDecimal("37"));
         enterprisePlan.setMaxArticlesPerMonth(1000);
         enterprisePlan.setMaxWordsPerArticle(20000);
+        enterprisePlan.setMaxAiCallsPerMonth(-1);
+        enterprisePlan.setMaxTranslationsPerMonth(-1);
         enterprisePlan.setAiFeaturesEnabled(true);
         enterprisePlan.setPrioritySupport(true);
         plansMap.put("enterprise", enterprisePlan);
@@ -88,6 +96,10 @@ public class SubscriptionPlanProperties {
         private BigDecimal priceCny;
         private Integer maxArticlesPerMonth;
         private Integer maxWordsPerArticle;
+        // 每月AI分析/助手调用次数上限，-1 表示不限
+        private Integer maxAiCallsPerMonth;
+        // 每月翻译次数上限，-1 表示不限
+        private Integer maxTranslationsPerMonth;
         private Boolean aiFeaturesEnabled;
         private Boolean prioritySupport;
     }
@@ -0,0 +1,63 @@
+package com.xreadup.ai.userservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 词库异步任务配置
+ * 为AI查词与词库写入分别提供有界线程池，互不抢占，也不再占用 JVM 公共 ForkJoinPool
+ */
+@Configuration
+public class VocabularyLookupConfig {
+
+    @Value("${vocabulary.batch.ai-concurrency:6}")
+    private int aiConcurrency;
+
+    @Value("${vocabulary.batch.queue-capacity:200}")
+    private int queueCapacity;
+
+    @Value("${vocabulary.cache-write.concurrency:2}")
+    private int cacheWriteConcurrency;
+
+    @Value("${vocabulary.cache-write.queue-capacity:500}")
+    private int cacheWriteQueueCapacity;
+
+    /**
+     * AI查词线程池
+     * 并发度即同时发往ai-service的请求上限，队列满时由调用线程执行
+     */
+    @Bean(name = "vocabularyLookupExecutor")
+    public MonitoredThreadPoolTaskExecutor vocabularyLookupExecutor() {
+        MonitoredThreadPoolTaskExecutor executor = new MonitoredThreadPoolTaskExecutor();
+        executor.setCorePoolSize(aiConcurrency);
+        executor.setMaxPoolSize(aiConcurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("vocab-lookup-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 词库写入线程池（AI查词结果异步落库）
+     * 并发度限制同时占用的数据库连接；队列满时由查词线程同步写入，查词突发时形成背压而不是无限堆积
+     */
+    @Bean(name = "wordCacheWriteExecutor")
+    public MonitoredThreadPoolTaskExecutor wordCacheWriteExecutor() {
+        MonitoredThreadPoolTaskExecutor executor = new MonitoredThreadPoolTaskExecutor();
+        executor.setCorePoolSize(cacheWriteConcurrency);
+        executor.setMaxPoolSize(cacheWriteConcurrency);
+        executor.setQueueCapacity(cacheWriteQueueCapacity);
+        executor.setThreadNamePrefix("word-cache-write-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+}
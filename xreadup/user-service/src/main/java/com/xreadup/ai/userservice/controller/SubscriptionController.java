@@ -447,6 +447,7 @@ public class SubscriptionController {
             int updateResult = subscriptionMapper.updateById(subscription);
             
             if (updateResult > 0) {
+                subscriptionService.refreshCurrentSubscription(subscription.getUserId());
                 log.info("更新用户订阅状态成功，subscriptionId: {}, 新状态: {}", subscriptionId, status);
                 return ResponseEntity.ok(Map.of(
                     "success", true,
@@ -1,5 +1,6 @@
 package com.xreadup.ai.userservice.controller;
 
+import com.xreadup.ai.userservice.config.MonitoredThreadPoolTaskExecutor;
 import com.xreadup.ai.userservice.dto.AddWordRequest;
 import com.xreadup.ai.userservice.entity.Word;
 import com.xreadup.ai.userservice.service.VocabularyService;
@@ -7,9 +8,11 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -25,6 +28,14 @@ public class VocabularyController {
     @Autowired
     private VocabularyService vocabularyService;
 
+    @Autowired
+    @Qualifier("vocabularyLookupExecutor")
+    private MonitoredThreadPoolTaskExecutor vocabularyLookupExecutor;
+
+    @Autowired
+    @Qualifier("wordCacheWriteExecutor")
+    private MonitoredThreadPoolTaskExecutor wordCacheWriteExecutor;
+
     /**
      * 智能查询单词
      */
@@ -214,6 +225,18 @@ public class VocabularyController {
         public void setArticleId(Long articleId) { this.articleId = articleId; }
     }
 
+    /**
+     * 词库异步线程池运行指标（排队深度、等待与执行耗时、拒绝次数）
+     */
+    @GetMapping("/executors/stats")
+    @Operation(summary = "词库线程池指标", description = "AI查词与词库写入线程池的运行指标")
+    public ResponseEntity<?> getExecutorStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("vocabularyLookup", vocabularyLookupExecutor.getStats());
+        stats.put("wordCacheWrite", wordCacheWriteExecutor.getStats());
+        return ResponseEntity.ok(new ApiResponse(200, "获取线程池指标成功", stats));
+    }
+
     /**
      * 统一的API响应格式
      */
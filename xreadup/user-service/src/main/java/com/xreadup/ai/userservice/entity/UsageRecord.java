@@ -0,0 +1,19 @@
+package com.xreadup.ai.userservice.entity;
+
+import lombok.Data;
+
+/**
+ * 订阅额度用量记录
+ * 每个用户每个计量项每个自然月一行，由 Redis 计数同步
+ */
+@Data
+public class UsageRecord {
+
+    private Long userId;
+
+    private String meter;  // articles, ai, translation
+
+    private String period;  // yyyyMM
+
+    private Integer used;
+}
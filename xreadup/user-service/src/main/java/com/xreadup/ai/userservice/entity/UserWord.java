@@ -0,0 +1,31 @@
+package com.xreadup.ai.userservice.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 用户生词关联实体类
+ * 记录用户与共享单词的归属关系及该用户自己的复习进度
+ */
+@Data
+@TableName("user_word")
+public class UserWord {
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    private Long userId;
+
+    private Long wordId;
+
+    private String reviewStatus; // 复习状态：new/learning/mastered
+
+    private LocalDateTime lastReviewedAt;
+
+    private LocalDateTime nextReviewAt;
+
+    private LocalDateTime addedAt;
+}
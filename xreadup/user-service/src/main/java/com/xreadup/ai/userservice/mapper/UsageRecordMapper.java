@@ -0,0 +1,29 @@
+package com.xreadup.ai.userservice.mapper;
+
+import com.xreadup.ai.userservice.entity.UsageRecord;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.Collection;
+
+/**
+ * 订阅额度用量Mapper接口
+ */
+@Mapper
+public interface UsageRecordMapper {
+    /**
+     * 批量写入用量，以 Redis 计数为准覆盖
+     */
+    @Insert("<script>INSERT INTO usage_record (user_id, meter, period, used) VALUES " +
+            "<foreach collection='records' item='r' separator=','>(#{r.userId}, #{r.meter}, #{r.period}, #{r.used})</foreach> " +
+            "ON DUPLICATE KEY UPDATE used = VALUES(used)</script>")
+    int upsertBatch(@Param("records") Collection<UsageRecord> records);
+
+    /**
+     * 查询用量（Redis 不可用时的兜底）
+     */
+    @Select("SELECT used FROM usage_record WHERE user_id = #{userId} AND meter = #{meter} AND period = #{period}")
+    Integer getUsed(@Param("userId") Long userId, @Param("meter") String meter, @Param("period") String period);
+}
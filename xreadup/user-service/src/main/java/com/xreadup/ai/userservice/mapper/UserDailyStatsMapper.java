@@ -0,0 +1,28 @@
+package com.xreadup.ai.userservice.mapper;
+
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDate;
+
+/**
+ * 用户每日学习汇总Mapper接口
+ * 只负责词汇事件的增量累加，汇总查询与回填由 report-service 负责
+ */
+@Mapper
+public interface UserDailyStatsMapper {
+    /**
+     * 累加当日新增生词数
+     */
+    @Insert("INSERT INTO user_daily_stats (user_id, stat_date, words_added) VALUES (#{userId}, #{date}, #{count}) " +
+            "ON DUPLICATE KEY UPDATE words_added = words_added + #{count}")
+    int addWordsAdded(@Param("userId") Long userId, @Param("date") LocalDate date, @Param("count") int count);
+
+    /**
+     * 累加当日复习单词数
+     */
+    @Insert("INSERT INTO user_daily_stats (user_id, stat_date, words_reviewed) VALUES (#{userId}, #{date}, #{count}) " +
+            "ON DUPLICATE KEY UPDATE words_reviewed = words_reviewed + #{count}")
+    int addWordsReviewed(@Param("userId") Long userId, @Param("date") LocalDate date, @Param("count") int count);
+}
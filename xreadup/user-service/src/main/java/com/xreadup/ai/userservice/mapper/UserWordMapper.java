@@ -0,0 +1,60 @@
+package com.xreadup.ai.userservice.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.xreadup.ai.userservice.entity.UserWord;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 用户生词关联Mapper接口
+ */
+@Mapper
+public interface UserWordMapper extends BaseMapper<UserWord> {
+    /**
+     * 将单词加入用户词库（已存在时忽略，依赖 uk_user_word 唯一索引）
+     */
+    @Insert("INSERT IGNORE INTO user_word (user_id, word_id, review_status, next_review_at, added_at) " +
+            "VALUES (#{userId}, #{wordId}, 'new', NOW(), NOW())")
+    int insertIgnore(@Param("userId") Long userId, @Param("wordId") Long wordId);
+
+    /**
+     * 批量将单词加入用户词库
+     */
+    @Insert("<script>INSERT IGNORE INTO user_word (user_id, word_id, review_status, next_review_at, added_at) VALUES " +
+            "<foreach collection='wordIds' item='wordId' separator=','>(#{userId}, #{wordId}, 'new', NOW(), NOW())</foreach>" +
+            "</script>")
+    int insertIgnoreBatch(@Param("userId") Long userId, @Param("wordIds") List<Long> wordIds);
+
+    /**
+     * 判断单词是否在用户词库中
+     */
+    @Select("SELECT COUNT(*) FROM user_word WHERE user_id = #{userId} AND word_id = #{wordId}")
+    int countByUserAndWord(@Param("userId") Long userId, @Param("wordId") Long wordId);
+
+    /**
+     * 统计仍在使用该单词的用户数
+     */
+    @Select("SELECT COUNT(*) FROM user_word WHERE word_id = #{wordId}")
+    int countByWordId(@Param("wordId") Long wordId);
+
+    /**
+     * 从用户词库中移除单词
+     */
+    @Delete("DELETE FROM user_word WHERE user_id = #{userId} AND word_id = #{wordId}")
+    int deleteByUserAndWord(@Param("userId") Long userId, @Param("wordId") Long wordId);
+
+    /**
+     * 更新用户对该单词的复习状态
+     */
+    @Update("UPDATE user_word SET review_status = #{reviewStatus}, last_reviewed_at = NOW(), next_review_at = #{nextReviewAt} " +
+            "WHERE user_id = #{userId} AND word_id = #{wordId}")
+    int updateReview(@Param("userId") Long userId, @Param("wordId") Long wordId,
+                     @Param("reviewStatus") String reviewStatus, @Param("nextReviewAt") LocalDateTime nextReviewAt);
+}
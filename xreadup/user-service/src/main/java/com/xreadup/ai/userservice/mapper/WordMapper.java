@@ -4,11 +4,15 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.xreadup.ai.userservice.entity.Word;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.annotations.Update;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -17,17 +21,40 @@ import java.util.List;
 @Mapper
 public interface WordMapper extends BaseMapper<Word> {
     /**
-     * 根据用户ID查询单词列表
+     * 追加用户ID到 user_ids 的表达式（已包含时保持不变）
      */
-    @Select("SELECT * FROM word WHERE user_ids LIKE CONCAT('%', #{userId}, '%')")
+    String APPEND_USER_ID = "IF(user_ids IS NULL OR user_ids = '', CAST(#{userId} AS CHAR), " +
+            "IF(FIND_IN_SET(#{userId}, user_ids) > 0, user_ids, CONCAT(user_ids, ',', #{userId})))";
+
+    /**
+     * 用户视角的单词列：词条信息取自word，复习进度取自user_word
+     */
+    String USER_WORD_COLUMNS = "w.id, w.user_ids, w.word, w.meaning, w.example, w.context, w.source, w.source_article_id, " +
+            "w.phonetic, w.difficulty, uw.review_status, uw.last_reviewed_at, uw.next_review_at, uw.added_at";
+
+    /**
+     * 根据用户ID查询单词列表（走 user_word 的 user_id 索引）
+     */
+    @Select("SELECT " + USER_WORD_COLUMNS + " FROM user_word uw JOIN word w ON w.id = uw.word_id WHERE uw.user_id = #{userId}")
     List<Word> findByUserId(@Param("userId") Long userId);
     
     /**
      * 根据单词和用户ID查询单词
      */
-    @Select("SELECT * FROM word WHERE word = #{word} AND user_ids LIKE CONCAT('%', #{userId}, '%') LIMIT 1")
+    @Select("SELECT " + USER_WORD_COLUMNS + " FROM user_word uw JOIN word w ON w.id = uw.word_id " +
+            "WHERE uw.user_id = #{userId} AND w.word = #{word} LIMIT 1")
     Word findByWordAndUserId(@Param("word") String word, @Param("userId") Long userId);
     
+    /**
+     * 批量查询共享词库中的单词，并带出当前用户的复习进度
+     * 当前用户未拥有的单词 user_review_status 为空
+     */
+    @Select("<script>SELECT " + USER_WORD_COLUMNS + ", uw.review_status AS user_review_status " +
+            "FROM word w LEFT JOIN user_word uw ON uw.word_id = w.id AND uw.user_id = #{userId} " +
+            "WHERE w.word IN <foreach collection='words' item='item' open='(' separator=',' close=')'>#{item}</foreach>" +
+            "</script>")
+    List<Word> findByWordsForUser(@Param("userId") Long userId, @Param("words") Collection<String> words);
+
     /**
      * 检查单词是否存在（不考虑用户）
      */
@@ -35,8 +62,49 @@ public interface WordMapper extends BaseMapper<Word> {
     Word findByWord(@Param("word") String word);
     
     /**
-     * 更新单词的用户ID列表
+     * 写入共享词库（单条语句，依赖 uk_word 唯一索引）
+     * 单词不存在时插入；已存在时保留原词条内容，只把用户追加到 user_ids。
+     * 两种情况下 word.id 都回填为该单词所在行的ID（LAST_INSERT_ID(id)）。
+     * user_ids 仅在迁移期间双写以兼容旧版本读取，归属关系以 user_word 为准
+     */
+    @Insert("INSERT INTO word (user_ids, word, meaning, example, context, source, source_article_id, " +
+            "review_status, next_review_at, added_at, phonetic, difficulty) " +
+            "VALUES (#{userId}, #{word.word}, #{word.meaning}, #{word.example}, #{word.context}, #{word.source}, " +
+            "#{word.sourceArticleId}, 'new', NOW(), NOW(), #{word.phonetic}, #{word.difficulty}) " +
+            "ON DUPLICATE KEY UPDATE id = LAST_INSERT_ID(id), " +
+            "user_ids = " + APPEND_USER_ID)
+    @Options(useGeneratedKeys = true, keyProperty = "word.id", keyColumn = "id")
+    int upsertForUser(@Param("word") Word word, @Param("userId") Long userId);
+
+    /**
+     * 把用户追加到单词的用户ID列表（原子操作，已存在时不变）
+     * 返回匹配行数（驱动默认 useAffectedRows=false），为0表示单词已被删除
+     */
+    @Update("UPDATE word SET user_ids = " + APPEND_USER_ID + " WHERE id = #{id}")
+    int addUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    /**
+     * 把用户批量追加到多个单词的用户ID列表（一条语句，原子操作，已存在时不变）
+     * 返回匹配行数，小于ID数表示其中有单词已被删除
+     */
+    @Update("<script>" +
+            "UPDATE word SET user_ids = " + APPEND_USER_ID + " WHERE id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int addUserIdBatch(@Param("ids") Collection<Long> ids, @Param("userId") Long userId);
+
+    /**
+     * 从单词的用户ID列表中移除用户（原子操作）
+     */
+    @Update("UPDATE word SET user_ids = TRIM(BOTH ',' FROM REPLACE(CONCAT(',', COALESCE(user_ids, ''), ','), " +
+            "CONCAT(',', #{userId}, ','), ',')) WHERE id = #{id}")
+    int removeUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    /**
+     * 没有任何用户使用时删除单词
+     * upsertForUser 在同一条语句中追加 user_ids，因此 user_ids 非空即表示有用户正在加入，不会删掉刚被加入的单词
      */
-    @Update("UPDATE word SET user_ids = #{userIds} WHERE id = #{id}")
-    int updateUserIds(@Param("id") Long id, @Param("userIds") String userIds);
+    @Delete("DELETE FROM word WHERE id = #{id} AND (user_ids IS NULL OR user_ids = '') " +
+            "AND NOT EXISTS (SELECT 1 FROM user_word WHERE word_id = #{id})")
+    int deleteIfUnused(@Param("id") Long id);
 }
\ No newline at end of file
@@ -21,6 +21,11 @@ public interface SubscriptionService {
      */
     Subscription getCurrentSubscription(Long userId);
     
+    /**
+     * 刷新用户当前订阅缓存（直接修改订阅记录后调用）
+     */
+    void refreshCurrentSubscription(Long userId);
+    
     /**
      * 获取用户订阅历史
      */
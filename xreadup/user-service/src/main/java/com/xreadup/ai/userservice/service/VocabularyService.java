@@ -48,8 +48,10 @@ public interface VocabularyService {
     
     /**
      * 复习单词
-     * 更新单词的复习状态
+     * 直接设置单词的复习状态
+     * @deprecated 复习调度由 report-service 按 SM-2 记忆状态计算，请使用 /api/report/review/batch
      */
+    @Deprecated
     boolean reviewWord(Long wordId, Long userId, String reviewStatus);
     
     /**
@@ -1,28 +1,43 @@
 package com.xreadup.ai.userservice.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.xreadup.ai.userservice.config.SubscriptionPlanProperties;
 import com.xreadup.ai.userservice.entity.Subscription;
 import com.xreadup.ai.userservice.mapper.SubscriptionMapper;
 import com.xreadup.ai.userservice.service.SubscriptionService;
+import com.xreadup.ai.userservice.service.quota.UsageMeter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 
 /**
  * 订阅服务实现类
+ * 用户当前订阅缓存在 Redis（无订阅也缓存），订阅变更时刷新缓存并同步网关计量使用的用户计划
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class SubscriptionServiceImpl implements SubscriptionService {
 
+    private static final String CURRENT_CACHE_KEY_PREFIX = "subscription:current:";
+    private static final String NO_SUBSCRIPTION = "NONE";
+
     private final SubscriptionMapper subscriptionMapper;
     private final SubscriptionPlanProperties subscriptionPlanProperties;
+    private final UsageMeter usageMeter;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${subscription.cache-ttl-seconds:600}")
+    private long cacheTtlSeconds;
 
     @Override
     public Map<String, Map<String, Object>> getPlanPrices() {
@@ -39,6 +54,8 @@ public class SubscriptionServiceImpl implements SubscriptionService {
         freePlan.put("currency", defaultCurrency);
         freePlan.put("maxArticlesPerMonth", freeConfig.getMaxArticlesPerMonth());
         freePlan.put("maxWordsPerArticle", freeConfig.getMaxWordsPerArticle());
+        freePlan.put("maxAiCallsPerMonth", freeConfig.getMaxAiCallsPerMonth());
+        freePlan.put("maxTranslationsPerMonth", freeConfig.getMaxTranslationsPerMonth());
         freePlan.put("aiFeaturesEnabled", freeConfig.getAiFeaturesEnabled());
         freePlan.put("prioritySupport", freeConfig.getPrioritySupport());
         planPrices.put("FREE", freePlan);
@@ -52,6 +69,8 @@ public class SubscriptionServiceImpl implements SubscriptionService {
         basicPlan.put("currency", defaultCurrency);
         basicPlan.put("maxArticlesPerMonth", basicConfig.getMaxArticlesPerMonth());
         basicPlan.put("maxWordsPerArticle", basicConfig.getMaxWordsPerArticle());
+        basicPlan.put("maxAiCallsPerMonth", basicConfig.getMaxAiCallsPerMonth());
+        basicPlan.put("maxTranslationsPerMonth", basicConfig.getMaxTranslationsPerMonth());
         basicPlan.put("aiFeaturesEnabled", basicConfig.getAiFeaturesEnabled());
         basicPlan.put("prioritySupport", basicConfig.getPrioritySupport());
         planPrices.put("BASIC", basicPlan);
@@ -65,6 +84,8 @@ public class SubscriptionServiceImpl implements SubscriptionService {
         proPlan.put("currency", defaultCurrency);
         proPlan.put("maxArticlesPerMonth", proConfig.getMaxArticlesPerMonth());
         proPlan.put("maxWordsPerArticle", proConfig.getMaxWordsPerArticle());
+        proPlan.put("maxAiCallsPerMonth", proConfig.getMaxAiCallsPerMonth());
+        proPlan.put("maxTranslationsPerMonth", proConfig.getMaxTranslationsPerMonth());
         proPlan.put("aiFeaturesEnabled", proConfig.getAiFeaturesEnabled());
         proPlan.put("prioritySupport", proConfig.getPrioritySupport());
         planPrices.put("PRO", proPlan);
@@ -78,6 +99,8 @@ public class SubscriptionServiceImpl implements SubscriptionService {
         enterprisePlan.put("currency", defaultCurrency);
         enterprisePlan.put("maxArticlesPerMonth", enterpriseConfig.getMaxArticlesPerMonth());
         enterprisePlan.put("maxWordsPerArticle", enterpriseConfig.getMaxWordsPerArticle());
+        enterprisePlan.put("maxAiCallsPerMonth", enterpriseConfig.getMaxAiCallsPerMonth());
+        enterprisePlan.put("maxTranslationsPerMonth", enterpriseConfig.getMaxTranslationsPerMonth());
         enterprisePlan.put("aiFeaturesEnabled", enterpriseConfig.getAiFeaturesEnabled());
         enterprisePlan.put("prioritySupport", enterpriseConfig.getPrioritySupport());
         planPrices.put("ENTERPRISE", enterprisePlan);
@@ -89,7 +112,8 @@ public class SubscriptionServiceImpl implements SubscriptionService {
     public Subscription createSubscription(Long userId, String planType, String paymentMethod) {
         Subscription subscription = new Subscription();
         subscription.setUserId(userId);
-        subscription.setPlanType(planType);
+        // 统一存为大写，与额度配置、网关计量使用的计划名一致
+        subscription.setPlanType(planType.toUpperCase());
         subscription.setPaymentMethod(paymentMethod);
         subscription.setStartDate(LocalDateTime.now());
         
@@ -138,18 +162,54 @@ public class SubscriptionServiceImpl implements SubscriptionService {
         subscription.setUpdatedAt(LocalDateTime.now());
         
         subscriptionMapper.insert(subscription);
+        cacheCurrentSubscription(userId, subscription);
         return subscription;
     }
 
     @Override
     public Subscription getCurrentSubscription(Long userId) {
+        String cacheKey = CURRENT_CACHE_KEY_PREFIX + userId;
+        try {
+            String cached = redisTemplate.opsForValue().get(cacheKey);
+            if (cached != null) {
+                return NO_SUBSCRIPTION.equals(cached) ? null : objectMapper.readValue(cached, Subscription.class);
+            }
+        } catch (Exception e) {
+            log.warn("读取订阅缓存失败: userId={}, error={}", userId, e.getMessage());
+        }
+        
         LambdaQueryWrapper<Subscription> wrapper = new LambdaQueryWrapper<>();
         wrapper.eq(Subscription::getUserId, userId)
                .eq(Subscription::getStatus, "ACTIVE")
                .orderByDesc(Subscription::getCreatedAt)
                .last("LIMIT 1");
         
-        return subscriptionMapper.selectOne(wrapper);
+        Subscription subscription = subscriptionMapper.selectOne(wrapper);
+        cacheCurrentSubscription(userId, subscription);
+        return subscription;
+    }
+    
+    /**
+     * 缓存用户当前订阅，并同步网关计量使用的用户计划
+     */
+    private void cacheCurrentSubscription(Long userId, Subscription subscription) {
+        usageMeter.setUserPlan(userId, subscription != null ? subscription.getPlanType() : UsageMeter.FREE_PLAN);
+        try {
+            String value = subscription != null ? objectMapper.writeValueAsString(subscription) : NO_SUBSCRIPTION;
+            redisTemplate.opsForValue().set(CURRENT_CACHE_KEY_PREFIX + userId, value, Duration.ofSeconds(cacheTtlSeconds));
+        } catch (Exception e) {
+            log.warn("写入订阅缓存失败: userId={}, error={}", userId, e.getMessage());
+        }
+    }
+    
+    @Override
+    public void refreshCurrentSubscription(Long userId) {
+        try {
+            redisTemplate.delete(CURRENT_CACHE_KEY_PREFIX + userId);
+        } catch (Exception e) {
+            log.warn("删除订阅缓存失败: userId={}, error={}", userId, e.getMessage());
+        }
+        getCurrentSubscription(userId);
     }
 
     @Override
@@ -169,6 +229,7 @@ public class SubscriptionServiceImpl implements SubscriptionService {
             subscription.setAutoRenew(false);
             subscription.setUpdatedAt(LocalDateTime.now());
             subscriptionMapper.updateById(subscription);
+            refreshCurrentSubscription(subscription.getUserId());
         }
     }
 
@@ -180,15 +241,21 @@ public class SubscriptionServiceImpl implements SubscriptionService {
                subscription.getEndDate().isAfter(LocalDateTime.now());
     }
 
+    /**
+     * 检查本月已用文章数加上 articlesCount 后是否仍在额度内，以及单篇字数是否在限制内
+     * 无订阅按免费套餐
+     */
     @Override
     public boolean checkUsageLimit(Long userId, int articlesCount, int wordsCount) {
         Subscription subscription = getCurrentSubscription(userId);
-        if (subscription == null) {
-            return false; // 免费用户限制
-        }
-        
-        return articlesCount <= subscription.getMaxArticlesPerMonth() && 
-               wordsCount <= subscription.getMaxWordsPerArticle();
+        SubscriptionPlanProperties.PlanConfig freeConfig = subscriptionPlanProperties.getPlans().get("free");
+        int maxArticles = subscription != null && subscription.getMaxArticlesPerMonth() != null
+                ? subscription.getMaxArticlesPerMonth() : freeConfig.getMaxArticlesPerMonth();
+        int maxWords = subscription != null && subscription.getMaxWordsPerArticle() != null
+                ? subscription.getMaxWordsPerArticle() : freeConfig.getMaxWordsPerArticle();
+        
+        int usedArticles = usageMeter.getUsage(userId, UsageMeter.METER_ARTICLES);
+        return usedArticles + articlesCount <= maxArticles && wordsCount <= maxWords;
     }
 
     @Override
@@ -197,10 +264,11 @@ public class SubscriptionServiceImpl implements SubscriptionService {
         Map<String, Object> quota = new HashMap<>();
         
         if (subscription == null) {
+            SubscriptionPlanProperties.PlanConfig freeConfig = subscriptionPlanProperties.getPlans().get("free");
             quota.put("hasSubscription", false);
-            quota.put("maxArticles", 3); // 免费用户限制
-            quota.put("maxWords", 500);
-            quota.put("planType", "FREE");
+            quota.put("maxArticles", freeConfig.getMaxArticlesPerMonth());
+            quota.put("maxWords", freeConfig.getMaxWordsPerArticle());
+            quota.put("planType", UsageMeter.FREE_PLAN);
         } else {
             quota.put("hasSubscription", true);
             quota.put("maxArticles", subscription.getMaxArticlesPerMonth());
@@ -209,6 +277,18 @@ public class SubscriptionServiceImpl implements SubscriptionService {
             quota.put("endDate", subscription.getEndDate());
         }
         
+        // 本月各计量项用量（remaining 为 -1 表示不限）
+        Map<String, Object> usage = new LinkedHashMap<>();
+        usageMeter.getPlanLimits((String) quota.get("planType")).forEach((meter, limit) -> {
+            int used = usageMeter.getUsage(userId, meter);
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("limit", limit);
+            item.put("used", used);
+            item.put("remaining", limit == UsageMeter.UNLIMITED ? UsageMeter.UNLIMITED : Math.max(0, limit - used));
+            usage.put(meter, item);
+        });
+        quota.put("usage", usage);
+        
         return quota;
     }
 
@@ -243,7 +323,7 @@ public class SubscriptionServiceImpl implements SubscriptionService {
         // 创建新的升级订阅
         Subscription upgradeSubscription = new Subscription();
         upgradeSubscription.setUserId(userId);
-        upgradeSubscription.setPlanType(newPlanType);
+        upgradeSubscription.setPlanType(newPlanType.toUpperCase());
         upgradeSubscription.setPaymentMethod(paymentMethod);
         upgradeSubscription.setStartDate(LocalDateTime.now());
         upgradeSubscription.setPrice(upgradePrice);
@@ -294,6 +374,7 @@ public class SubscriptionServiceImpl implements SubscriptionService {
         
         // 插入新的升级订阅
         subscriptionMapper.insert(upgradeSubscription);
+        cacheCurrentSubscription(userId, upgradeSubscription);
         
         return upgradeSubscription;
     }
@@ -402,6 +483,7 @@ public class SubscriptionServiceImpl implements SubscriptionService {
             trialSubscription.setPrioritySupport(false);
             
             subscriptionMapper.insert(trialSubscription);
+            cacheCurrentSubscription(userId, trialSubscription);
             
             result.put("success", true);
             result.put("message", "试用已开始，享受7天专业版功能！");
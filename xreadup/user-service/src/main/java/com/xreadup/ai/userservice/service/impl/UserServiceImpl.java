@@ -4,11 +4,13 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.xreadup.ai.userservice.dto.*;
 import com.xreadup.ai.userservice.entity.ReadingStreak;
+import com.xreadup.ai.userservice.entity.Subscription;
 import com.xreadup.ai.userservice.entity.User;
 import com.xreadup.ai.userservice.entity.Word;
 import com.xreadup.ai.userservice.mapper.ReadingStreakMapper;
 import com.xreadup.ai.userservice.mapper.UserMapper;
 import com.xreadup.ai.userservice.mapper.WordMapper;
+import com.xreadup.ai.userservice.service.SubscriptionService;
 import com.xreadup.ai.userservice.service.UserService;
 import com.xreadup.ai.userservice.service.VocabularyService;
 import com.xreadup.ai.userservice.util.JwtUtil;
@@ -45,6 +47,9 @@ public class UserServiceImpl implements UserService {
     
     @Autowired
     private JwtUtil jwtUtil;
+    
+    @Autowired
+    private SubscriptionService subscriptionService;
 
     @Override
     public User register(UserRegisterRequest request) {
@@ -78,7 +83,12 @@ public class UserServiceImpl implements UserService {
         }
         
         LoginResponse response = new LoginResponse();
-        response.setToken(jwtUtil.generateToken(user.getId().toString()));
+        // 订阅计划写入token，网关据此分级限流；计划变更在下次登录后生效
+        Subscription subscription = subscriptionService.getCurrentSubscription(user.getId());
+        // 历史数据中可能存在小写计划名，统一大写后写入，与网关限流配置的键一致
+        String plan = subscription != null && subscription.getPlanType() != null && !subscription.getPlanType().isBlank()
+                ? subscription.getPlanType().trim().toUpperCase() : "FREE";
+        response.setToken(jwtUtil.generateToken(user.getId().toString(), plan));
         
         LoginResponse.UserInfo userInfo = new LoginResponse.UserInfo();
         BeanUtils.copyProperties(user, userInfo);
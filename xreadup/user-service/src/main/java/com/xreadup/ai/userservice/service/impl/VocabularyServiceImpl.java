@@ -4,15 +4,20 @@ import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.xreadup.ai.model.dto.WordInfo;
 import com.xreadup.ai.userservice.common.ApiResponse;
 import com.xreadup.ai.userservice.client.AiServiceClient;
+import com.xreadup.ai.userservice.config.MonitoredThreadPoolTaskExecutor;
 import com.xreadup.ai.userservice.entity.Word;
+import com.xreadup.ai.userservice.mapper.UserDailyStatsMapper;
+import com.xreadup.ai.userservice.mapper.UserWordMapper;
 import com.xreadup.ai.userservice.mapper.WordMapper;
 import com.xreadup.ai.userservice.service.VocabularyService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
@@ -31,7 +36,13 @@ import java.util.stream.Collectors;
 public class VocabularyServiceImpl implements VocabularyService {
 
     private final WordMapper wordMapper;
+    private final UserWordMapper userWordMapper;
+    private final UserDailyStatsMapper userDailyStatsMapper;
     private final AiServiceClient aiServiceClient;
+    @Qualifier("vocabularyLookupExecutor")
+    private final MonitoredThreadPoolTaskExecutor vocabularyLookupExecutor;
+    @Qualifier("wordCacheWriteExecutor")
+    private final MonitoredThreadPoolTaskExecutor wordCacheWriteExecutor;
 
     /**
      * 二级词库查询策略
@@ -56,9 +67,14 @@ public class VocabularyServiceImpl implements VocabularyService {
         if (sharedWord != null) {
             log.info("从其他用户词库找到单词: {} (上下文: {})", word, sharedWord.getContext());
             
-            // 将当前用户ID添加到该单词的用户列表中
+            // 先原子追加到旧的用户列表（防止并发删除），再加入当前用户词库；
+            // 查询之后单词已被并发删除时按原词条内容重新写入
+            if (wordMapper.addUserId(sharedWord.getId(), userId) == 0) {
+                log.info("共享单词已被删除，重新写入词库: {}", word);
+                upsertSharedWord(sharedWord, userId);
+            }
+            addToUserVocabulary(userId, sharedWord.getId());
             sharedWord.addUserId(userId);
-            wordMapper.updateUserIds(sharedWord.getId(), sharedWord.getUserIds());
             
             // 设置当前用户的复习状态为新单词
             sharedWord.setReviewStatus("new");
@@ -70,6 +86,13 @@ public class VocabularyServiceImpl implements VocabularyService {
         }
 
         // 3. AI生成兜底
+        return generateWordWithAi(word, context, userId, articleId);
+    }
+
+    /**
+     * AI生成单词释义，并异步缓存到本地词库
+     */
+    private Word generateWordWithAi(String word, String context, Long userId, Long articleId) {
         log.info("所有词库未找到，开始AI生成释义: {}", word);
         
         // 只调用一次AI服务，获取完整的单词信息
@@ -135,29 +158,95 @@ public class VocabularyServiceImpl implements VocabularyService {
 
     /**
      * 批量查询单词
+     * 1. 一次 IN 查询同时取回共享词库命中与当前用户的归属关系
+     * 2. 共享词库命中但不在用户词库的，批量加入用户词库
+     * 3. 未命中的单词在有界线程池中并发调用AI生成
      */
     @Override
     public List<Word> lookupWords(List<String> words, String context, Long userId, Long articleId) {
-        List<Word> results = new ArrayList<>();
-        
+        // 统一小写并去重，保持原有顺序
+        Set<String> distinctWords = new LinkedHashSet<>();
         for (String word : words) {
-            try {
-                Word wordInfo = lookupWord(word, context, userId, articleId);
-                results.add(wordInfo);
-            } catch (Exception e) {
-                log.error("查询单词失败: {}", word, e);
-                // 创建基础单词信息
-                Word fallbackWord = new Word();
-                fallbackWord.setWord(word.toLowerCase());
-                fallbackWord.setMeaning("查询失败");
-                fallbackWord.addUserId(userId); // 使用addUserId方法添加用户ID
-                results.add(fallbackWord);
+            if (word != null && !word.trim().isEmpty()) {
+                distinctWords.add(word.trim().toLowerCase());
             }
         }
-        
+        if (distinctWords.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // 1. 单次查询共享词库，同一单词有多条时优先取当前用户已拥有的
+        Map<String, Word> resolved = new HashMap<>();
+        for (Word candidate : wordMapper.findByWordsForUser(userId, distinctWords)) {
+            Word current = resolved.get(candidate.getWord());
+            if (current == null || (current.getUserReviewStatus() == null && candidate.getUserReviewStatus() != null)) {
+                resolved.put(candidate.getWord(), candidate);
+            }
+        }
+
+        // 2. 共享词库命中的单词批量加入当前用户词库
+        List<Word> sharedWords = resolved.values().stream()
+                .filter(w -> w.getUserReviewStatus() == null)
+                .collect(Collectors.toList());
+        if (!sharedWords.isEmpty()) {
+            // 先用一条语句原子追加到旧的用户列表（防止并发删除），再批量加入用户词库
+            List<Long> sharedWordIds = sharedWords.stream().map(Word::getId).collect(Collectors.toList());
+            if (wordMapper.addUserIdBatch(sharedWordIds, userId) < sharedWordIds.size()) {
+                // 查询之后有单词被并发删除：逐个 upsert，已存在的只追加用户，已删除的按原词条内容重新写入
+                log.info("批量查询时部分共享单词已被删除，逐个重新写入词库");
+                for (Word sharedWord : sharedWords) {
+                    upsertSharedWord(sharedWord, userId);
+                }
+                sharedWordIds = sharedWords.stream().map(Word::getId).collect(Collectors.toList());
+            }
+            int added = userWordMapper.insertIgnoreBatch(userId, sharedWordIds);
+            recordWordsAdded(userId, added);
+            LocalDateTime now = LocalDateTime.now();
+            for (Word sharedWord : sharedWords) {
+                sharedWord.addUserId(userId);
+                sharedWord.setReviewStatus("new");
+                sharedWord.setLastReviewedAt(null);
+                sharedWord.setNextReviewAt(now);
+                sharedWord.setAddedAt(now);
+            }
+        }
+        log.info("批量查询单词: 共 {} 个，词库命中 {} 个（新加入用户词库 {} 个）", distinctWords.size(), resolved.size(), sharedWords.size());
+
+        // 3. 未命中的单词并发调用AI
+        Map<String, CompletableFuture<Word>> aiFutures = new LinkedHashMap<>();
+        for (String word : distinctWords) {
+            if (!resolved.containsKey(word)) {
+                aiFutures.put(word, vocabularyLookupExecutor
+                        .supplyAsync(() -> generateWordWithAi(word, context, userId, articleId))
+                        .exceptionally(e -> {
+                            log.error("查询单词失败: {}", word, e);
+                            return lookupFailedWord(word, userId);
+                        }));
+            }
+        }
+        if (!aiFutures.isEmpty()) {
+            CompletableFuture.allOf(aiFutures.values().toArray(new CompletableFuture[0])).join();
+            aiFutures.forEach((word, future) -> resolved.put(word, future.join()));
+        }
+
+        List<Word> results = new ArrayList<>(distinctWords.size());
+        for (String word : distinctWords) {
+            results.add(resolved.get(word));
+        }
         return results;
     }
 
+    /**
+     * 查询失败时返回的基础单词信息
+     */
+    private Word lookupFailedWord(String word, Long userId) {
+        Word fallbackWord = new Word();
+        fallbackWord.setWord(word);
+        fallbackWord.setMeaning("查询失败");
+        fallbackWord.addUserId(userId); // 使用addUserId方法添加用户ID
+        return fallbackWord;
+    }
+
     /**
      * 异步缓存单词到本地词库
      */
@@ -169,53 +258,68 @@ public class VocabularyServiceImpl implements VocabularyService {
     
     /**
      * 异步缓存单词到本地词库（包含音标和难度等级）
+     * 在 wordCacheWriteExecutor 中执行，队列满时由调用线程同步写入
      */
     public CompletableFuture<Void> cacheWordAsync(String word, String meaning, String example, 
                                                 String context, Long addUserId, Long articleId, String source, 
                                                 String phonetic, String difficulty) {
-        return CompletableFuture.runAsync(() -> {
-            try {
-                // 限制上下文长度，防止数据库字段超长
-                String limitedContext = limitContextLength(context);
-                
-                // 检查该单词是否已存在于系统中
-                Word existingWord = wordMapper.findByWord(word.toLowerCase());
-                
-                if (existingWord != null) {
-                    // 如果单词已存在，检查当前用户是否已添加该单词
-                    if (!existingWord.containsUserId(addUserId)) {
-                        // 如果当前用户未添加，将用户ID添加到现有单词
-                        existingWord.addUserId(addUserId);
-                        wordMapper.updateUserIds(existingWord.getId(), existingWord.getUserIds());
-                        log.info("单词已存在，已将当前用户添加到单词共享列表: {} (上下文: {})", word, limitedContext);
-                    }
-                    return;
-                }
-
-                // 如果单词不存在，创建新单词并添加当前用户ID
-                Word wordEntity = new Word();
-                wordEntity.setWord(word.toLowerCase());
-                wordEntity.setMeaning(meaning);
-                wordEntity.setExample(example);
-                wordEntity.setContext(limitedContext);
-                wordEntity.setSource(source);
-                wordEntity.setSourceArticleId(articleId);
-                wordEntity.addUserId(addUserId); // 使用addUserId方法添加用户ID
-                wordEntity.setReviewStatus("new");
-                wordEntity.setNextReviewAt(LocalDateTime.now()); // 设置为当前时间，确保单词会显示在复习列表中
-                wordEntity.setAddedAt(LocalDateTime.now());
-                wordEntity.setPhonetic(phonetic);
-                wordEntity.setDifficulty(difficulty);
-                
-                wordMapper.insert(wordEntity);
-                log.info("成功创建并缓存单词到词库: {} (上下文: {})", word, limitedContext);
-                
-            } catch (Exception e) {
-                log.error("缓存单词失败: {}", word, e);
+        return wordCacheWriteExecutor.runAsync(() -> {
+            // 限制上下文长度，防止数据库字段超长
+            String limitedContext = limitContextLength(context);
+            
+            // 单条 upsert：单词不存在时创建，已存在时只追加当前用户，并发查询同一单词不会产生重复行
+            Word wordEntity = new Word();
+            wordEntity.setWord(word.toLowerCase());
+            wordEntity.setMeaning(meaning);
+            wordEntity.setExample(example);
+            wordEntity.setContext(limitedContext);
+            wordEntity.setSource(source);
+            wordEntity.setSourceArticleId(articleId);
+            wordEntity.setPhonetic(phonetic);
+            wordEntity.setDifficulty(difficulty);
+            
+            Long wordId = upsertSharedWord(wordEntity, addUserId);
+            if (addToUserVocabulary(addUserId, wordId)) {
+                log.info("成功缓存单词到词库并加入用户词库: {} (上下文: {})", word, limitedContext);
             }
+        }).exceptionally(e -> {
+            log.error("缓存单词失败: {}", word, e);
+            return null;
         });
     }
     
+    /**
+     * 将单词加入用户词库，新加入时累加当日新增生词数
+     * @return 是否为新加入
+     */
+    private boolean addToUserVocabulary(Long userId, Long wordId) {
+        int added = userWordMapper.insertIgnore(userId, wordId);
+        recordWordsAdded(userId, added);
+        return added > 0;
+    }
+
+    /**
+     * 累加每日学习汇总，失败时只记录日志（由 report-service 的每日校正补齐）
+     */
+    private void recordWordsAdded(Long userId, int count) {
+        if (count <= 0) {
+            return;
+        }
+        try {
+            userDailyStatsMapper.addWordsAdded(userId, LocalDate.now(), count);
+        } catch (Exception e) {
+            log.warn("累加每日新增生词数失败，用户: {}, 原因: {}", userId, e.getMessage());
+        }
+    }
+
+    private void recordWordsReviewed(Long userId) {
+        try {
+            userDailyStatsMapper.addWordsReviewed(userId, LocalDate.now(), 1);
+        } catch (Exception e) {
+            log.warn("累加每日复习数失败，用户: {}, 原因: {}", userId, e.getMessage());
+        }
+    }
+
     /**
      * 限制上下文长度，防止数据库字段超长
      */
@@ -286,15 +390,11 @@ public class VocabularyServiceImpl implements VocabularyService {
             String key = word.getWord() + ":" + word.getContext();
             
             if (processedWords.containsKey(key)) {
-                // 找到重复的单词，从用户列表中移除
-                if (word.removeUserId(userId)) {
-                    if (word.getUserIdSet().isEmpty()) {
-                        // 如果没有其他用户使用，删除整个单词
-                        wordMapper.deleteById(word.getId());
-                    } else {
-                        // 否则更新用户列表
-                        wordMapper.updateUserIds(word.getId(), word.getUserIds());
-                    }
+                // 找到重复的单词，从用户词库中移除
+                if (userWordMapper.deleteByUserAndWord(userId, word.getId()) > 0) {
+                    // 从用户列表中移除，没有其他用户使用时删除整个单词
+                    wordMapper.removeUserId(word.getId(), userId);
+                    wordMapper.deleteIfUnused(word.getId());
                     cleaned++;
                 }
             } else {
@@ -393,35 +493,26 @@ public class VocabularyServiceImpl implements VocabularyService {
     public boolean reviewWord(Long wordId, Long userId, String reviewStatus) {
         log.info("开始复习单词: {}, 用户: {}, 新状态: {}", wordId, userId, reviewStatus);
         
-        // 检查单词是否存在且用户是否在共享列表中
-        Word word = wordMapper.selectById(wordId);
-        if (word == null || !word.containsUserId(userId)) {
-            log.warn("单词不存在或用户没有访问权限: {}, 用户: {}", wordId, userId);
-            return false;
-        }
-        
-        // 更新复习状态和时间
-        Word updateWord = new Word();
-        updateWord.setId(wordId);
-        updateWord.setReviewStatus(reviewStatus);
-        updateWord.setLastReviewedAt(LocalDateTime.now());
+        // 复习进度按用户记录在 user_word 中，更新行数为0即单词不在该用户词库
+        LocalDateTime nextReviewAt = null;
         
         // 根据复习状态设置下次复习时间（统一艾宾浩斯记忆曲线）
         if ("mastered".equals(reviewStatus)) {
             // 掌握的单词，下次复习时间设置为3天后
-            updateWord.setNextReviewAt(LocalDateTime.now().plusDays(3));
+            nextReviewAt = LocalDateTime.now().plusDays(3);
         } else if ("learning".equals(reviewStatus)) {
             // 学习中的单词，下次复习时间设置为明天
-            updateWord.setNextReviewAt(LocalDateTime.now().plusDays(1));
+            nextReviewAt = LocalDateTime.now().plusDays(1);
         } else if ("new".equals(reviewStatus)) {
             // 新单词，下次复习时间设置为今天
-            updateWord.setNextReviewAt(LocalDateTime.now());
+            nextReviewAt = LocalDateTime.now();
         }
         
-        int result = wordMapper.updateById(updateWord);
+        int result = userWordMapper.updateReview(userId, wordId, reviewStatus, nextReviewAt);
         boolean success = result > 0;
         
         if (success) {
+            recordWordsReviewed(userId);
             log.info("复习单词成功: {}, 用户: {}, 新状态: {}", wordId, userId, reviewStatus);
         } else {
             log.error("复习单词失败: {}, 用户: {}, 新状态: {}", wordId, userId, reviewStatus);
@@ -446,70 +537,48 @@ public class VocabularyServiceImpl implements VocabularyService {
             return false;
         }
         
-        // 检查当前用户是否使用该单词
-        if (!word.containsUserId(userId)) {
+        // 从用户词库中移除，删除行数为0说明单词不属于当前用户
+        if (userWordMapper.deleteByUserAndWord(userId, wordId) == 0) {
             log.warn("单词不属于当前用户: {}, 用户: {}", wordId, userId);
             return false;
         }
         
-        // 从用户列表中移除当前用户
-        boolean removed = word.removeUserId(userId);
-        
-        if (removed) {
-            // 如果还有其他用户使用该单词，只更新用户列表
-            if (!word.getUserIdSet().isEmpty()) {
-                int updateResult = wordMapper.updateUserIds(word.getId(), word.getUserIds());
-                if (updateResult > 0) {
-                    log.info("成功从单词用户列表中移除用户: {}, 单词: {}", userId, wordId);
-                    return true;
-                } else {
-                    log.error("更新单词用户列表失败: {}, 用户: {}", wordId, userId);
-                    return false;
-                }
-            } else {
-                // 如果没有其他用户使用该单词，删除整个单词记录
-                int deleteResult = wordMapper.deleteById(wordId);
-                if (deleteResult > 0) {
-                    log.info("成功删除单词(无其他用户使用): {}, 用户: {}", wordId, userId);
-                    return true;
-                } else {
-                    log.error("删除单词失败: {}, 用户: {}", wordId, userId);
-                    return false;
-                }
-            }
+        // 同步旧的用户列表；没有其他用户使用该单词时删除整个单词记录（条件删除，与并发加入的用户互斥）
+        wordMapper.removeUserId(wordId, userId);
+        if (wordMapper.deleteIfUnused(wordId) > 0) {
+            log.info("成功删除单词(无其他用户使用): {}, 用户: {}", wordId, userId);
+        } else {
+            log.info("成功从单词用户列表中移除用户: {}, 单词: {}", userId, wordId);
         }
-        
-        log.error("从单词用户列表中移除用户失败: {}, 用户: {}", wordId, userId);
-        return false;
+        return true;
     }
 
 
     private Word createOrUpdateWord(Long userId, String word, String meaning, String example, String context, String source, Long sourceArticleId) {
-        // 检查单词是否已存在
-        Word existingWord = wordMapper.findByWord(word);
-        if (existingWord != null) {
-            // 单词已存在，将当前用户添加到共享列表
-            existingWord.addUserId(userId);
-            wordMapper.updateUserIds(existingWord.getId(), existingWord.getUserIds());
-            return existingWord;
-        } else {
-            // 单词不存在，创建新单词
-            Word newWord = new Word();
-            Set<Long> userIds = new HashSet<>();
-            userIds.add(userId);
-            newWord.setUserIdSet(userIds);
-            newWord.setWord(word);
-            newWord.setMeaning(meaning);
-            newWord.setExample(example);
-            newWord.setContext(context);
-            newWord.setSource(source);
-            newWord.setSourceArticleId(sourceArticleId);
-            newWord.setReviewStatus("new");
-            newWord.setLastReviewedAt(null);
-            newWord.setNextReviewAt(LocalDateTime.now()); // 设置为当前时间，确保新单词会显示在复习列表中
-            newWord.setAddedAt(LocalDateTime.now());
-            wordMapper.insert(newWord);
-            return newWord;
+        // 单条 upsert：单词已存在时保留原词条，只把当前用户加入共享列表
+        Word newWord = new Word();
+        newWord.setWord(word);
+        newWord.setMeaning(meaning);
+        newWord.setExample(example);
+        newWord.setContext(context);
+        newWord.setSource(source);
+        newWord.setSourceArticleId(sourceArticleId);
+        Long wordId = upsertSharedWord(newWord, userId);
+        addToUserVocabulary(userId, wordId);
+        return wordMapper.selectById(wordId);
+    }
+
+    /**
+     * 写入共享词库并返回单词所在行的ID（同时回填到 word.id）
+     * 依赖 uk_word 唯一索引，并发写入同一单词只会保留一行
+     */
+    private Long upsertSharedWord(Word word, Long userId) {
+        wordMapper.upsertForUser(word, userId);
+        if (word.getId() != null) {
+            return word.getId();
         }
+        // 驱动未返回主键时按单词回查（此时该行必然已存在）
+        word.setId(wordMapper.findByWord(word.getWord()).getId());
+        return word.getId();
     }
 }
\ No newline at end of file
@@ -0,0 +1,214 @@
+package com.xreadup.ai.userservice.service.quota;
+
+import com.xreadup.ai.userservice.config.SubscriptionPlanProperties;
+import com.xreadup.ai.userservice.entity.UsageRecord;
+import com.xreadup.ai.userservice.mapper.UsageRecordMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 订阅额度计量
+ * <p>
+ * 用量由网关在 Redis 中按用户、计量项、自然月原子累加并按额度拦截（见 gateway 的 QuotaMeteringFilter），
+ * 本类负责网关判断所需的数据：启动时及定时把各套餐额度写入 Redis，订阅变更时写入用户当前计划。
+ * 有变化的计数由网关记入待同步集合，本类定时取出并批量写入 usage_record 用于计费；
+ * 多实例部署时各实例从集合中取出不同的成员，互不重复。
+ * </p>
+ */
+@Slf4j
+@Component
+public class UsageMeter {
+
+    public static final String METER_ARTICLES = "articles";
+    public static final String METER_AI = "ai";
+    public static final String METER_TRANSLATION = "translation";
+    public static final String FREE_PLAN = "FREE";
+    public static final int UNLIMITED = -1;
+
+    // 以下 Redis key 与网关保持一致
+    private static final String USAGE_KEY_PREFIX = "quota:usage:";
+    private static final String USER_PLAN_KEY_PREFIX = "quota:plan:";
+    private static final String PLAN_LIMITS_KEY = "quota:limits";
+    private static final String DIRTY_KEY = "quota:dirty";
+
+    private static final DateTimeFormatter PERIOD_FORMAT = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final StringRedisTemplate redisTemplate;
+    private final UsageRecordMapper usageRecordMapper;
+    private final SubscriptionPlanProperties subscriptionPlanProperties;
+    private final Duration userPlanTtl;
+    private final int syncBatchSize;
+
+    public UsageMeter(StringRedisTemplate redisTemplate,
+                      UsageRecordMapper usageRecordMapper,
+                      SubscriptionPlanProperties subscriptionPlanProperties,
+                      @Value("${quota.user-plan-ttl-hours:24}") long userPlanTtlHours,
+                      @Value("${quota.sync-batch-size:500}") int syncBatchSize) {
+        this.redisTemplate = redisTemplate;
+        this.usageRecordMapper = usageRecordMapper;
+        this.subscriptionPlanProperties = subscriptionPlanProperties;
+        this.userPlanTtl = Duration.ofHours(userPlanTtlHours);
+        this.syncBatchSize = syncBatchSize;
+    }
+
+    /**
+     * 套餐各计量项的每月额度，-1 表示不限
+     * 无订阅按免费套餐，试用按专业版
+     */
+    public Map<String, Integer> getPlanLimits(String planType) {
+        String key = planType == null ? "free" : planType.toLowerCase();
+        if ("trial".equals(key)) {
+            key = "pro";
+        }
+        SubscriptionPlanProperties.PlanConfig config = subscriptionPlanProperties.getPlans().get(key);
+        if (config == null) {
+            config = subscriptionPlanProperties.getPlans().get("free");
+        }
+        Map<String, Integer> limits = new LinkedHashMap<>();
+        limits.put(METER_ARTICLES, limitOf(config.getMaxArticlesPerMonth()));
+        limits.put(METER_AI, limitOf(config.getMaxAiCallsPerMonth()));
+        limits.put(METER_TRANSLATION, limitOf(config.getMaxTranslationsPerMonth()));
+        return limits;
+    }
+
+    /**
+     * 把各套餐额度写入 Redis，字段形如 "PRO:articles"
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void publishPlanLimits() {
+        Map<String, String> fields = new HashMap<>();
+        List<String> planTypes = new ArrayList<>();
+        for (String plan : subscriptionPlanProperties.getPlans().keySet()) {
+            planTypes.add(plan.toUpperCase());
+        }
+        planTypes.add("TRIAL");
+        for (String planType : planTypes) {
+            getPlanLimits(planType).forEach((meter, limit) -> fields.put(planType + ":" + meter, String.valueOf(limit)));
+        }
+        try {
+            redisTemplate.opsForHash().putAll(PLAN_LIMITS_KEY, fields);
+        } catch (Exception e) {
+            log.warn("写入套餐额度失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 写入用户当前计划，网关据此判断额度，订阅变更后立即生效
+     * 计划名统一为大写，与额度字段（如 "PRO:articles"）一致，否则网关查不到额度会按不限处理
+     */
+    public void setUserPlan(Long userId, String planType) {
+        String plan = planType != null && !planType.isBlank() ? planType.trim().toUpperCase() : FREE_PLAN;
+        try {
+            redisTemplate.opsForValue().set(USER_PLAN_KEY_PREFIX + userId, plan, userPlanTtl);
+        } catch (Exception e) {
+            log.warn("写入用户当前计划失败: userId={}, error={}", userId, e.getMessage());
+        }
+    }
+
+    /**
+     * 读取用户当前计划，未写入或读取失败时返回null
+     */
+    public String getUserPlan(Long userId) {
+        try {
+            return redisTemplate.opsForValue().get(USER_PLAN_KEY_PREFIX + userId);
+        } catch (Exception e) {
+            log.warn("读取用户当前计划失败: userId={}, error={}", userId, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 本月用量，Redis 不可用时读取最近一次同步到数据库的值
+     */
+    public int getUsage(Long userId, String meter) {
+        String period = LocalDate.now().format(PERIOD_FORMAT);
+        String member = meter + ":" + userId + ":" + period;
+        try {
+            String value = redisTemplate.opsForValue().get(USAGE_KEY_PREFIX + member);
+            return value != null ? Integer.parseInt(value) : 0;
+        } catch (Exception e) {
+            log.warn("读取用量失败，使用数据库记录: {}, error={}", member, e.getMessage());
+            Integer used = usageRecordMapper.getUsed(userId, meter, period);
+            return used != null ? used : 0;
+        }
+    }
+
+    /**
+     * 定时同步有变化的用量到数据库，同时重新写入套餐额度（Redis 数据丢失后自动恢复）
+     */
+    @Scheduled(initialDelayString = "${quota.sync-interval-ms:60000}", fixedDelayString = "${quota.sync-interval-ms:60000}")
+    public void syncToDatabase() {
+        publishPlanLimits();
+        int synced = 0;
+        try {
+            while (true) {
+                List<String> members = redisTemplate.opsForSet().pop(DIRTY_KEY, syncBatchSize);
+                if (members == null || members.isEmpty()) {
+                    break;
+                }
+                synced += flush(members);
+                if (members.size() < syncBatchSize) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.warn("同步用量失败: {}", e.getMessage());
+        }
+        if (synced > 0) {
+            log.debug("已同步用量记录: {} 条", synced);
+        }
+    }
+
+    private int flush(List<String> members) {
+        List<String> keys = new ArrayList<>(members.size());
+        for (String member : members) {
+            keys.add(USAGE_KEY_PREFIX + member);
+        }
+        List<String> values = redisTemplate.opsForValue().multiGet(keys);
+
+        List<UsageRecord> records = new ArrayList<>();
+        for (int i = 0; i < members.size(); i++) {
+            String value = values != null ? values.get(i) : null;
+            // 成员格式 "计量项:用户ID:周期"，计数已过期的不再同步
+            String[] parts = members.get(i).split(":");
+            if (value == null || parts.length != 3) {
+                continue;
+            }
+            UsageRecord record = new UsageRecord();
+            record.setMeter(parts[0]);
+            record.setUserId(Long.valueOf(parts[1]));
+            record.setPeriod(parts[2]);
+            record.setUsed(Integer.parseInt(value));
+            records.add(record);
+        }
+        if (records.isEmpty()) {
+            return 0;
+        }
+        try {
+            usageRecordMapper.upsertBatch(records);
+            return records.size();
+        } catch (Exception e) {
+            // 放回待同步集合，下一轮重试
+            redisTemplate.opsForSet().add(DIRTY_KEY, members.toArray(new String[0]));
+            throw e;
+        }
+    }
+
+    private static int limitOf(Integer value) {
+        return value != null ? value : UNLIMITED;
+    }
+}
@@ -0,0 +1,125 @@
+package com.xreadup.ai.userservice;
+
+import com.xreadup.ai.userservice.entity.Word;
+import com.xreadup.ai.userservice.mapper.WordMapper;
+import com.xreadup.ai.userservice.service.VocabularyService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 共享词库并发写入测试
+ * 大量用户同时查询同一个新单词时，应只产生一行单词，且每个用户的归属都不丢失
+ */
+@SpringBootTest
+class VocabularyConcurrencyTest {
+
+    private static final int USERS = 64;
+    // 测试用户ID取远离真实数据的区间
+    private static final long BASE_USER_ID = 9_000_000_000L;
+
+    @Autowired
+    private VocabularyService vocabularyService;
+
+    @Autowired
+    private WordMapper wordMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final String word = "stresstest" + System.nanoTime();
+
+    @AfterEach
+    void cleanup() {
+        jdbcTemplate.update("DELETE uw FROM user_word uw JOIN word w ON w.id = uw.word_id WHERE w.word = ?", word);
+        jdbcTemplate.update("DELETE FROM word WHERE word = ?", word);
+        jdbcTemplate.update("DELETE FROM user_daily_stats WHERE user_id BETWEEN ? AND ?", BASE_USER_ID, BASE_USER_ID + USERS);
+    }
+
+    @Test
+    void testConcurrentCacheWordHasNoLostUpdates() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<CompletableFuture<Void>>> submitted = new ArrayList<>();
+        try {
+            for (int i = 0; i < USERS; i++) {
+                long userId = BASE_USER_ID + i;
+                submitted.add(pool.submit(() -> {
+                    start.await();
+                    return vocabularyService.cacheWordAsync(word, "测试释义", "test example", "测试", userId, null, "ai");
+                }));
+            }
+            start.countDown();
+            for (Future<CompletableFuture<Void>> future : submitted) {
+                future.get(30, TimeUnit.SECONDS).get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Integer rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM word WHERE word = ?", Integer.class, word);
+        assertEquals(1, rows, "同一单词只应有一行");
+
+        Word saved = wordMapper.findByWord(word);
+        assertNotNull(saved);
+        Integer owners = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_word WHERE word_id = ?", Integer.class, saved.getId());
+        assertEquals(USERS, owners, "每个用户都应加入用户词库");
+        assertEquals(USERS, saved.getUserIdSet().size(), "双写的 user_ids 不应丢失更新");
+    }
+
+    @Test
+    void testConcurrentAddAndRemoveKeepsUserIdsConsistent() throws Exception {
+        // 先由一半用户写入，再让另一半加入的同时前一半删除
+        for (int i = 0; i < USERS / 2; i++) {
+            vocabularyService.cacheWordAsync(word, "测试释义", "test example", "测试", BASE_USER_ID + i, null, "ai").get(30, TimeUnit.SECONDS);
+        }
+        Long wordId = wordMapper.findByWord(word).getId();
+
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> submitted = new ArrayList<>();
+        try {
+            for (int i = 0; i < USERS; i++) {
+                long userId = BASE_USER_ID + i;
+                boolean remove = i < USERS / 2;
+                submitted.add(pool.submit(() -> {
+                    start.await();
+                    if (remove) {
+                        vocabularyService.deleteWord(wordId, userId);
+                    } else {
+                        vocabularyService.cacheWordAsync(word, "测试释义", "test example", "测试", userId, null, "ai").get(30, TimeUnit.SECONDS);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : submitted) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Word saved = wordMapper.findByWord(word);
+        assertNotNull(saved, "仍有用户使用的单词不应被删除");
+        Integer owners = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_word WHERE word_id = ?", Integer.class, saved.getId());
+        assertEquals(USERS / 2, owners);
+        assertEquals(USERS / 2, saved.getUserIdSet().size());
+        for (int i = USERS / 2; i < USERS; i++) {
+            assertTrue(saved.getUserIdSet().contains(BASE_USER_ID + i));
+        }
+    }
+}
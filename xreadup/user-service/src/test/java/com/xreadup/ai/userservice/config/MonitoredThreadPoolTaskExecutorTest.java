@@ -0,0 +1,40 @@
+package com.xreadup.ai.userservice.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MonitoredThreadPoolTaskExecutorTest {
+
+    @Test
+    void testFailedFutureTaskIsCounted() throws Exception {
+        MonitoredThreadPoolTaskExecutor executor = new MonitoredThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(10);
+        executor.setThreadNamePrefix("monitored-test-");
+        executor.initialize();
+
+        CompletableFuture<String> failing = executor.supplyAsync(() -> {
+            throw new IllegalStateException("boom");
+        });
+        CompletableFuture<String> succeeding = executor.supplyAsync(() -> "ok");
+
+        CompletionException e = assertThrows(CompletionException.class, failing::join);
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        assertEquals("ok", succeeding.join());
+
+        // 计数在任务返回后更新，关闭线程池等待全部任务结束再读取
+        executor.getThreadPoolExecutor().shutdown();
+        assertTrue(executor.getThreadPoolExecutor().awaitTermination(5, TimeUnit.SECONDS));
+
+        Map<String, Object> stats = executor.getStats();
+        assertEquals(1L, stats.get("failed"));
+        assertEquals(1L, stats.get("completed"));
+    }
+}